@@ -0,0 +1,90 @@
+package pairingheap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The AdaptivePriorityQueue vs. the engines it picks from, fixed, on workloads that each suit a different engine:
+ *   MONOTONE  the hold model with keys that only go up (deleteMin, insert the minimum plus an increment).
+ *   RANDOM    the same with a quarter of the new keys below the minimum.
+ *   BURST     4 inserts of random keys, 3 of them cancelled (delete) right away, then a deleteMin, like a timeout
+ *             queue.
+ * The adaptive queue settles on its engine during the warmup (two windows of 65,536 operations and the migration).
+ * The RadixHeap on its own, which only works for MONOTONE, is in RadixHeapBenchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AdaptiveQueueBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    @Param({"MONOTONE", "RANDOM", "BURST"})
+    String workload;
+
+    @Param({"adaptive", "TWO_PASS", "AUXILIARY"})
+    String engine;
+
+    //The random numbers, cycled through.
+    private static final int RANDOMS = 1 << 16;
+    int[] randoms;
+    int cursor;
+
+    MinPriorityQueue<Long, Integer> queue;
+    @SuppressWarnings("unchecked")
+    Node<Long, Integer>[] burst = (Node<Long, Integer>[]) new Node[4];
+
+    @Setup
+    public void setUp(){
+        if(engine.equals("adaptive")){
+            queue = new AdaptivePriorityQueue<>();
+        }
+        else{
+            queue = new PairingHeap<>(PairingStrategy.valueOf(engine));
+        }
+        Random rand = new Random(42);
+        for(int i = 0; i < size; i++){
+            queue.insert((long) rand.nextInt(size), i);
+        }
+        randoms = new int[RANDOMS];
+        for(int i = 0; i < RANDOMS; i++){
+            randoms[i] = rand.nextInt(size);
+        }
+    }
+
+    private int nextRandom(){
+        cursor = (cursor + 1) & (RANDOMS - 1);
+        return randoms[cursor];
+    }
+
+    @Benchmark
+    public Node<Long, Integer> operation(){
+        if(workload.equals("BURST")){
+            for(int i = 0; i < 4; i++){
+                burst[i] = queue.insert((long) nextRandom(), i);
+            }
+            for(int i = 1; i < 4; i++){
+                queue.delete(burst[i]);
+            }
+            return queue.deleteMin();
+        }
+        Node<Long, Integer> min = queue.deleteMin();
+        long key = min.getValue() + nextRandom() - (workload.equals("MONOTONE") ? 0 : size / 4);
+        return queue.insert(key, min.getPayload());
+    }
+}
@@ -0,0 +1,77 @@
+package pairingheap;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Startup time: building a heap out of existing records and taking the first minimum out. The first deleteMin is
+ * included on purpose, the insert loop leaves a very wide root and that first deleteMin is where it pays for it.
+ *
+ * insertLoop is the loop of Tests.runStressTest (a new Node per key, inserted one at a time), against
+ * PairingHeap.of(int[] keys, payloads) and insertAll on a list of Nodes, which build the heap by pairing in rounds.
+ * How wide the root gets in the insert loop depends on the keys: with ASCENDING keys every node ends up under the
+ * root, with RANDOM keys every new minimum takes over as the root, so the root stays narrower and the
+ * difference is smaller.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class BulkBuildBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "DESCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    int[] keys;
+    String[] payloads;
+
+    @Setup
+    public void setUp(){
+        keys = distribution.generate(size, Integer.MAX_VALUE / 2, 42);
+        payloads = new String[size];
+        for(int i = 0; i < size; i++){
+            payloads[i] = "notUsedHere";
+        }
+    }
+
+    @Benchmark
+    public Node<Integer, String> insertLoop(){
+        PairingHeap<Integer, String> heap = new PairingHeap<>();
+        for(int i = 0; i < size; i++){
+            heap.insert(new Node<>(keys[i], payloads[i]));
+        }
+        return heap.deleteMin();
+    }
+
+    @Benchmark
+    public Node<Integer, String> of(){
+        return PairingHeap.of(keys, payloads).deleteMin();
+    }
+
+    @Benchmark
+    public Node<Integer, String> insertAll(){
+        ArrayList<Node<Integer, String>> nodes = new ArrayList<>(size);
+        for(int i = 0; i < size; i++){
+            nodes.add(new Node<>(keys[i], payloads[i]));
+        }
+        PairingHeap<Integer, String> heap = new PairingHeap<>();
+        heap.insertAll(nodes);
+        return heap.deleteMin();
+    }
+}
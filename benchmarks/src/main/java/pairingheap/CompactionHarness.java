@@ -0,0 +1,110 @@
+package pairingheap;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * deleteMin latency on a big PairingHeap that has been churned for a long time, before and after PairingHeap.compact.
+ * Not a JMH benchmark: the heap has to be churned into shape first (minutes for 10M entries), and every operation
+ * JMH would run on it changes the layout that is being measured.
+ *
+ * Steps:
+ *   1: Fill two heaps with the same random keys, taking turns, so each has its nodes spread out among the other's.
+ *   2: Churn both with the same hold model (deleteMin, then insert the key plus a random increment), the given
+ *      number of times the size. They hold the same tree afterwards, laid out the way a long lived heap gets laid out.
+ *   3: Compact one of them, timed.
+ *   4: Take the given number of deleteMins out of each in turns, in batches of 1,000 (a first round to warm up, then
+ *      the measured ones), timing each batch. The keys are the same so the deleteMins do the same work, only where
+ *      the nodes are is different.
+ *
+ * Run it with a heap big enough for both, e.g.:
+ *   java -Xmx4g -cp benchmarks/target/benchmarks.jar pairingheap.CompactionHarness 10000000 3 1000000
+ */
+public class CompactionHarness {
+    private static final int BATCH = 1000;
+
+    public static void main(String[] args){
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int churn = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int measured = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+        if((long) measured * 2 > entries){
+            System.out.println("Sorry, the heaps need at least twice as many entries as there are deleteMins measured!");
+            return;
+        }
+
+        Random rand = new Random(42);
+        PairingHeap<Long, Long> churned = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        PairingHeap<Long, Long> compacted = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        long startTime = System.nanoTime();
+        for(int i = 0; i < entries; i++){
+            long key = rand.nextInt(entries * 10);
+            churned.insert(key, null);
+            compacted.insert(key, null);
+        }
+        System.out.println("Filled two heaps of " + entries + " entries in " + (System.nanoTime() - startTime)/1000000
+                + " (Milliseconds)");
+
+        startTime = System.nanoTime();
+        for(long i = 0; i < (long) entries * churn; i++){
+            long increment = rand.nextInt(entries * 10);
+            churned.insert(churned.deleteMin().getValue() + increment, null);
+            compacted.insert(compacted.deleteMin().getValue() + increment, null);
+        }
+        System.out.println("Churned both with " + (long) entries * churn + " hold operations in "
+                + (System.nanoTime() - startTime)/1000000 + " (Milliseconds), fragmentation "
+                + churned.getFragmentation());
+
+        startTime = System.nanoTime();
+        compacted.compact();
+        long time = System.nanoTime() - startTime;
+        System.out.println("compact(): " + time/1000000 + " (Milliseconds), " + time/entries
+                + " (Nanoseconds) per node, fragmentation now " + compacted.getFragmentation());
+
+        long[][] batches = new long[2][];
+        for(int round = 0; round < 2; round++){
+            for(int which = 0; which < 2; which++){
+                batches[which] = drain(which == 0 ? churned : compacted, measured);
+            }
+        }
+        report("churned", batches[0]);
+        report("compacted", batches[1]);
+    }
+
+    /**
+     * Takes deleteMins out of a heap in batches, timing each batch.
+     * @param heap The heap.
+     * @param deleteMins How many deleteMins, a multiple of the batch size.
+     * @return The time of each batch (Nanoseconds).
+     */
+    private static long[] drain(PairingHeap<Long, Long> heap, int deleteMins){
+        long[] batches = new long[deleteMins / BATCH];
+        long checksum = 0;
+        for(int b = 0; b < batches.length; b++){
+            long startTime = System.nanoTime();
+            for(int i = 0; i < BATCH; i++){
+                checksum += heap.deleteMin().getValue();
+            }
+            batches[b] = System.nanoTime() - startTime;
+        }
+        if(checksum == 42){
+            System.out.println("(So the JIT can't drop the deleteMins.)");
+        }
+        return batches;
+    }
+
+    /**
+     * Prints the average deleteMin and the median, 99th percentile and worst batch, per deleteMin.
+     */
+    private static void report(String name, long[] batches){
+        long total = 0;
+        for(long batch: batches){
+            total += batch;
+        }
+        long[] sorted = batches.clone();
+        Arrays.sort(sorted);
+        System.out.println(String.format("%-10s deleteMin: average %5d, batches of %d median %5d, 99th %5d, worst %5d"
+                + " (Nanoseconds per deleteMin)", name, total / ((long) batches.length * BATCH), BATCH,
+                sorted[sorted.length / 2] / BATCH, sorted[sorted.length * 99 / 100] / BATCH,
+                sorted[sorted.length - 1] / BATCH));
+    }
+}
@@ -0,0 +1,98 @@
+package pairingheap;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Thread scaling of a shared priority queue: every thread runs the hold model (a deleteMin followed by an insert of
+ * the removed key plus a random increment) on the same queue. Compares the flat combining ConcurrentPairingHeap, a
+ * PairingHeap behind one lock, java.util.concurrent.PriorityBlockingQueue and the relaxed MultiQueue (2 shards per
+ * processor, so its deleteMin is only close to the minimum).
+ *
+ * The thread count is not a @Param in JMH, so main runs the benchmark once per thread count from 1 to 64:
+ *   java -cp benchmarks/target/benchmarks.jar pairingheap.ConcurrentHeapBenchmark
+ * A single count can also be run with the usual runner and -t.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ConcurrentHeapBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    ConcurrentPairingHeap<Long, Integer> combining;
+    PairingHeap<Long, Integer> locked;
+    PriorityBlockingQueue<Long> blocking;
+    MultiQueue<Long, Integer> multiQueue;
+
+    @Setup
+    public void setUp(){
+        int[] keys = KeyDistribution.RANDOM.generate(size, size, 42);
+        combining = new ConcurrentPairingHeap<>();
+        locked = new PairingHeap<>();
+        blocking = new PriorityBlockingQueue<>(size);
+        multiQueue = new MultiQueue<>(2);
+        for(int i = 0; i < size; i++){
+            combining.insert((long) keys[i], i);
+            locked.insert((long) keys[i], i);
+            blocking.add((long) keys[i]);
+            multiQueue.insert((long) keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public Node<Long, Integer> flatCombining(){
+        Node<Long, Integer> min = combining.deleteMin();
+        return combining.insert(min.getValue() + ThreadLocalRandom.current().nextInt(size), min.getPayload());
+    }
+
+    @Benchmark
+    public Node<Long, Integer> globalLock(){
+        synchronized(locked){
+            Node<Long, Integer> min = locked.deleteMin();
+            return locked.insert(min.getValue() + ThreadLocalRandom.current().nextInt(size), min.getPayload());
+        }
+    }
+
+    @Benchmark
+    public boolean priorityBlockingQueue(){
+        Long min = blocking.poll();
+        return blocking.add(min + ThreadLocalRandom.current().nextInt(size));
+    }
+
+    @Benchmark
+    public Node<Long, Integer> multiQueue(){
+        Node<Long, Integer> min = multiQueue.deleteMin();
+        return multiQueue.insert(min.getValue() + ThreadLocalRandom.current().nextInt(size), min.getPayload());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for(int threads = 1; threads <= 64; threads *= 2){
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentHeapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package pairingheap;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of decreasing the key of a random entry by one in a heap of the given size.
+ *
+ * PairingHeap uses decreaseKey on the handle. The Java Priority Queue has no decrease-key, so it has to
+ * remove(Object) the old key (a linear scan) and add the new one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DecreaseKeyBenchmark {
+    @Param({"1000", "100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "DESCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    //Which entry each decrease goes to, cycled through.
+    private static final int PICKS = 1 << 16;
+    int[] picks;
+    int cursor;
+
+    Node<Integer, Integer>[] handles;
+    Node<Integer, Integer> removed;
+    Integer[] queueKeys;
+    PairingHeap<Integer, Integer> heap;
+    PriorityQueue<Integer> queue;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp(){
+        //The keys start in the upper half of the int range, so they can be decreased for a long time.
+        int[] keys = distribution.generate(size, Integer.MAX_VALUE / 2, 42);
+        heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        queue = new PriorityQueue<>(size);
+        handles = new Node[size];
+        queueKeys = new Integer[size];
+        for(int i = 0; i < size; i++){
+            int key = Integer.MAX_VALUE / 2 + keys[i];
+            handles[i] = heap.insert(key, i);
+            queueKeys[i] = key;
+            queue.add(key);
+        }
+        //A deleteMin so the PairingHeap starts out consolidated rather than as one very wide root.
+        removed = heap.deleteMin();
+        queue.poll();
+
+        Random rand = new Random(7);
+        picks = new int[PICKS];
+        for(int i = 0; i < PICKS; i++){
+            picks[i] = rand.nextInt(size);
+        }
+    }
+
+    private int nextPick(){
+        cursor = (cursor + 1) & (PICKS - 1);
+        return picks[cursor];
+    }
+
+    @Benchmark
+    public void pairingHeap(){
+        Node<Integer, Integer> node = handles[nextPick()];
+        //The entry removed by the deleteMin in setUp is not in the heap any more, skip it.
+        if(node != removed){
+            heap.decreaseKey(node, node.getValue() - 1);
+        }
+    }
+
+    @Benchmark
+    public void priorityQueue(){
+        int pick = nextPick();
+        Integer oldKey = queueKeys[pick];
+        if(queue.remove(oldKey)){
+            Integer newKey = oldKey - 1;
+            queueKeys[pick] = newKey;
+            queue.add(newKey);
+        }
+    }
+}
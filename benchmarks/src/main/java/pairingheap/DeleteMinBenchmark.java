@@ -0,0 +1,73 @@
+package pairingheap;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Time to empty a heap of the given size with deleteMin, PairingHeap (each strategy) vs. the Java Priority Queue.
+ * The heaps are filled before every invocation, outside of the measurement. The first deleteMin on a freshly built
+ * PairingHeap is the expensive one (the root has every other node as a child), which is included on purpose.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DeleteMinBenchmark {
+    @Param({"1000", "100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "DESCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    @Param({"TWO_PASS", "MULTIPASS", "AUXILIARY"})
+    PairingStrategy strategy;
+
+    Integer[] keys;
+    PairingHeap<Integer, Integer> heap;
+    PriorityQueue<Integer> queue;
+
+    @Setup
+    public void setUp(){
+        keys = distribution.generateBoxed(size, Integer.MAX_VALUE / 2, 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill(){
+        heap = new PairingHeap<>(strategy);
+        queue = new PriorityQueue<>(size);
+        for(Integer key: keys){
+            heap.insert(key, key);
+            queue.add(key);
+        }
+    }
+
+    @Benchmark
+    public void pairingHeap(Blackhole blackhole){
+        while(heap.getSize() > 0){
+            blackhole.consume(heap.deleteMin());
+        }
+    }
+
+    @Benchmark
+    public void priorityQueue(Blackhole blackhole){
+        while(!queue.isEmpty()){
+            blackhole.consume(queue.poll());
+        }
+    }
+}
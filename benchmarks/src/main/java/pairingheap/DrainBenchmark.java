@@ -0,0 +1,136 @@
+package pairingheap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The hold model in batches: take a batch of the smallest entries out, then put as many back in (each key plus a
+ * random increment), so the heap stays the same size. The batch is taken out with one deleteMin per entry ("pop"),
+ * with a single drainMin ("drain") or with a single drainWhile limited to the batch ("while", the threshold lets
+ * everything through), on the IntPairingHeap or the PairingHeap (TWO_PASS).
+ * Each invocation moves 65,536 entries, and the score is per entry (the insert included).
+ * A batch of 65,536 is most of the heap of 100,000 (best first) and a small part of the heap of 1,000,000 (one
+ * deleteMin at a time inside drainMin). drainWhile can't tell how many are under its threshold, so it always goes one
+ * at a time up to an eighth of the heap (12,500 or 125,000), then best first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DrainBenchmark {
+    private static final int ENTRIES = 65536;
+
+    @Param({"100000", "1000000"})
+    int size;
+
+    @Param({"1", "16", "256", "4096", "65536"})
+    int batch;
+
+    @Param({"pop", "drain", "while"})
+    String api;
+
+    @Param({"int", "generic"})
+    String engine;
+
+    //The random increments, cycled through.
+    private static final int RANDOMS = 1 << 16;
+    int[] randoms;
+    int cursor;
+
+    IntPairingHeap intHeap;
+    PairingHeap<Integer, Integer> heap;
+    int[] out;
+    int filled;
+    Consumer<Node<Integer, Integer>> collect = node -> out[filled++] = node.getValue();
+    IntConsumer intCollect = payload -> out[filled++] = payload;
+
+    @Setup
+    public void setUp(){
+        Random rand = new Random(42);
+        intHeap = new IntPairingHeap(size);
+        heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        for(int i = 0; i < size; i++){
+            int key = rand.nextInt(size);
+            if(engine.equals("int")){
+                intHeap.insert(key, key);
+            }
+            else{
+                heap.insert(key, key);
+            }
+        }
+        randoms = new int[RANDOMS];
+        for(int i = 0; i < RANDOMS; i++){
+            randoms[i] = rand.nextInt(size);
+        }
+        out = new int[batch];
+    }
+
+    private int nextRandom(){
+        cursor = (cursor + 1) & (RANDOMS - 1);
+        return randoms[cursor];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int holdInBatches(){
+        boolean drain = api.equals("drain");
+        boolean drainWhile = api.equals("while");
+        int checksum = 0;
+        for(int done = 0; done < ENTRIES; done += batch){
+            if(engine.equals("int")){
+                if(drain){
+                    intHeap.drainMin(batch, out);
+                }
+                else if(drainWhile){
+                    filled = 0;
+                    intHeap.drainWhile(Integer.MAX_VALUE, batch, intCollect);
+                }
+                else{
+                    for(int i = 0; i < batch; i++){
+                        out[i] = intHeap.deleteMin();
+                    }
+                }
+                for(int i = 0; i < batch; i++){
+                    int key = out[i] + nextRandom();
+                    intHeap.insert(key, key);
+                }
+            }
+            else{
+                filled = 0;
+                if(drain){
+                    heap.drainMin(batch, collect);
+                }
+                else if(drainWhile){
+                    heap.drainWhile(Integer.MAX_VALUE, batch, collect);
+                }
+                else{
+                    for(int i = 0; i < batch; i++){
+                        collect.accept(heap.deleteMin());
+                    }
+                }
+                for(int i = 0; i < batch; i++){
+                    heap.insert(out[i] + nextRandom(), 0);
+                }
+            }
+            checksum += out[0];
+        }
+        return checksum;
+    }
+}
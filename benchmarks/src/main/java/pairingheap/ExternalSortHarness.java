@@ -0,0 +1,95 @@
+package pairingheap;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Throughput of the ExternalMergeSort in MB/s, for records (lines) of 16 bytes up to 1 KB. Not a JMH benchmark, one
+ * sort of a big file takes seconds and is mostly I/O.
+ *
+ * For each record size: writes a file of random records of that size (the line end included), sorts it twice (the
+ * first one warms up the JIT) and shows the MB/s of the whole sort, of making the runs and of merging them, then reads
+ * the output back to check it is in order. Small records are the hard case, there are 64 times as many of them per MB
+ * to compare and to pass through the heap.
+ *
+ *   java -cp benchmarks/target/benchmarks.jar pairingheap.ExternalSortHarness <file MB> <memory MB> [directory]
+ *   java -cp benchmarks/target/benchmarks.jar pairingheap.ExternalSortHarness 4096 256 /mnt/scratch
+ * The defaults are a 1024 MB file sorted with 64 MB of memory, in the default temporary directory. Give the memory
+ * small enough next to the file to get many runs (file / memory of them).
+ */
+public class ExternalSortHarness {
+    private static final int[] RECORD_SIZES = {16, 64, 256, 1024};
+
+    public static void main(String[] args) throws IOException{
+        long fileBytes = (args.length > 0 ? Long.parseLong(args[0]) : 1024) << 20;
+        long memoryBytes = (args.length > 1 ? Long.parseLong(args[1]) : 64) << 20;
+        Path directory = args.length > 2 ? Path.of(args[2]) : Path.of(System.getProperty("java.io.tmpdir"));
+
+        Path input = Files.createTempFile(directory, "pairingheap", ".log");
+        Path output = Files.createTempFile(directory, "pairingheap", ".sorted");
+        try{
+            for(int recordSize: RECORD_SIZES){
+                write(input, fileBytes, recordSize);
+                double megabytes = Files.size(input) / (1024.0 * 1024.0);
+                ExternalMergeSort sorter = new ExternalMergeSort(memoryBytes, directory);
+                long duration = 0;
+                for(int round = 0; round < 2; round++){
+                    long startTime = System.nanoTime();
+                    sorter.sort(input, output);
+                    duration = System.nanoTime() - startTime;
+                }
+                System.out.println(String.format("%5d B records: %.0f MB/s (runs %.0f MB/s, merge %.0f MB/s), %d runs,"
+                        + " %d merge pass(es), in order: %b", recordSize, megabytes * 1e9 / duration,
+                        megabytes * 1e9 / sorter.getRunNanos(), megabytes * 1e9 / sorter.getMergeNanos(),
+                        sorter.getRunCount(), sorter.getMergePasses(), inOrder(output, Files.size(input))));
+            }
+        }
+        finally{
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    /**
+     * Writes a file of random printable records of the given size, the line end included.
+     */
+    private static void write(Path path, long fileBytes, int recordSize) throws IOException{
+        Random rand = new Random(recordSize);
+        byte[] record = new byte[recordSize];
+        record[recordSize - 1] = '\n';
+        try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 20)){
+            for(long written = 0; written < fileBytes; written += recordSize){
+                for(int i = 0; i < recordSize - 1; i++){
+                    record[i] = (byte) ('!' + rand.nextInt(94));
+                }
+                out.write(record);
+            }
+        }
+    }
+
+    /**
+     * Checks that a file is in order and has the given size.
+     */
+    private static boolean inOrder(Path path, long expectedBytes) throws IOException{
+        if(Files.size(path) != expectedBytes){
+            return false;
+        }
+        try(BufferedReader in = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)){
+            String last = "";
+            String line;
+            while((line = in.readLine()) != null){
+                if(line.compareTo(last) < 0){
+                    return false;
+                }
+                last = line;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package pairingheap;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * GC pauses with a big heap of entries: PairingHeap (a Node and a boxed key per entry) vs. OffHeapPairingHeap
+ * (nothing per entry on the Java heap). Not a JMH benchmark, JMH measures time per operation and here what matters is
+ * what the garbage collector does while the heap is sitting there.
+ *
+ * Steps, for the implementation given:
+ *   1: Fill the heap with the given number of random keys.
+ *   2: Run the hold model (deleteMin, then insert the key plus a random increment) for the given number of seconds,
+ *      recording every GC pause the JVM reports.
+ *   3: Force three full GCs with System.gc() and time them, that is the cost of tracing whatever is left on the
+ *      Java heap.
+ *
+ * Run each implementation in its own JVM, with the same collector and heap size, e.g.:
+ *   java -Xmx24g -cp benchmarks/target/benchmarks.jar pairingheap.GcPauseHarness pairingHeap 100000000 60
+ *   java -Xmx24g -cp benchmarks/target/benchmarks.jar pairingheap.GcPauseHarness offHeap 100000000 60
+ * (The off-heap one also needs -XX:MaxDirectMemorySize if the default, the -Xmx value, is not enough.)
+ */
+public class GcPauseHarness {
+    //Pauses reported by the JVM while the hold model runs.
+    private static long pauseCount;
+    private static long pauseTotal;
+    private static long pauseMax;
+
+    public static void main(String[] args){
+        String implementation = args.length > 0 ? args[0] : "offHeap";
+        int entries = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        boolean offHeap = implementation.equals("offHeap");
+        if(!offHeap && !implementation.equals("pairingHeap")){
+            System.out.println("Sorry, the implementation has to be pairingHeap or offHeap!");
+            return;
+        }
+
+        Random rand = new Random(42);
+        PairingHeap<Long, Long> pairingHeap = new PairingHeap<>();
+        OffHeapPairingHeap offHeapHeap = new OffHeapPairingHeap();
+
+        long startTime = System.nanoTime();
+        for(int i = 0; i < entries; i++){
+            long key = rand.nextInt(entries);
+            if(offHeap){
+                offHeapHeap.insert(key, i);
+            }
+            else{
+                pairingHeap.insert(key, (long) i);
+            }
+        }
+        System.out.println(implementation + ": filled " + entries + " entries in "
+                + (System.nanoTime() - startTime)/1000000 + " (Milliseconds)");
+
+        listenForPauses();
+        long operations = 0;
+        long endTime = System.nanoTime() + seconds * 1000000000L;
+        while(System.nanoTime() < endTime){
+            for(int i = 0; i < 10000; i++){
+                if(offHeap){
+                    long key = offHeapHeap.findMinKey();
+                    long payload = offHeapHeap.deleteMin();
+                    offHeapHeap.insert(key + rand.nextInt(entries), payload);
+                }
+                else{
+                    Node<Long, Long> min = pairingHeap.deleteMin();
+                    pairingHeap.insert(min.getValue() + rand.nextInt(entries), min.getPayload());
+                }
+            }
+            operations += 10000;
+        }
+        synchronized(GcPauseHarness.class){
+            System.out.println("Hold model: " + operations/seconds + " operations per second, " + pauseCount
+                    + " GC pauses, total " + pauseTotal + " max " + pauseMax + " (Milliseconds)");
+        }
+
+        for(int i = 1; i <= 3; i++){
+            long gcStart = System.nanoTime();
+            System.gc();
+            System.out.println("Full GC " + i + ": " + (System.nanoTime() - gcStart)/1000000 + " (Milliseconds)");
+        }
+        long usedBytes = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        System.out.println("Java heap used: " + usedBytes/(1024*1024) + " MB, off-heap: "
+                + offHeapHeap.getAllocatedBytes()/(1024*1024) + " MB, entries still there: "
+                + (offHeap ? offHeapHeap.getSize() : pairingHeap.getSize()));
+        offHeapHeap.close();
+    }
+
+    /**
+     * Listens to the GC notifications of every collector, adding up the pauses.
+     */
+    private static void listenForPauses(){
+        NotificationListener listener = new NotificationListener(){
+            public void handleNotification(Notification notification, Object handback){
+                if(!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)){
+                    return;
+                }
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                long duration = info.getGcInfo().getDuration();
+                synchronized(GcPauseHarness.class){
+                    pauseCount++;
+                    pauseTotal += duration;
+                    pauseMax = Math.max(pauseMax, duration);
+                }
+            }
+        };
+        for(GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans()){
+            if(bean instanceof NotificationEmitter){
+                ((NotificationEmitter) bean).addNotificationListener(listener, null, null);
+            }
+        }
+    }
+}
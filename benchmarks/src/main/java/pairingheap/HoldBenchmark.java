@@ -0,0 +1,78 @@
+package pairingheap;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The classic "hold" model of a priority queue in a simulation: every operation is a deleteMin followed by an insert
+ * of the removed key plus an increment, so the heap stays at the given size. The increments follow the key
+ * distribution (RANDOM is the usual hold model, ASCENDING/DESCENDING/SAWTOOTH change how far behind the new entry
+ * lands). Keys are Long since they grow for as long as the benchmark runs.
+ *
+ * Run with -prof gc to see the allocation rate of each side.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class HoldBenchmark {
+    @Param({"1000", "100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "DESCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    @Param({"TWO_PASS", "MULTIPASS", "AUXILIARY"})
+    PairingStrategy strategy;
+
+    //The increments, cycled through.
+    private static final int INCREMENTS = 1 << 16;
+    int[] increments;
+    int cursor;
+
+    PairingHeap<Long, Integer> heap;
+    PriorityQueue<Long> queue;
+
+    @Setup
+    public void setUp(){
+        int[] keys = distribution.generate(size, size, 42);
+        heap = new PairingHeap<>(strategy);
+        queue = new PriorityQueue<>(size);
+        for(int i = 0; i < size; i++){
+            heap.insert((long) keys[i], i);
+            queue.add((long) keys[i]);
+        }
+        increments = distribution.generate(INCREMENTS, size, 43);
+    }
+
+    private int nextIncrement(){
+        cursor = (cursor + 1) & (INCREMENTS - 1);
+        return increments[cursor];
+    }
+
+    @Benchmark
+    public Node<Long, Integer> pairingHeap(){
+        Node<Long, Integer> min = heap.deleteMin();
+        return heap.insert(min.getValue() + nextIncrement(), min.getPayload());
+    }
+
+    @Benchmark
+    public boolean priorityQueue(){
+        Long min = queue.poll();
+        return queue.add(min + nextIncrement());
+    }
+}
@@ -0,0 +1,59 @@
+package pairingheap;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to build a heap of the given size with one insert per key, PairingHeap vs. the Java Priority Queue.
+ * The keys are boxed before the measurement, so both sides only pay for their own nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+    @Param({"1000", "100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "DESCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    Integer[] keys;
+
+    @Setup
+    public void setUp(){
+        keys = distribution.generateBoxed(size, Integer.MAX_VALUE / 2, 42);
+    }
+
+    @Benchmark
+    public PairingHeap<Integer, Integer> pairingHeap(){
+        PairingHeap<Integer, Integer> heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        for(Integer key: keys){
+            heap.insert(key, key);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> priorityQueue(){
+        PriorityQueue<Integer> queue = new PriorityQueue<>();
+        for(Integer key: keys){
+            queue.add(key);
+        }
+        return queue;
+    }
+}
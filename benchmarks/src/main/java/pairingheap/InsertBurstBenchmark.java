@@ -0,0 +1,66 @@
+package pairingheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ingest bursts: every operation is a burst of inserts followed by one deleteMin, on a heap that starts at the given
+ * size (and slowly grows). Compares eager insert (linked to the root right away) with lazy insert (buffered until the
+ * deleteMin, then paired up with one multipass sweep), for the two strategies that can have either.
+ *
+ * Keys are pre-boxed Integers cycled through, so the benchmark measures the heap and the nodes only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class InsertBurstBenchmark {
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"100"})
+    int burst;
+
+    @Param({"TWO_PASS", "MULTIPASS"})
+    PairingStrategy strategy;
+
+    @Param({"false", "true"})
+    boolean lazy;
+
+    private static final int KEYS = 1 << 16;
+    Integer[] keys;
+    int cursor;
+
+    PairingHeap<Integer, Integer> heap;
+
+    @Setup
+    public void setUp(){
+        keys = KeyDistribution.RANDOM.generateBoxed(KEYS, Integer.MAX_VALUE / 2, 43);
+        heap = new PairingHeap<>(strategy, null, lazy);
+        for(Integer key: KeyDistribution.RANDOM.generateBoxed(size, Integer.MAX_VALUE / 2, 42)){
+            heap.insert(key, key);
+        }
+    }
+
+    @Benchmark
+    public Node<Integer, Integer> burstThenDeleteMin(){
+        for(int i = 0; i < burst; i++){
+            cursor = (cursor + 1) & (KEYS - 1);
+            heap.insert(keys[cursor], i);
+        }
+        return heap.deleteMin();
+    }
+}
@@ -0,0 +1,76 @@
+package pairingheap;
+
+import java.util.Random;
+
+/**
+ * The orders of keys the benchmarks are run with. Every distribution gives keys in [0, bound).
+ */
+public enum KeyDistribution {
+    /**
+     * Uniformly random keys.
+     */
+    RANDOM,
+
+    /**
+     * Keys in increasing order, every insert is larger than everything before it.
+     */
+    ASCENDING,
+
+    /**
+     * Keys in decreasing order, every insert becomes the new minimum.
+     */
+    DESCENDING,
+
+    /**
+     * Runs of 1,000 increasing keys, each run starting over from the bottom.
+     */
+    SAWTOOTH;
+
+    //Length of one tooth of SAWTOOTH.
+    private static final int TOOTH = 1000;
+
+    /**
+     * Makes the keys for a benchmark.
+     * @param count Number of keys.
+     * @param bound Keys are in [0, bound).
+     * @param seed Seed for RANDOM, so every fork sees the same keys.
+     * @return The keys, in the order they should be inserted.
+     */
+    public int[] generate(int count, int bound, long seed){
+        int[] keys = new int[count];
+        Random rand = new Random(seed);
+        for(int i = 0; i < count; i++){
+            switch(this){
+                case RANDOM:
+                    keys[i] = rand.nextInt(bound);
+                    break;
+                case ASCENDING:
+                    keys[i] = (int) ((long) i * bound / count);
+                    break;
+                case DESCENDING:
+                    keys[i] = bound - 1 - (int) ((long) i * bound / count);
+                    break;
+                default:
+                    keys[i] = (int) ((long) (i % TOOTH) * bound / TOOTH);
+                    break;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Makes the keys for a benchmark, boxed up front so that boxing is not part of what is measured.
+     * @param count Number of keys.
+     * @param bound Keys are in [0, bound).
+     * @param seed Seed for RANDOM.
+     * @return The boxed keys, in the order they should be inserted.
+     */
+    public Integer[] generateBoxed(int count, int bound, long seed){
+        int[] keys = generate(count, bound, seed);
+        Integer[] boxed = new Integer[count];
+        for(int i = 0; i < count; i++){
+            boxed[i] = keys[i];
+        }
+        return boxed;
+    }
+}
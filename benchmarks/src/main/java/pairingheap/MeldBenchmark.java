@@ -0,0 +1,76 @@
+package pairingheap;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to meld two heaps of half the given size each, followed by one deleteMin (so the PairingHeap pays for the
+ * pairing the meld puts off). PairingHeap.mergeHeaps vs. PriorityQueue.addAll.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MeldBenchmark {
+    @Param({"1000", "100000", "10000000", "100000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "DESCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    Integer[] keys;
+    PairingHeap<Integer, Integer> heap1;
+    PairingHeap<Integer, Integer> heap2;
+    PriorityQueue<Integer> queue1;
+    PriorityQueue<Integer> queue2;
+
+    @Setup
+    public void setUp(){
+        keys = distribution.generateBoxed(size, Integer.MAX_VALUE / 2, 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void fill(){
+        heap1 = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        heap2 = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        queue1 = new PriorityQueue<>(size);
+        queue2 = new PriorityQueue<>(size);
+        for(int i = 0; i < keys.length; i++){
+            if(i < keys.length / 2){
+                heap1.insert(keys[i], i);
+                queue1.add(keys[i]);
+            }
+            else{
+                heap2.insert(keys[i], i);
+                queue2.add(keys[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Node<Integer, Integer> pairingHeap(){
+        heap1.mergeHeaps(heap2);
+        return heap1.deleteMin();
+    }
+
+    @Benchmark
+    public Integer priorityQueue(){
+        queue1.addAll(queue2);
+        return queue1.poll();
+    }
+}
@@ -0,0 +1,94 @@
+package pairingheap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What HeapMetrics cost, on the hold model (a deleteMin followed by an insert):
+ *   metricsOff       a heap that never had metrics on, the hot path only has its null checks.
+ *   metricsDisabled  a heap that had metrics on and then off again, should be the same as metricsOff.
+ *   metricsOn        a heap with metrics on, counting every comparison and link and every deleteMin.
+ * Same workload as HoldBenchmark with RANDOM keys: the removed key plus a random increment goes back in.
+ *
+ * To see that the null checks themselves cost nothing measurable, compare metricsOff with HoldBenchmark.pairingHeap
+ * (RANDOM keys) built from the commit before metrics were added.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"TWO_PASS", "MULTIPASS", "AUXILIARY"})
+    PairingStrategy strategy;
+
+    //The increments, cycled through.
+    private static final int INCREMENTS = 1 << 16;
+    int[] increments;
+    int cursor;
+
+    PairingHeap<Long, Integer> offHeap;
+    PairingHeap<Long, Integer> disabledHeap;
+    PairingHeap<Long, Integer> onHeap;
+
+    @Setup
+    public void setUp(){
+        Random rand = new Random(42);
+        increments = new int[INCREMENTS];
+        for(int i = 0; i < INCREMENTS; i++){
+            increments[i] = rand.nextInt(size);
+        }
+        offHeap = fill();
+        disabledHeap = fill();
+        disabledHeap.enableMetrics();
+        disabledHeap.disableMetrics();
+        onHeap = fill();
+        onHeap.enableMetrics();
+    }
+
+    private PairingHeap<Long, Integer> fill(){
+        Random rand = new Random(43);
+        PairingHeap<Long, Integer> heap = new PairingHeap<>(strategy);
+        for(int i = 0; i < size; i++){
+            heap.insert((long) rand.nextInt(size), i);
+        }
+        return heap;
+    }
+
+    private Node<Long, Integer> hold(PairingHeap<Long, Integer> heap){
+        cursor = (cursor + 1) & (INCREMENTS - 1);
+        Node<Long, Integer> min = heap.deleteMin();
+        return heap.insert(min.getValue() + increments[cursor], min.getPayload());
+    }
+
+    @Benchmark
+    public Node<Long, Integer> metricsOff(){
+        return hold(offHeap);
+    }
+
+    @Benchmark
+    public Node<Long, Integer> metricsDisabled(){
+        return hold(disabledHeap);
+    }
+
+    @Benchmark
+    public Node<Long, Integer> metricsOn(){
+        return hold(onHeap);
+    }
+}
@@ -0,0 +1,118 @@
+package pairingheap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Melding many per-partition heaps into one, and building one heap from a big array of keys, on a ForkJoinPool of 1
+ * to N threads (set threads with -p threads=1,2,4,... up to the number of cores of the machine).
+ *
+ *   mergeHeapsLoop / meldAll   meld the heaps then empty the result with deleteMin. The whole drain is timed since
+ *                              meldAll does some of the pairing of later deleteMins up front (see its javadoc).
+ *   of / parallelBuild         build a heap from the keys, then one deleteMin.
+ *
+ * mergeHeapsLoop and of are single threaded, they are the baseline at every thread count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParallelMeldBenchmark {
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    int threads;
+
+    //How many heaps are melded, and how many keys each of them gets.
+    @Param({"1000"})
+    int heapCount;
+
+    @Param({"1000"})
+    int heapSize;
+
+    ForkJoinPool pool;
+    Integer[] keys;
+    int[] buildKeys;
+    List<PairingHeap<Integer, Integer>> heaps;
+
+    @Setup
+    public void setUp(){
+        pool = new ForkJoinPool(threads);
+        Random rand = new Random(42);
+        keys = new Integer[heapCount * heapSize];
+        buildKeys = new int[heapCount * heapSize];
+        for(int i = 0; i < keys.length; i++){
+            buildKeys[i] = rand.nextInt();
+            keys[i] = buildKeys[i];
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void fill(){
+        heaps = new ArrayList<>(heapCount);
+        for(int h = 0; h < heapCount; h++){
+            PairingHeap<Integer, Integer> heap = new PairingHeap<>();
+            for(int i = h * heapSize; i < (h + 1) * heapSize; i++){
+                heap.insert(keys[i], i);
+            }
+            heaps.add(heap);
+        }
+    }
+
+    @TearDown
+    public void tearDown(){
+        pool.shutdown();
+    }
+
+    /**
+     * Empties a heap, so the pairing the meld put off is part of the time.
+     */
+    private static int drain(PairingHeap<Integer, Integer> heap){
+        int sum = 0;
+        while(heap.getSize() > 0){
+            sum += heap.deleteMin().getPayload();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int mergeHeapsLoop(){
+        PairingHeap<Integer, Integer> melded = heaps.get(0);
+        for(int h = 1; h < heapCount; h++){
+            melded.mergeHeaps(heaps.get(h));
+        }
+        return drain(melded);
+    }
+
+    @Benchmark
+    public int meldAll(){
+        return drain(PairingHeap.meldAll(heaps, pool));
+    }
+
+    @Benchmark
+    public Node<Integer, Integer> of(){
+        return PairingHeap.<Integer>of(buildKeys, null).deleteMin();
+    }
+
+    @Benchmark
+    public Node<Integer, Integer> parallelBuild(){
+        return PairingHeap.<Integer>parallelBuild(buildKeys, null, pool).deleteMin();
+    }
+}
@@ -0,0 +1,93 @@
+package pairingheap;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The radix heaps vs. the pairing heaps on the hold model (see HoldBenchmark), which is monotone: the key put back in
+ * is the removed minimum plus an increment, never below it.
+ *   queue         through the MinPriorityQueue interface, so the same code runs on either engine (-p engine=...).
+ *   primitive     LongRadixHeap vs. LongPairingHeap, no Node objects and no boxing.
+ * Dijkstra's on big graphs with both primitive heaps is in ShortestPathBenchmark.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RadixHeapBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"RANDOM", "ASCENDING", "SAWTOOTH"})
+    KeyDistribution distribution;
+
+    @Param({"RadixHeap", "PairingHeap"})
+    String engine;
+
+    //The increments, cycled through.
+    private static final int INCREMENTS = 1 << 16;
+    int[] increments;
+    int cursor;
+
+    MinPriorityQueue<Long, Integer> queue;
+    LongRadixHeap longRadixHeap;
+    LongPairingHeap longPairingHeap;
+
+    @Setup
+    public void setUp(){
+        int[] keys = distribution.generate(size, size, 42);
+        if(engine.equals("RadixHeap")){
+            queue = new RadixHeap<>();
+            longRadixHeap = new LongRadixHeap(size);
+        }
+        else{
+            queue = new PairingHeap<>(PairingStrategy.TWO_PASS);
+            longPairingHeap = new LongPairingHeap(size);
+        }
+        for(int i = 0; i < size; i++){
+            queue.insert((long) keys[i], i);
+            if(longRadixHeap != null){
+                longRadixHeap.insert(keys[i], i);
+            }
+            else{
+                longPairingHeap.insert(keys[i], i);
+            }
+        }
+        increments = distribution.generate(INCREMENTS, size, 43);
+    }
+
+    private int nextIncrement(){
+        cursor = (cursor + 1) & (INCREMENTS - 1);
+        return increments[cursor];
+    }
+
+    @Benchmark
+    public Node<Long, Integer> queue(){
+        Node<Long, Integer> min = queue.deleteMin();
+        return queue.insert(min.getValue() + nextIncrement(), min.getPayload());
+    }
+
+    @Benchmark
+    public int primitive(){
+        if(longRadixHeap != null){
+            //The key of the minimum just taken out is the new last, no need for a findMinKey (a bucket scan) first.
+            int payload = longRadixHeap.deleteMin();
+            return longRadixHeap.insert(longRadixHeap.getLast() + nextIncrement(), payload);
+        }
+        long min = longPairingHeap.findMinKey();
+        return longPairingHeap.insert(min + nextIncrement(), longPairingHeap.deleteMin());
+    }
+}
@@ -0,0 +1,110 @@
+package pairingheap;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The hold model (a deleteMin followed by an insert of the same entry at a later key) with node recycling off and on,
+ * as a long soak run. The keys are simulation events ordered by their time, and the time of the removed event is
+ * moved forward in place before it goes back in, so nothing is boxed and the heap's own Nodes are the only thing left
+ * that could be allocated: with recycling off that is a Node per operation, with it on it should be nothing.
+ *
+ * Meant to be run with -prof gc, the number to look at is gc.alloc.rate.norm (bytes per operation), e.g.:
+ *   java -jar benchmarks/target/benchmarks.jar RecyclingBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RecyclingBenchmark {
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    @Param({"TWO_PASS", "MULTIPASS", "AUXILIARY"})
+    PairingStrategy strategy;
+
+    /**
+     * The key of an entry, its time is changed in place (only while it is out of the heap).
+     */
+    static final class Event {
+        long time;
+
+        Event(long time){
+            this.time = time;
+        }
+    }
+
+    //The increments, cycled through.
+    private static final int INCREMENTS = 1 << 16;
+    int[] increments;
+    int cursor;
+
+    PairingHeap<Event, Integer> heap;
+    PairingHeap<Event, Integer> recyclingHeap;
+
+    @Setup
+    public void setUp(){
+        Random rand = new Random(42);
+        increments = new int[INCREMENTS];
+        for(int i = 0; i < INCREMENTS; i++){
+            increments[i] = rand.nextInt(size);
+        }
+        Comparator<Event> byTime = Comparator.comparingLong((Event event) -> event.time);
+        heap = new PairingHeap<>(strategy, byTime);
+        recyclingHeap = new PairingHeap<>(strategy, byTime);
+        recyclingHeap.setRecycling(1024);
+        for(int i = 0; i < size; i++){
+            long time = rand.nextInt(size);
+            heap.insert(new Event(time), i);
+            recyclingHeap.insert(new Event(time), i);
+        }
+    }
+
+    /**
+     * Moves a removed event to its next time.
+     */
+    private Event reschedule(Event event){
+        cursor = (cursor + 1) & (INCREMENTS - 1);
+        event.time += increments[cursor];
+        return event;
+    }
+
+    @Benchmark
+    public Node<Event, Integer> withoutRecycling(){
+        Node<Event, Integer> min = heap.deleteMin();
+        return heap.insert(reschedule(min.getValue()), min.getPayload());
+    }
+
+    @Benchmark
+    public Node<Event, Integer> withRelease(){
+        Node<Event, Integer> min = recyclingHeap.deleteMin();
+        Event event = min.getValue();
+        Integer payload = min.getPayload();
+        recyclingHeap.release(min);
+        return recyclingHeap.insert(reschedule(event), payload);
+    }
+
+    @Benchmark
+    public Node<Event, Integer> withDeleteMinAlone(){
+        Node<Event, Integer> min = recyclingHeap.findMin();
+        Event event = min.getValue();
+        Integer payload = min.getPayload();
+        recyclingHeap.deleteMinAlone();
+        return recyclingHeap.insert(reschedule(event), payload);
+    }
+}
@@ -0,0 +1,152 @@
+package pairingheap;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A stream of out of order events at a set rate through a ReorderBuffer, end to end: a producer thread makes the
+ * events on schedule and submits them to a SubmissionPublisher, which delivers them to the ReorderBuffer on a thread
+ * of its own, and the buffer hands them in event time order to a subscriber that asks for 4,096 at a time. Not a JMH
+ * benchmark, what matters is the latency of each event at a given rate.
+ *
+ * Each event is made at its place in the schedule (rate events per second), and its event time is that minus a
+ * random disorder of up to the given number of microseconds, so events arrive up to that much out of order. The
+ * buffer's maxDisorder is the same. The latency of an event is from its place in the schedule to the subscriber
+ * getting it, so a producer that falls behind shows up in the latencies too. Every event waits for the watermark by
+ * design: about the disorder, minus how out of order the event itself was.
+ *
+ * Shows the rate reached, the worst latency of each second, the latencies after the first two seconds (to warm up)
+ * and whether the events came out in order. The producer makes the events 100 at a time, so up to 100 microseconds
+ * of a latency can be the producer's.
+ * Arguments: rate (events per second), seconds, disorder (microseconds), capacity, BLOCK or RELEASE_EARLY, e.g.:
+ *   java -Xmx2g -cp benchmarks/target/benchmarks.jar pairingheap.ReorderHarness 1000000 10 1000 1048576 BLOCK
+ */
+public class ReorderHarness {
+    //Events made between looking at the clock, they are made once the last of them is due.
+    private static final int BATCH = 100;
+
+    //Seconds left out of the latencies, to warm up.
+    private static final int WARMUP = 2;
+
+    //Events the subscriber asks for at a time.
+    private static final int CHUNK = 4096;
+
+    /**
+     * An event, made at its place in the schedule.
+     */
+    private static final class Event {
+        final long scheduled;
+        final long time;
+
+        Event(long scheduled, long time){
+            this.scheduled = scheduled;
+            this.time = time;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException{
+        long rate = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long disorder = TimeUnit.MICROSECONDS.toNanos(args.length > 2 ? Long.parseLong(args[2]) : 1000);
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 1 << 20;
+        ReorderBuffer.Overflow overflow = ReorderBuffer.Overflow.valueOf(args.length > 4 ? args[4] : "BLOCK");
+
+        int total = (int) (rate * seconds);
+        long[] latencies = new long[total];
+        int[] received = new int[1];
+        long[] unordered = new long[1];
+        long[] finished = new long[1];
+        CountDownLatch done = new CountDownLatch(1);
+
+        ReorderBuffer<Event> buffer = new ReorderBuffer<>(event -> event.time, disorder, capacity, overflow);
+        buffer.subscribe(new Flow.Subscriber<Event>(){
+            private Flow.Subscription subscription;
+            private long asked;
+            private long lastTime = Long.MIN_VALUE;
+
+            public void onSubscribe(Flow.Subscription given){
+                subscription = given;
+                asked = CHUNK;
+                subscription.request(CHUNK);
+            }
+
+            public void onNext(Event event){
+                latencies[received[0]++] = System.nanoTime() - event.scheduled;
+                if(event.time < lastTime){
+                    unordered[0]++;
+                }
+                lastTime = event.time;
+                if(--asked == 0){
+                    asked = CHUNK;
+                    subscription.request(CHUNK);
+                }
+            }
+
+            public void onError(Throwable throwable){
+                throwable.printStackTrace();
+                done.countDown();
+            }
+
+            public void onComplete(){
+                finished[0] = System.nanoTime();
+                done.countDown();
+            }
+        });
+
+        ExecutorService delivery = Executors.newSingleThreadExecutor();
+        SubmissionPublisher<Event> publisher = new SubmissionPublisher<>(delivery, 8192);
+        publisher.subscribe(buffer);
+
+        SplittableRandom rand = new SplittableRandom(42);
+        double period = 1e9 / rate;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        for(int i = 0; i < total; i++){
+            if(i % BATCH == 0){
+                //Wait for the last event of the batch to be due, or carry on at once if behind.
+                long due = start + (long) ((i + BATCH - 1) * period);
+                long wait;
+                while((wait = due - System.nanoTime()) > 0){
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            long scheduled = start + (long) (i * period);
+            publisher.submit(new Event(scheduled, scheduled - rand.nextLong(disorder + 1)));
+        }
+        long producerDone = System.nanoTime();
+        publisher.close();
+        done.await();
+        delivery.shutdown();
+
+        System.out.println(String.format("%d events at %d/s asked, disorder up to %d us, capacity %d, %s",
+                total, rate, disorder / 1000, capacity, overflow));
+        StringBuilder worst = new StringBuilder("Worst latency of each second (microseconds):");
+        for(long from = 0; from < received[0]; from += rate){
+            long most = 0;
+            for(long i = from; i < Math.min(received[0], from + rate); i++){
+                most = Math.max(most, latencies[(int) i]);
+            }
+            worst.append(' ').append(most / 1000);
+        }
+        System.out.println(worst);
+        long[] measured = Arrays.copyOfRange(latencies, (int) Math.min(rate * WARMUP, received[0]), received[0]);
+        Arrays.sort(measured);
+        System.out.println(String.format("Made in %.2f s (%.0f events/s), all out in %.2f s (%.0f events/s)",
+                (producerDone - start) / 1e9, total * 1e9 / (producerDone - start),
+                (finished[0] - start) / 1e9, received[0] * 1e9 / (finished[0] - start)));
+        if(measured.length > 0){
+            System.out.println(String.format("Latency after %d s (microseconds): median %d, 99th %d, 99.9th %d,"
+                    + " worst %d", WARMUP,
+                    measured[measured.length / 2] / 1000, measured[(int) (measured.length * 0.99)] / 1000,
+                    measured[(int) (measured.length * 0.999)] / 1000, measured[measured.length - 1] / 1000));
+        }
+        System.out.println("Out " + received[0] + ", late " + buffer.getLateEvents() + ", early "
+                + buffer.getEarlyEvents() + ", out of order (expect 0): " + unordered[0]);
+    }
+}
@@ -0,0 +1,140 @@
+package pairingheap;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timeouts with a lot of timers pending and most of them cancelled: PairingHeapScheduler vs. the Java built in
+ * "ScheduledThreadPoolExecutor" (one thread per processor), with and without its remove on cancel policy. Not a JMH
+ * benchmark, what matters is how late the timers run while the scheduler is under load, which JMH does not measure.
+ *
+ * Steps, for the scheduler given:
+ *   1: Schedule the given number of timers with random delays of up to 10 seconds.
+ *   2: For the given number of seconds, keep replacing a random one of them: cancel it (with the given chance) and
+ *      schedule a new one with a random delay. The timers that are not cancelled run as they come due, each one
+ *      recording how late it ran. Throughput is the schedules and cancels made per second (as fast as it will go,
+ *      or at the given rate).
+ *   3: Show the throughput, the lateness (average, a histogram and the most), how many timers the scheduler is
+ *      holding (with the built in one that includes the cancelled ones waiting for their deadline) and the Java heap
+ *      used.
+ *
+ * Run each scheduler in its own JVM, e.g.:
+ *   java -Xmx4g -cp benchmarks/target/benchmarks.jar pairingheap.SchedulerHarness pairingHeap 1000000 90 30
+ *   java -Xmx4g -cp benchmarks/target/benchmarks.jar pairingheap.SchedulerHarness builtIn 1000000 90 30
+ *   java -Xmx4g -cp benchmarks/target/benchmarks.jar pairingheap.SchedulerHarness builtInRemoveOnCancel 1000000 90 30
+ * A fifth argument caps the operations per second (0, the default, for no cap). On Java 21+ the PairingHeapScheduler
+ * runs its tasks on virtual threads.
+ */
+public class SchedulerHarness {
+    //Longest delay of a timer.
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(10);
+
+    //Operations made between looking at the clock.
+    private static final int BATCH = 1000;
+
+    //Lateness of the timers that ran. Bucket b of the histogram counts lateness of 2^(b-1) up to 2^b microseconds.
+    private static final LongAdder fired = new LongAdder();
+    private static final LongAdder totalLateness = new LongAdder();
+    private static final AtomicLong maxLateness = new AtomicLong();
+    private static final AtomicLongArray histogram = new AtomicLongArray(64);
+
+    public static void main(String[] args) throws InterruptedException{
+        String implementation = args.length > 0 ? args[0] : "pairingHeap";
+        int pending = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int cancelPercent = args.length > 2 ? Integer.parseInt(args[2]) : 90;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        long rate = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        ScheduledExecutorService scheduler;
+        PairingHeapScheduler pairingHeapScheduler = null;
+        ScheduledThreadPoolExecutor builtIn = null;
+        if(implementation.equals("pairingHeap")){
+            pairingHeapScheduler = new PairingHeapScheduler();
+            scheduler = pairingHeapScheduler;
+        }
+        else if(implementation.equals("builtIn") || implementation.equals("builtInRemoveOnCancel")){
+            builtIn = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
+            builtIn.setRemoveOnCancelPolicy(implementation.equals("builtInRemoveOnCancel"));
+            scheduler = builtIn;
+        }
+        else{
+            System.out.println("Sorry, the scheduler has to be pairingHeap, builtIn or builtInRemoveOnCancel!");
+            return;
+        }
+
+        Random rand = new Random(42);
+        ScheduledFuture<?>[] timers = new ScheduledFuture<?>[pending];
+        long startTime = System.nanoTime();
+        for(int i = 0; i < pending; i++){
+            timers[i] = schedule(scheduler, (long) (rand.nextDouble() * WINDOW));
+        }
+        System.out.println(implementation + ": scheduled " + pending + " timers in "
+                + (System.nanoTime() - startTime)/1000000 + " (Milliseconds)");
+
+        long operations = 0;
+        long cancels = 0;
+        startTime = System.nanoTime();
+        long endTime = startTime + seconds * 1000000000L;
+        long now;
+        while((now = System.nanoTime()) < endTime){
+            if(rate > 0){
+                //Wait until the operations made so far are due at the given rate.
+                long due = startTime + operations * 1000000000L / rate;
+                if(due > now){
+                    LockSupport.parkNanos(due - now);
+                }
+            }
+            for(int i = 0; i < BATCH; i++){
+                int index = rand.nextInt(pending);
+                if(rand.nextInt(100) < cancelPercent){
+                    timers[index].cancel(false);
+                    cancels++;
+                }
+                timers[index] = schedule(scheduler, (long) (rand.nextDouble() * WINDOW));
+            }
+            operations += BATCH + cancels;
+            cancels = 0;
+        }
+        long duration = System.nanoTime() - startTime;
+        int held = pairingHeapScheduler != null ? pairingHeapScheduler.getPendingCount() : builtIn.getQueue().size();
+
+        long count = fired.sum();
+        System.out.println("Throughput: " + operations * 1000000000L / duration + " schedules and cancels per second, "
+                + count + " timers ran, " + held + " held by the scheduler at the end");
+        System.out.println("Late by " + totalLateness.sum()/Math.max(1, count)/1000 + " on average, "
+                + maxLateness.get()/1000 + " at most (Microseconds)");
+        for(int b = 0; b < 64; b++){
+            long inBucket = histogram.get(b);
+            if(inBucket > 0){
+                System.out.println(String.format("    up to %10d us: %10d (%5.2f%%)", 1L << b, inBucket,
+                        100.0 * inBucket / count));
+            }
+        }
+        System.gc();
+        long usedBytes = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+        System.out.println("Java heap used after a full GC: " + usedBytes/(1024*1024) + " MB");
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Schedules a timer that records how late it ran.
+     */
+    private static ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, long delay){
+        long deadline = System.nanoTime() + delay;
+        return scheduler.schedule(() -> {
+            long lateness = System.nanoTime() - deadline;
+            fired.increment();
+            totalLateness.add(lateness);
+            maxLateness.accumulateAndGet(lateness, Math::max);
+            histogram.incrementAndGet(64 - Long.numberOfLeadingZeros(Math.max(0, lateness / 1000)));
+        }, delay, TimeUnit.NANOSECONDS);
+    }
+}
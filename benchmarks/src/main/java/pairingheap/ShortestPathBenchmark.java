@@ -0,0 +1,80 @@
+package pairingheap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Dijkstra's and Prim's on graphs with millions of edges, the pairing heap with decreaseKey vs. the PriorityQueue
+ * with lazy insert (GraphAlgorithms.dijkstraLazy and primLazy), and Dijkstra's on the radix heap with decreaseKey
+ * (GraphAlgorithms.dijkstraRadix):
+ *   random  1,000,000 vertices and 2,500,000 random edges (5,000,000 arcs), short paths and many stale entries.
+ *   grid    a 1000 by 1000 grid (about 4,000,000 arcs), long paths like a road network.
+ *   a path  any other value is read as a DIMACS file, e.g. a road network from the 9th DIMACS challenge:
+ *             java -jar benchmarks/target/benchmarks.jar ShortestPath -p graph=USA-road-d.NY.gr
+ * Every graph is read as undirected, so Prim's works on it. Dijkstra's starts from vertex 0.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ShortestPathBenchmark {
+    @Param({"random", "grid"})
+    String graph;
+
+    CsrGraph csrGraph;
+    int[] parents;
+
+    @Setup
+    public void setUp() throws IOException{
+        if(graph.equals("random")){
+            csrGraph = CsrGraph.random(1000000, 2500000, 1000, true, 42);
+        }
+        else if(graph.equals("grid")){
+            csrGraph = CsrGraph.grid(1000, 1000, 1000, 42);
+        }
+        else{
+            csrGraph = DimacsFormat.read(Path.of(graph), true);
+        }
+        parents = new int[csrGraph.getVertexCount()];
+    }
+
+    @Benchmark
+    public long[] dijkstraPairingHeap(){
+        return GraphAlgorithms.dijkstra(csrGraph, 0, parents);
+    }
+
+    @Benchmark
+    public long[] dijkstraRadixHeap(){
+        return GraphAlgorithms.dijkstraRadix(csrGraph, 0);
+    }
+
+    @Benchmark
+    public long[] dijkstraPriorityQueue(){
+        return GraphAlgorithms.dijkstraLazy(csrGraph, 0);
+    }
+
+    @Benchmark
+    public long primPairingHeap(){
+        return GraphAlgorithms.prim(csrGraph, parents);
+    }
+
+    @Benchmark
+    public long primPriorityQueue(){
+        return GraphAlgorithms.primLazy(csrGraph);
+    }
+}
@@ -0,0 +1,79 @@
+package pairingheap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Getting a heap back after a restart: PairingHeap.restore from a snapshot file (no comparisons, in proportion to the
+ * file size) vs. building it again from the keys with the insert loop and with PairingHeap.of. The file is written
+ * once in the setup and is in the page cache, so this is the cost of the restore itself, not of the disk.
+ *
+ * Reading the file and checking its CRC is only a few milliseconds per million entries, nearly all of the restore is
+ * making the objects (a Node, a boxed key and a boxed payload per entry). The rebuilds here have their keys already
+ * in memory and make the same objects, so expect them to be close; the point of restore is not needing the keys from
+ * wherever they came from in the first place.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+    @Param({"100000", "1000000", "10000000"})
+    int size;
+
+    int[] keys;
+    Integer[] payloads;
+    Path file;
+
+    @Setup
+    public void setUp() throws IOException{
+        keys = KeyDistribution.RANDOM.generate(size, Integer.MAX_VALUE / 2, 42);
+        payloads = new Integer[size];
+        for(int i = 0; i < size; i++){
+            payloads[i] = i;
+        }
+        file = Files.createTempFile("pairingheap", ".snapshot");
+        PairingHeap.of(keys, payloads).snapshot(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException{
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public PairingHeap<Integer, Integer> restore() throws IOException{
+        return PairingHeap.restore(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+    }
+
+    @Benchmark
+    public PairingHeap<Integer, Integer> insertLoop(){
+        PairingHeap<Integer, Integer> heap = new PairingHeap<>();
+        for(int i = 0; i < size; i++){
+            heap.insert(keys[i], payloads[i]);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public PairingHeap<Integer, Integer> of(){
+        return PairingHeap.of(keys, payloads);
+    }
+}
@@ -0,0 +1,74 @@
+package pairingheap;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Top-K of a stream: the time to offer a whole stream of keys to a BoundedPairingHeap vs. a PriorityQueue kept at K
+ * entries (add, then poll once it is over K). ASCENDING keys are the worst case (every key is kept and evicts the
+ * root), RANDOM keys the usual one (after a while nearly every key is turned away).
+ *
+ * Run with -prof gc: the BoundedPairingHeap should show no allocation at all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+    @Param({"10", "1000", "100000"})
+    int k;
+
+    @Param({"1000000"})
+    int streamLength;
+
+    @Param({"RANDOM", "ASCENDING"})
+    KeyDistribution distribution;
+
+    int[] stream;
+    Integer[] boxed;
+    String payload = "payload";
+
+    @Setup
+    public void setUp(){
+        stream = distribution.generate(streamLength, Integer.MAX_VALUE / 2, 42);
+        boxed = new Integer[streamLength];
+        for(int i = 0; i < streamLength; i++){
+            boxed[i] = stream[i];
+        }
+    }
+
+    @Benchmark
+    public BoundedPairingHeap<String> boundedPairingHeap(){
+        BoundedPairingHeap<String> topK = new BoundedPairingHeap<>(k);
+        for(int key: stream){
+            topK.offer(key, payload);
+        }
+        return topK;
+    }
+
+    @Benchmark
+    public PriorityQueue<Integer> priorityQueue(){
+        PriorityQueue<Integer> queue = new PriorityQueue<>(k + 1);
+        for(Integer key: boxed){
+            queue.add(key);
+            if(queue.size() > k){
+                queue.poll();
+            }
+        }
+        return queue;
+    }
+}
@@ -0,0 +1,191 @@
+package pairingheap;
+
+import java.util.Random;
+
+/**
+ * CsrGraph, a directed graph with int weights in compressed sparse row form: the edges leaving vertex v are
+ * edgeStart[v] up to (not including) edgeStart[v + 1] of the edgeTarget and edgeWeight arrays. Three int arrays and
+ * nothing per vertex or per edge, so graphs with tens of millions of edges fit, and walking the edges of a vertex is
+ * a walk down two arrays.
+ *
+ * Vertices are numbered 0 to getVertexCount() - 1. An undirected graph is a directed one with every edge in both
+ * directions (see fromEdges).
+ */
+public class CsrGraph {
+    private final int vertexCount;
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final int[] edgeWeight;
+
+    /**
+     * Constructor, takes the arrays as they are (see the class javadoc for the layout).
+     * @param vertexCount Number of vertices.
+     * @param edgeStart Where the edges of each vertex start, vertexCount + 1 entries.
+     * @param edgeTarget The vertex each edge goes to.
+     * @param edgeWeight The weight of each edge.
+     */
+    CsrGraph(int vertexCount, int[] edgeStart, int[] edgeTarget, int[] edgeWeight){
+        this.vertexCount = vertexCount;
+        this.edgeStart = edgeStart;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+    }
+
+    /**
+     * Builds a graph from a list of edges, in O(vertices + edges) with a counting sort on the source vertex. The edges
+     * of each vertex keep the order they were given in.
+     * @param vertexCount Number of vertices.
+     * @param edgeCount Number of edges given (the arrays may be longer).
+     * @param from The vertex each edge leaves.
+     * @param to The vertex each edge goes to.
+     * @param weight The weight of each edge.
+     * @param bothWays True to add every edge in both directions (an undirected graph, as Prim needs).
+     * @return The graph, or null (with an error) if an edge has a vertex out of range.
+     */
+    public static CsrGraph fromEdges(int vertexCount, int edgeCount, int[] from, int[] to, int[] weight,
+                                     boolean bothWays){
+        int[] edgeStart = new int[vertexCount + 1];
+        for(int i = 0; i < edgeCount; i++){
+            if(from[i] < 0 || from[i] >= vertexCount || to[i] < 0 || to[i] >= vertexCount){
+                System.out.println("Sorry, edge " + i + " has a vertex out of range!");
+                return null;
+            }
+            edgeStart[from[i] + 1]++;
+            if(bothWays){
+                edgeStart[to[i] + 1]++;
+            }
+        }
+        for(int v = 0; v < vertexCount; v++){
+            edgeStart[v + 1] += edgeStart[v];
+        }
+
+        int total = edgeStart[vertexCount];
+        int[] edgeTarget = new int[total];
+        int[] edgeWeight = new int[total];
+        //Where the next edge of each vertex goes.
+        int[] next = new int[vertexCount];
+        System.arraycopy(edgeStart, 0, next, 0, vertexCount);
+        for(int i = 0; i < edgeCount; i++){
+            int e = next[from[i]]++;
+            edgeTarget[e] = to[i];
+            edgeWeight[e] = weight[i];
+            if(bothWays){
+                e = next[to[i]]++;
+                edgeTarget[e] = from[i];
+                edgeWeight[e] = weight[i];
+            }
+        }
+        return new CsrGraph(vertexCount, edgeStart, edgeTarget, edgeWeight);
+    }
+
+    /**
+     * Makes a random graph: every edge picks its two ends and its weight at random, so the degrees are close to
+     * even and there are few long paths, the opposite of a road network (see grid).
+     * @param vertexCount Number of vertices.
+     * @param edgeCount Number of edges (each one in both directions if bothWays).
+     * @param maxWeight Weights are from 0 up to (not including) this.
+     * @param bothWays True for an undirected graph.
+     * @param seed Seed of the random numbers.
+     * @return The graph.
+     */
+    public static CsrGraph random(int vertexCount, int edgeCount, int maxWeight, boolean bothWays, long seed){
+        Random rand = new Random(seed);
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int[] weight = new int[edgeCount];
+        for(int i = 0; i < edgeCount; i++){
+            from[i] = rand.nextInt(vertexCount);
+            to[i] = rand.nextInt(vertexCount);
+            weight[i] = rand.nextInt(maxWeight);
+        }
+        return fromEdges(vertexCount, edgeCount, from, to, weight, bothWays);
+    }
+
+    /**
+     * Makes a width by height grid with random weights, every vertex joined to its neighbours in both directions.
+     * Like a road network: a low even degree, and shortest paths that are hundreds of edges long, so the heap sees a
+     * lot of decreaseKeys.
+     * @param width Vertices across.
+     * @param height Vertices down.
+     * @param maxWeight Weights are from 1 up to (not including) this.
+     * @param seed Seed of the random numbers.
+     * @return The graph, vertex x + y * width is at (x, y).
+     */
+    public static CsrGraph grid(int width, int height, int maxWeight, long seed){
+        Random rand = new Random(seed);
+        int vertexCount = width * height;
+        int edgeCount = (width - 1) * height + width * (height - 1);
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int[] weight = new int[edgeCount];
+        int i = 0;
+        for(int y = 0; y < height; y++){
+            for(int x = 0; x < width; x++){
+                int v = x + y * width;
+                if(x + 1 < width){
+                    from[i] = v;
+                    to[i] = v + 1;
+                    weight[i++] = 1 + rand.nextInt(maxWeight - 1);
+                }
+                if(y + 1 < height){
+                    from[i] = v;
+                    to[i] = v + width;
+                    weight[i++] = 1 + rand.nextInt(maxWeight - 1);
+                }
+            }
+        }
+        return fromEdges(vertexCount, edgeCount, from, to, weight, true);
+    }
+
+    /**
+     * Gets the number of vertices.
+     * @return Number of vertices.
+     */
+    public int getVertexCount(){
+        return vertexCount;
+    }
+
+    /**
+     * Gets the number of (directed) edges, an undirected edge counts twice.
+     * @return Number of edges.
+     */
+    public int getEdgeCount(){
+        return edgeStart[vertexCount];
+    }
+
+    /**
+     * Gets the first edge leaving a vertex.
+     * @param v The vertex.
+     * @return Index of its first edge.
+     */
+    public int getEdgeStart(int v){
+        return edgeStart[v];
+    }
+
+    /**
+     * Gets the end of the edges leaving a vertex.
+     * @param v The vertex.
+     * @return Index one past its last edge.
+     */
+    public int getEdgeEnd(int v){
+        return edgeStart[v + 1];
+    }
+
+    /**
+     * Gets the vertex an edge goes to.
+     * @param e The edge.
+     * @return Its target vertex.
+     */
+    public int getTarget(int e){
+        return edgeTarget[e];
+    }
+
+    /**
+     * Gets the weight of an edge.
+     * @param e The edge.
+     * @return Its weight.
+     */
+    public int getWeight(int e){
+        return edgeWeight[e];
+    }
+}
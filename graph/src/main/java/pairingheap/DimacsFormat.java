@@ -0,0 +1,249 @@
+package pairingheap;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes graphs in the DIMACS shortest path format (the one of the 9th DIMACS Implementation Challenge,
+ * e.g. the USA road networks):
+ *   c some comment
+ *   p sp 4 5          - the problem line: 4 vertices, 5 arcs
+ *   a 1 2 7           - an arc from vertex 1 to vertex 2 with weight 7 (vertices are numbered from 1)
+ *
+ * Road network files have tens of millions of arcs, so the file is read through a FileChannel into a big buffer and
+ * the numbers are parsed straight from the bytes, nothing is made per line.
+ */
+public class DimacsFormat {
+    //Size of the read buffer.
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private DimacsFormat(){
+    }
+
+    /**
+     * Reads a graph, as directed.
+     * @param path The file.
+     * @return The graph, vertex v of the file is vertex v - 1 of the graph.
+     * @throws IOException If reading fails, or the file is not in the format (with the line number).
+     */
+    public static CsrGraph read(Path path) throws IOException{
+        return read(path, false);
+    }
+
+    /**
+     * Reads a graph.
+     * @param path The file.
+     * @param bothWays True to add every arc in both directions too (an undirected graph, as Prim needs).
+     * @return The graph, vertex v of the file is vertex v - 1 of the graph.
+     * @throws IOException If reading fails, or the file is not in the format (with the line number).
+     */
+    public static CsrGraph read(Path path, boolean bothWays) throws IOException{
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            Reader reader = new Reader(channel);
+            int vertexCount = -1;
+            int arcCount = 0;
+            int[] from = null;
+            int[] to = null;
+            int[] weight = null;
+            int arcs = 0;
+
+            int kind;
+            while((kind = reader.nextLine()) != -1){
+                if(kind == '\n'){
+                    continue;
+                }
+                if(kind == 'c'){
+                    reader.skipLine();
+                }
+                else if(kind == 'p'){
+                    if(vertexCount != -1 || !reader.nextWord().equals("sp")){
+                        throw reader.error("expected one \"p sp <vertices> <arcs>\" line");
+                    }
+                    vertexCount = reader.nextInt();
+                    arcCount = reader.nextInt();
+                    from = new int[arcCount];
+                    to = new int[arcCount];
+                    weight = new int[arcCount];
+                    reader.skipLine();
+                }
+                else if(kind == 'a'){
+                    if(vertexCount == -1){
+                        throw reader.error("arc before the problem line");
+                    }
+                    if(arcs == arcCount){
+                        throw reader.error("more arcs than the problem line says");
+                    }
+                    int u = reader.nextInt();
+                    int v = reader.nextInt();
+                    int w = reader.nextInt();
+                    if(u < 1 || u > vertexCount || v < 1 || v > vertexCount){
+                        throw reader.error("vertex out of range");
+                    }
+                    if(w < 0){
+                        throw reader.error("negative weight");
+                    }
+                    from[arcs] = u - 1;
+                    to[arcs] = v - 1;
+                    weight[arcs] = w;
+                    arcs++;
+                    reader.skipLine();
+                }
+                else{
+                    throw reader.error("unknown line type '" + (char) kind + "'");
+                }
+            }
+            if(vertexCount == -1){
+                throw new IOException("No problem line in " + path);
+            }
+            if(arcs != arcCount){
+                throw new IOException("The problem line says " + arcCount + " arcs, " + path + " has " + arcs);
+            }
+            return CsrGraph.fromEdges(vertexCount, arcs, from, to, weight, bothWays);
+        }
+    }
+
+    /**
+     * Writes a graph, every edge as an arc.
+     * @param graph The graph.
+     * @param path The file to write, replaced if it is there.
+     * @throws IOException If writing fails.
+     */
+    public static void write(CsrGraph graph, Path path) throws IOException{
+        try(BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)){
+            out.write("c written by pairingheap.DimacsFormat\n");
+            out.write("p sp " + graph.getVertexCount() + " " + graph.getEdgeCount() + "\n");
+            for(int v = 0; v < graph.getVertexCount(); v++){
+                for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                    out.write("a " + (v + 1) + " " + (graph.getTarget(e) + 1) + " " + graph.getWeight(e) + "\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the file a byte at a time out of a big buffer.
+     */
+    private static final class Reader {
+        //pushedBack holds no byte.
+        private static final int NONE = -2;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private int line;
+
+        //A byte that was read but is to be read again, or NONE.
+        private int pushedBack = NONE;
+
+        Reader(FileChannel channel){
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        /**
+         * Gets the next byte.
+         * @return The byte, or -1 at the end of the file.
+         */
+        private int next() throws IOException{
+            if(pushedBack != NONE){
+                int c = pushedBack;
+                pushedBack = NONE;
+                return c;
+            }
+            if(!buffer.hasRemaining()){
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if(read <= 0){
+                    return -1;
+                }
+            }
+            return buffer.get();
+        }
+
+        /**
+         * Starts the next line.
+         * @return The first byte of the line (its type), '\n' for an empty line, or -1 at the end of the file.
+         */
+        int nextLine() throws IOException{
+            line++;
+            int c = next();
+            while(c == '\r'){
+                c = next();
+            }
+            return c;
+        }
+
+        /**
+         * Skips to the start of the next line.
+         */
+        void skipLine() throws IOException{
+            int c = next();
+            while(c != '\n' && c != -1){
+                c = next();
+            }
+        }
+
+        /**
+         * Reads the next word of the line.
+         */
+        String nextWord() throws IOException{
+            int c = skipSpaces();
+            StringBuilder word = new StringBuilder();
+            while(c > ' '){
+                word.append((char) c);
+                c = next();
+            }
+            return word.toString();
+        }
+
+        /**
+         * Reads the next number of the line.
+         */
+        int nextInt() throws IOException{
+            int c = skipSpaces();
+            boolean negative = c == '-';
+            if(negative){
+                c = next();
+            }
+            if(c < '0' || c > '9'){
+                throw error("expected a number");
+            }
+            long value = 0;
+            while(c >= '0' && c <= '9'){
+                value = value * 10 + (c - '0');
+                if(value > Integer.MAX_VALUE){
+                    throw error("number too big");
+                }
+                c = next();
+            }
+            //Leave the byte after the number to be looked at again (it may be the end of the line).
+            pushedBack = c;
+            return negative ? (int) -value : (int) value;
+        }
+
+        private int skipSpaces() throws IOException{
+            int c = next();
+            while(c == ' ' || c == '\t'){
+                c = next();
+            }
+            if(c == -1){
+                throw new EOFException("The file ends in the middle of line " + line);
+            }
+            return c;
+        }
+
+        /**
+         * Makes the exception for a line that is not in the format.
+         */
+        IOException error(String message){
+            return new IOException("Line " + line + " is not in the DIMACS format: " + message);
+        }
+    }
+}
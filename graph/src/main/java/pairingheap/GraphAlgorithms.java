@@ -0,0 +1,237 @@
+package pairingheap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Dijkstra's shortest paths and Prim's minimum spanning tree on a CsrGraph, using the primitive pairing heaps with
+ * decreaseKey: every vertex is in the heap at most once, and when a shorter way to it is found its key is decreased in
+ * place (an O(1) cut and link) rather than a second entry being put in.
+ *
+ * The usual java.util.PriorityQueue way of doing both (lazy insert: put in a new entry for every improvement and skip
+ * the stale ones as they come out) is here too, as dijkstraLazy and primLazy, to check against and to benchmark
+ * against. The PriorityQueue has no decreaseKey, so that is the best it can do. dijkstraRadix does the same as
+ * dijkstra on a LongRadixHeap, which works because Dijkstra's only ever takes out larger distances.
+ */
+public class GraphAlgorithms {
+    //Distance of a vertex that can not be reached.
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private GraphAlgorithms(){
+    }
+
+    /**
+     * Dijkstra's algorithm on a LongPairingHeap with decreaseKey. The weights must not be negative.
+     * @param graph The graph.
+     * @param source The vertex to start from.
+     * @return The length of the shortest path from the source to every vertex, UNREACHABLE if there is none.
+     */
+    public static long[] dijkstra(CsrGraph graph, int source){
+        return dijkstra(graph, source, null);
+    }
+
+    /**
+     * Dijkstra's algorithm on a LongPairingHeap with decreaseKey, also giving the shortest path tree. The weights must
+     * not be negative.
+     * @param graph The graph.
+     * @param source The vertex to start from.
+     * @param parents If not null, filled with the vertex before each vertex on its shortest path (-1 for the source
+     *                and for vertices that can not be reached). Must have room for every vertex.
+     * @return The length of the shortest path from the source to every vertex, UNREACHABLE if there is none.
+     */
+    public static long[] dijkstra(CsrGraph graph, int source, int[] parents){
+        int vertexCount = graph.getVertexCount();
+        long[] distances = new long[vertexCount];
+        Arrays.fill(distances, UNREACHABLE);
+        if(parents != null){
+            Arrays.fill(parents, -1);
+        }
+        //The heap entry of each vertex while it is in the heap. A vertex whose distance is not UNREACHABLE is either
+        //in the heap or done, and a done vertex never gets a shorter distance, so no other state is needed.
+        int[] handles = new int[vertexCount];
+        LongPairingHeap heap = new LongPairingHeap(1024);
+
+        distances[source] = 0;
+        handles[source] = heap.insert(0, source);
+        while(heap.getSize() > 0){
+            int v = heap.deleteMin();
+            long distance = distances[v];
+            for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                int w = graph.getTarget(e);
+                long newDistance = distance + graph.getWeight(e);
+                if(newDistance < distances[w]){
+                    if(distances[w] == UNREACHABLE){
+                        handles[w] = heap.insert(newDistance, w);
+                    }
+                    else{
+                        heap.decreaseKey(handles[w], newDistance);
+                    }
+                    distances[w] = newDistance;
+                    if(parents != null){
+                        parents[w] = v;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Dijkstra's algorithm on a LongRadixHeap. The distances taken out of the heap only go up (the weights are not
+     * negative), which is all a radix heap needs, and its insert and decreaseKey are O(1) with no key comparisons.
+     * Same as dijkstra otherwise, for checking and benchmarking the two heaps against each other.
+     * @param graph The graph.
+     * @param source The vertex to start from.
+     * @return The length of the shortest path from the source to every vertex, UNREACHABLE if there is none.
+     */
+    public static long[] dijkstraRadix(CsrGraph graph, int source){
+        int vertexCount = graph.getVertexCount();
+        long[] distances = new long[vertexCount];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] handles = new int[vertexCount];
+        LongRadixHeap heap = new LongRadixHeap(1024);
+
+        distances[source] = 0;
+        handles[source] = heap.insert(0, source);
+        while(heap.getSize() > 0){
+            int v = heap.deleteMin();
+            long distance = distances[v];
+            for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                int w = graph.getTarget(e);
+                long newDistance = distance + graph.getWeight(e);
+                if(newDistance < distances[w]){
+                    if(distances[w] == UNREACHABLE){
+                        handles[w] = heap.insert(newDistance, w);
+                    }
+                    else{
+                        heap.decreaseKey(handles[w], newDistance);
+                    }
+                    distances[w] = newDistance;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Dijkstra's algorithm the usual PriorityQueue way: a new entry for every shorter distance found, the stale
+     * entries skipped as they come out. For checking and benchmarking dijkstra against.
+     * @param graph The graph.
+     * @param source The vertex to start from.
+     * @return The length of the shortest path from the source to every vertex, UNREACHABLE if there is none.
+     */
+    public static long[] dijkstraLazy(CsrGraph graph, int source){
+        int vertexCount = graph.getVertexCount();
+        long[] distances = new long[vertexCount];
+        Arrays.fill(distances, UNREACHABLE);
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong((long[] entry) -> entry[0]));
+
+        distances[source] = 0;
+        queue.add(new long[]{0, source});
+        while(!queue.isEmpty()){
+            long[] entry = queue.poll();
+            int v = (int) entry[1];
+            long distance = entry[0];
+            if(distance > distances[v]){
+                continue;
+            }
+            for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                int w = graph.getTarget(e);
+                long newDistance = distance + graph.getWeight(e);
+                if(newDistance < distances[w]){
+                    distances[w] = newDistance;
+                    queue.add(new long[]{newDistance, w});
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Prim's algorithm on an IntPairingHeap with decreaseKey. The graph must be undirected (every edge in both
+     * directions, see CsrGraph.fromEdges). If it is not connected, this gives a spanning tree of every connected
+     * part (a spanning forest).
+     * @param graph The graph.
+     * @param parents If not null, filled with the vertex each vertex is joined to in the tree (-1 for the first vertex
+     *                of each connected part). Must have room for every vertex.
+     * @return The total weight of the tree.
+     */
+    public static long prim(CsrGraph graph, int[] parents){
+        int vertexCount = graph.getVertexCount();
+        //The lightest edge joining each vertex to the tree so far, only set while the vertex is in the heap.
+        int[] lightest = new int[vertexCount];
+        int[] tree = parents != null ? parents : new int[vertexCount];
+        Arrays.fill(tree, -1);
+        boolean[] inTree = new boolean[vertexCount];
+        //The heap entry of each vertex, NIL until it goes in. Not the weight: Integer.MAX_VALUE is a weight too.
+        int[] handles = new int[vertexCount];
+        Arrays.fill(handles, IntPairingHeap.NIL);
+        IntPairingHeap heap = new IntPairingHeap(1024);
+
+        long totalWeight = 0;
+        for(int start = 0; start < vertexCount; start++){
+            if(inTree[start]){
+                continue;
+            }
+            lightest[start] = 0;
+            handles[start] = heap.insert(0, start);
+            while(heap.getSize() > 0){
+                int v = heap.deleteMin();
+                inTree[v] = true;
+                totalWeight += lightest[v];
+                for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                    int w = graph.getTarget(e);
+                    int weight = graph.getWeight(e);
+                    if(!inTree[w] && (handles[w] == IntPairingHeap.NIL || weight < lightest[w])){
+                        if(handles[w] == IntPairingHeap.NIL){
+                            handles[w] = heap.insert(weight, w);
+                        }
+                        else{
+                            heap.decreaseKey(handles[w], weight);
+                        }
+                        lightest[w] = weight;
+                        tree[w] = v;
+                    }
+                }
+            }
+        }
+        return totalWeight;
+    }
+
+    /**
+     * Prim's algorithm the usual PriorityQueue way, with stale entries skipped. For checking and benchmarking prim
+     * against.
+     * @param graph The graph, undirected.
+     * @return The total weight of the tree (of every connected part).
+     */
+    public static long primLazy(CsrGraph graph){
+        int vertexCount = graph.getVertexCount();
+        boolean[] inTree = new boolean[vertexCount];
+        PriorityQueue<long[]> queue = new PriorityQueue<>(Comparator.comparingLong((long[] entry) -> entry[0]));
+
+        long totalWeight = 0;
+        for(int start = 0; start < vertexCount; start++){
+            if(inTree[start]){
+                continue;
+            }
+            queue.add(new long[]{0, start});
+            while(!queue.isEmpty()){
+                long[] entry = queue.poll();
+                int v = (int) entry[1];
+                if(inTree[v]){
+                    continue;
+                }
+                inTree[v] = true;
+                totalWeight += entry[0];
+                for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                    int w = graph.getTarget(e);
+                    if(!inTree[w]){
+                        queue.add(new long[]{graph.getWeight(e), w});
+                    }
+                }
+            }
+        }
+        return totalWeight;
+    }
+}
@@ -0,0 +1,242 @@
+package pairingheap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Testing bed for the graph module (CsrGraph, DimacsFormat and GraphAlgorithms), same idea as Tests in the core:
+ * run it and read the results off the terminal.
+ *   java -cp core/target/classes:graph/target/classes pairingheap.GraphTests
+ *
+ * Tests: (BRIEF, please refer to the function headers for more detailed information!)
+ *    1: Dijkstra's and Prim's on a small graph worked out by hand.
+ *    2: Writing a graph as a DIMACS file and reading it back, and damaged files being caught.
+ *    3: Dijkstra's with decreaseKey (pairing heap and radix heap) vs. the PriorityQueue way, on big random and grid
+ *       graphs, with timings.
+ *    4: Prim's with decreaseKey vs. the PriorityQueue way, on the same graphs, with timings.
+ */
+public class GraphTests {
+    public static void main(String args[]){
+        //The algorithms on a graph small enough to check by hand.
+        smallGraphTest();
+
+        //Write graphs to DIMACS files and read them back. Expect the same graph, and errors for damaged files.
+        dimacsTest();
+
+        //Run Dijkstra's on big graphs with the pairing heap, the radix heap and the built in PQ. Expect the same
+        //distances.
+        dijkstraTest();
+
+        //Run Prim's on big graphs with the pairing heap and with the built in PQ. Expect the same tree weight.
+        primTest();
+
+        System.out.println("Thanks for running the graph tests :)!");
+    }
+
+    /**
+     * The graph (undirected, weights on the edges):
+     *
+     *     0 --4-- 1 --1-- 2
+     *     |       |       |
+     *     1       2       5
+     *     |       |       |
+     *     3 --7-- 4       5 (on its own)
+     *
+     * The shortest paths from 0 are 0:0, 1:4, 2:5, 3:1, 4:6 (through 1), 5 can not be reached.
+     * The spanning forest takes 0-3 (1), 1-2 (1), 1-4 (2), 0-1 (4) and 2-5 (5): total 13.
+     * Then the same graph with 2-5 weighing Integer.MAX_VALUE, the heaviest weight a DIMACS file can have: 5 still
+     * hangs off 2, total 8 + Integer.MAX_VALUE.
+     * Expect every value to match.
+     */
+    public static void smallGraphTest(){
+        System.out.println("******TEST 1: Dijkstra's and Prim's on a small graph! ");
+
+        int[] from = {0, 1, 0, 1, 3, 2};
+        int[] to = {1, 2, 3, 4, 4, 5};
+        int[] weight = {4, 1, 1, 2, 7, 5};
+        //Both graphs are undirected, noFive leaves out the last edge (2-5) so 5 can not be reached.
+        CsrGraph undirected = CsrGraph.fromEdges(6, 6, from, to, weight, true);
+        CsrGraph noFive = CsrGraph.fromEdges(6, 5, from, to, weight, true);
+
+        long[] distances = GraphAlgorithms.dijkstra(noFive, 0);
+        long[] expected = {0, 4, 5, 1, 6, GraphAlgorithms.UNREACHABLE};
+        System.out.println("Distances from 0: " + Arrays.toString(distances) + " (expect " + Arrays.toString(expected)
+                + ")");
+
+        int[] parents = new int[6];
+        long treeWeight = GraphAlgorithms.prim(undirected, parents);
+        System.out.println("Spanning tree weight: " + treeWeight + " (expect 13), parents: " + Arrays.toString(parents)
+                + " (expect [-1, 0, 1, 0, 1, 2])");
+        System.out.println("Matches (expect true): " + (Arrays.equals(distances, expected) && treeWeight == 13
+                && Arrays.equals(parents, new int[]{-1, 0, 1, 0, 1, 2})));
+
+        int[] heavyWeight = weight.clone();
+        heavyWeight[5] = Integer.MAX_VALUE;
+        CsrGraph heavy = CsrGraph.fromEdges(6, 6, from, to, heavyWeight, true);
+        treeWeight = GraphAlgorithms.prim(heavy, parents);
+        System.out.println("With 2-5 at Integer.MAX_VALUE, matches (expect true): "
+                + (treeWeight == 8L + Integer.MAX_VALUE && Arrays.equals(parents, new int[]{-1, 0, 1, 0, 1, 2})));
+    }
+
+    /**
+     * Writes a random graph of 100,000 vertices and 1,000,000 arcs as a DIMACS file, reads it back and checks that
+     * every arc came back, timing the read. Then reads files that are damaged in different ways, each should be
+     * turned away with an IOException.
+     * Expect the same graph, and every damaged file caught.
+     */
+    public static void dimacsTest(){
+        System.out.println();
+        System.out.println("******TEST 2: DIMACS files! ");
+
+        try{
+            Path file = Files.createTempFile("pairingheap", ".gr");
+            CsrGraph graph = CsrGraph.random(100000, 1000000, 1000, false, 2016);
+            DimacsFormat.write(graph, file);
+            long startTime = System.nanoTime();
+            CsrGraph readBack = DimacsFormat.read(file);
+            long duration = System.nanoTime() - startTime;
+            System.out.println("Read " + readBack.getEdgeCount() + " arcs (" + Files.size(file)/(1024*1024)
+                    + " MB) in " + duration/1000000 + " (Milliseconds), same graph (expect true): "
+                    + sameGraph(graph, readBack));
+
+            String[] damaged = {
+                    "p sp 2 1\na 1 2\n",             //Arc cut short.
+                    "p sp 2 1\na 1 3 5\n",           //Vertex out of range.
+                    "p sp 2 2\na 1 2 5\n",           //Fewer arcs than the problem line says.
+                    "a 1 2 5\np sp 2 1\n",           //Arc before the problem line.
+                    "p sp 2 1\na 1 2 -5\n",          //Negative weight.
+                    "p sp 2 1\nx 1 2 5\n",           //Unknown line.
+                    "c nothing here\n"               //No problem line.
+            };
+            int caught = 0;
+            for(String contents: damaged){
+                Files.writeString(file, contents);
+                try{
+                    DimacsFormat.read(file);
+                    System.out.println("  Not caught: " + contents.replace("\n", "\\n"));
+                }
+                catch(IOException e){
+                    caught++;
+                }
+            }
+            //Comments, empty lines, Windows line endings and no newline at the end are all fine.
+            Files.writeString(file, "c a comment\r\n\r\np sp 3 2\r\na 1 2 5\r\nc another\na 2 3 7");
+            CsrGraph small = DimacsFormat.read(file);
+            boolean readFine = small.getEdgeCount() == 2 && small.getWeight(small.getEdgeStart(1)) == 7;
+            System.out.println("Damaged files caught: " + caught + " (expect " + damaged.length
+                    + "), odd but valid file read (expect true): " + readFine);
+            Files.delete(file);
+        }
+        catch(IOException e){
+            System.out.println("Sorry, the DIMACS test failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Dijkstra's from vertex 0 on a random graph (1,000,000 vertices, 5,000,000 arcs) and a 1000 by 1000 grid (about
+     * 4,000,000 arcs, like a road network), with the LongPairingHeap and decreaseKey, the LongRadixHeap and
+     * decreaseKey, and the PriorityQueue with lazy insert. Each is run twice and the second run is timed, so the JIT
+     * is warmed up.
+     * Expect the same distances.
+     */
+    public static void dijkstraTest(){
+        System.out.println();
+        System.out.println("******TEST 3: Dijkstra's, pairing and radix heaps vs. the built in PQ! ");
+
+        CsrGraph[] graphs = {CsrGraph.random(1000000, 5000000, 1000, false, 2016), CsrGraph.grid(1000, 1000, 1000, 2016)};
+        String[] names = {"random", "grid  "};
+        for(int g = 0; g < graphs.length; g++){
+            long[] distances = null;
+            long[] radixDistances = null;
+            long[] lazyDistances = null;
+            long heapTime = 0;
+            long radixTime = 0;
+            long lazyTime = 0;
+            for(int round = 0; round < 2; round++){
+                long startTime = System.nanoTime();
+                distances = GraphAlgorithms.dijkstra(graphs[g], 0);
+                heapTime = System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                radixDistances = GraphAlgorithms.dijkstraRadix(graphs[g], 0);
+                radixTime = System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                lazyDistances = GraphAlgorithms.dijkstraLazy(graphs[g], 0);
+                lazyTime = System.nanoTime() - startTime;
+            }
+            System.out.println(names[g] + " (" + graphs[g].getEdgeCount() + " arcs): pairing heap " + heapTime/1000000
+                    + " (Milliseconds), radix heap " + radixTime/1000000 + " (Milliseconds), built in PQ "
+                    + lazyTime/1000000 + " (Milliseconds), same distances (expect true): "
+                    + (Arrays.equals(distances, lazyDistances) && Arrays.equals(radixDistances, lazyDistances)));
+        }
+    }
+
+    /**
+     * Prim's on an undirected random graph (1,000,000 vertices, 2,500,000 edges, so 5,000,000 arcs) and the 1000 by
+     * 1000 grid, with the IntPairingHeap and decreaseKey vs. the PriorityQueue with lazy insert. The weight of the
+     * tree given by the parents is added up again, to check the tree as well as the total.
+     * Expect the same tree weights.
+     */
+    public static void primTest(){
+        System.out.println();
+        System.out.println("******TEST 4: Prim's, pairing heap with decreaseKey vs. the built in PQ! ");
+
+        CsrGraph[] graphs = {CsrGraph.random(1000000, 2500000, 1000, true, 2016), CsrGraph.grid(1000, 1000, 1000, 2016)};
+        String[] names = {"random", "grid  "};
+        for(int g = 0; g < graphs.length; g++){
+            CsrGraph graph = graphs[g];
+            int[] parents = new int[graph.getVertexCount()];
+            long weight = 0;
+            long lazyWeight = 0;
+            long heapTime = 0;
+            long lazyTime = 0;
+            for(int round = 0; round < 2; round++){
+                long startTime = System.nanoTime();
+                weight = GraphAlgorithms.prim(graph, parents);
+                heapTime = System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                lazyWeight = GraphAlgorithms.primLazy(graph);
+                lazyTime = System.nanoTime() - startTime;
+            }
+
+            //Add up the tree from the parents, taking the lightest edge between each vertex and its parent.
+            long parentsWeight = 0;
+            for(int v = 0; v < graph.getVertexCount(); v++){
+                if(parents[v] == -1){
+                    continue;
+                }
+                int lightest = Integer.MAX_VALUE;
+                for(int e = graph.getEdgeStart(v); e < graph.getEdgeEnd(v); e++){
+                    if(graph.getTarget(e) == parents[v]){
+                        lightest = Math.min(lightest, graph.getWeight(e));
+                    }
+                }
+                parentsWeight += lightest;
+            }
+            System.out.println(names[g] + " (" + graph.getEdgeCount() + " arcs): pairing heap " + heapTime/1000000
+                    + " (Milliseconds), built in PQ " + lazyTime/1000000 + " (Milliseconds), weight " + weight
+                    + ", same weight (expect true): " + (weight == lazyWeight && weight == parentsWeight));
+        }
+    }
+
+    /**
+     * Checks that two graphs have the same arcs, in the same order.
+     */
+    private static boolean sameGraph(CsrGraph graph1, CsrGraph graph2){
+        if(graph1.getVertexCount() != graph2.getVertexCount() || graph1.getEdgeCount() != graph2.getEdgeCount()){
+            return false;
+        }
+        for(int v = 0; v < graph1.getVertexCount(); v++){
+            if(graph1.getEdgeStart(v) != graph2.getEdgeStart(v)){
+                return false;
+            }
+        }
+        for(int e = 0; e < graph1.getEdgeCount(); e++){
+            if(graph1.getTarget(e) != graph2.getTarget(e) || graph1.getWeight(e) != graph2.getWeight(e)){
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,621 @@
+package pairingheap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * AdaptivePriorityQueue, a MinPriorityQueue that picks its own engine by watching how it is used, for when nobody
+ * knows (or keeps up with) which engine suits a queue best.
+ *
+ * The engines:
+ *   TWO_PASS  - a PairingHeap with two-pass pairing, for anything.
+ *   AUXILIARY - a PairingHeap with lazy insert, for a queue growing in bursts of inserts (several per deleteMin or
+ *               delete). Inserts that are mostly deleted again soon, like cancelled timeouts, are better off with
+ *               TWO_PASS, where they are cut straight off the root.
+ *   RADIX     - a RadixHeap, for whole number keys (Long, Integer, Short, Byte, in their natural order) that never go
+ *               below the last minimum taken out, and no melds (melding into a RadixHeap moves every entry).
+ *
+ * Every window of operations (65,536 to start with) the queue looks at what it saw: the mix of inserts, deleteMins,
+ * decreaseKeys, deletes and melds, whether any key went below the last minimum taken out, and the size. From that it
+ * predicts the best engine, and if the same prediction comes up two windows in a row it switches:
+ *   - Between the two PairingHeap engines the heap just changes its strategy (PairingHeap.setStrategy), no entries
+ *     move.
+ *   - To or from RADIX the entries have to move to a new engine. They are moved a few at a time (64 to start with)
+ *     at the end of every operation, so no single operation pauses for long. Until the old engine is empty both are
+ *     in use: new entries go into the new one, deleteMin takes the smaller of the two minimums, and a node is handled
+ *     by whichever engine it is in (RadixHeap.isInRadixHeap tells). A switch that would take more than a window to
+ *     finish is not made.
+ *   - A key that does not fit the RadixHeap (below its last minimum) makes the queue leave RADIX right away, with the
+ *     key going into the new PairingHeap, so the RadixHeap's promise is never broken.
+ * The nodes are moved, not copied, so the handles given out by insert stay good through every switch.
+ *
+ * The switches are kept track of (getSwitches, getSwitchCount), as well as the entries moved and the longest pause
+ * moving them took (getMigratedCount, getMaxMigrationPauseNanos).
+ *
+ * Like the PairingHeap, this is not thread safe.
+ *
+ * @param <K> Type of the keys (values) the queue is ordered upon.
+ * @param <V> Type of the payloads.
+ */
+public class AdaptivePriorityQueue<K, V> implements MinPriorityQueue<K, V> {
+    /**
+     * The engines the queue can run on, see the class comment.
+     */
+    public enum Engine {
+        TWO_PASS,
+        AUXILIARY,
+        RADIX
+    }
+
+    public static final int DEFAULT_WINDOW = 1 << 16;
+    public static final int DEFAULT_MIGRATION_STEP = 64;
+
+    //Inserts per removal (deleteMin or delete) from which the AUXILIARY engine is picked.
+    private static final int BURST_INSERTS = 4;
+
+    //The size is sampled once every this many operations.
+    private static final int SIZE_SAMPLE_MASK = 63;
+
+    //Windows in a row the same engine has to be predicted before switching to it.
+    private static final int CONFIRM_WINDOWS = 2;
+
+    //Switches kept for getSwitches.
+    private static final int SWITCHES_KEPT = 64;
+
+    //Orders the keys, null means the natural ordering of the keys (the only ordering RADIX can be used with).
+    private final Comparator<? super K> comparator;
+    private final int window;
+    private final int migrationStep;
+
+    //The engine entries go into, and while a migration is on the engine they are being moved out of (null if none).
+    //While migrating one of the two is a RadixHeap and the other a PairingHeap.
+    private MinPriorityQueue<K, V> current;
+    private MinPriorityQueue<K, V> draining;
+    private Engine engine = Engine.TWO_PASS;
+
+    //What was seen in the current window.
+    private int operations;
+    private int inserts;
+    private int deleteMins;
+    private int decreaseKeys;
+    private int deletes;
+    private int melds;
+    private int belowLast;
+    private long sizeTotal;
+    private int sizeSamples;
+
+    //False once a key that is not a whole number is seen, for good.
+    private boolean wholeKeys = true;
+
+    //Key of the last minimum taken out, null before the first deleteMin.
+    private K lastMin;
+
+    //The engine predicted by the last windows, and for how many windows in a row.
+    private Engine proposed;
+    private int proposedWindows;
+
+    //The metrics.
+    private final ArrayDeque<Switch> switches = new ArrayDeque<>();
+    private long switchCount;
+    private long totalOperations;
+    private long migrated;
+    private long maxMigrationPauseNanos;
+    private String lastSample = "";
+
+    /**
+     * Constructor, an empty queue ordered by the natural ordering of the keys, starting on TWO_PASS.
+     */
+    AdaptivePriorityQueue(){
+        this(null, DEFAULT_WINDOW, DEFAULT_MIGRATION_STEP);
+    }
+
+    /**
+     * Constructor, an empty queue ordered by the comparator, starting on TWO_PASS. With a comparator the RADIX engine
+     * is never used, the RadixHeap only knows the natural ordering of whole numbers.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     */
+    AdaptivePriorityQueue(Comparator<? super K> comparator){
+        this(comparator, DEFAULT_WINDOW, DEFAULT_MIGRATION_STEP);
+    }
+
+    /**
+     * Constructor, an empty queue starting on TWO_PASS, with the size of the window and of the migration steps.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     * @param window Operations between predictions.
+     * @param migrationStep Most entries moved at the end of an operation while migrating, this bounds the pause.
+     */
+    AdaptivePriorityQueue(Comparator<? super K> comparator, int window, int migrationStep){
+        this.comparator = comparator;
+        this.window = Math.max(1, window);
+        this.migrationStep = Math.max(1, migrationStep);
+        current = new PairingHeap<>(PairingStrategy.TWO_PASS, comparator);
+    }
+
+    /**
+     * Gets the size of the queue.
+     * @return Integer stating the number of entries in the queue, in both engines while migrating.
+     */
+    public int getSize(){
+        return current.getSize() + (draining == null ? 0 : draining.getSize());
+    }
+
+    /**
+     * Gets the engine the queue is on (or migrating to).
+     * @return The Engine.
+     */
+    public Engine getEngine(){
+        return engine;
+    }
+
+    /**
+     * Tells whether entries are still being moved from the last engine to the current one.
+     * @return True while migrating.
+     */
+    public boolean isMigrating(){
+        return draining != null;
+    }
+
+    /**
+     * Gets the number of times the queue switched engines.
+     * @return The number of switches.
+     */
+    public long getSwitchCount(){
+        return switchCount;
+    }
+
+    /**
+     * Gets the last switches made (up to 64), oldest first.
+     * @return A copy of the list of switches.
+     */
+    public List<Switch> getSwitches(){
+        return new ArrayList<>(switches);
+    }
+
+    /**
+     * Gets the number of entries moved from one engine to another by migrations.
+     * @return The number of entries moved.
+     */
+    public long getMigratedCount(){
+        return migrated;
+    }
+
+    /**
+     * Gets the longest time the migration work at the end of one operation took.
+     * @return The longest pause (Nanoseconds).
+     */
+    public long getMaxMigrationPauseNanos(){
+        return maxMigrationPauseNanos;
+    }
+
+    /**
+     * Gets what was seen in the last complete window, e.g.
+     * "50% inserts, 50% deleteMins, 0% decreaseKeys, 0% deletes, 0 melds, 0 keys below the last minimum, size 1000".
+     * @return The summary, empty before the first window is complete.
+     */
+    public String getLastSample(){
+        return lastSample;
+    }
+
+    /**
+     * Insert a new entry.
+     * @param key Value (key) of the new entry.
+     * @param payload Payload of the new entry.
+     * @return The new node, as the handle of the entry.
+     */
+    public Node<K, V> insert(K key, V payload){
+        return insert(new Node<>(key, payload));
+    }
+
+    /**
+     * Insert a node, as a new entry.
+     * @param node The node, must not be in any heap. It is also the handle of the entry.
+     * @return The node.
+     */
+    public Node<K, V> insert(Node<K, V> node){
+        inserts++;
+        sample(node.getValue());
+        place(node);
+        afterOperation();
+        return node;
+    }
+
+    /**
+     * Returns the minimum node. Does NOT delete it! Not counted as an operation.
+     * @return The minimum node, or null if the queue is empty.
+     */
+    public Node<K, V> findMin(){
+        Node<K, V> min = current.getSize() == 0 ? null : current.findMin();
+        if(draining != null && draining.getSize() > 0){
+            Node<K, V> other = draining.findMin();
+            if(min == null || compare(other.getValue(), min.getValue()) < 0){
+                min = other;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Removes the minimum node and returns it.
+     * @return The removed node, or null if the queue was empty.
+     */
+    public Node<K, V> deleteMin(){
+        if(getSize() == 0){
+            System.out.println("Sorry, no more nodes!");
+            return null;
+        }
+        deleteMins++;
+        Node<K, V> min = removeMin();
+        lastMin = min.getValue();
+        afterOperation();
+        return min;
+    }
+
+    /**
+     * Decreases the value (key) of an entry, in whichever engine it is in. If it is in a RadixHeap and the new value
+     * is below the RadixHeap's last minimum, it is moved into a PairingHeap instead (leaving RADIX if need be).
+     * @param node The handle of the entry, as returned by insert.
+     * @param newValue The new value, must not be larger than the current value.
+     */
+    public void decreaseKey(Node<K, V> node, K newValue){
+        if(compare(newValue, node.getValue()) > 0){
+            System.out.println("Sorry, decreaseKey can not make a value larger!");
+            return;
+        }
+        decreaseKeys++;
+        sample(newValue);
+        MinPriorityQueue<K, V> owner = ownerOf(node);
+        if(owner instanceof RadixHeap && !fitsRadix(owner, newValue)){
+            owner.delete(node);
+            node.setValue(newValue);
+            place(node);
+        }
+        else{
+            owner.decreaseKey(node, newValue);
+        }
+        afterOperation();
+    }
+
+    /**
+     * Removes any entry from the queue, not just the minimum.
+     * @param node The handle of the entry, as returned by insert.
+     * @return The removed node.
+     */
+    public Node<K, V> delete(Node<K, V> node){
+        deletes++;
+        ownerOf(node).delete(node);
+        afterOperation();
+        return node;
+    }
+
+    /**
+     * Moves every entry of the other queue into this one, leaving the other queue empty. The handles of the other
+     * queue's entries are handles of this queue afterwards. Both queues must order their keys the same way.
+     *
+     * If both queues are on a PairingHeap engine and neither is migrating, this is one link (PairingHeap.mergeHeaps).
+     * Otherwise the entries are moved one at a time, O(n log n), which is why RADIX is left when melds come up.
+     * @param other The queue to be assimilated into this one.
+     */
+    public void meld(AdaptivePriorityQueue<K, V> other){
+        if(other == this){
+            System.out.println("Sorry, a queue can not be melded with itself!");
+            return;
+        }
+        melds++;
+        wholeKeys &= other.wholeKeys;
+        if(draining == null && other.draining == null && engine != Engine.RADIX && other.engine != Engine.RADIX){
+            ((PairingHeap<K, V>) current).mergeHeaps((PairingHeap<K, V>) other.current);
+        }
+        else{
+            while(other.getSize() > 0){
+                place(other.removeMin());
+            }
+            other.draining = null;
+        }
+        afterOperation();
+    }
+
+    /**
+     * Takes the minimum out of whichever engine has it, without counting anything.
+     * @return The removed node, the queue must not be empty.
+     */
+    private Node<K, V> removeMin(){
+        MinPriorityQueue<K, V> from = current;
+        if(draining != null && draining.getSize() > 0){
+            if(current.getSize() == 0 || compare(draining.findMin().getValue(), current.findMin().getValue()) < 0){
+                from = draining;
+            }
+        }
+        return from.deleteMin();
+    }
+
+    /**
+     * Puts a node that is in no engine into the current one. If that is a RadixHeap the key does not fit, RADIX is left
+     * first.
+     * @param node The node.
+     */
+    private void place(Node<K, V> node){
+        if(engine == Engine.RADIX && !fitsRadix(current, node.getValue())){
+            leaveRadix();
+        }
+        current.insert(node);
+    }
+
+    /**
+     * The engine a node is in.
+     * @param node The node, must be in this queue.
+     * @return The engine holding the node.
+     */
+    private MinPriorityQueue<K, V> ownerOf(Node<K, V> node){
+        if(draining == null){
+            return current;
+        }
+        return RadixHeap.isInRadixHeap(node) == (engine == Engine.RADIX) ? current : draining;
+    }
+
+    /**
+     * Tells whether a key can go into a RadixHeap: a whole number, not below its last minimum.
+     */
+    private boolean fitsRadix(MinPriorityQueue<K, V> radixHeap, K key){
+        return isWhole(key) && ((Number) key).longValue() >= ((RadixHeap<?, ?>) radixHeap).getLast();
+    }
+
+    /**
+     * Leaves RADIX right away, for a key that does not fit the RadixHeap. The PairingHeap becomes the current engine
+     * (a new one, or the one being migrated from) and the RadixHeap is emptied into it.
+     */
+    private void leaveRadix(){
+        Engine target = Engine.TWO_PASS;
+        if(draining == null){
+            draining = current;
+            current = new PairingHeap<>(PairingStrategy.TWO_PASS, comparator);
+        }
+        else{
+            //The switch to RADIX was still migrating, turn it around.
+            MinPriorityQueue<K, V> pairingHeap = draining;
+            draining = current;
+            current = pairingHeap;
+            target = ((PairingHeap<K, V>) current).isLazyInsert() ? Engine.AUXILIARY : Engine.TWO_PASS;
+        }
+        record(target, "a key below the last minimum of the RadixHeap");
+        proposed = null;
+        proposedWindows = 0;
+    }
+
+    /**
+     * Counts the operation, moves some entries if migrating, and makes a prediction at the end of a window.
+     */
+    private void afterOperation(){
+        operations++;
+        totalOperations++;
+        if((operations & SIZE_SAMPLE_MASK) == 0){
+            sizeTotal += getSize();
+            sizeSamples++;
+        }
+        if(draining != null){
+            migrate();
+        }
+        if(operations >= window){
+            decide();
+        }
+    }
+
+    /**
+     * Moves up to migrationStep entries from the engine being migrated from to the current one. Out of a PairingHeap
+     * they go smallest first (deleteMin), so the RadixHeap gets them in the order it likes. Out of a RadixHeap the
+     * order does not matter to the PairingHeap, so they are taken bucket by bucket, O(1) each, rather than with a
+     * deleteMin that may have to move a whole bucket of entries down at once.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrate(){
+        long startTime = System.nanoTime();
+        int moved = 0;
+        while(moved < migrationStep && draining != null && draining.getSize() > 0){
+            if(draining instanceof RadixHeap){
+                place(draining.delete((Node<K, V>) ((RadixHeap<?, ?>) draining).any()));
+            }
+            else{
+                place(draining.deleteMin());
+            }
+            moved++;
+        }
+        migrated += moved;
+        if(draining != null && draining.getSize() == 0){
+            draining = null;
+        }
+        maxMigrationPauseNanos = Math.max(maxMigrationPauseNanos, System.nanoTime() - startTime);
+    }
+
+    /**
+     * The end of a window: predict the best engine for what was seen, and switch to it if it was predicted for
+     * CONFIRM_WINDOWS windows in a row.
+     */
+    private void decide(){
+        Engine predicted;
+        String reason;
+        if(comparator == null && wholeKeys && belowLast == 0 && melds == 0 && deleteMins > 0){
+            predicted = Engine.RADIX;
+            reason = "whole number keys that only go up, no melds";
+        }
+        else if(inserts >= BURST_INSERTS * Math.max(1, deleteMins + deletes)){
+            predicted = Engine.AUXILIARY;
+            reason = String.format("%.1f inserts per deleteMin or delete",
+                    (double) inserts / Math.max(1, deleteMins + deletes));
+        }
+        else{
+            predicted = Engine.TWO_PASS;
+            reason = belowLast > 0 ? "keys below the last minimum" : melds > 0 ? "melds" : "no bursts of inserts";
+        }
+        long averageSize = sizeSamples == 0 ? getSize() : sizeTotal / sizeSamples;
+        lastSample = String.format("%d%% inserts, %d%% deleteMins, %d%% decreaseKeys, %d%% deletes, %d melds, %d keys"
+                + " below the last minimum, size %d", 100L * inserts / operations, 100L * deleteMins / operations,
+                100L * decreaseKeys / operations, 100L * deletes / operations, melds, belowLast, averageSize);
+        operations = 0;
+        inserts = 0;
+        deleteMins = 0;
+        decreaseKeys = 0;
+        deletes = 0;
+        melds = 0;
+        belowLast = 0;
+        sizeTotal = 0;
+        sizeSamples = 0;
+
+        //Nothing is decided while entries are still moving.
+        if(predicted == engine || draining != null){
+            proposed = null;
+            proposedWindows = 0;
+            return;
+        }
+        if(predicted == proposed){
+            proposedWindows++;
+        }
+        else{
+            proposed = predicted;
+            proposedWindows = 1;
+        }
+        if(proposedWindows < CONFIRM_WINDOWS){
+            return;
+        }
+        //Moving to or from a RadixHeap has to be able to finish within a window.
+        boolean moves = predicted == Engine.RADIX || engine == Engine.RADIX;
+        if(moves && getSize() / migrationStep > window){
+            return;
+        }
+        switchTo(predicted, reason);
+    }
+
+    /**
+     * Switches to another engine, see the class comment.
+     * @param target The engine to switch to.
+     * @param reason Why, for the metrics.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void switchTo(Engine target, String reason){
+        if(target == Engine.RADIX){
+            draining = current;
+            current = (MinPriorityQueue<K, V>) new RadixHeap();
+        }
+        else if(engine == Engine.RADIX){
+            draining = current;
+            current = new PairingHeap<>(strategyOf(target), comparator);
+        }
+        else{
+            ((PairingHeap<K, V>) current).setStrategy(strategyOf(target));
+        }
+        record(target, reason);
+        proposed = null;
+        proposedWindows = 0;
+    }
+
+    /**
+     * Makes the switch to the target engine official, and keeps track of it.
+     */
+    private void record(Engine target, String reason){
+        if(switches.size() == SWITCHES_KEPT){
+            switches.removeFirst();
+        }
+        switches.addLast(new Switch(engine, target, totalOperations, getSize(), reason));
+        switchCount++;
+        engine = target;
+    }
+
+    /**
+     * Samples a key going into the queue.
+     */
+    private void sample(K key){
+        if(wholeKeys && !isWhole(key)){
+            wholeKeys = false;
+        }
+        //Only RADIX cares whether keys go below the last minimum.
+        if(wholeKeys && comparator == null && lastMin != null && compare(key, lastMin) < 0){
+            belowLast++;
+        }
+    }
+
+    /**
+     * The PairingStrategy of a PairingHeap engine.
+     */
+    private static PairingStrategy strategyOf(Engine engine){
+        return engine == Engine.AUXILIARY ? PairingStrategy.AUXILIARY : PairingStrategy.TWO_PASS;
+    }
+
+    /**
+     * Tells whether a key is a whole number the RadixHeap can take.
+     */
+    private static boolean isWhole(Object key){
+        return key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte;
+    }
+
+    /**
+     * Compares two keys with the comparator, or their natural ordering if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K k1, K k2){
+        if(comparator == null){
+            return ((Comparable<? super K>) k1).compareTo(k2);
+        }
+        return comparator.compare(k1, k2);
+    }
+
+    /**
+     * A switch from one engine to another, as kept by getSwitches.
+     */
+    public static final class Switch {
+        private final Engine from;
+        private final Engine to;
+        private final long operation;
+        private final int size;
+        private final String reason;
+
+        Switch(Engine from, Engine to, long operation, int size, String reason){
+            this.from = from;
+            this.to = to;
+            this.operation = operation;
+            this.size = size;
+            this.reason = reason;
+        }
+
+        /**
+         * @return The engine switched from.
+         */
+        public Engine getFrom(){
+            return from;
+        }
+
+        /**
+         * @return The engine switched to.
+         */
+        public Engine getTo(){
+            return to;
+        }
+
+        /**
+         * @return The number of operations made on the queue before the switch.
+         */
+        public long getOperation(){
+            return operation;
+        }
+
+        /**
+         * @return The size of the queue at the switch.
+         */
+        public int getSize(){
+            return size;
+        }
+
+        /**
+         * @return Why the switch was made.
+         */
+        public String getReason(){
+            return reason;
+        }
+
+        /**
+         * @return The switch as "operation 131072: TWO_PASS -> RADIX (reason), size 100000".
+         */
+        public String toString(){
+            return "operation " + operation + ": " + from + " -> " + to + " (" + reason + "), size " + size;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package pairingheap;
+
+import java.util.function.Supplier;
+
+/**
+ * BoundedPairingHeap, keeps the K highest keys seen in a stream (top-K), and nothing else.
+ *
+ * It is a min-heap of at most K entries, so the root is the K-th highest key so far: the threshold a new key has to
+ * beat. Once the heap is full:
+ *   a key not above the threshold is turned away with one comparison, nothing is allocated or changed.
+ *   a key above the threshold takes the place of the root (evicting it): the root's key and payload are overwritten
+ *   and it sinks to where it belongs with an increaseKey, no deleteMin and insert.
+ *
+ * The entries live in an IntPairingHeap (made with room for K entries, so its arrays never grow) and the payloads in
+ * an array indexed by the slot of the entry, so after construction nothing is allocated by the heap at all.
+ *
+ * Ties with the threshold are turned away, the entry that was there first stays.
+ *
+ * @param <V> Type of the payloads.
+ */
+public class BoundedPairingHeap<V> {
+    //The entries, the payload reference of each is its own slot.
+    private final IntPairingHeap heap;
+
+    //The payloads, indexed by slot.
+    private final Object[] payloads;
+
+    //The most entries kept.
+    private final int k;
+
+    /**
+     * Constructor, keeps the top k keys.
+     * @param k How many entries to keep, at least 1.
+     */
+    BoundedPairingHeap(int k){
+        this.k = Math.max(1, k);
+        heap = new IntPairingHeap(this.k);
+        payloads = new Object[this.k];
+    }
+
+    /**
+     * Gets the size of the heap.
+     * @return Integer stating the number of entries kept so far (at most K).
+     */
+    public int getSize(){
+        return heap.getSize();
+    }
+
+    /**
+     * Gets K, the most entries that are kept.
+     * @return Integer K.
+     */
+    public int getCapacity(){
+        return k;
+    }
+
+    /**
+     * Tells whether offer would keep an entry with this key, so the caller can skip making the payload of one that
+     * would be turned away.
+     * @param key The key of the entry.
+     * @return True if the heap is not full yet or the key is above the threshold.
+     */
+    public boolean accepts(int key){
+        return heap.getSize() < k || key > heap.findMinKey();
+    }
+
+    /**
+     * Offers an entry to the heap.
+     * @param key The key of the entry.
+     * @param payload The payload of the entry.
+     * @return True if the entry was kept, false if it was turned away.
+     */
+    public boolean offer(int key, V payload){
+        if(heap.getSize() < k){
+            int slot = heap.insert(key, 0);
+            payloads[slot] = payload;
+            return true;
+        }
+        int root = heap.findMin();
+        if(key <= heap.getKey(root)){
+            return false;
+        }
+        payloads[root] = payload;
+        heap.increaseKey(root, key);
+        return true;
+    }
+
+    /**
+     * Offers an entry to the heap, only making its payload if it is kept.
+     * @param key The key of the entry.
+     * @param payload Makes the payload of the entry, only called if the entry is kept.
+     * @return True if the entry was kept, false if it was turned away.
+     */
+    public boolean offer(int key, Supplier<? extends V> payload){
+        if(!accepts(key)){
+            return false;
+        }
+        return offer(key, payload.get());
+    }
+
+    /**
+     * Returns the lowest key kept, the one a new key has to beat once the heap is full. Only meaningful if the heap
+     * is not empty.
+     * @return The K-th highest key (or the lowest so far, if fewer than K were offered).
+     */
+    public int findMinKey(){
+        return heap.findMinKey();
+    }
+
+    /**
+     * Returns the payload of the entry with the lowest key. Does NOT delete it!
+     * @return The payload, or null if the heap is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public V findMinPayload(){
+        int root = heap.findMin();
+        return root == IntPairingHeap.NIL ? null : (V) payloads[root];
+    }
+
+    /**
+     * Removes the entry with the lowest key and returns its payload, so emptying the heap gives the top K from the
+     * lowest up.
+     * @return The payload of the removed entry, or null (with an error) if the heap was empty.
+     */
+    @SuppressWarnings("unchecked")
+    public V deleteMin(){
+        if(heap.getSize() == 0){
+            System.out.println("Sorry, no more nodes!");
+            return null;
+        }
+        int root = heap.findMin();
+        V payload = (V) payloads[root];
+        payloads[root] = null;
+        heap.deleteMin();
+        return payload;
+    }
+}
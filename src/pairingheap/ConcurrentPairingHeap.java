@@ -0,0 +1,347 @@
+package pairingheap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A PairingHeap that can be shared between threads, using flat combining.
+ *
+ * Instead of every thread taking a lock around the heap in turn, each thread publishes its request (insert or
+ * deleteMin) in a slot of its own and then tries to become the "combiner". Whichever thread gets the combiner lock
+ * applies every request waiting in the slots as one batch, while the other threads just spin on their own slot
+ * until their answer is in. The heap is only ever touched by one thread at a time, and it stays in the cache of that
+ * thread for the whole batch instead of bouncing between cores with the lock.
+ *
+ * Batching also lets the inserts be linked together first: all the inserts of a batch are put into a small heap of
+ * their own, and that is linked to the big heap once, so the root is touched once per batch instead of once per
+ * insert. The deleteMins of the batch are run after the inserts. Every request in a batch was waiting at the same
+ * time, so any order among them is a valid order for them to have happened in (the heap is linearizable).
+ *
+ * A comparator that throws (or keys that can't be compared) only fails the requests it was comparing for: the
+ * exception is thrown in the thread that made the request, not in whichever thread happened to be combining, and the
+ * heap is left as if those requests had never been made. If the inserts of a batch can't be linked, none of them go
+ * in (all of their threads get the exception), and a deleteMin that throws fails on its own. A deleteMin that throws
+ * part way through pairing can still lose the subtrees it was pairing, just like the PairingHeap does.
+ *
+ * Each thread that uses the heap gets a slot the first time it does, and every pass of the combiner scans all the
+ * slots. The slot of a thread that has ended is unlinked by the combiner, which sweeps the slots every 1,024 batches
+ * and whenever there are twice as many as after the last sweep (and at least 32). So there are never many more
+ * slots than threads using the heap at once: at most twice the slots left by the last sweep (or 32), plus the
+ * threads that got their slot since then and have not combined yet. Pools that replace their threads and a new
+ * thread per operation are fine, they just pay for a sweep now and then.
+ *
+ * (Source: Hendler, Incze, Shavit, Tzafrir, "Flat Combining and the Synchronization-Parallelism Tradeoff", 2010.)
+ *
+ * @param <K> Type of the keys (values) the heap is ordered upon.
+ * @param <V> Type of the payloads.
+ */
+public class ConcurrentPairingHeap<K, V> {
+    //The requests a slot can hold.
+    private static final int INSERT = 1;
+    private static final int DELETE_MIN = 2;
+
+    //How many times the combiner scans the slots before letting go of the lock, requests that come in while it is
+    //combining get picked up by the next scan.
+    private static final int COMBINING_PASSES = 3;
+
+    //How many times a waiting thread spins on its slot before it starts yielding, so that a combiner that got
+    //preempted (more threads than cores) gets the core back quickly.
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    //The combiner unlinks the slots of ended threads every this many batches, or when the slots have doubled.
+    private static final int SWEEP_EVERY = 1024;
+
+    //Below this many slots there is no sweeping for the slots having doubled.
+    private static final int SWEEP_MIN_SLOTS = 16;
+
+    //The heap itself, only touched by the combiner.
+    private final PairingHeap<K, V> heap;
+
+    //The inserts of the batch being combined, linked together before being linked into the heap.
+    private final PairingHeap<K, V> batch;
+
+    //Whoever holds this is the combiner.
+    private final ReentrantLock combinerLock = new ReentrantLock();
+
+    //Every slot handed out to a thread that has not ended (or not been swept yet), chained through Slot.next.
+    //Threads push their new slot at the head, only the combiner unlinks.
+    private final AtomicReference<Slot<K, V>> slots = new AtomicReference<>();
+
+    //The number of slots in the list.
+    private final AtomicInteger slotCount = new AtomicInteger();
+
+    //Batches since the last sweep and slots left by it (only touched while holding the lock).
+    private int batchesSinceSweep;
+    private int slotsAfterSweep = SWEEP_MIN_SLOTS;
+
+    //The slot of each thread.
+    private final ThreadLocal<Slot<K, V>> mySlot = ThreadLocal.withInitial(this::newSlot);
+
+    //The slots with a request, gathered by the combiner (only touched while holding the lock).
+    private final ArrayList<Slot<K, V>> pending = new ArrayList<>();
+
+    //Size of the heap as of the last batch.
+    private volatile int size;
+
+    /**
+     * Constructor, an empty heap using the multipass pairing strategy.
+     */
+    ConcurrentPairingHeap(){
+        this(PairingStrategy.MULTIPASS, null);
+    }
+
+    /**
+     * Constructor, an empty heap with the given pairing strategy and key ordering.
+     * @param strategy The PairingStrategy used by the heap at delete-min.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     */
+    ConcurrentPairingHeap(PairingStrategy strategy, Comparator<? super K> comparator){
+        heap = new PairingHeap<>(strategy, comparator);
+        batch = new PairingHeap<>(PairingStrategy.TWO_PASS, comparator);
+    }
+
+    /**
+     * A thread's published request. The fields are written by the owner before pending is set, and the result is
+     * written by the combiner before pending is cleared, so the volatile pending hands them over both ways.
+     */
+    private static final class Slot<K, V> {
+        int operation;
+        Node<K, V> node;
+        Node<K, V> result;
+        //What the request threw, handed over like the result.
+        Throwable failure;
+        volatile boolean pending;
+        Slot<K, V> next;
+        //The thread the slot belongs to, once it has ended the slot can go.
+        final Thread owner;
+
+        Slot(Thread owner){
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Makes the slot for the calling thread and adds it to the list of slots the combiner scans.
+     * @return The new slot.
+     */
+    private Slot<K, V> newSlot(){
+        Slot<K, V> slot = new Slot<>(Thread.currentThread());
+        Slot<K, V> head;
+        do{
+            head = slots.get();
+            slot.next = head;
+        } while(!slots.compareAndSet(head, slot));
+        slotCount.incrementAndGet();
+        return slot;
+    }
+
+    /**
+     * Gets the size of the heap, as of the last batch that was combined.
+     * @return Integer stating the size of the heap.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Gets the number of slots the combiner scans, one per thread that has used the heap and not ended (or ended
+     * since the last sweep).
+     * @return Integer number of slots.
+     */
+    int getSlotCount(){
+        return slotCount.get();
+    }
+
+    /**
+     * Inserts a node into the heap. Returns once the node is in the heap.
+     * @param node The new node, must not be in any heap.
+     * @return The node that was inserted.
+     * @throws RuntimeException Whatever comparing the keys threw (a ClassCastException for keys that aren't
+     *                          Comparable, or the comparator's own), the node is then not in the heap.
+     */
+    public Node<K, V> insert(Node<K, V> node){
+        request(INSERT, node);
+        return node;
+    }
+
+    /**
+     * Convenience version of insert, creates the Node for the key and payload.
+     * @param key Value (key) of the new node.
+     * @param payload Payload of the new node.
+     * @return The new node.
+     */
+    public Node<K, V> insert(K key, V payload){
+        return insert(new Node<K, V>(key, payload));
+    }
+
+    /**
+     * Removes the minimum node from the heap and returns it.
+     *
+     * Unlike PairingHeap, an empty heap is not an error here (another thread may have just taken the last node), so
+     * nothing is printed and null is returned.
+     * @return The removed node, null if the heap was empty.
+     * @throws RuntimeException Whatever comparing the keys threw.
+     */
+    public Node<K, V> deleteMin(){
+        return request(DELETE_MIN, null);
+    }
+
+    /**
+     * Publishes a request in the calling thread's slot and waits for it to be done, combining if the combiner lock is
+     * free.
+     * @param operation INSERT or DELETE_MIN.
+     * @param node The node to insert, null for DELETE_MIN.
+     * @return The answer of the request (the removed node for DELETE_MIN).
+     * @throws RuntimeException What the comparator threw for this request (Errors are thrown as they are).
+     */
+    private Node<K, V> request(int operation, Node<K, V> node){
+        Slot<K, V> slot = mySlot.get();
+        slot.operation = operation;
+        slot.node = node;
+        slot.pending = true;
+
+        for(int spins = 0; ; spins++){
+            if(!combinerLock.isLocked() && combinerLock.tryLock()){
+                try{
+                    combine();
+                }
+                finally{
+                    combinerLock.unlock();
+                }
+            }
+            //Either this thread just combined (which served its own slot) or another combiner did.
+            if(!slot.pending){
+                Node<K, V> result = slot.result;
+                Throwable failure = slot.failure;
+                slot.result = null;
+                slot.node = null;
+                slot.failure = null;
+                if(failure != null){
+                    rethrow(failure);
+                }
+                return result;
+            }
+            if(spins < SPINS_BEFORE_YIELD){
+                Thread.onSpinWait();
+            }
+            else{
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Run by the combiner: applies the requests waiting in the slots, a few passes over the slots at most.
+     */
+    private void combine(){
+        if(++batchesSinceSweep >= SWEEP_EVERY || slotCount.get() >= 2 * slotsAfterSweep){
+            unlinkEndedSlots();
+        }
+        for(int pass = 0; pass < COMBINING_PASSES; pass++){
+            for(Slot<K, V> slot = slots.get(); slot != null; slot = slot.next){
+                if(slot.pending){
+                    pending.add(slot);
+                }
+            }
+            if(pending.isEmpty()){
+                return;
+            }
+
+            //Whatever happens, every slot of the pass gets its answer (or its failure) and is let go, so nothing is
+            //left for the next pass to pick up twice.
+            try{
+                insertBatch();
+
+                for(Slot<K, V> slot: pending){
+                    if(slot.operation == DELETE_MIN){
+                        try{
+                            slot.result = (heap.getSize() > 0) ? heap.deleteMin() : null;
+                        }
+                        catch(RuntimeException | Error e){
+                            slot.failure = e;
+                        }
+                    }
+                }
+            }
+            finally{
+                size = heap.getSize();
+                for(Slot<K, V> slot: pending){
+                    slot.pending = false;
+                }
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Run by the combiner: unlinks the slots of the threads that have ended. Other threads only ever push a slot at
+     * the head, so the rest of the list can be changed freely, and the head only with a compareAndSet.
+     */
+    private void unlinkEndedSlots(){
+        Slot<K, V> before = null;
+        Slot<K, V> slot = slots.get();
+        while(slot != null){
+            Slot<K, V> next = slot.next;
+            if(slot.pending || slot.owner.isAlive()){
+                before = slot;
+            }
+            else{
+                if(before == null && !slots.compareAndSet(slot, next)){
+                    //New slots were pushed in front of this one, it is somewhere after the head now.
+                    before = slots.get();
+                    while(before.next != slot){
+                        before = before.next;
+                    }
+                }
+                if(before != null){
+                    before.next = next;
+                }
+                slotCount.decrementAndGet();
+            }
+            slot = next;
+        }
+        batchesSinceSweep = 0;
+        slotsAfterSweep = Math.max(SWEEP_MIN_SLOTS, slotCount.get());
+    }
+
+    /**
+     * Links all the inserts of the pending slots together, then into the heap with one link. If the comparator
+     * throws along the way the batch is thrown away, its nodes are unlinked and every insert of it fails.
+     */
+    private void insertBatch(){
+        try{
+            for(Slot<K, V> slot: pending){
+                if(slot.operation == INSERT){
+                    batch.insert(slot.node);
+                }
+            }
+            heap.absorb(batch);
+        }
+        catch(RuntimeException | Error e){
+            //A link only happens once its comparison is done, so the heap itself was not touched.
+            batch.clear();
+            for(Slot<K, V> slot: pending){
+                if(slot.operation == INSERT){
+                    slot.node.child = null;
+                    slot.node.sibling = null;
+                    slot.node.prev = null;
+                    slot.failure = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Throws what a request threw, in the thread that made the request.
+     * @param failure A RuntimeException or an Error, as caught by the combiner.
+     */
+    private static void rethrow(Throwable failure){
+        if(failure instanceof Error){
+            throw (Error) failure;
+        }
+        throw (RuntimeException) failure;
+    }
+}
@@ -0,0 +1,603 @@
+package pairingheap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts files much bigger than memory, e.g. log files: the records are the lines of the file, ordered by their bytes
+ * (unsigned, so ASCII and UTF-8 text sort the way String does for ASCII). The line ends are not part of the record,
+ * the output has a '\n' after every record.
+ *
+ * Two phases:
+ *   1: Runs. The input is read through a FileChannel into a buffer of the memory given, the records in it are sorted
+ *      (a merge sort of their offsets, comparing the first 8 bytes as one long before looking at the rest) and
+ *      written out to a temporary file, a sorted run. Repeat until the input is used up.
+ *   2: Merge. The PairingHeap holds one entry per run, keyed by the run's current record, so the root is the next
+ *      record to write. After writing it the run moves on to its next record and the root gets increaseKey (a
+ *      tournament: the winner plays again with its new record) instead of a deleteMin and an insert. Each run is
+ *      read through an AsynchronousFileChannel with two buffers, the next buffer is being read while the current
+ *      one is used up, so the merge streams instead of stopping at every refill. If there are more runs than the
+ *      memory has room for buffers, groups of runs are merged into longer runs first (more passes).
+ *
+ * kWayMerge does the merge phase for sorted Iterators in memory.
+ */
+public class ExternalMergeSort {
+    //Read buffer of each run in the merge (two of them per run), at least and at most.
+    private static final int MIN_READ_BUFFER = 1 << 16;
+    private static final int MAX_READ_BUFFER = 1 << 22;
+
+    //Size of the write buffer, and most read from the input at once (reading into a heap buffer goes through a
+    //temporary direct buffer the size of the read).
+    private static final int IO_BUFFER = 1 << 22;
+
+    //Below this many records the merge sort of a run does insertion sort.
+    private static final int INSERTION_SORT = 16;
+
+    //Orders runs by their current record.
+    private static final Comparator<RunReader> BY_RECORD = (run1, run2) -> {
+        if(run1 == run2){
+            return 0;
+        }
+        int order = Long.compareUnsigned(run1.prefix, run2.prefix);
+        if(order != 0){
+            return order;
+        }
+        return Arrays.compareUnsigned(run1.record, 0, run1.length, run2.record, 0, run2.length);
+    };
+
+    private final long memoryBytes;
+    private final Path tempDirectory;
+
+    //The records of the run being made: the buffer, where each record starts and ends, and its first 8 bytes. order
+    //is the record numbers as they get sorted, prefixes is sorted along with it, and the scratch arrays are for
+    //merging the two.
+    private byte[] chunk;
+    private int[] starts;
+    private int[] ends;
+    private long[] prefixes;
+    private int[] order;
+    private int[] scratch;
+    private long[] scratchPrefixes;
+
+    //What the last sort did.
+    private int runCount;
+    private int mergePasses;
+    private long runNanos;
+    private long mergeNanos;
+
+    /**
+     * Constructor, with the temporary files in the default temporary directory.
+     * @param memoryBytes Size of the buffer the runs are sorted in (the records also take up to 36 bytes each of
+     *                    bookkeeping on top), and how much the merge uses for its read buffers.
+     */
+    ExternalMergeSort(long memoryBytes){
+        this(memoryBytes, null);
+    }
+
+    /**
+     * Constructor.
+     * @param memoryBytes Size of the buffer the runs are sorted in (the records also take up to 36 bytes each of
+     *                    bookkeeping on top), and how much the merge uses for its read buffers.
+     * @param tempDirectory Where the runs are written, null for the default temporary directory.
+     */
+    ExternalMergeSort(long memoryBytes, Path tempDirectory){
+        this.memoryBytes = Math.max(memoryBytes, 2 * MIN_READ_BUFFER);
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Gets the number of runs the last sort wrote.
+     * @return Number of runs.
+     */
+    public int getRunCount(){
+        return runCount;
+    }
+
+    /**
+     * Gets the number of merge passes of the last sort, 1 unless there were more runs than could be merged at once.
+     * @return Number of passes.
+     */
+    public int getMergePasses(){
+        return mergePasses;
+    }
+
+    /**
+     * Gets how long the last sort spent making runs.
+     * @return Nanoseconds.
+     */
+    public long getRunNanos(){
+        return runNanos;
+    }
+
+    /**
+     * Gets how long the last sort spent merging.
+     * @return Nanoseconds.
+     */
+    public long getMergeNanos(){
+        return mergeNanos;
+    }
+
+    /**
+     * Sorts the lines of a file. The temporary runs are deleted when done, also if it fails.
+     * @param input The file to sort.
+     * @param output The sorted file, replaced if it is there. Must not be the input.
+     * @throws IOException If reading or writing fails, or a line is longer than the memory.
+     */
+    public void sort(Path input, Path output) throws IOException{
+        List<Path> created = new ArrayList<>();
+        runCount = 0;
+        mergePasses = 0;
+        try{
+            long startTime = System.nanoTime();
+            List<Path> runs = makeRuns(input, created);
+            runCount = runs.size();
+            runNanos = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            //Each run needs two read buffers of at least MIN_READ_BUFFER.
+            int maxFanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBytes / (2L * MIN_READ_BUFFER)));
+            while(runs.size() > maxFanIn){
+                List<Path> merged = new ArrayList<>();
+                for(int from = 0; from < runs.size(); from += maxFanIn){
+                    List<Path> group = runs.subList(from, Math.min(runs.size(), from + maxFanIn));
+                    Path run = newRun(created);
+                    merge(group, run);
+                    for(Path done: group){
+                        Files.delete(done);
+                    }
+                    merged.add(run);
+                }
+                runs = merged;
+                mergePasses++;
+            }
+            merge(runs, output);
+            mergePasses++;
+            mergeNanos = System.nanoTime() - startTime;
+        }
+        finally{
+            chunk = null;
+            for(Path run: created){
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Makes a new temporary file for a run.
+     */
+    private Path newRun(List<Path> created) throws IOException{
+        Path run = tempDirectory == null ? Files.createTempFile("pairingheap-run", ".tmp")
+                : Files.createTempFile(tempDirectory, "pairingheap-run", ".tmp");
+        created.add(run);
+        return run;
+    }
+
+    /**
+     * Phase 1: cuts the input into runs the size of the memory, sorting each one.
+     * @return The runs, in the order they were made.
+     */
+    private List<Path> makeRuns(Path input, List<Path> created) throws IOException{
+        chunk = new byte[(int) Math.min(memoryBytes, Integer.MAX_VALUE - 8)];
+        starts = new int[1024];
+        ends = new int[1024];
+        prefixes = new long[1024];
+        List<Path> runs = new ArrayList<>();
+        try(FileChannel in = FileChannel.open(input, StandardOpenOption.READ)){
+            //Bytes at the start of the chunk carried over from the last one (a record cut off by the end of it).
+            int carried = 0;
+            boolean endOfFile = false;
+            while(!endOfFile){
+                int filled = carried;
+                while(filled < chunk.length){
+                    int read = in.read(ByteBuffer.wrap(chunk, filled, Math.min(IO_BUFFER, chunk.length - filled)));
+                    if(read == -1){
+                        endOfFile = true;
+                        break;
+                    }
+                    filled += read;
+                }
+
+                //Find the records.
+                int count = 0;
+                int start = 0;
+                for(int i = 0; i < filled; i++){
+                    if(chunk[i] == '\n'){
+                        count = addRecord(count, start, i);
+                        start = i + 1;
+                    }
+                }
+                if(endOfFile && start < filled){
+                    //The last line has no line end.
+                    count = addRecord(count, start, filled);
+                    start = filled;
+                }
+                if(count == 0 && start < filled){
+                    throw new IOException("A line of " + input + " is longer than the memory of the sort ("
+                            + chunk.length + " bytes)");
+                }
+
+                if(count > 0){
+                    sortRecords(count);
+                    Path run = newRun(created);
+                    try(Output out = new Output(run)){
+                        for(int i = 0; i < count; i++){
+                            int record = order[i];
+                            out.write(chunk, starts[record], ends[record] - starts[record]);
+                        }
+                    }
+                    runs.add(run);
+                }
+                carried = filled - start;
+                System.arraycopy(chunk, start, chunk, 0, carried);
+            }
+        }
+        //The merge needs the memory for its read buffers.
+        chunk = null;
+        starts = null;
+        ends = null;
+        prefixes = null;
+        order = null;
+        scratch = null;
+        scratchPrefixes = null;
+        return runs;
+    }
+
+    /**
+     * Adds a record of the chunk (start up to, not including, end), growing the arrays if needed.
+     * @return The number of records now.
+     */
+    private int addRecord(int count, int start, int end){
+        if(count == starts.length){
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            prefixes = Arrays.copyOf(prefixes, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        prefixes[count] = prefix(chunk, start, end - start);
+        return count + 1;
+    }
+
+    /**
+     * The first 8 bytes of a record as a long, big endian and padded with zeros, so comparing two of them unsigned is
+     * comparing the first 8 bytes.
+     */
+    private static long prefix(byte[] bytes, int start, int length){
+        long prefix = 0;
+        for(int i = 0; i < 8; i++){
+            prefix = (prefix << 8) | (i < length ? bytes[start + i] & 0xFF : 0);
+        }
+        return prefix;
+    }
+
+    /**
+     * Compares two records of the chunk, given with their prefixes.
+     */
+    private int compareRecords(long prefix1, int record1, long prefix2, int record2){
+        int result = Long.compareUnsigned(prefix1, prefix2);
+        if(result != 0){
+            return result;
+        }
+        return Arrays.compareUnsigned(chunk, starts[record1], ends[record1], chunk, starts[record2], ends[record2]);
+    }
+
+    /**
+     * Sorts the records of the chunk into order: a merge sort of their numbers, with the prefixes moved along with
+     * the numbers so that most comparisons read two longs next to where the sort is working instead of going off to
+     * the record.
+     */
+    private void sortRecords(int count){
+        if(order == null || order.length < count){
+            order = new int[starts.length];
+            scratch = new int[starts.length];
+            scratchPrefixes = new long[starts.length];
+        }
+        for(int i = 0; i < count; i++){
+            order[i] = i;
+        }
+        mergeSort(0, count);
+    }
+
+    private void mergeSort(int from, int to){
+        if(to - from <= INSERTION_SORT){
+            for(int i = from + 1; i < to; i++){
+                int record = order[i];
+                long prefix = prefixes[i];
+                int j = i - 1;
+                while(j >= from && compareRecords(prefixes[j], order[j], prefix, record) > 0){
+                    order[j + 1] = order[j];
+                    prefixes[j + 1] = prefixes[j];
+                    j--;
+                }
+                order[j + 1] = record;
+                prefixes[j + 1] = prefix;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(from, middle);
+        mergeSort(middle, to);
+        //Already in order (sorted input), nothing to merge.
+        if(compareRecords(prefixes[middle - 1], order[middle - 1], prefixes[middle], order[middle]) <= 0){
+            return;
+        }
+        System.arraycopy(order, from, scratch, from, to - from);
+        System.arraycopy(prefixes, from, scratchPrefixes, from, to - from);
+        int i = from;
+        int j = middle;
+        int k = from;
+        while(i < middle && j < to){
+            if(compareRecords(scratchPrefixes[j], scratch[j], scratchPrefixes[i], scratch[i]) < 0){
+                prefixes[k] = scratchPrefixes[j];
+                order[k++] = scratch[j++];
+            }
+            else{
+                prefixes[k] = scratchPrefixes[i];
+                order[k++] = scratch[i++];
+            }
+        }
+        while(i < middle){
+            prefixes[k] = scratchPrefixes[i];
+            order[k++] = scratch[i++];
+        }
+        while(j < to){
+            prefixes[k] = scratchPrefixes[j];
+            order[k++] = scratch[j++];
+        }
+    }
+
+    /**
+     * Phase 2: merges sorted runs into one, with a PairingHeap of the runs keyed by their current record.
+     * @param runs The runs.
+     * @param output Where the merged records go.
+     */
+    private void merge(List<Path> runs, Path output) throws IOException{
+        int bufferBytes = (int) Math.min(MAX_READ_BUFFER,
+                Math.max(MIN_READ_BUFFER, memoryBytes / (2L * Math.max(1, runs.size()))));
+        PairingHeap<RunReader, Void> heap = new PairingHeap<>(PairingStrategy.TWO_PASS, BY_RECORD);
+        List<RunReader> readers = new ArrayList<>();
+        try(Output out = new Output(output)){
+            for(Path run: runs){
+                RunReader reader = new RunReader(run, bufferBytes);
+                readers.add(reader);
+                if(reader.next()){
+                    heap.insert(reader, null);
+                }
+            }
+            while(heap.getSize() > 0){
+                Node<RunReader, Void> min = heap.findMin();
+                RunReader reader = min.getValue();
+                out.write(reader.record, 0, reader.length);
+                //The run's next record can only be the same or bigger, so the root plays again where it fits.
+                if(reader.next()){
+                    heap.increaseKey(min, reader);
+                }
+                else{
+                    heap.deleteMin();
+                }
+            }
+        }
+        finally{
+            for(RunReader reader: readers){
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Merges sorted iterators into one sorted iterator, lazily: a PairingHeap holds the next element of every
+     * iterator that has one. Each next() is one increaseKey (or a deleteMin once an iterator runs out), so merging n
+     * elements from k iterators is O(n log k). Equal elements from different iterators come out in no particular
+     * order. The iterators are read as the merge goes, and must not be changed by anything else meanwhile.
+     * @param iterators The iterators, each in order by the comparator.
+     * @param comparator Orders the elements.
+     * @param <T> Type of the elements.
+     * @return The merged iterator.
+     */
+    public static <T> Iterator<T> kWayMerge(List<? extends Iterator<? extends T>> iterators,
+                                            Comparator<? super T> comparator){
+        PairingHeap<T, Iterator<? extends T>> heap = new PairingHeap<>(PairingStrategy.TWO_PASS, comparator);
+        for(Iterator<? extends T> iterator: iterators){
+            if(iterator.hasNext()){
+                heap.insert(iterator.next(), iterator);
+            }
+        }
+        return new Iterator<T>(){
+            public boolean hasNext(){
+                return heap.getSize() > 0;
+            }
+
+            public T next(){
+                if(heap.getSize() == 0){
+                    throw new NoSuchElementException();
+                }
+                Node<T, Iterator<? extends T>> min = heap.findMin();
+                T element = min.getValue();
+                Iterator<? extends T> iterator = min.getPayload();
+                if(!iterator.hasNext()){
+                    heap.deleteMin();
+                }
+                else{
+                    T following = iterator.next();
+                    //An iterator out of order still merges, its smaller element just stays the root.
+                    if(comparator.compare(following, element) < 0){
+                        heap.decreaseKey(min, following);
+                    }
+                    else{
+                        heap.increaseKey(min, following);
+                    }
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * Reads the records of a run one at a time, with the next buffer being read ahead while the current one is used.
+     */
+    private static final class RunReader {
+        private final AsynchronousFileChannel channel;
+        private ByteBuffer current;
+        private ByteBuffer ahead;
+        private long filePosition;
+
+        //The read filling ahead, null at the end of the file.
+        private Future<Integer> pending;
+
+        //The current record (its bytes and length) and its first 8 bytes as a long.
+        byte[] record = new byte[256];
+        int length;
+        long prefix;
+
+        RunReader(Path run, int bufferBytes) throws IOException{
+            channel = AsynchronousFileChannel.open(run, StandardOpenOption.READ);
+            current = ByteBuffer.allocateDirect(bufferBytes);
+            current.flip();
+            ahead = ByteBuffer.allocateDirect(bufferBytes);
+            readAhead();
+        }
+
+        /**
+         * Starts reading the next buffer of the file.
+         */
+        private void readAhead(){
+            ahead.clear();
+            pending = channel.read(ahead, filePosition);
+        }
+
+        /**
+         * Swaps in the buffer that was read ahead and starts reading the next one.
+         * @return False at the end of the file.
+         */
+        private boolean refill() throws IOException{
+            if(pending == null){
+                return false;
+            }
+            int read;
+            try{
+                read = pending.get();
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading a run", e);
+            }
+            catch(ExecutionException e){
+                throw new IOException("Reading a run failed", e.getCause());
+            }
+            if(read <= 0){
+                pending = null;
+                return false;
+            }
+            filePosition += read;
+            ByteBuffer full = ahead;
+            ahead = current;
+            current = full;
+            current.flip();
+            readAhead();
+            return true;
+        }
+
+        /**
+         * Moves on to the next record.
+         * @return False if there are no more.
+         */
+        boolean next() throws IOException{
+            length = 0;
+            while(true){
+                if(!current.hasRemaining() && !refill()){
+                    if(length == 0){
+                        return false;
+                    }
+                    break;
+                }
+                int position = current.position();
+                int limit = current.limit();
+                int end = position;
+                while(end < limit && current.get(end) != '\n'){
+                    end++;
+                }
+                int bytes = end - position;
+                if(length + bytes > record.length){
+                    record = Arrays.copyOf(record, Math.max(record.length * 2, length + bytes));
+                }
+                current.get(record, length, bytes);
+                length += bytes;
+                if(end < limit){
+                    //Skip the line end, the record is complete.
+                    current.get();
+                    break;
+                }
+            }
+            prefix = prefix(record, 0, length);
+            return true;
+        }
+
+        void close() throws IOException{
+            if(pending != null){
+                //Let the read ahead finish before the channel goes.
+                try{
+                    pending.get();
+                }
+                catch(InterruptedException | ExecutionException e){
+                    //Not needed any more.
+                }
+            }
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes records through a big direct buffer, a '\n' after each.
+     */
+    private static final class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER);
+
+        Output(Path path) throws IOException{
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(byte[] bytes, int start, int length) throws IOException{
+            while(length >= buffer.remaining()){
+                int part = buffer.remaining();
+                buffer.put(bytes, start, part);
+                start += part;
+                length -= part;
+                flush();
+            }
+            buffer.put(bytes, start, length);
+            buffer.put((byte) '\n');
+        }
+
+        private void flush() throws IOException{
+            buffer.flip();
+            while(buffer.hasRemaining()){
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        public void close() throws IOException{
+            try{
+                flush();
+            }
+            finally{
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package pairingheap;
+
+import java.util.Arrays;
+
+/**
+ * HeapMetrics, the counters a PairingHeap keeps once PairingHeap.enableMetrics is called. Made for finding out why
+ * deleteMin got slow: a wide root (a big pairing pass, see the root degrees) or a degenerate tree (see
+ * PairingHeap.getMaxDepth).
+ *
+ * What is counted:
+ *   comparisons  - every comparison of two keys made by the heap.
+ *   links        - every link made by merge (one tree becoming the child of another).
+ *   deleteMins   - every deleteMin, with the number of subtrees it had to pair up (the root degree, the length of
+ *                  its pairing pass) and the links it made.
+ *   root degrees - a histogram of the root degrees of the deleteMins, bucket 0 is degree 0, bucket b is degrees
+ *                  from 2^(b-1) up to 2^b - 1.
+ *   slow deleteMins - deleteMins that made more links than the threshold (setSlowDeleteMinLinks). Each one is also
+ *                  a SlowDeleteMin JFR event ("pairingheap.SlowDeleteMin"), when a flight recording is running.
+ *
+ * Like the heap itself, this is not thread safe, read it from the thread using the heap.
+ */
+public class HeapMetrics {
+    //Updated straight from the PairingHeap, to keep its hot path short.
+    long comparisons;
+    long links;
+
+    private long deleteMins;
+    private long totalRootDegree;
+    private int maxRootDegree;
+    private long maxDeleteMinLinks;
+    private long slowDeleteMins;
+    private final long[] rootDegreeHistogram = new long[33];
+
+    //A deleteMin making more links than this is a slow one.
+    private int slowDeleteMinLinks = 1000;
+
+    /**
+     * Constructor, all counters at zero.
+     */
+    HeapMetrics(){
+    }
+
+    /**
+     * Records one deleteMin, called by the PairingHeap.
+     * @param rootDegree The number of subtrees the deleteMin paired up.
+     * @param deleteMinLinks The links it made (including linking in the auxiliary list).
+     * @param event The JFR event begun at the start of the deleteMin, committed if it was a slow one.
+     * @param heap The heap, for the JFR event.
+     */
+    void recordDeleteMin(int rootDegree, long deleteMinLinks, SlowDeleteMinEvent event, PairingHeap<?, ?> heap){
+        deleteMins++;
+        totalRootDegree += rootDegree;
+        maxRootDegree = Math.max(maxRootDegree, rootDegree);
+        maxDeleteMinLinks = Math.max(maxDeleteMinLinks, deleteMinLinks);
+        rootDegreeHistogram[32 - Integer.numberOfLeadingZeros(rootDegree)]++;
+
+        if(deleteMinLinks > slowDeleteMinLinks){
+            slowDeleteMins++;
+            event.end();
+            if(event.shouldCommit()){
+                event.links = deleteMinLinks;
+                event.rootDegree = rootDegree;
+                event.size = heap.getSize();
+                event.strategy = heap.getStrategy().name();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Sets how many links make a deleteMin a slow one (counted, and a JFR event). 1000 to start with.
+     * @param links The most links a deleteMin can make without being slow.
+     */
+    public void setSlowDeleteMinLinks(int links){
+        slowDeleteMinLinks = Math.max(0, links);
+    }
+
+    /**
+     * Gets how many links make a deleteMin a slow one.
+     * @return The most links a deleteMin can make without being slow.
+     */
+    public int getSlowDeleteMinLinks(){
+        return slowDeleteMinLinks;
+    }
+
+    /**
+     * Gets the number of comparisons of two keys made so far.
+     * @return Number of comparisons.
+     */
+    public long getComparisons(){
+        return comparisons;
+    }
+
+    /**
+     * Gets the number of links made so far.
+     * @return Number of links.
+     */
+    public long getLinks(){
+        return links;
+    }
+
+    /**
+     * Gets the number of deleteMins so far.
+     * @return Number of deleteMins.
+     */
+    public long getDeleteMins(){
+        return deleteMins;
+    }
+
+    /**
+     * Gets the mean root degree (length of the pairing pass) of the deleteMins.
+     * @return Mean root degree, 0 if there were no deleteMins.
+     */
+    public double getMeanRootDegree(){
+        return deleteMins == 0 ? 0 : (double) totalRootDegree / deleteMins;
+    }
+
+    /**
+     * Gets the biggest root degree (longest pairing pass) of the deleteMins.
+     * @return Biggest root degree.
+     */
+    public int getMaxRootDegree(){
+        return maxRootDegree;
+    }
+
+    /**
+     * Gets the most links a single deleteMin made.
+     * @return Most links of one deleteMin.
+     */
+    public long getMaxDeleteMinLinks(){
+        return maxDeleteMinLinks;
+    }
+
+    /**
+     * Gets the number of deleteMins that made more links than the threshold.
+     * @return Number of slow deleteMins.
+     */
+    public long getSlowDeleteMins(){
+        return slowDeleteMins;
+    }
+
+    /**
+     * Gets the histogram of the root degrees of the deleteMins (see the class javadoc for the buckets).
+     * @return A copy of the histogram, 33 buckets.
+     */
+    public long[] getRootDegreeHistogram(){
+        return rootDegreeHistogram.clone();
+    }
+
+    /**
+     * Sets every counter back to zero (the slow deleteMin threshold stays).
+     */
+    public void reset(){
+        comparisons = 0;
+        links = 0;
+        deleteMins = 0;
+        totalRootDegree = 0;
+        maxRootDegree = 0;
+        maxDeleteMinLinks = 0;
+        slowDeleteMins = 0;
+        Arrays.fill(rootDegreeHistogram, 0);
+    }
+
+    /**
+     * The counters on one line, with the histogram buckets that are not empty.
+     * @return The counters as a String.
+     */
+    @Override
+    public String toString(){
+        StringBuilder histogram = new StringBuilder();
+        for(int bucket = 0; bucket < rootDegreeHistogram.length; bucket++){
+            if(rootDegreeHistogram[bucket] != 0){
+                int low = bucket == 0 ? 0 : 1 << (bucket - 1);
+                histogram.append(' ').append(low).append("+:").append(rootDegreeHistogram[bucket]);
+            }
+        }
+        return "comparisons " + comparisons + ", links " + links + ", deleteMins " + deleteMins
+                + ", root degree mean " + String.format("%.2f", getMeanRootDegree()) + " max " + maxRootDegree
+                + ", most links in a deleteMin " + maxDeleteMinLinks + ", slow deleteMins " + slowDeleteMins
+                + ", root degrees" + histogram;
+    }
+}
@@ -0,0 +1,624 @@
+package pairingheap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * IntPairingHeap, a primitive version of the PairingHeap that does not create any Node objects.
+ *
+ * Every entry lives in a "slot", which is just an index into a set of parallel int arrays:
+ *   keys     - the key (value) of the entry, what the heap is ordered upon.
+ *   payloads - an int reference to the payload, the heap never looks at it. Callers typically use it as an index
+ *              into their own arrays (vertex number, task id, etc).
+ *   child    - the slot of the leftmost (first) child of this entry.
+ *   sibling  - the slot of the next sibling to the right of this entry.
+ *   prev     - the slot of the left sibling, or of the parent for a leftmost child (NIL for the root). This is what
+ *              lets decreaseKey cut an entry out in O(1).
+ *
+ * The arrays grow (doubling) when they run out of room, and slots freed by deleteMin are put on a free list (chained
+ * through the sibling array) so that they get reused by later inserts. Once the arrays are large enough for the
+ * working set, insert and deleteMin do not allocate anything at all.
+ *
+ * The slot returned by insert is the "handle" of the entry, it stays valid until that entry is removed from the heap.
+ * It can be given to decreaseKey, which is what makes this a good fit for Dijkstra's algorithm (the payload reference
+ * being the vertex, and an int[] from vertex to handle on the side).
+ *
+ * Delete-min uses the classic two-pass pairing (pair left to right, then merge right to left), done in place on the
+ * sibling links so there is no queue to allocate. To take out many entries at once, see drainMin and drainWhile.
+ */
+public class IntPairingHeap {
+    //Stands in for a null reference in the link arrays.
+    public static final int NIL = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //A drain that takes out at least 1/BIG_BATCH_FRACTION of the heap goes best first, below that one deleteMin at a
+    //time is cheaper (measured in TEST 28).
+    private static final int BIG_BATCH_FRACTION = 8;
+
+    //The parallel arrays holding the entries, indexed by slot.
+    private int[] keys;
+    private int[] payloads;
+    private int[] child;
+    private int[] sibling;
+    private int[] prev;
+
+    //Slot of the root (minimum) entry.
+    private int root = NIL;
+
+    //Maintain the size of the heap.
+    private int size;
+
+    //Head of the list of freed slots, and the number of slots ever handed out.
+    private int freeHead = NIL;
+    private int used;
+
+    //Scratch space of drainMin and drainWhile, kept so that once they are big enough a drain allocates nothing: the
+    //frontier (a binary heap of slots ordered by key) and the payload references taken out.
+    private int[] frontier = new int[DEFAULT_CAPACITY];
+    private int[] drained = new int[DEFAULT_CAPACITY];
+
+    /**
+     * Constructor, creates an empty heap with a small default capacity.
+     */
+    IntPairingHeap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor, creates an empty heap with room for the given number of entries before the arrays need to grow.
+     * @param initialCapacity Number of entries to make room for up front.
+     */
+    IntPairingHeap(int initialCapacity){
+        int capacity = Math.max(1, initialCapacity);
+        keys = new int[capacity];
+        payloads = new int[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        prev = new int[capacity];
+    }
+
+    /**
+     * Gets the size of the heap.
+     * @return Integer stating the number of entries in the heap.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Returns the handle (slot) of the minimum entry. Does NOT delete it!
+     * @return Handle of the minimum entry, or NIL if the heap is empty.
+     */
+    public int findMin(){
+        return root;
+    }
+
+    /**
+     * Returns the key of the minimum entry. Only meaningful if the heap is not empty.
+     * @return Key (Integer) of the minimum entry.
+     */
+    public int findMinKey(){
+        return keys[root];
+    }
+
+    /**
+     * Gets the key of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Key (Integer)
+     */
+    public int getKey(int handle){
+        return keys[handle];
+    }
+
+    /**
+     * Gets the payload reference of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Payload reference (Integer)
+     */
+    public int getPayload(int handle){
+        return payloads[handle];
+    }
+
+    /**
+     * Insert a new entry, this is a merge of a one entry heap into the main heap just like PairingHeap.insert.
+     * @param key Key (Integer) the heap is ordered upon.
+     * @param payloadRef Reference to the payload, not looked at by the heap.
+     * @return The handle of the new entry.
+     */
+    public int insert(int key, int payloadRef){
+        int slot = allocateSlot();
+        keys[slot] = key;
+        payloads[slot] = payloadRef;
+        child[slot] = NIL;
+        sibling[slot] = NIL;
+        prev[slot] = NIL;
+
+        if(root == NIL){
+            root = slot;
+        }
+        else{
+            root = link(root, slot);
+        }
+        size++;
+        return slot;
+    }
+
+    /**
+     * Decreases the key of an entry in the heap. If it is not the root, its subtree is cut out (O(1) with the prev
+     * link) and linked back with the root. The subtree is still heap ordered, so there is no pairing to do.
+     * @param handle Handle of the entry, as returned by insert.
+     * @param newKey The new key, must not be larger than the current key.
+     */
+    public void decreaseKey(int handle, int newKey){
+        if(newKey > keys[handle]){
+            System.out.println("Sorry, decreaseKey can not make a key larger!");
+            return;
+        }
+        keys[handle] = newKey;
+        if(handle == root){
+            return;
+        }
+        cut(handle);
+        root = link(root, handle);
+    }
+
+    /**
+     * Deletes any entry from the heap. Its subtree is cut out, its children are paired up with two-pass (a delete-min
+     * on just that subtree) and the result is linked back with the root. The slot is recycled, so the handle must
+     * not be used afterwards.
+     * @param handle Handle of the entry, as returned by insert.
+     * @return Payload reference of the removed entry.
+     */
+    public int delete(int handle){
+        if(handle == root){
+            return deleteMin();
+        }
+        int payload = payloads[handle];
+        cut(handle);
+        int subtree = combineSiblings(child[handle]);
+        if(subtree != NIL){
+            root = link(root, subtree);
+        }
+        freeSlot(handle);
+        size--;
+        return payload;
+    }
+
+    /**
+     * Increases the key of an entry in the heap. Same mechanism as delete, the children of the entry are paired into
+     * one subtree and linked back with the root, then the entry (now on its own) is linked back in with its new key.
+     * @param handle Handle of the entry, as returned by insert.
+     * @param newKey The new key, must not be smaller than the current key.
+     */
+    public void increaseKey(int handle, int newKey){
+        if(newKey < keys[handle]){
+            System.out.println("Sorry, increaseKey can not make a key smaller!");
+            return;
+        }
+        keys[handle] = newKey;
+        int subtree = combineSiblings(child[handle]);
+        child[handle] = NIL;
+        if(handle == root){
+            if(subtree == NIL){
+                return;
+            }
+            root = subtree;
+        }
+        else{
+            cut(handle);
+            if(subtree != NIL){
+                root = link(root, subtree);
+            }
+        }
+        root = link(root, handle);
+    }
+
+    /**
+     * Removes the minimum entry and returns its payload reference. The slot of the removed entry is recycled, so its
+     * handle must not be used afterwards.
+     * @return Payload reference of the removed entry, or NIL if the heap was empty.
+     */
+    public int deleteMin(){
+        if(size == 0){
+            System.out.println("Sorry, no more nodes!");
+            return NIL;
+        }
+        int oldRoot = root;
+        int payload = payloads[oldRoot];
+
+        root = combineSiblings(child[oldRoot]);
+        freeSlot(oldRoot);
+        size--;
+        return payload;
+    }
+
+    /**
+     * Removes the minimum entry without returning anything, same as PairingHeap.deleteMinAlone.
+     */
+    public void deleteMinAlone(){
+        deleteMin();
+    }
+
+    /**
+     * Removes the k smallest entries (or all of them, if there are fewer) and hands their payload references to the
+     * consumer, smallest first. Ties come out in no particular order.
+     *
+     * A big batch (an eighth of the heap or more) is not a loop of deleteMin. A deleteMin pairs up all the children
+     * of the root, and much of that pairing is undone by the next deleteMins of the batch. Here the k smallest are
+     * found in one walk down from the root, best first: the candidates are the children of the entries taken so
+     * far, kept in a small binary heap (the frontier), and the smallest candidate is always the next smallest entry
+     * of the whole heap. When the batch is done, the subtrees left in the frontier are paired up once, with two-pass,
+     * into the new tree. That last pairing costs about as much as the frontier is big, whatever k is, so a small
+     * batch is cheaper as a loop of deleteMin (done in here, see TEST 28 and DrainBenchmark for where they cross).
+     *
+     * The consumer is called after the heap is whole again, so it may use the heap (e.g. insert more work).
+     * The slots of the removed entries are recycled, so their handles must not be used afterwards.
+     *
+     * @param k The most entries to remove.
+     * @param consumer Gets the payload reference of each removed entry, in order.
+     * @return The number of entries removed, 0 if the heap is empty.
+     */
+    public int drainMin(int k, IntConsumer consumer){
+        return hand(drain(k, Integer.MAX_VALUE, false), consumer);
+    }
+
+    /**
+     * Removes the k smallest entries (or all of them, if there are fewer) and writes their payload references into
+     * out, smallest first. See drainMin(k, consumer).
+     * @param k The most entries to remove.
+     * @param out Gets the payload references, from index 0, must have room for k.
+     * @return The number of entries removed (and written), 0 if the heap is empty.
+     */
+    public int drainMin(int k, int[] out){
+        if(out.length < k){
+            System.out.println("Sorry, the array has no room for " + k + " entries!");
+            return 0;
+        }
+        int count = drain(k, Integer.MAX_VALUE, false);
+        System.arraycopy(drained, 0, out, 0, count);
+        return count;
+    }
+
+    /**
+     * Removes every entry with a key up to the threshold (inclusive) and hands their payload references to the
+     * consumer, smallest first. How many that is can't be known up front, so the first eighth of the heap is taken
+     * out one at a time, and the rest (if it comes to that) best first like a big drainMin(k, consumer).
+     * @param threshold The largest key to remove.
+     * @param consumer Gets the payload reference of each removed entry, in order.
+     * @return The number of entries removed.
+     */
+    public int drainWhile(int threshold, IntConsumer consumer){
+        return hand(drain(Integer.MAX_VALUE, threshold, true), consumer);
+    }
+
+    /**
+     * drainWhile, but takes out at most max entries (the smallest ones), e.g. as many as the consumer has room for.
+     * max is only a limit, it says nothing about how many are under the threshold, so this too goes one at a time up
+     * to the first eighth of the heap (or max), then best first.
+     * @param threshold The largest key to remove.
+     * @param max The most entries to remove.
+     * @param consumer Gets the payload reference of each removed entry, in order.
+     * @return The number of entries removed.
+     */
+    public int drainWhile(int threshold, int max, IntConsumer consumer){
+        return hand(drain(max, threshold, true), consumer);
+    }
+
+    /**
+     * Hands what a drain took out to the consumer. The buffer is taken away while the consumer runs, in case it
+     * drains the heap too (that drain gets a buffer of its own).
+     * @param count The number of entries taken out.
+     * @param consumer Gets the payload references.
+     * @return count.
+     */
+    private int hand(int count, IntConsumer consumer){
+        int[] batch = drained;
+        drained = null;
+        for(int i = 0; i < count; i++){
+            consumer.accept(batch[i]);
+        }
+        drained = batch;
+        return count;
+    }
+
+    /**
+     * The work of drainMin and drainWhile: takes out the smallest entries until k are out or the next one is above
+     * the threshold, one deleteMin at a time for a small batch, best first for a big one (then pairs up what is left).
+     * The payload references end up in drained.
+     * @param k The most entries to remove, Integer.MAX_VALUE for no limit.
+     * @param threshold The largest key to remove, Integer.MAX_VALUE for drainMin.
+     * @param bounded Whether there is a threshold.
+     * @return The number of entries removed.
+     */
+    private int drain(int k, int threshold, boolean bounded){
+        if(root == NIL || k <= 0 || keys[root] > threshold){
+            return 0;
+        }
+        if(drained == null){
+            drained = new int[DEFAULT_CAPACITY];
+        }
+        //How many to take out one at a time before going best first: all of a small batch, none of a big one, and up
+        //to the first eighth with a threshold (drainWhile doesn't know how many are under it, k is only a limit).
+        int bigBatch = size / BIG_BATCH_FRACTION;
+        int oneAtATime = bounded ? Math.min(k, bigBatch) : (k >= bigBatch ? 0 : k);
+        int count = 0;
+        while(count < oneAtATime && root != NIL && keys[root] <= threshold){
+            int oldRoot = root;
+            addDrained(count++, payloads[oldRoot]);
+            root = combineSiblings(child[oldRoot]);
+            freeSlot(oldRoot);
+            size--;
+        }
+        if(count == k || root == NIL || keys[root] > threshold){
+            return count;
+        }
+
+        int frontierSize = 1;
+        frontier[0] = root;
+        while(frontierSize > 0 && count < k){
+            int slot = frontier[0];
+            if(keys[slot] > threshold){
+                break;
+            }
+            //Take the smallest candidate out of the frontier.
+            frontierSize--;
+            if(frontierSize > 0){
+                siftDown(frontier[frontierSize], frontierSize);
+            }
+            addDrained(count++, payloads[slot]);
+            size--;
+
+            //Its children are candidates now.
+            for(int c = child[slot]; c != NIL; c = sibling[c]){
+                if(frontierSize == frontier.length){
+                    frontier = Arrays.copyOf(frontier, frontierSize * 2);
+                }
+                siftUp(c, frontierSize++);
+            }
+            freeSlot(slot);
+        }
+
+        //What is left in the frontier are whole subtrees, chain them up (smallest first, the frontier is a heap) and
+        //pair them into one tree.
+        if(frontierSize == 0){
+            root = NIL;
+            return count;
+        }
+        for(int i = 0; i < frontierSize - 1; i++){
+            sibling[frontier[i]] = frontier[i + 1];
+        }
+        sibling[frontier[frontierSize - 1]] = NIL;
+        root = combineSiblings(frontier[0]);
+        return count;
+    }
+
+    /**
+     * Puts a payload reference taken out by drain into drained, making room if need be.
+     */
+    private void addDrained(int position, int payloadRef){
+        if(position == drained.length){
+            drained = Arrays.copyOf(drained, position * 2);
+        }
+        drained[position] = payloadRef;
+    }
+
+    /**
+     * Frontier of drain: puts a slot at the given position and moves it up to where it belongs.
+     */
+    private void siftUp(int slot, int position){
+        int key = keys[slot];
+        while(position > 0){
+            int parent = (position - 1) >>> 1;
+            if(keys[frontier[parent]] <= key){
+                break;
+            }
+            frontier[position] = frontier[parent];
+            position = parent;
+        }
+        frontier[position] = slot;
+    }
+
+    /**
+     * Frontier of drain: puts a slot at the top (replacing what was there) and moves it down to where it belongs.
+     * @param slot The slot, the last one of the frontier.
+     * @param frontierSize The size of the frontier, without the slot.
+     */
+    private void siftDown(int slot, int frontierSize){
+        int key = keys[slot];
+        int position = 0;
+        int half = frontierSize >>> 1;
+        while(position < half){
+            int smallest = 2 * position + 1;
+            if(smallest + 1 < frontierSize && keys[frontier[smallest + 1]] < keys[frontier[smallest]]){
+                smallest++;
+            }
+            if(key <= keys[frontier[smallest]]){
+                break;
+            }
+            frontier[position] = frontier[smallest];
+            position = smallest;
+        }
+        frontier[position] = slot;
+    }
+
+    /**
+     * Melds the other heap into this one, the other heap is left empty.
+     *
+     * Since the entries of the other heap live in different arrays, they are copied over into this heap's arrays
+     * (so this is O(size of the other heap's arrays), the link itself is O(1)). The slots are copied as one block, so
+     * a handle h from the other heap becomes h + (the returned offset) in this heap.
+     *
+     * @param other The heap to be assimilated into this one.
+     * @return The offset to add to the other heap's handles to get their handles in this heap.
+     */
+    public int meld(IntPairingHeap other){
+        if(other == this || other.used == 0){
+            return 0;
+        }
+        int base = used;
+        ensureCapacity(base + other.used);
+
+        System.arraycopy(other.keys, 0, keys, base, other.used);
+        System.arraycopy(other.payloads, 0, payloads, base, other.used);
+        for(int i = 0; i < other.used; i++){
+            child[base + i] = shift(other.child[i], base);
+            sibling[base + i] = shift(other.sibling[i], base);
+            prev[base + i] = shift(other.prev[i], base);
+        }
+        used += other.used;
+
+        //The other heap's free slots are still chained through sibling, put that chain in front of ours.
+        if(other.freeHead != NIL){
+            int tail = base + other.freeHead;
+            while(sibling[tail] != NIL){
+                tail = sibling[tail];
+            }
+            sibling[tail] = freeHead;
+            freeHead = base + other.freeHead;
+        }
+
+        if(other.root != NIL){
+            int otherRoot = base + other.root;
+            root = (root == NIL) ? otherRoot : link(root, otherRoot);
+        }
+        size += other.size;
+
+        other.root = NIL;
+        other.size = 0;
+        other.used = 0;
+        other.freeHead = NIL;
+        return base;
+    }
+
+    /**
+     * Links two roots, the larger one becomes the leftmost child of the smaller one (ties keep the first as the root,
+     * same as PairingHeap.merge).
+     * @param a Root of the first tree.
+     * @param b Root of the second tree.
+     * @return Root of the linked tree.
+     */
+    private int link(int a, int b){
+        if(keys[a] > keys[b]){
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        sibling[b] = child[a];
+        prev[b] = a;
+        if(child[a] != NIL){
+            prev[child[a]] = b;
+        }
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * Cuts an entry (with its subtree) out of the sibling list it is in.
+     * @param slot The entry to be cut out, must not be the root.
+     */
+    private void cut(int slot){
+        int left = prev[slot];
+        int right = sibling[slot];
+        if(child[left] == slot){
+            child[left] = right;
+        }
+        else{
+            sibling[left] = right;
+        }
+        if(right != NIL){
+            prev[right] = left;
+        }
+        sibling[slot] = NIL;
+        prev[slot] = NIL;
+    }
+
+    /**
+     * Two-pass pairing of a sibling list. First pass links the trees in pairs from left to right, the second pass
+     * links the results from right to left into a single tree.
+     * @param first Leftmost tree of the sibling list.
+     * @return Root of the single combined tree, or NIL if the list was empty.
+     */
+    private int combineSiblings(int first){
+        if(first == NIL){
+            return NIL;
+        }
+
+        //First pass, the winners are pushed onto a stack (chained through sibling) so the second pass can go right
+        //to left.
+        int paired = NIL;
+        int current = first;
+        while(current != NIL){
+            int second = sibling[current];
+            if(second == NIL){
+                sibling[current] = paired;
+                paired = current;
+                break;
+            }
+            int next = sibling[second];
+            int winner = link(current, second);
+            sibling[winner] = paired;
+            paired = winner;
+            current = next;
+        }
+
+        //Second pass, fold the stack into one tree.
+        int result = paired;
+        int rest = sibling[paired];
+        while(rest != NIL){
+            int next = sibling[rest];
+            result = link(result, rest);
+            rest = next;
+        }
+        sibling[result] = NIL;
+        prev[result] = NIL;
+        return result;
+    }
+
+    /**
+     * Gets a slot for a new entry, from the free list if possible, growing the arrays if needed.
+     * @return Index of the slot.
+     */
+    private int allocateSlot(){
+        if(freeHead != NIL){
+            int slot = freeHead;
+            freeHead = sibling[slot];
+            return slot;
+        }
+        ensureCapacity(used + 1);
+        return used++;
+    }
+
+    /**
+     * Puts a slot back onto the free list.
+     * @param slot Index of the slot.
+     */
+    private void freeSlot(int slot){
+        child[slot] = NIL;
+        sibling[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * Grows the arrays (doubling) so they can hold at least the given number of slots.
+     * @param capacity Number of slots needed.
+     */
+    private void ensureCapacity(int capacity){
+        if(capacity <= keys.length){
+            return;
+        }
+        int newCapacity = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        payloads = Arrays.copyOf(payloads, newCapacity);
+        child = Arrays.copyOf(child, newCapacity);
+        sibling = Arrays.copyOf(sibling, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+    }
+
+    /**
+     * Shifts a link by the given offset, leaving NIL alone.
+     */
+    private static int shift(int link, int offset){
+        return link == NIL ? NIL : link + offset;
+    }
+}
@@ -0,0 +1,396 @@
+package pairingheap;
+
+import java.util.Arrays;
+
+/**
+ * LongPairingHeap, the IntPairingHeap with long keys, for things like nanosecond timestamps.
+ *
+ * Hand specialized rather than generic so the key comparison in link is a plain long comparison, with no boxing and
+ * no Comparator call. The layout is the same as IntPairingHeap (parallel arrays indexed by slot, freed slots reused,
+ * two-pass delete-min), only the key array is a long[]. Payloads are still int references.
+ */
+public class LongPairingHeap {
+    //Stands in for a null reference in the link arrays.
+    public static final int NIL = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //The parallel arrays holding the entries, indexed by slot.
+    private long[] keys;
+    private int[] payloads;
+    private int[] child;
+    private int[] sibling;
+    private int[] prev;
+
+    //Slot of the root (minimum) entry.
+    private int root = NIL;
+
+    //Maintain the size of the heap.
+    private int size;
+
+    //Head of the list of freed slots, and the number of slots ever handed out.
+    private int freeHead = NIL;
+    private int used;
+
+    /**
+     * Constructor, creates an empty heap with a small default capacity.
+     */
+    LongPairingHeap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor, creates an empty heap with room for the given number of entries before the arrays need to grow.
+     * @param initialCapacity Number of entries to make room for up front.
+     */
+    LongPairingHeap(int initialCapacity){
+        int capacity = Math.max(1, initialCapacity);
+        keys = new long[capacity];
+        payloads = new int[capacity];
+        child = new int[capacity];
+        sibling = new int[capacity];
+        prev = new int[capacity];
+    }
+
+    /**
+     * Gets the size of the heap.
+     * @return Integer stating the number of entries in the heap.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Returns the handle (slot) of the minimum entry. Does NOT delete it!
+     * @return Handle of the minimum entry, or NIL if the heap is empty.
+     */
+    public int findMin(){
+        return root;
+    }
+
+    /**
+     * Returns the key of the minimum entry. Only meaningful if the heap is not empty.
+     * @return Key (Long) of the minimum entry.
+     */
+    public long findMinKey(){
+        return keys[root];
+    }
+
+    /**
+     * Gets the key of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Key (Long)
+     */
+    public long getKey(int handle){
+        return keys[handle];
+    }
+
+    /**
+     * Gets the payload reference of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Payload reference (Integer)
+     */
+    public int getPayload(int handle){
+        return payloads[handle];
+    }
+
+    /**
+     * Insert a new entry, this is a merge of a one entry heap into the main heap just like PairingHeap.insert.
+     * @param key Key (Long) the heap is ordered upon.
+     * @param payloadRef Reference to the payload, not looked at by the heap.
+     * @return The handle of the new entry.
+     */
+    public int insert(long key, int payloadRef){
+        int slot = allocateSlot();
+        keys[slot] = key;
+        payloads[slot] = payloadRef;
+        child[slot] = NIL;
+        sibling[slot] = NIL;
+        prev[slot] = NIL;
+
+        if(root == NIL){
+            root = slot;
+        }
+        else{
+            root = link(root, slot);
+        }
+        size++;
+        return slot;
+    }
+
+    /**
+     * Decreases the key of an entry in the heap. If it is not the root, its subtree is cut out (O(1) with the prev
+     * link) and linked back with the root. The subtree is still heap ordered, so there is no pairing to do.
+     * @param handle Handle of the entry, as returned by insert.
+     * @param newKey The new key, must not be larger than the current key.
+     */
+    public void decreaseKey(int handle, long newKey){
+        if(newKey > keys[handle]){
+            System.out.println("Sorry, decreaseKey can not make a key larger!");
+            return;
+        }
+        keys[handle] = newKey;
+        if(handle == root){
+            return;
+        }
+        cut(handle);
+        root = link(root, handle);
+    }
+
+    /**
+     * Deletes any entry from the heap. Its subtree is cut out, its children are paired up with two-pass (a delete-min
+     * on just that subtree) and the result is linked back with the root. The slot is recycled, so the handle must
+     * not be used afterwards.
+     * @param handle Handle of the entry, as returned by insert.
+     * @return Payload reference of the removed entry.
+     */
+    public int delete(int handle){
+        if(handle == root){
+            return deleteMin();
+        }
+        int payload = payloads[handle];
+        cut(handle);
+        int subtree = combineSiblings(child[handle]);
+        if(subtree != NIL){
+            root = link(root, subtree);
+        }
+        freeSlot(handle);
+        size--;
+        return payload;
+    }
+
+    /**
+     * Increases the key of an entry in the heap. Same mechanism as delete, the children of the entry are paired into
+     * one subtree and linked back with the root, then the entry (now on its own) is linked back in with its new key.
+     * @param handle Handle of the entry, as returned by insert.
+     * @param newKey The new key, must not be smaller than the current key.
+     */
+    public void increaseKey(int handle, long newKey){
+        if(newKey < keys[handle]){
+            System.out.println("Sorry, increaseKey can not make a key smaller!");
+            return;
+        }
+        keys[handle] = newKey;
+        int subtree = combineSiblings(child[handle]);
+        child[handle] = NIL;
+        if(handle == root){
+            if(subtree == NIL){
+                return;
+            }
+            root = subtree;
+        }
+        else{
+            cut(handle);
+            if(subtree != NIL){
+                root = link(root, subtree);
+            }
+        }
+        root = link(root, handle);
+    }
+
+    /**
+     * Removes the minimum entry and returns its payload reference. The slot of the removed entry is recycled, so its
+     * handle must not be used afterwards.
+     * @return Payload reference of the removed entry, or NIL if the heap was empty.
+     */
+    public int deleteMin(){
+        if(size == 0){
+            System.out.println("Sorry, no more nodes!");
+            return NIL;
+        }
+        int oldRoot = root;
+        int payload = payloads[oldRoot];
+
+        root = combineSiblings(child[oldRoot]);
+        freeSlot(oldRoot);
+        size--;
+        return payload;
+    }
+
+    /**
+     * Removes the minimum entry without returning anything, same as PairingHeap.deleteMinAlone.
+     */
+    public void deleteMinAlone(){
+        deleteMin();
+    }
+
+    /**
+     * Melds the other heap into this one, the other heap is left empty.
+     *
+     * Since the entries of the other heap live in different arrays, they are copied over into this heap's arrays
+     * (so this is O(size of the other heap's arrays), the link itself is O(1)). The slots are copied as one block, so
+     * a handle h from the other heap becomes h + (the returned offset) in this heap.
+     *
+     * @param other The heap to be assimilated into this one.
+     * @return The offset to add to the other heap's handles to get their handles in this heap.
+     */
+    public int meld(LongPairingHeap other){
+        if(other == this || other.used == 0){
+            return 0;
+        }
+        int base = used;
+        ensureCapacity(base + other.used);
+
+        System.arraycopy(other.keys, 0, keys, base, other.used);
+        System.arraycopy(other.payloads, 0, payloads, base, other.used);
+        for(int i = 0; i < other.used; i++){
+            child[base + i] = shift(other.child[i], base);
+            sibling[base + i] = shift(other.sibling[i], base);
+            prev[base + i] = shift(other.prev[i], base);
+        }
+        used += other.used;
+
+        //The other heap's free slots are still chained through sibling, put that chain in front of ours.
+        if(other.freeHead != NIL){
+            int tail = base + other.freeHead;
+            while(sibling[tail] != NIL){
+                tail = sibling[tail];
+            }
+            sibling[tail] = freeHead;
+            freeHead = base + other.freeHead;
+        }
+
+        if(other.root != NIL){
+            int otherRoot = base + other.root;
+            root = (root == NIL) ? otherRoot : link(root, otherRoot);
+        }
+        size += other.size;
+
+        other.root = NIL;
+        other.size = 0;
+        other.used = 0;
+        other.freeHead = NIL;
+        return base;
+    }
+
+    /**
+     * Links two roots, the larger one becomes the leftmost child of the smaller one (ties keep the first as the root,
+     * same as PairingHeap.merge).
+     * @param a Root of the first tree.
+     * @param b Root of the second tree.
+     * @return Root of the linked tree.
+     */
+    private int link(int a, int b){
+        if(keys[a] > keys[b]){
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        sibling[b] = child[a];
+        prev[b] = a;
+        if(child[a] != NIL){
+            prev[child[a]] = b;
+        }
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * Cuts an entry (with its subtree) out of the sibling list it is in.
+     * @param slot The entry to be cut out, must not be the root.
+     */
+    private void cut(int slot){
+        int left = prev[slot];
+        int right = sibling[slot];
+        if(child[left] == slot){
+            child[left] = right;
+        }
+        else{
+            sibling[left] = right;
+        }
+        if(right != NIL){
+            prev[right] = left;
+        }
+        sibling[slot] = NIL;
+        prev[slot] = NIL;
+    }
+
+    /**
+     * Two-pass pairing of a sibling list. First pass links the trees in pairs from left to right, the second pass
+     * links the results from right to left into a single tree.
+     * @param first Leftmost tree of the sibling list.
+     * @return Root of the single combined tree, or NIL if the list was empty.
+     */
+    private int combineSiblings(int first){
+        if(first == NIL){
+            return NIL;
+        }
+
+        //First pass, the winners are pushed onto a stack (chained through sibling) so the second pass can go right
+        //to left.
+        int paired = NIL;
+        int current = first;
+        while(current != NIL){
+            int second = sibling[current];
+            if(second == NIL){
+                sibling[current] = paired;
+                paired = current;
+                break;
+            }
+            int next = sibling[second];
+            int winner = link(current, second);
+            sibling[winner] = paired;
+            paired = winner;
+            current = next;
+        }
+
+        //Second pass, fold the stack into one tree.
+        int result = paired;
+        int rest = sibling[paired];
+        while(rest != NIL){
+            int next = sibling[rest];
+            result = link(result, rest);
+            rest = next;
+        }
+        sibling[result] = NIL;
+        prev[result] = NIL;
+        return result;
+    }
+
+    /**
+     * Gets a slot for a new entry, from the free list if possible, growing the arrays if needed.
+     * @return Index of the slot.
+     */
+    private int allocateSlot(){
+        if(freeHead != NIL){
+            int slot = freeHead;
+            freeHead = sibling[slot];
+            return slot;
+        }
+        ensureCapacity(used + 1);
+        return used++;
+    }
+
+    /**
+     * Puts a slot back onto the free list.
+     * @param slot Index of the slot.
+     */
+    private void freeSlot(int slot){
+        child[slot] = NIL;
+        sibling[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * Grows the arrays (doubling) so they can hold at least the given number of slots.
+     * @param capacity Number of slots needed.
+     */
+    private void ensureCapacity(int capacity){
+        if(capacity <= keys.length){
+            return;
+        }
+        int newCapacity = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        payloads = Arrays.copyOf(payloads, newCapacity);
+        child = Arrays.copyOf(child, newCapacity);
+        sibling = Arrays.copyOf(sibling, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+    }
+
+    /**
+     * Shifts a link by the given offset, leaving NIL alone.
+     */
+    private static int shift(int link, int offset){
+        return link == NIL ? NIL : link + offset;
+    }
+}
@@ -0,0 +1,294 @@
+package pairingheap;
+
+import java.util.Arrays;
+
+/**
+ * LongRadixHeap, the RadixHeap with long keys and int payload references, laid out like LongPairingHeap (parallel
+ * arrays indexed by slot, freed slots reused, handles are slots) so it can stand in for it wherever the keys only go
+ * up, e.g. GraphAlgorithms.dijkstraRadix.
+ *
+ * Same promise as RadixHeap: a key put in must never be smaller than the last minimum taken out. Checked with asserts
+ * only, so run with -ea to have it checked.
+ */
+public class LongRadixHeap {
+    //Stands in for a null reference in the link arrays.
+    public static final int NIL = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //One bucket per bit of a long, and one for the keys equal to last.
+    private static final int BUCKETS = 65;
+
+    //The parallel arrays holding the entries, indexed by slot. The buckets are doubly linked lists through next and
+    //prev, prev is NIL for the head of a bucket.
+    private long[] keys;
+    private int[] payloads;
+    private int[] next;
+    private int[] prev;
+
+    //Head of the list of each bucket.
+    private final int[] buckets = new int[BUCKETS];
+
+    //Key of the last minimum taken out, no key may go below it.
+    private long last = Long.MIN_VALUE;
+
+    //Maintain the size of the heap.
+    private int size;
+
+    //Head of the list of freed slots (chained through next), and the number of slots ever handed out.
+    private int freeHead = NIL;
+    private int used;
+
+    /**
+     * Constructor, creates an empty heap with a small default capacity.
+     */
+    LongRadixHeap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor, creates an empty heap with room for the given number of entries before the arrays need to grow.
+     * @param initialCapacity Number of entries to make room for up front.
+     */
+    LongRadixHeap(int initialCapacity){
+        int capacity = Math.max(1, initialCapacity);
+        keys = new long[capacity];
+        payloads = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        Arrays.fill(buckets, NIL);
+    }
+
+    /**
+     * Gets the size of the heap.
+     * @return Integer stating the number of entries in the heap.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Gets the key of the last minimum taken out, the smallest key the heap will take from now on.
+     * @return Key (Long)
+     */
+    public long getLast(){
+        return last;
+    }
+
+    /**
+     * Returns the handle (slot) of the minimum entry. Does NOT delete it! Looks through the lowest bucket that is not
+     * empty, see RadixHeap.findMin.
+     * @return Handle of the minimum entry, or NIL if the heap is empty.
+     */
+    public int findMin(){
+        if(buckets[0] != NIL){
+            return buckets[0];
+        }
+        int bucket = lowestBucket();
+        return bucket < 0 ? NIL : minimumOf(buckets[bucket]);
+    }
+
+    /**
+     * Returns the key of the minimum entry. Only meaningful if the heap is not empty.
+     * @return Key (Long) of the minimum entry.
+     */
+    public long findMinKey(){
+        return keys[findMin()];
+    }
+
+    /**
+     * Gets the key of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Key (Long)
+     */
+    public long getKey(int handle){
+        return keys[handle];
+    }
+
+    /**
+     * Gets the payload reference of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Payload reference (Integer)
+     */
+    public int getPayload(int handle){
+        return payloads[handle];
+    }
+
+    /**
+     * Insert a new entry. O(1).
+     * @param key Key (Long), must not be smaller than getLast().
+     * @param payloadRef Reference to the payload, not looked at by the heap.
+     * @return The handle of the new entry.
+     */
+    public int insert(long key, int payloadRef){
+        assert key >= last : "LongRadixHeap key " + key + " is below the last minimum " + last;
+        int slot = allocateSlot();
+        keys[slot] = key;
+        payloads[slot] = payloadRef;
+        addToBucket(slot, bucketOf(key));
+        size++;
+        return slot;
+    }
+
+    /**
+     * Decreases the key of an entry in the heap, it is moved to the bucket of its new key. O(1).
+     * @param handle Handle of the entry, as returned by insert.
+     * @param newKey The new key, must not be larger than the current key, nor smaller than getLast().
+     */
+    public void decreaseKey(int handle, long newKey){
+        if(newKey > keys[handle]){
+            System.out.println("Sorry, decreaseKey can not make a key larger!");
+            return;
+        }
+        assert newKey >= last : "LongRadixHeap key " + newKey + " is below the last minimum " + last;
+        int oldBucket = bucketOf(keys[handle]);
+        int newBucket = bucketOf(newKey);
+        keys[handle] = newKey;
+        if(oldBucket != newBucket){
+            unlink(handle, oldBucket);
+            addToBucket(handle, newBucket);
+        }
+    }
+
+    /**
+     * Deletes any entry from the heap. O(1). The slot is recycled, so the handle must not be used afterwards.
+     * @param handle Handle of the entry, as returned by insert.
+     * @return Payload reference of the removed entry.
+     */
+    public int delete(int handle){
+        int payload = payloads[handle];
+        unlink(handle, bucketOf(keys[handle]));
+        freeSlot(handle);
+        size--;
+        return payload;
+    }
+
+    /**
+     * Removes the minimum entry and returns its payload reference. The slot of the removed entry is recycled, so its
+     * handle must not be used afterwards.
+     * @return Payload reference of the removed entry, or NIL if the heap was empty.
+     */
+    public int deleteMin(){
+        if(size == 0){
+            System.out.println("Sorry, no more nodes!");
+            return NIL;
+        }
+        if(buckets[0] == NIL){
+            //Take the smallest key of the lowest bucket as the new last, and move that whole bucket down.
+            int bucket = lowestBucket();
+            int slot = buckets[bucket];
+            last = keys[minimumOf(slot)];
+            buckets[bucket] = NIL;
+            while(slot != NIL){
+                int following = next[slot];
+                addToBucket(slot, bucketOf(keys[slot]));
+                slot = following;
+            }
+        }
+        int min = buckets[0];
+        int payload = payloads[min];
+        unlink(min, 0);
+        freeSlot(min);
+        size--;
+        return payload;
+    }
+
+    /**
+     * The bucket a key belongs in: 0 if it is equal to last, otherwise one more than the highest bit it differs from
+     * last in.
+     */
+    private int bucketOf(long key){
+        return 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * The lowest bucket that is not empty, or -1 if they all are.
+     */
+    private int lowestBucket(){
+        for(int b = 0; b < BUCKETS; b++){
+            if(buckets[b] != NIL){
+                return b;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The slot with the smallest key in the list starting at the given slot.
+     */
+    private int minimumOf(int slot){
+        int min = slot;
+        for(slot = next[slot]; slot != NIL; slot = next[slot]){
+            if(keys[slot] < keys[min]){
+                min = slot;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Puts a slot at the front of a bucket.
+     */
+    private void addToBucket(int slot, int bucket){
+        int head = buckets[bucket];
+        next[slot] = head;
+        prev[slot] = NIL;
+        if(head != NIL){
+            prev[head] = slot;
+        }
+        buckets[bucket] = slot;
+    }
+
+    /**
+     * Takes a slot out of the bucket it is in.
+     */
+    private void unlink(int slot, int bucket){
+        if(prev[slot] == NIL){
+            buckets[bucket] = next[slot];
+        }
+        else{
+            next[prev[slot]] = next[slot];
+        }
+        if(next[slot] != NIL){
+            prev[next[slot]] = prev[slot];
+        }
+    }
+
+    /**
+     * Gets a slot for a new entry, from the free list if possible, growing the arrays if needed.
+     * @return Index of the slot.
+     */
+    private int allocateSlot(){
+        if(freeHead != NIL){
+            int slot = freeHead;
+            freeHead = next[slot];
+            return slot;
+        }
+        ensureCapacity(used + 1);
+        return used++;
+    }
+
+    /**
+     * Puts a slot back onto the free list.
+     * @param slot Index of the slot.
+     */
+    private void freeSlot(int slot){
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    /**
+     * Grows the arrays (doubling) so they can hold at least the given number of slots.
+     * @param capacity Number of slots needed.
+     */
+    private void ensureCapacity(int capacity){
+        if(capacity <= keys.length){
+            return;
+        }
+        int newCapacity = Math.max(capacity, keys.length * 2);
+        keys = Arrays.copyOf(keys, newCapacity);
+        payloads = Arrays.copyOf(payloads, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+    }
+}
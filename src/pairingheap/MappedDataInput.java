@@ -0,0 +1,205 @@
+package pairingheap;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Reads a range of a file through memory mappings, for PairingHeap.restore. Values are read straight out of the
+ * mapping (a readInt is one getInt on the buffer, not four single byte reads like a DataInputStream does). A single
+ * MappedByteBuffer can not be larger than 2GB, so the range is mapped one window at a time, and a value that
+ * straddles two windows is put together a byte at a time.
+ */
+class MappedDataInput implements DataInput {
+    //Size of the windows the file is mapped in.
+    private static final int WINDOW_BYTES = 1 << 30;
+
+    private final FileChannel channel;
+    private final long end;
+    private long nextWindowStart;
+    private MappedByteBuffer window;
+
+    /**
+     * Constructor, reads the file from position 0 up to (not including) end.
+     * @param channel The file, open for reading.
+     * @param end Where to stop reading.
+     */
+    MappedDataInput(FileChannel channel, long end){
+        this.channel = channel;
+        this.end = end;
+    }
+
+    /**
+     * Works out the CRC32 of a range of a file, straight from the mappings.
+     * @param channel The file, open for reading.
+     * @param end The range is from 0 up to (not including) end.
+     * @return The CRC32 of the range.
+     * @throws IOException If mapping the file fails.
+     */
+    static long checksum(FileChannel channel, long end) throws IOException{
+        CRC32 crc = new CRC32();
+        for(long start = 0; start < end; start += WINDOW_BYTES){
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, end - start)));
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Gets how far into the file the reading has got.
+     * @return Position of the next byte to be read.
+     */
+    long position(){
+        return window == null ? 0 : nextWindowStart - window.remaining();
+    }
+
+    /**
+     * Makes sure there is at least one byte left in the window, mapping the next window if needed.
+     * @throws EOFException If the end of the range has been reached.
+     */
+    private void ensureByte() throws IOException{
+        if(window != null && window.hasRemaining()){
+            return;
+        }
+        if(nextWindowStart >= end){
+            throw new EOFException();
+        }
+        int length = (int) Math.min(WINDOW_BYTES, end - nextWindowStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, nextWindowStart, length);
+        nextWindowStart += length;
+    }
+
+    /**
+     * Tells whether the next count bytes can be read straight from the current window.
+     */
+    private boolean inWindow(int count){
+        return window != null && window.remaining() >= count;
+    }
+
+    @Override
+    public void readFully(byte[] bytes) throws IOException{
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int offset, int length) throws IOException{
+        while(length > 0){
+            ensureByte();
+            int count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public int skipBytes(int n) throws IOException{
+        int skipped = 0;
+        while(skipped < n && position() < end){
+            ensureByte();
+            int count = Math.min(n - skipped, window.remaining());
+            window.position(window.position() + count);
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException{
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() throws IOException{
+        ensureByte();
+        return window.get();
+    }
+
+    @Override
+    public int readUnsignedByte() throws IOException{
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() throws IOException{
+        if(inWindow(2)){
+            return window.getShort();
+        }
+        return (short) ((readUnsignedByte() << 8) | readUnsignedByte());
+    }
+
+    @Override
+    public int readUnsignedShort() throws IOException{
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() throws IOException{
+        return (char) readShort();
+    }
+
+    @Override
+    public int readInt() throws IOException{
+        if(inWindow(4)){
+            return window.getInt();
+        }
+        return (readUnsignedShort() << 16) | readUnsignedShort();
+    }
+
+    @Override
+    public long readLong() throws IOException{
+        if(inWindow(8)){
+            return window.getLong();
+        }
+        return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public float readFloat() throws IOException{
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public double readDouble() throws IOException{
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads a line the way DataInput says to: a byte per char, up to a \n, a \r or a \r\n (left out of the line), or
+     * the end of the range. Snapshots don't use it, it is there to make this a whole DataInput.
+     * @return The line, or null if the end of the range was reached before anything was read.
+     */
+    @Override
+    public String readLine() throws IOException{
+        if(position() >= end){
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while(position() < end){
+            int c = readUnsignedByte();
+            if(c == '\n'){
+                break;
+            }
+            if(c == '\r'){
+                //Take the \n of a \r\n too.
+                if(position() < end){
+                    ensureByte();
+                    if(window.get(window.position()) == '\n'){
+                        window.get();
+                    }
+                }
+                break;
+            }
+            line.append((char) c);
+        }
+        return line.toString();
+    }
+
+    @Override
+    public String readUTF() throws IOException{
+        return DataInputStream.readUTF(this);
+    }
+}
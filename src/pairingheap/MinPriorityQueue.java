@@ -0,0 +1,61 @@
+package pairingheap;
+
+/**
+ * MinPriorityQueue, the operations the priority queues of this project have in common, so code like Dijkstra's can
+ * be written once and run on any of them: the PairingHeap (any keys, in any order) or the RadixHeap (integer keys
+ * that never go below the last minimum taken out).
+ *
+ * The entries are Nodes. The node given back by insert is the handle of the entry, for decreaseKey and delete, for as
+ * long as it stays in the queue.
+ *
+ * @param <K> Type of the keys (values) the queue is ordered upon.
+ * @param <V> Type of the payloads.
+ */
+public interface MinPriorityQueue<K, V> {
+    /**
+     * Gets the number of entries in the queue.
+     * @return Integer stating the size of the queue.
+     */
+    int getSize();
+
+    /**
+     * Puts a new entry into the queue.
+     * @param key Value (key) of the new entry.
+     * @param payload Payload of the new entry.
+     * @return The node of the new entry, as its handle.
+     */
+    Node<K, V> insert(K key, V payload);
+
+    /**
+     * Puts a node into the queue, as a new entry. The node must not be in any queue.
+     * @param node The node, it is also the handle of the entry.
+     * @return The node.
+     */
+    Node<K, V> insert(Node<K, V> node);
+
+    /**
+     * Returns the minimum entry without removing it.
+     * @return The node of the minimum entry, or null if the queue is empty.
+     */
+    Node<K, V> findMin();
+
+    /**
+     * Removes the minimum entry and returns it.
+     * @return The node of the removed entry, or null if the queue is empty.
+     */
+    Node<K, V> deleteMin();
+
+    /**
+     * Decreases the value (key) of an entry in the queue.
+     * @param node The handle of the entry, as returned by insert.
+     * @param newValue The new value, must not be larger than the current value.
+     */
+    void decreaseKey(Node<K, V> node, K newValue);
+
+    /**
+     * Removes any entry from the queue, not just the minimum.
+     * @param node The handle of the entry, as returned by insert.
+     * @return The node that was removed.
+     */
+    Node<K, V> delete(Node<K, V> node);
+}
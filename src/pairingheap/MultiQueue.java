@@ -0,0 +1,293 @@
+package pairingheap;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A relaxed priority queue for many threads, made of several PairingHeap shards each behind its own lock.
+ *
+ * An insert goes to a random shard. A deleteMin looks at the minimums of two random shards and pops the smaller one.
+ * If the lock of the chosen shard is taken, the thread does not wait, it just picks again. So threads almost never
+ * wait on each other and the throughput grows with the number of threads. The price is that deleteMin does not
+ * always give the global minimum, only something close to it. How close is the rank error: the number of entries in
+ * the queue smaller than the one that was popped. It grows in line with the number of shards (on average a bit less
+ * than the number of shards, see TEST 13), so with c * P shards for P threads, a bigger c means less fighting over
+ * the locks and more rank error.
+ *
+ * The rank error can be measured while running: with setRankErrorSampling(n), every n-th deleteMin counts how many
+ * shards have a minimum smaller than the key it popped. This only reads the cached minimum of each shard (no locks),
+ * and it is a lower bound of the real rank error, since a shard with a smaller minimum may hold more smaller entries.
+ *
+ * (Source: Rihani, Sanders, Dementiev, "MultiQueues: Simple Relaxed Concurrent Priority Queues", 2015.)
+ *
+ * @param <K> Type of the keys (values) the queue is ordered upon.
+ * @param <V> Type of the payloads.
+ */
+public class MultiQueue<K, V> {
+    //How many times insert tries random shards before waiting for a lock, and deleteMin tries random pairs of shards
+    //before it goes through all of them in order (which only happens when the queue is nearly empty).
+    private static final int RANDOM_TRIES = 32;
+
+    private final Shard<K, V>[] shards;
+
+    //Orders the keys, null means the natural ordering of the keys.
+    private final Comparator<? super K> comparator;
+
+    //Every how many deleteMins the rank error is sampled, 0 for never.
+    private volatile int rankErrorSampling;
+    private final AtomicLong deleteMins = new AtomicLong();
+    private final AtomicLong rankErrorSamples = new AtomicLong();
+    private final AtomicLong rankErrorTotal = new AtomicLong();
+    private final AtomicLong rankErrorMax = new AtomicLong();
+
+    /**
+     * One shard, a PairingHeap with its lock. The minimum and size are copied out after every change (while holding
+     * the lock) so other threads can look at them without the lock.
+     */
+    private static final class Shard<K, V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final PairingHeap<K, V> heap;
+        volatile Node<K, V> min;
+        volatile int size;
+
+        Shard(PairingStrategy strategy, Comparator<? super K> comparator){
+            heap = new PairingHeap<>(strategy, comparator);
+        }
+
+        //Copies the minimum and size out of the heap, called while holding the lock.
+        void publish(){
+            min = heap.findMin();
+            size = heap.getSize();
+        }
+    }
+
+    /**
+     * Constructor, makes c shards for every processor, with the keys in their natural ordering.
+     * @param c Shards per processor, 2 is a good start.
+     */
+    MultiQueue(int c){
+        this(c * Runtime.getRuntime().availableProcessors(), PairingStrategy.MULTIPASS, null);
+    }
+
+    /**
+     * Constructor, makes the given number of shards.
+     * @param shardCount How many shards (PairingHeaps) the queue is made of. With 1 the queue is not relaxed at all.
+     * @param strategy The PairingStrategy used by the shards.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     */
+    @SuppressWarnings("unchecked")
+    MultiQueue(int shardCount, PairingStrategy strategy, Comparator<? super K> comparator){
+        this.comparator = comparator;
+        shards = (Shard<K, V>[]) new Shard<?, ?>[Math.max(1, shardCount)];
+        for(int i = 0; i < shards.length; i++){
+            shards[i] = new Shard<>(strategy, comparator);
+        }
+    }
+
+    /**
+     * Gets the number of shards.
+     * @return How many PairingHeaps the queue is made of.
+     */
+    public int getShardCount(){
+        return shards.length;
+    }
+
+    /**
+     * Gets the size of the queue, the sum of the shard sizes. Only exact when no other thread is changing the queue.
+     * @return Integer stating the size of the queue.
+     */
+    public int getSize(){
+        int size = 0;
+        for(Shard<K, V> shard: shards){
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * Inserts a node into a random shard.
+     * @param node The new node, must not be in any heap.
+     * @return The node that was inserted.
+     */
+    public Node<K, V> insert(Node<K, V> node){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int tries = 0; ; tries++){
+            Shard<K, V> shard = shards[random.nextInt(shards.length)];
+            //Every lock tried was taken (only likely with very few shards), wait for one instead.
+            if(tries == RANDOM_TRIES){
+                shard.lock.lock();
+            }
+            else if(!shard.lock.tryLock()){
+                continue;
+            }
+            try{
+                shard.heap.insert(node);
+                shard.publish();
+                return node;
+            }
+            finally{
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Convenience version of insert, creates the Node for the key and payload.
+     * @param key Value (key) of the new node.
+     * @param payload Payload of the new node.
+     * @return The new node.
+     */
+    public Node<K, V> insert(K key, V payload){
+        return insert(new Node<K, V>(key, payload));
+    }
+
+    /**
+     * Removes a node close to the minimum: the smaller of the minimums of two random shards.
+     *
+     * Like ConcurrentPairingHeap, an empty queue is not an error, null is returned.
+     * @return The removed node, null if the queue was empty.
+     */
+    public Node<K, V> deleteMin(){
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int tries = 0; tries < RANDOM_TRIES; tries++){
+            Shard<K, V> first = shards[random.nextInt(shards.length)];
+            Shard<K, V> second = shards[random.nextInt(shards.length)];
+            Node<K, V> firstMin = first.min;
+            Node<K, V> secondMin = second.min;
+            if(firstMin == null && secondMin == null){
+                continue;
+            }
+            Shard<K, V> chosen = (secondMin == null
+                    || (firstMin != null && compare(firstMin.getValue(), secondMin.getValue()) <= 0)) ? first : second;
+
+            Node<K, V> removed = tryDeleteMin(chosen);
+            if(removed != null){
+                return removed;
+            }
+        }
+
+        //The random picks keep finding empty or busy shards, go through every shard, waiting for the locks.
+        for(Shard<K, V> shard: shards){
+            if(shard.size == 0){
+                continue;
+            }
+            shard.lock.lock();
+            try{
+                if(shard.heap.getSize() > 0){
+                    return popLocked(shard);
+                }
+            }
+            finally{
+                shard.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pops the minimum of a shard if its lock is free and it is not empty.
+     * @param shard The shard to pop from.
+     * @return The removed node, null if the lock was taken or the shard was empty.
+     */
+    private Node<K, V> tryDeleteMin(Shard<K, V> shard){
+        if(!shard.lock.tryLock()){
+            return null;
+        }
+        try{
+            if(shard.heap.getSize() == 0){
+                return null;
+            }
+            return popLocked(shard);
+        }
+        finally{
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Pops the minimum of a shard, called while holding the lock of the shard. Samples the rank error if it is time to.
+     * @param shard The shard to pop from, must not be empty.
+     * @return The removed node.
+     */
+    private Node<K, V> popLocked(Shard<K, V> shard){
+        Node<K, V> node = shard.heap.deleteMin();
+        shard.publish();
+
+        int sampling = rankErrorSampling;
+        if(sampling > 0 && deleteMins.incrementAndGet() % sampling == 0){
+            sampleRankError(node.getValue());
+        }
+        return node;
+    }
+
+    /**
+     * Counts the shards whose minimum is smaller than the key that was just popped, and adds it to the rank error
+     * statistics.
+     * @param key The key that was popped.
+     */
+    private void sampleRankError(K key){
+        long smaller = 0;
+        for(Shard<K, V> shard: shards){
+            Node<K, V> min = shard.min;
+            if(min != null && compare(min.getValue(), key) < 0){
+                smaller++;
+            }
+        }
+        rankErrorSamples.incrementAndGet();
+        rankErrorTotal.addAndGet(smaller);
+        rankErrorMax.accumulateAndGet(smaller, Math::max);
+    }
+
+    /**
+     * Turns rank error sampling on or off, and clears the statistics gathered so far.
+     * @param every Sample every this many deleteMins, 0 to turn sampling off.
+     */
+    public void setRankErrorSampling(int every){
+        rankErrorSampling = Math.max(0, every);
+        deleteMins.set(0);
+        rankErrorSamples.set(0);
+        rankErrorTotal.set(0);
+        rankErrorMax.set(0);
+    }
+
+    /**
+     * Gets how many deleteMins had their rank error sampled.
+     * @return The number of samples.
+     */
+    public long getRankErrorSamples(){
+        return rankErrorSamples.get();
+    }
+
+    /**
+     * Gets the average sampled rank error (shards with a smaller minimum than the popped key).
+     * @return The mean of the samples, 0 if there are none.
+     */
+    public double getMeanRankError(){
+        long samples = rankErrorSamples.get();
+        return samples == 0 ? 0 : (double) rankErrorTotal.get() / samples;
+    }
+
+    /**
+     * Gets the largest sampled rank error.
+     * @return The largest sample, 0 if there are none.
+     */
+    public long getMaxRankError(){
+        return rankErrorMax.get();
+    }
+
+    /**
+     * Compares two keys with the comparator of this queue, or their natural ordering if there is none.
+     * @param k1 The first key.
+     * @param k2 The second key.
+     * @return Negative if k1 < k2, 0 if equal, positive if k1 > k2.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K k1, K k2){
+        if(comparator == null){
+            return ((Comparable<? super K>) k1).compareTo(k2);
+        }
+        return comparator.compare(k1, k2);
+    }
+}
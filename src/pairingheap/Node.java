@@ -0,0 +1,116 @@
+package pairingheap;
+
+import java.util.ArrayList;
+
+/**
+ * Node, the Pairing Heap Object that I will be using during the development and testing of this pairing heap.
+ * These objects are going to be the elements that the heap is concerned with, commonly represented as nodes in
+ * descriptions of the heap.
+ *
+ * Keeping it simple.
+ *
+ * @param <K> Type of the value (key) the heap is ordered upon.
+ * @param <V> Type of the payload.
+ */
+public class Node<K, V> {
+    private K value;
+    private V payload;
+
+    //The tree is kept as leftmost-child / right-sibling links, rather than a list of children per node.
+    //prev is the left sibling, or the parent for a leftmost child (null for a root), so a node can be cut out in O(1).
+    //Maintained by the PairingHeap, or the RadixHeap (which keeps lists rather than trees, see there).
+    Node<K, V> child;
+    Node<K, V> sibling;
+    Node<K, V> prev;
+
+    /**
+     * Basic constructor, takes in a value and a payload to make a single object.
+     * @param paramKey Value (key) of the object, what the heap is ordered upon.
+     * @param paramPayload Payload of the object.
+     */
+    Node(K paramKey, V paramPayload){
+        value = paramKey;
+        payload = paramPayload;
+    }
+
+    /**
+     * Gives a node taken out of a heap a new key and payload, so it can be used again as a brand new node. Only for
+     * the node recycling of PairingHeap, the node must not be in any heap.
+     * @param paramKey New value (key) of the node.
+     * @param paramPayload New payload of the node.
+     */
+    void reset(K paramKey, V paramPayload){
+        value = paramKey;
+        payload = paramPayload;
+        child = null;
+        sibling = null;
+        prev = null;
+    }
+
+    /**
+     * Adds the Node passed in this method as the leftmost child of the evoked upon Node. O(1).
+     * @param node A Node to be added as a child of this Node.
+     */
+    public void addChild(Node<K, V> node){
+        node.sibling = child;
+        node.prev = this;
+        if(child != null){
+            child.prev = node;
+        }
+        child = node;
+    }
+
+    /**
+     * Getter method to get the list of Child Nodes from this node, leftmost child first.
+     * The list is built from the child/sibling links on every call, it is a copy and changing it does not change
+     * the tree.
+     * @return An ArrayList of Node Objects for the Node this method is evoked upon.
+     */
+    public ArrayList<Node<K, V>> getChildList(){
+        ArrayList<Node<K, V>> children = new ArrayList<>();
+        for(Node<K, V> node = child; node != null; node = node.sibling){
+            children.add(node);
+        }
+        return children;
+    }
+
+    /**
+     * Simple getter method that gets the value from the object.
+     * @return Key
+     */
+    public K getValue() {
+        return value;
+    }
+
+
+    /**
+     * Simple setter method for the value, I use it in the Dijkstra's implementation.
+     * NOTE: Changing the value of a node that is inside a heap breaks the heap order, use PairingHeap.decreaseKey
+     * for that instead.
+     * @param value New value for the node
+     */
+    public void setValue(K value){
+        this.value = value;
+    }
+
+    /**
+     * Simple getter method that gets the payload from the object.
+     * @return Payload
+     */
+    public V getPayload() {
+        return payload;
+    }
+
+    /**
+     * Displays the children of the current node in the following format:
+     * "Node number: Key: X Payload: Y"
+     */
+    public void printChildren(){
+        int iteration = 1;
+        for(Node<K, V> node: getChildList()){
+            System.out.println(iteration + ":  Key:" + node.getValue() + " Payload: " + node.getPayload());
+            iteration++;
+        }
+    }
+
+}
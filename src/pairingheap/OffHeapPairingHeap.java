@@ -0,0 +1,424 @@
+package pairingheap;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * OffHeapPairingHeap, a version of the heap that keeps its entries outside of the Java heap, so the garbage collector
+ * has nothing to look at no matter how many entries there are. For heaps of hundreds of millions of entries, where
+ * tracing that many Node objects makes the full GC pauses very long.
+ *
+ * Works like IntPairingHeap, except the slots are fixed width records in direct ByteBuffers instead of parallel
+ * arrays. Each slot is 24 bytes:
+ *   key      (long, offset 0)  - what the heap is ordered upon.
+ *   payload  (long, offset 8)  - a reference to the payload, the heap never looks at it. Meant to be an offset into
+ *                                the caller's own off-heap storage (or an index, an id...).
+ *   child    (int, offset 16)  - the slot of the leftmost (first) child.
+ *   sibling  (int, offset 20)  - the slot of the next sibling to the right.
+ * The buffers are allocated in chunks of CHUNK_SLOTS slots as the heap grows, so growing never copies anything. Slots
+ * freed by deleteMin go on a free list (chained through sibling) and get reused. The only things on the Java heap are
+ * the array of chunks and a few ints.
+ *
+ * (On a newer JDK this would be a java.lang.foreign.MemorySegment from an Arena. That API is not final in Java 17,
+ * which is what this project builds with, so direct ByteBuffers it is.)
+ *
+ * The memory is given back with close(), the heap can not be used after that. Without close() it is given back when
+ * the buffers are garbage collected, which is whenever the GC gets around to it.
+ *
+ * The slot returned by insert is the handle of the entry, it stays valid until the entry is removed.
+ * Delete-min uses two-pass pairing in place, like IntPairingHeap.
+ */
+public class OffHeapPairingHeap implements AutoCloseable {
+    //Stands in for a null reference in the links.
+    public static final int NIL = -1;
+
+    //The layout of a slot.
+    private static final int SLOT_BYTES = 24;
+    private static final int KEY = 0;
+    private static final int PAYLOAD = 8;
+    private static final int CHILD = 16;
+    private static final int SIBLING = 20;
+
+    //Slots per chunk (2^18, so a chunk is 6MB).
+    private static final int CHUNK_SHIFT = 18;
+    public static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SLOTS - 1;
+
+    //sun.misc.Unsafe.invokeCleaner, to free a direct buffer right away. Null if it is not there.
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    static{
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try{
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch(ReflectiveOperationException | RuntimeException e){
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    //The chunks, the first chunkCount of them are in use.
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int chunkCount;
+
+    //Slot of the root (minimum) entry.
+    private int root = NIL;
+
+    //Maintain the size of the heap.
+    private int size;
+
+    //Head of the list of freed slots, and the number of slots ever handed out.
+    private int freeHead = NIL;
+    private int used;
+
+    private boolean closed;
+
+    /**
+     * Constructor, creates an empty heap. No memory is allocated until the first insert.
+     */
+    OffHeapPairingHeap(){
+    }
+
+    /**
+     * Gets the size of the heap.
+     * @return Integer stating the number of entries in the heap.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Gets how much off-heap memory the heap holds.
+     * @return Bytes allocated for the chunks.
+     */
+    public long getAllocatedBytes(){
+        return (long) chunkCount * CHUNK_SLOTS * SLOT_BYTES;
+    }
+
+    /**
+     * Returns the handle (slot) of the minimum entry. Does NOT delete it!
+     * @return Handle of the minimum entry, or NIL if the heap is empty.
+     */
+    public int findMin(){
+        return root;
+    }
+
+    /**
+     * Returns the key of the minimum entry. Only meaningful if the heap is not empty.
+     * @return Key (Long) of the minimum entry.
+     */
+    public long findMinKey(){
+        return key(root);
+    }
+
+    /**
+     * Gets the key of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Key (Long)
+     */
+    public long getKey(int handle){
+        return key(handle);
+    }
+
+    /**
+     * Gets the payload reference of the entry with the given handle.
+     * @param handle Handle returned by insert.
+     * @return Payload reference (Long)
+     */
+    public long getPayload(int handle){
+        return chunk(handle).getLong(offset(handle) + PAYLOAD);
+    }
+
+    /**
+     * Insert a new entry, this is a merge of a one entry heap into the main heap just like PairingHeap.insert.
+     * @param key Key (Long) the heap is ordered upon.
+     * @param payloadRef Reference to the payload, not looked at by the heap.
+     * @return The handle of the new entry, or NIL if the heap is closed (or full).
+     */
+    public int insert(long key, long payloadRef){
+        if(closed){
+            System.out.println("Sorry, the heap is closed!");
+            return NIL;
+        }
+        if(freeHead == NIL && used == Integer.MAX_VALUE){
+            System.out.println("Sorry, the heap is full!");
+            return NIL;
+        }
+        int slot = allocateSlot();
+        ByteBuffer chunk = chunk(slot);
+        int offset = offset(slot);
+        chunk.putLong(offset + KEY, key);
+        chunk.putLong(offset + PAYLOAD, payloadRef);
+        chunk.putInt(offset + CHILD, NIL);
+        chunk.putInt(offset + SIBLING, NIL);
+
+        root = (root == NIL) ? slot : link(root, slot);
+        size++;
+        return slot;
+    }
+
+    /**
+     * Removes the minimum entry and returns its payload reference. The slot of the removed entry is recycled, so its
+     * handle must not be used afterwards.
+     * @return Payload reference of the removed entry, or NIL if the heap was empty.
+     */
+    public long deleteMin(){
+        if(size == 0){
+            System.out.println("Sorry, no more nodes!");
+            return NIL;
+        }
+        int oldRoot = root;
+        long payload = getPayload(oldRoot);
+
+        root = combineSiblings(child(oldRoot));
+        freeSlot(oldRoot);
+        size--;
+        return payload;
+    }
+
+    /**
+     * Removes the minimum entry without returning anything, same as PairingHeap.deleteMinAlone.
+     */
+    public void deleteMinAlone(){
+        deleteMin();
+    }
+
+    /**
+     * Melds the other heap into this one, the other heap is left empty (and holding no memory).
+     *
+     * Nothing is copied: the chunks of the other heap are taken over as they are and put after this heap's chunks,
+     * so a handle h from the other heap becomes h + (the returned offset) in this heap. The links in the other heap's
+     * slots do have to be shifted by that offset, so this is O(size of the other heap's slots), the link itself is
+     * O(1). The unused slots at the end of this heap's last chunk go on the free list.
+     *
+     * @param other The heap to be assimilated into this one.
+     * @return The offset to add to the other heap's handles to get their handles in this heap, or NIL if the heaps
+     * together would have more than Integer.MAX_VALUE slots or one of them is closed.
+     */
+    public int meld(OffHeapPairingHeap other){
+        if(closed || other.closed){
+            System.out.println("Sorry, the heap is closed!");
+            return NIL;
+        }
+        if(other == this || other.used == 0){
+            return 0;
+        }
+        if((long) (chunkCount + other.chunkCount) * CHUNK_SLOTS > Integer.MAX_VALUE){
+            System.out.println("Sorry, the heaps are too big to be melded!");
+            return NIL;
+        }
+        int base = chunkCount * CHUNK_SLOTS;
+
+        //The rest of this heap's last chunk will never be handed out by allocateSlot, so put it on the free list.
+        for(int slot = used; slot < base; slot++){
+            setSibling(slot, freeHead);
+            freeHead = slot;
+        }
+
+        //Shift the links of the other heap's slots (including its free list, chained through sibling).
+        for(int slot = 0; slot < other.used; slot++){
+            ByteBuffer chunk = other.chunk(slot);
+            int offset = other.offset(slot);
+            int child = chunk.getInt(offset + CHILD);
+            int sibling = chunk.getInt(offset + SIBLING);
+            chunk.putInt(offset + CHILD, child == NIL ? NIL : child + base);
+            chunk.putInt(offset + SIBLING, sibling == NIL ? NIL : sibling + base);
+        }
+
+        if(chunks.length < chunkCount + other.chunkCount){
+            chunks = Arrays.copyOf(chunks, Math.max(chunkCount + other.chunkCount, chunks.length * 2));
+        }
+        System.arraycopy(other.chunks, 0, chunks, chunkCount, other.chunkCount);
+        chunkCount += other.chunkCount;
+        used = base + other.used;
+
+        if(other.freeHead != NIL){
+            int tail = base + other.freeHead;
+            while(sibling(tail) != NIL){
+                tail = sibling(tail);
+            }
+            setSibling(tail, freeHead);
+            freeHead = base + other.freeHead;
+        }
+
+        if(other.root != NIL){
+            int otherRoot = base + other.root;
+            root = (root == NIL) ? otherRoot : link(root, otherRoot);
+        }
+        size += other.size;
+
+        other.chunks = new ByteBuffer[0];
+        other.chunkCount = 0;
+        other.root = NIL;
+        other.size = 0;
+        other.used = 0;
+        other.freeHead = NIL;
+        return base;
+    }
+
+    /**
+     * Frees the off-heap memory of the heap. The heap is empty and can not be used afterwards (insert and meld print
+     * an error). Calling close again does nothing.
+     */
+    @Override
+    public void close(){
+        if(closed){
+            return;
+        }
+        closed = true;
+        for(int i = 0; i < chunkCount; i++){
+            free(chunks[i]);
+        }
+        chunks = new ByteBuffer[0];
+        chunkCount = 0;
+        root = NIL;
+        size = 0;
+        used = 0;
+        freeHead = NIL;
+    }
+
+    /**
+     * Frees a direct buffer right away if sun.misc.Unsafe.invokeCleaner is there, otherwise it is left for the GC.
+     * @param buffer The direct buffer, must not be used afterwards.
+     */
+    private static void free(ByteBuffer buffer){
+        if(INVOKE_CLEANER == null){
+            return;
+        }
+        try{
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }
+        catch(ReflectiveOperationException e){
+            //Left for the GC then.
+        }
+    }
+
+    /**
+     * Links two roots, the larger one becomes the leftmost child of the smaller one (ties keep the first as the root,
+     * same as PairingHeap.merge).
+     * @param a Root of the first tree.
+     * @param b Root of the second tree.
+     * @return Root of the linked tree.
+     */
+    private int link(int a, int b){
+        if(key(a) > key(b)){
+            int temp = a;
+            a = b;
+            b = temp;
+        }
+        setSibling(b, child(a));
+        setChild(a, b);
+        return a;
+    }
+
+    /**
+     * Two-pass pairing of a sibling list. First pass links the trees in pairs from left to right, the second pass
+     * links the results from right to left into a single tree.
+     * @param first Leftmost tree of the sibling list.
+     * @return Root of the single combined tree, or NIL if the list was empty.
+     */
+    private int combineSiblings(int first){
+        if(first == NIL){
+            return NIL;
+        }
+
+        //First pass, the winners are pushed onto a stack (chained through sibling) so the second pass can go right
+        //to left.
+        int paired = NIL;
+        int current = first;
+        while(current != NIL){
+            int second = sibling(current);
+            if(second == NIL){
+                setSibling(current, paired);
+                paired = current;
+                break;
+            }
+            int next = sibling(second);
+            int winner = link(current, second);
+            setSibling(winner, paired);
+            paired = winner;
+            current = next;
+        }
+
+        //Second pass, fold the stack into one tree.
+        int result = paired;
+        int rest = sibling(paired);
+        while(rest != NIL){
+            int next = sibling(rest);
+            result = link(result, rest);
+            rest = next;
+        }
+        setSibling(result, NIL);
+        return result;
+    }
+
+    /**
+     * Gets a slot for a new entry, from the free list if possible, adding a chunk if needed.
+     * @return Index of the slot.
+     */
+    private int allocateSlot(){
+        if(freeHead != NIL){
+            int slot = freeHead;
+            freeHead = sibling(slot);
+            return slot;
+        }
+        if(used == (long) chunkCount * CHUNK_SLOTS){
+            if(chunkCount == chunks.length){
+                chunks = Arrays.copyOf(chunks, Math.max(4, chunks.length * 2));
+            }
+            chunks[chunkCount++] = ByteBuffer.allocateDirect(CHUNK_SLOTS * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        }
+        return used++;
+    }
+
+    /**
+     * Puts a slot back onto the free list.
+     * @param slot Index of the slot.
+     */
+    private void freeSlot(int slot){
+        setChild(slot, NIL);
+        setSibling(slot, freeHead);
+        freeHead = slot;
+    }
+
+    //Where a slot lives: its chunk and its byte offset in the chunk.
+    private ByteBuffer chunk(int slot){
+        return chunks[slot >>> CHUNK_SHIFT];
+    }
+
+    private int offset(int slot){
+        return (slot & CHUNK_MASK) * SLOT_BYTES;
+    }
+
+    //Reading and writing the fields of a slot.
+    private long key(int slot){
+        return chunk(slot).getLong(offset(slot) + KEY);
+    }
+
+    private int child(int slot){
+        return chunk(slot).getInt(offset(slot) + CHILD);
+    }
+
+    private int sibling(int slot){
+        return chunk(slot).getInt(offset(slot) + SIBLING);
+    }
+
+    private void setChild(int slot, int child){
+        chunk(slot).putInt(offset(slot) + CHILD, child);
+    }
+
+    private void setSibling(int slot, int sibling){
+        chunk(slot).putInt(offset(slot) + SIBLING, sibling);
+    }
+}
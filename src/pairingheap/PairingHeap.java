@@ -0,0 +1,1988 @@
+package pairingheap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * PairingHeap object.
+ *
+ * The tree is stored with leftmost-child / right-sibling links in the Node objects, so linking and cutting are
+ * pointer swaps and nothing gets copied around at delete-min. How the subtrees get paired up at delete-min is chosen
+ * with a PairingStrategy when the heap is made.
+ *
+ * The heap is generic in the key (K, the "value" of a node) and the payload (V). Keys are ordered with the
+ * Comparator given at construction, or by their natural ordering (Comparable) if there is none, same as
+ * java.util.PriorityQueue. For int, long and double keys without any boxing, see IntPairingHeap, LongPairingHeap
+ * and DoublePairingHeap.
+ *
+ * It is a MinPriorityQueue, as is the RadixHeap, for code that should run on either.
+ *
+ * @param <K> Type of the keys (values) the heap is ordered upon.
+ * @param <V> Type of the payloads.
+ */
+public class PairingHeap<K, V> implements MinPriorityQueue<K, V> {
+    //The snapshot file format: "PHSN" and the version of the format.
+    private static final int SNAPSHOT_MAGIC = 0x5048534E;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    //parallelBuild does not split the keys into chunks smaller than this.
+    private static final int PARALLEL_BUILD_MIN_CHUNK = 1 << 14;
+
+    //With auto compaction on, each deleteMin copies this many nodes of the pass, and heaps smaller than this are left
+    //alone (they fit in the cache anyway).
+    private static final int AUTO_COMPACT_STEP = 32;
+    private static final int AUTO_COMPACT_MIN_SIZE = 1 << 16;
+
+    //A drain that takes out at least 1/BIG_BATCH_FRACTION of the heap goes best first, below that one deleteMin at a
+    //time is cheaper (same as IntPairingHeap).
+    private static final int BIG_BATCH_FRACTION = 8;
+
+    //The child of every node that a compaction pass has replaced with a copy, so its handle can be turned away.
+    private static final Node<Object, Object> RETIRED = new Node<>(null, null);
+
+    //Flags written in front of every node of a snapshot.
+    private static final int HAS_CHILD = 1;
+    private static final int HAS_SIBLING = 2;
+    private static final int IS_AUXILIARY_MIN = 4;
+
+    //Maintain the size of the Pairing Heap.
+    private int size;
+
+    //Maintain the minimum node of this heap. (The root of the main tree, with lazy insert the auxiliary list
+    //may hold something smaller, see findMin.)
+    private Node<K, V> minNode;
+
+    //How the subtrees are paired up at delete-min.
+    private PairingStrategy strategy;
+
+    //Orders the keys, null means the natural ordering of the keys.
+    private final Comparator<? super K> comparator;
+
+    //True if inserts go onto the auxiliary list (the insertion buffer) instead of being linked to the root right
+    //away. Always true for the AUXILIARY strategy.
+    private boolean lazyInsert;
+
+    //Lazy insert only: the list of inserted roots not yet linked into the main tree (chained through sibling), and
+    //the smallest of them.
+    private Node<K, V> auxiliaryHead;
+    private Node<K, V> auxiliaryMin;
+
+    //Node recycling: the nodes given back with release (chained through sibling), how many there are and how many
+    //are kept at most. A capacity of 0 means recycling is off.
+    private Node<K, V> pooledHead;
+    private int pooledCount;
+    private int poolCapacity;
+
+    //The counters of enableMetrics, null while metrics are off (the usual case, a null check is all it costs then).
+    private HeapMetrics metrics;
+
+    //Compaction (see compact): the nodes that came into the heap since the last compaction pass started, the sibling
+    //lists a pass done in steps still has to copy (null when no pass is going), the fragmentation at which deleteMin
+    //starts a pass by itself (0 for never) and the number of passes finished.
+    private long arrivedSinceCompaction;
+    private ArrayDeque<Node<K, V>> compactionLists;
+    private double autoCompactAt;
+    private int compactionCount;
+
+    //The class of the copies made by the compaction pass going (or the last one), see compact(maxNodes).
+    private Class<?> copyClass;
+
+    //True while metrics are on or a compaction pass is going, the only times merge and cut have more to do than
+    //linking (see linked). One check for both, so a heap with neither costs no more per link than a plain one.
+    private boolean watchLinks;
+
+    //Scratch space of drainMin and drainWhile, made at the first drain: the frontier (a binary heap of nodes) and
+    //the nodes taken out.
+    private Node<K, V>[] frontierNodes;
+    private Node<K, V>[] drainedNodes;
+
+    /**
+     * Constructor, set the size of the pairingheap to be zero. Uses the multipass pairing strategy.
+     */
+    PairingHeap(){
+        this(PairingStrategy.MULTIPASS);
+    }
+
+    /**
+     * Constructor, set the size of the pairingheap to be zero and pick how subtrees are paired at delete-min.
+     * @param strategy The PairingStrategy to be used by this heap.
+     */
+    PairingHeap(PairingStrategy strategy){
+        this(strategy, null);
+    }
+
+    /**
+     * Constructor, set the size of the pairingheap to be zero. Uses the multipass pairing strategy, and the
+     * comparator to order the keys.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     */
+    PairingHeap(Comparator<? super K> comparator){
+        this(PairingStrategy.MULTIPASS, comparator);
+    }
+
+    /**
+     * Constructor, set the size of the pairingheap to be zero, pick how subtrees are paired at delete-min and how
+     * the keys are ordered.
+     * @param strategy The PairingStrategy to be used by this heap.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     */
+    PairingHeap(PairingStrategy strategy, Comparator<? super K> comparator){
+        this(strategy, comparator, false);
+    }
+
+    /**
+     * Constructor, set the size of the pairingheap to be zero, pick how subtrees are paired at delete-min, how the
+     * keys are ordered and whether inserts are lazy.
+     *
+     * With lazy insert, insert does not link the new node to the root. It goes onto an insertion buffer (the
+     * auxiliary list) and only the smallest node of the buffer is kept track of, so insert is one comparison and a
+     * couple of pointer writes, and findMin is still O(1). The next deleteMin pairs the whole buffer up with one
+     * multipass sweep and links the result to the root, then pairs the children of the root with the strategy as
+     * usual. Good for bursts of many inserts per deleteMin: the buffer becomes a balanced tree instead of a long list
+     * of children under the root. decreaseKey and delete put their cut subtrees into the buffer too.
+     * The AUXILIARY strategy is TWO_PASS with lazy insert.
+     *
+     * @param strategy The PairingStrategy to be used by this heap.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     * @param lazyInsert True to buffer inserts until the next deleteMin.
+     */
+    PairingHeap(PairingStrategy strategy, Comparator<? super K> comparator, boolean lazyInsert){
+        size = 0;
+        this.strategy = strategy;
+        this.comparator = comparator;
+        this.lazyInsert = lazyInsert || strategy == PairingStrategy.AUXILIARY;
+    }
+
+    /**
+     * Returns the minimum node of the PairingHeap. Does NOT delete it! Just returns it!
+     * @return Node object representing the minimum node.
+     */
+    public Node<K, V> findMin(){
+        if(auxiliaryMin != null && (minNode == null || compare(auxiliaryMin.getValue(), minNode.getValue()) < 0)){
+            return auxiliaryMin;
+        }
+        return minNode;
+    }
+
+    /**
+     * Gets the pairing strategy used by this heap.
+     * @return The PairingStrategy given at construction, or the last one given to setStrategy.
+     */
+    public PairingStrategy getStrategy(){
+        return strategy;
+    }
+
+    /**
+     * Changes the pairing strategy of a heap that is in use, for the AdaptivePriorityQueue. The strategy only decides
+     * how the next deleteMins pair up the subtrees, so the tree is left as it is. Lazy insert is on afterwards exactly
+     * when the strategy is AUXILIARY, turning it off links the auxiliary list in first (the work the next deleteMin
+     * would have done anyway).
+     * @param strategy The PairingStrategy to be used from now on.
+     */
+    void setStrategy(PairingStrategy strategy){
+        boolean lazy = strategy == PairingStrategy.AUXILIARY;
+        if(lazyInsert && !lazy){
+            consolidateAuxiliary();
+        }
+        this.strategy = strategy;
+        this.lazyInsert = lazy;
+    }
+
+    /**
+     * Tells whether inserts are buffered until the next deleteMin (see the constructor).
+     * @return True if lazy insert is on, always true for the AUXILIARY strategy.
+     */
+    public boolean isLazyInsert(){
+        return lazyInsert;
+    }
+
+    /**
+     * Gets the comparator ordering the keys of this heap.
+     * @return The Comparator given at construction, null if the natural ordering of the keys is used.
+     */
+    public Comparator<? super K> getComparator(){
+        return comparator;
+    }
+
+    /**
+     * Gets the size of the pairing heap.
+     * @return Integer stating the size of the PairingHeap.
+     */
+    public int getSize(){
+        return this.size;
+    }
+
+    /**
+     * Turns metrics on: from now on the heap counts its comparisons, links and deleteMins (see HeapMetrics). With
+     * metrics off, which is how a heap starts, all of that is skipped with a single null check.
+     * @return The counters, the same object every time until disableMetrics is called.
+     */
+    public HeapMetrics enableMetrics(){
+        if(metrics == null){
+            metrics = new HeapMetrics();
+            watchLinks = true;
+        }
+        return metrics;
+    }
+
+    /**
+     * Turns metrics off, the counters so far are dropped.
+     */
+    public void disableMetrics(){
+        metrics = null;
+        watchLinks = compactionLists != null;
+    }
+
+    /**
+     * Gets the counters, if metrics are on.
+     * @return The counters, or null if metrics are off.
+     */
+    public HeapMetrics getMetrics(){
+        return metrics;
+    }
+
+    /**
+     * Works out the depth of the deepest node (the root is depth 1, the auxiliary list counts as roots too), to see
+     * whether the tree has become a long path. Walks the whole heap, O(n), so it is meant for diagnosing rather than
+     * every operation. Does not need metrics to be on.
+     * @return The maximum depth, 0 for an empty heap.
+     */
+    public int getMaxDepth(){
+        int maxDepth = 0;
+        //Each entry is a sibling list and the depth of the nodes on it.
+        ArrayDeque<Node<K, V>> lists = new ArrayDeque<>();
+        ArrayDeque<Integer> depths = new ArrayDeque<>();
+        if(minNode != null){
+            lists.push(minNode);
+            depths.push(1);
+        }
+        if(auxiliaryHead != null){
+            lists.push(auxiliaryHead);
+            depths.push(1);
+        }
+        while(!lists.isEmpty()){
+            Node<K, V> node = lists.pop();
+            int depth = depths.pop();
+            maxDepth = Math.max(maxDepth, depth);
+            if(node.sibling != null){
+                lists.push(node.sibling);
+                depths.push(depth);
+            }
+            if(node.child != null){
+                lists.push(node.child);
+                depths.push(depth + 1);
+            }
+        }
+        return maxDepth;
+    }
+
+    /**
+     * Merge is described in the article on page 3, depicting the joining of two separate heaps.
+     * In this implementation I avoid the extra overhead of creating a completely new heap, instead for this
+     * implementation I am going to compare node values and place those nodes into this heap.
+     *
+     * The node values represent the root nodes of a pairing heap.
+     *
+     * This follows the exact same idea, however it avoids the extra pain of making more heaps.
+     * @param n1 The first node to be compared, represents the root of a pairing heap.
+     * @param n2 The second node to be compared, represents the root of this second pairing heap.
+     * @return The merged root of the heaps, the smaller root will become the root of the merged heaps.
+     */
+    private Node<K, V> merge(Node<K, V> n1, Node<K, V> n2){
+        //The holder for the return value from this function.
+        Node<K, V> subtreeHeadNode;
+
+        if(compare(n1.getValue(), n2.getValue()) > 0){
+            n2.addChild(n1);
+            subtreeHeadNode = n2;
+        }
+        else{
+            n1.addChild(n2);
+            subtreeHeadNode = n1;
+        }
+        if(watchLinks){
+            linked(subtreeHeadNode, subtreeHeadNode.child);
+        }
+
+        return subtreeHeadNode;
+    }
+
+    /**
+     * Compares two keys with the comparator of this heap, or their natural ordering if there is none.
+     * @param k1 The first key.
+     * @param k2 The second key.
+     * @return Negative if k1 < k2, 0 if equal, positive if k1 > k2.
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(K k1, K k2){
+        if(metrics != null){
+            metrics.comparisons++;
+        }
+        if(comparator == null){
+            return ((Comparable<? super K>) k1).compareTo(k2);
+        }
+        return comparator.compare(k1, k2);
+    }
+
+    /**
+     * Combines a list of sibling subtrees (the children of a deleted root) into a single tree, using the strategy of
+     * this heap.
+     * @param first The leftmost subtree of the sibling list.
+     * @return The root of the combined tree, null if the list was empty.
+     */
+    private Node<K, V> combineSiblings(Node<K, V> first){
+        if(strategy == PairingStrategy.MULTIPASS){
+            return multipass(first);
+        }
+        return twoPass(first);
+    }
+
+    /**
+     * Two-pass pairing. The first pass links the subtrees in pairs from left to right, the winners are pushed onto a
+     * stack (chained through sibling). The second pass pops the stack, linking right to left into one tree.
+     * @param first The leftmost subtree of the sibling list.
+     * @return The root of the combined tree, null if the list was empty.
+     */
+    private Node<K, V> twoPass(Node<K, V> first){
+        if(first == null){
+            return null;
+        }
+
+        Node<K, V> paired = null;
+        Node<K, V> current = first;
+        while(current != null){
+            Node<K, V> second = current.sibling;
+            if(second == null){
+                current.sibling = paired;
+                paired = current;
+                break;
+            }
+            Node<K, V> next = second.sibling;
+            current.sibling = null;
+            second.sibling = null;
+            Node<K, V> winner = merge(current, second);
+            winner.sibling = paired;
+            paired = winner;
+            current = next;
+        }
+
+        Node<K, V> result = paired;
+        Node<K, V> rest = paired.sibling;
+        result.sibling = null;
+        while(rest != null){
+            Node<K, V> next = rest.sibling;
+            rest.sibling = null;
+            result = merge(result, rest);
+            rest = next;
+        }
+        result.prev = null;
+        return result;
+    }
+
+    /**
+     * Multipass (FIFO) pairing, following the deletion method on page 5 of the article: the subtrees form a queue,
+     * the first two are merged and the result goes to the back, until one tree is left.
+     * The sibling list itself is used as the queue, so nothing is allocated.
+     *
+     * (Source: http://www.uqac.ca/azinflou/Fichiers840/pairing.pdf)
+     * @param first The leftmost subtree of the sibling list.
+     * @return The root of the combined tree, null if the list was empty.
+     */
+    private Node<K, V> multipass(Node<K, V> first){
+        if(first == null){
+            return null;
+        }
+
+        Node<K, V> head = first;
+        Node<K, V> tail = first;
+        while(tail.sibling != null){
+            tail = tail.sibling;
+        }
+
+        //While the queue, holding subtrees, has more than one subtree-- continue to merge the subtrees.
+        while(head != tail){
+            Node<K, V> n1 = head;
+            Node<K, V> n2 = n1.sibling;
+            head = n2.sibling;
+            n1.sibling = null;
+            n2.sibling = null;
+
+            Node<K, V> subtreeRoot = merge(n1, n2);
+            if(head == null){
+                head = subtreeRoot;
+            }
+            else{
+                tail.sibling = subtreeRoot;
+            }
+            tail = subtreeRoot;
+        }
+        head.prev = null;
+        return head;
+    }
+
+    /**
+     * Lazy insert only: combines the auxiliary list with multipass and links the result into the main tree, so that
+     * the minimum node is the root of the main tree again.
+     */
+    private void consolidateAuxiliary(){
+        if(auxiliaryHead == null){
+            return;
+        }
+        Node<K, V> auxiliaryRoot = multipass(auxiliaryHead);
+        auxiliaryHead = null;
+        auxiliaryMin = null;
+        this.minNode = (this.minNode == null) ? auxiliaryRoot : merge(this.minNode, auxiliaryRoot);
+    }
+
+    /**
+     * Insert method following the pairing heap guidelines.
+     * Creates a new "pairing heap", which in my implementation I chose to simplify to being represented merely by
+     * it's root node Therefore in this implementation of insert, following the same guidelines for a pairing heap,
+     * I take the Node (representing the root of a "brand new pairing heap") and then merge it with the main heap.
+     *
+     * The node passed in is also the "handle" of the entry, it can be given to decreaseKey for as long as the node
+     * stays in the heap.
+     *
+     * @param node Takes in a new Node object, representing the root of a brand new pairing heap object.
+     * @return The node that was inserted, as the handle of the entry.
+     * @throws IllegalStateException If the node was replaced by a compaction (see compact()).
+     */
+    public Node<K, V> insert(Node<K, V> node){
+        checkNotRetired(node);
+        node.sibling = null;
+        node.prev = null;
+        arrivedSinceCompaction++;
+
+        //If there is no node already there, make the minimum node (root) the inserted node.
+        if(this.size==0){
+            this.minNode = node;
+            this.size++;
+        }
+        //With lazy insert, the node waits on the auxiliary list until the next delete-min.
+        else if(lazyInsert){
+            addAuxiliary(node);
+            this.size++;
+        }
+        else{
+            //The minimum node will be the result of the merge operation.
+            this.minNode =  merge(minNode, node);
+            this.size++;
+        }
+        return node;
+    }
+
+    /**
+     * Convenience version of insert, creates the Node for the key and payload.
+     * @param key Value (key) of the new node.
+     * @param payload Payload of the new node.
+     * @return The new node, as the handle of the entry.
+     */
+    public Node<K, V> insert(K key, V payload){
+        //Take a node given back with release if there is one.
+        Node<K, V> node = pooledHead;
+        if(node == null){
+            return insert(new Node<K, V>(key, payload));
+        }
+        pooledHead = node.sibling;
+        pooledCount--;
+        node.reset(key, payload);
+        return insert(node);
+    }
+
+    /**
+     * Turns node recycling on (or off, with a capacity of 0).
+     *
+     * In the "hold" model (every deleteMin followed by an insert) the heap makes a new Node for every insert and
+     * throws one away at every deleteMin, which is all garbage for the collector. With recycling on, nodes that are
+     * done with are kept on a free list inside the heap, and insert(key, payload) takes a node from there before making
+     * a new one, so once the free list has warmed up the churn allocates no nodes at all. Nodes get onto the free list
+     * through release, or by themselves with deleteMinAlone. At most capacity nodes are kept, anything beyond that is
+     * left to the garbage collector, so a heap that shrinks a lot does not hang on to all of its old nodes.
+     *
+     * (The keys are the caller's business: a Long key made from a long is still a new object on every insert. Keys
+     * that are already objects, or small enough for the Integer/Long cache, allocate nothing.)
+     *
+     * @param capacity The most nodes kept for reuse, 0 to turn recycling off and drop the nodes kept so far.
+     */
+    public void setRecycling(int capacity){
+        poolCapacity = Math.max(0, capacity);
+        while(pooledCount > poolCapacity){
+            Node<K, V> node = pooledHead;
+            pooledHead = node.sibling;
+            node.sibling = null;
+            pooledCount--;
+        }
+    }
+
+    /**
+     * Gets how many nodes recycling keeps at most.
+     * @return The capacity given to setRecycling, 0 if recycling is off.
+     */
+    public int getRecyclingCapacity(){
+        return poolCapacity;
+    }
+
+    /**
+     * Gets how many nodes are waiting on the free list to be reused.
+     * @return Number of nodes kept for reuse.
+     */
+    public int getPooledCount(){
+        return pooledCount;
+    }
+
+    /**
+     * Gives a node that was removed from the heap (by deleteMin or delete) back, to be reused by a later
+     * insert(key, payload). Its key and payload are cleared straight away so they are not kept alive.
+     *
+     * NOTE: After this the node belongs to the heap again, the caller must not use it as a handle or read it any
+     * more (a later insert will give it a different key and payload).
+     *
+     * @param node A node removed from this heap.
+     * @return True if the node was kept, false if recycling is off, the free list is full or the node is still in
+     *         the heap.
+     */
+    public boolean release(Node<K, V> node){
+        if(node == null || pooledCount >= poolCapacity){
+            return false;
+        }
+        //A node that is still linked up (or is the root) is in a heap, reusing it would break that heap.
+        if(node.child != null || node.sibling != null || node.prev != null || node == this.minNode
+                || node == auxiliaryHead){
+            System.out.println("Sorry, that node is still in a heap!");
+            return false;
+        }
+        node.reset(null, null);
+        node.sibling = pooledHead;
+        pooledHead = node;
+        pooledCount++;
+        return true;
+    }
+
+    /**
+     * Lays the nodes of the heap out again in the order they are walked in, all in one go. O(n).
+     *
+     * A heap that lives for a long time ends up with its nodes all over the Java heap: every node was made by the
+     * insert that brought it in, at whatever time that was, and the links of the tree have nothing to do with that
+     * order any more. A deleteMin then walks the children of the root (and whatever pairing drags in) through
+     * nodes that are each on a cache line of their own, a cache miss per node. Compaction copies every node into a
+     * brand new Node, one after the other, so the copies come out of the allocator next to each other: each sibling
+     * list in a row, followed by the lists of children of its nodes (depth first). Then a deleteMin reads most of a
+     * sibling list off the cache lines it already has.
+     *
+     * Java decides where objects go, so "next to each other" is how the allocator hands out new objects (bumping a
+     * pointer through the thread's own buffer). The garbage collector moves them later, in the order it finds them by
+     * following the links, so nodes that are linked stay close even if not in exactly this order. The keys are not
+     * copied (they are the caller's objects), so they stay where they were.
+     *
+     * NOTE: The nodes in the heap are REPLACED by their copies. The old nodes are taken out and marked as retired
+     * (key and payload stay), so handles kept from insert no longer work after a compaction: decreaseKey, delete,
+     * increaseKey and insert throw an IllegalStateException when given one, rather than breaking the heap. Any
+     * iterator going is broken too. Only compact a heap whose entries are only reached through findMin and deleteMin
+     * (the hold model, an event queue without cancellation, a top-k...).
+     */
+    public void compact(){
+        compactionLists = null;
+        compact(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Does a compaction pass (see compact()) in steps, so the work can be spread out: between operations, when the
+     * program is waiting on something anyway, or by deleteMin itself (see setAutoCompact). The first call starts a
+     * pass, the following calls carry on with it.
+     *
+     * The heap can be used as usual between the steps. The copies of a pass are made as a class of node of their own
+     * (two of them, every other pass uses the other one), so the pass can tell which nodes it has done no matter
+     * where they end up. While a pass is going, a node that is not done yet and gets linked under one that is (by
+     * the pairing of a deleteMin, an insert, a cut...) is handed to the pass, so nothing gets left behind, and
+     * what comes in during the pass gets copied too.
+     *
+     * Same NOTE as compact(): handles of the copied nodes no longer work (and are turned away).
+     *
+     * @param maxNodes The most nodes to look at in this step (copying them, or stepping over ones already done).
+     * @return True if the pass is finished, false if there is more to do.
+     */
+    public boolean compact(int maxNodes){
+        if(compactionLists == null){
+            //A new pass, everything that comes in from now on counts towards the next one.
+            compactionLists = new ArrayDeque<>();
+            watchLinks = true;
+            copyClass = (copyClass == EvenCopy.class) ? OddCopy.class : EvenCopy.class;
+            arrivedSinceCompaction = 0;
+        }
+        //The root and the auxiliary list are not under anything, so no link hands them to the pass.
+        if(auxiliaryHead != null){
+            compactionLists.push(auxiliaryHead);
+        }
+        if(minNode != null && !isCopied(minNode)){
+            compactionLists.push(minNode);
+        }
+        int visited = 0;
+        while(!compactionLists.isEmpty()){
+            Node<K, V> node = compactionLists.pop();
+            //A node with no prev is the first of its list only if it is the root or the head of the auxiliary list,
+            //otherwise it has been copied or taken out of the heap since it was handed to the pass.
+            if(node.prev == null && node != minNode && node != auxiliaryHead){
+                continue;
+            }
+            //Copy the rest of the sibling list, then the children of its nodes (the last one's first). The nodes
+            //already done had their children handed to the pass when they were copied.
+            while(node != null){
+                if(visited == maxNodes){
+                    compactionLists.push(node);
+                    return false;
+                }
+                visited++;
+                if(!isCopied(node)){
+                    node = copyNode(node);
+                    if(node.child != null){
+                        compactionLists.push(node.child);
+                    }
+                }
+                node = node.sibling;
+            }
+        }
+        compactionLists = null;
+        watchLinks = metrics != null;
+        compactionCount++;
+        return true;
+    }
+
+    /**
+     * Tells whether a node is a copy made by the current (or last) compaction pass.
+     */
+    private boolean isCopied(Node<K, V> node){
+        return node.getClass() == copyClass;
+    }
+
+    /**
+     * The rest of a link, with metrics on or a compaction pass going (see watchLinks): counts the link, and if a node
+     * that the pass has not done yet was linked as the first child of one it has done (whose children the pass has
+     * already gone through), hands the node to the pass to do.
+     * @param parent The node the child was linked under.
+     * @param child The new first child.
+     */
+    private void linked(Node<K, V> parent, Node<K, V> child){
+        if(metrics != null){
+            metrics.links++;
+        }
+        if(compactionLists != null && isCopied(parent) && !isCopied(child)){
+            compactionLists.push(child);
+        }
+    }
+
+    /**
+     * Turns away the handle of a node that a compaction pass has replaced with a copy (see compact()), before it can
+     * break the heap.
+     * @param node The handle.
+     */
+    private static void checkNotRetired(Node<?, ?> node){
+        if(node.child == RETIRED){
+            throw new IllegalStateException("Sorry, that node was replaced by a compaction, its handle no longer"
+                    + " works!");
+        }
+    }
+
+    /**
+     * Replaces a node of the heap with a brand new copy of it: the copy gets the key, payload and links of the node,
+     * the nodes around it are pointed at the copy instead, and the node is left out of the heap, retired. O(1).
+     * @param node A node in the heap.
+     * @return The copy, now in the heap.
+     */
+    private Node<K, V> copyNode(Node<K, V> node){
+        Node<K, V> copy = (copyClass == EvenCopy.class) ? new EvenCopy<K, V>(node.getValue(), node.getPayload())
+                : new OddCopy<K, V>(node.getValue(), node.getPayload());
+        copy.child = node.child;
+        copy.sibling = node.sibling;
+        copy.prev = node.prev;
+
+        Node<K, V> prev = node.prev;
+        if(prev == null){
+            if(node == minNode){
+                minNode = copy;
+            }
+            else{
+                auxiliaryHead = copy;
+            }
+        }
+        else if(prev.child == node){
+            prev.child = copy;
+        }
+        else{
+            prev.sibling = copy;
+        }
+        if(node.child != null){
+            node.child.prev = copy;
+        }
+        if(node.sibling != null){
+            node.sibling.prev = copy;
+        }
+        if(node == auxiliaryMin){
+            auxiliaryMin = copy;
+        }
+        retire(node);
+        return copy;
+    }
+
+    /**
+     * Marks a node that was replaced by its copy, so its handle gets turned away (see checkNotRetired).
+     * @param node The node, out of the heap.
+     */
+    @SuppressWarnings("unchecked")
+    private void retire(Node<K, V> node){
+        node.child = (Node<K, V>) (Node<?, ?>) RETIRED;
+        node.sibling = null;
+        node.prev = null;
+    }
+
+    /**
+     * The nodes made by compaction passes, alternating: a pass makes one kind, the next pass the other, so a pass
+     * knows its own copies by their class. Nothing else is different about them.
+     */
+    private static final class EvenCopy<K, V> extends Node<K, V> {
+        EvenCopy(K paramKey, V paramPayload){
+            super(paramKey, paramPayload);
+        }
+    }
+
+    private static final class OddCopy<K, V> extends Node<K, V> {
+        OddCopy(K paramKey, V paramPayload){
+            super(paramKey, paramPayload);
+        }
+    }
+
+    /**
+     * Gets how scattered the nodes of the heap are estimated to be, from 0 (just compacted) to 1 (as scattered as
+     * they get).
+     *
+     * Where the nodes actually are can't be seen from Java, so this counts the nodes that came into the heap (insert,
+     * insertAll, mergeHeaps) since the last compaction pass started, against the size of the heap. Each of those
+     * was made on its own and linked in somewhere else in the tree, so it is a node out of place. (A node that came
+     * in and was taken out again counts too, the tree it went through got rearranged by the deleteMins all the same.)
+     * @return The fraction of the heap that came in since the last compaction, at most 1.
+     */
+    public double getFragmentation(){
+        if(this.size == 0){
+            return 0;
+        }
+        return Math.min(1.0, (double) arrivedSinceCompaction / this.size);
+    }
+
+    /**
+     * Turns auto compaction on (or off, with 0). With it on, once getFragmentation() reaches the given level a
+     * compaction pass is started, and done in steps of 32 nodes at the end of every deleteMin until it is finished
+     * (a bit over n / 32 deleteMins for a heap of n entries). Heaps of fewer than 65,536 entries are left alone.
+     *
+     * A pass costs about as much as walking the whole heap a few times, so this is for heaps that take many more
+     * deleteMins afterwards than they get inserts (a heap built up over a long time and then drained). Under steady
+     * churn, like the hold model, the new nodes scatter the heap again as fast as the passes lay it out, and the
+     * passes cost more than they save.
+     *
+     * Same NOTE as compact(): only for heaps whose handles are not used after they are inserted. It is easy to miss
+     * here, the passes are done by deleteMin itself: a handle used after one gets an IllegalStateException.
+     *
+     * @param fragmentation The level to start a pass at, between 0 and 1 (e.g. 0.5), 0 to turn it off.
+     */
+    public void setAutoCompact(double fragmentation){
+        autoCompactAt = Math.max(0, Math.min(1.0, fragmentation));
+    }
+
+    /**
+     * Gets the level of getFragmentation() at which deleteMin starts a compaction pass.
+     * @return The level given to setAutoCompact, 0 if auto compaction is off.
+     */
+    public double getAutoCompact(){
+        return autoCompactAt;
+    }
+
+    /**
+     * Gets the number of compaction passes finished, by compact or by auto compaction.
+     * @return Number of passes.
+     */
+    public int getCompactionCount(){
+        return compactionCount;
+    }
+
+    /**
+     * Auto compaction, run at the end of deleteMin: carries on with the pass going, or starts one if the heap is
+     * big and scattered enough.
+     */
+    private void autoCompact(){
+        if(compactionLists != null
+                || (this.size >= AUTO_COMPACT_MIN_SIZE && getFragmentation() >= autoCompactAt)){
+            compact(AUTO_COMPACT_STEP);
+        }
+    }
+
+    /**
+     * Inserts many nodes at once, in linear time.
+     *
+     * Inserting one at a time links every node that is bigger than the root straight to the root, so after n inserts
+     * the root can have nearly n children and the first deleteMin has to pair all of them. Here the nodes are paired
+     * up in rounds instead (see Builder), which is n - 1 links, the same as the insert loop, but the tree that comes
+     * out has only about log n children at the root. The result is then linked into the heap like a single insert.
+     *
+     * The nodes are the handles of the entries, same as with insert.
+     * @param nodes The new nodes, none of them may be in a heap.
+     */
+    public void insertAll(Collection<? extends Node<K, V>> nodes){
+        Builder builder = new Builder();
+        for(Node<K, V> node: nodes){
+            builder.add(node);
+        }
+        builder.finish();
+    }
+
+    /**
+     * Builds a heap out of int keys in linear time (see insertAll), ordered by their natural ordering.
+     * @param keys The keys of the entries.
+     * @param payloads The payload of each key (same index), or null if there are no payloads.
+     * @param <V> Type of the payloads.
+     * @return The new heap, using the multipass pairing strategy.
+     */
+    public static <V> PairingHeap<Integer, V> of(int[] keys, V[] payloads){
+        PairingHeap<Integer, V> heap = new PairingHeap<>();
+        PairingHeap<Integer, V>.Builder builder = heap.new Builder();
+        for(int i = 0; i < keys.length; i++){
+            builder.add(new Node<>(keys[i], payloads == null ? null : payloads[i]));
+        }
+        builder.finish();
+        return heap;
+    }
+
+    /**
+     * Builds a heap out of keys in linear time (see insertAll).
+     * @param keys The keys of the entries.
+     * @param payloads The payload of each key (same index), or null if there are no payloads.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     * @param <K> Type of the keys.
+     * @param <V> Type of the payloads.
+     * @return The new heap, using the multipass pairing strategy.
+     */
+    public static <K, V> PairingHeap<K, V> of(K[] keys, V[] payloads, Comparator<? super K> comparator){
+        PairingHeap<K, V> heap = new PairingHeap<>(comparator);
+        PairingHeap<K, V>.Builder builder = heap.new Builder();
+        for(int i = 0; i < keys.length; i++){
+            builder.add(new Node<>(keys[i], payloads == null ? null : payloads[i]));
+        }
+        builder.finish();
+        return heap;
+    }
+
+    /**
+     * Pairs up new nodes in rounds as they come in, like adding one to a binary counter: ranks[r] holds a tree of
+     * 2^r nodes (or nothing), a new node is linked with the tree in ranks[0], the result with the tree in ranks[1],
+     * and so on until an empty rank is found. That is the same tree multipass pairing would build from the whole
+     * list, but every link is between trees that were just made, which are still in the cache, instead of passes
+     * over the whole list.
+     */
+    private final class Builder {
+        @SuppressWarnings("unchecked")
+        private final Node<K, V>[] ranks = (Node<K, V>[]) new Node[32];
+        private int count;
+
+        /**
+         * Adds a new node.
+         * @param node The new node, must not be in a heap.
+         */
+        void add(Node<K, V> node){
+            node.prev = null;
+            node.sibling = null;
+            Node<K, V> tree = node;
+            int rank = 0;
+            while(ranks[rank] != null){
+                tree = merge(ranks[rank], tree);
+                ranks[rank] = null;
+                rank++;
+            }
+            ranks[rank] = tree;
+            count++;
+        }
+
+        /**
+         * Links the trees left in the ranks together, smallest first, and links the result into the heap.
+         */
+        void finish(){
+            Node<K, V> root = null;
+            for(int rank = 0; rank < ranks.length; rank++){
+                if(ranks[rank] != null){
+                    root = (root == null) ? ranks[rank] : merge(root, ranks[rank]);
+                    ranks[rank] = null;
+                }
+            }
+            if(root == null){
+                return;
+            }
+            if(size == 0){
+                minNode = root;
+            }
+            else{
+                reattach(root);
+            }
+            size += count;
+            arrivedSinceCompaction += count;
+            count = 0;
+        }
+    }
+
+    /**
+     * Decreases the value of a node that is in the heap.
+     *
+     * If the node is not the root, its subtree is cut out of the tree (an O(1) pointer swap thanks to the prev link)
+     * and merged back with the root, or put on the auxiliary list with lazy insert. The subtree stays heap ordered
+     * since only its root got smaller, so this is a cut and a single link, with no pairing at all.
+     *
+     * @param node The handle (Node) of the entry, as returned by insert.
+     * @param newValue The new value, must not be larger than the current value.
+     * @throws IllegalStateException If the node was replaced by a compaction (see compact()).
+     */
+    public void decreaseKey(Node<K, V> node, K newValue){
+        checkNotRetired(node);
+        if(compare(newValue, node.getValue()) > 0){
+            System.out.println("Sorry, decreaseKey can not make a value larger!");
+            return;
+        }
+        node.setValue(newValue);
+
+        //The root of the main tree has nothing above it to be compared with.
+        if(node == this.minNode){
+            return;
+        }
+
+        cut(node);
+        reattach(node);
+    }
+
+    /**
+     * Deletes any node from the heap, not just the minimum.
+     *
+     * The node's subtree is cut out of the tree, then delete-min is run on that subtree alone (its root is the node
+     * being deleted, so this pairs up its children with the heap's PairingStrategy) and what is left is merged back
+     * into the heap. This costs the same as a delete-min on a heap the size of the subtree, so cancelling entries
+     * that never reach the top does not leave anything behind for later delete-mins to wade through.
+     *
+     * @param node The handle (Node) of the entry to be removed, as returned by insert.
+     * @return The node that was removed.
+     * @throws IllegalStateException If the node was replaced by a compaction (see compact()).
+     */
+    public Node<K, V> delete(Node<K, V> node){
+        checkNotRetired(node);
+        //The smallest auxiliary root can't be replaced without a scan, and deleteMin links the auxiliary list in
+        //before removing the root, so in both cases link the auxiliary list in first.
+        if(node == auxiliaryMin || node == this.minNode){
+            consolidateAuxiliary();
+        }
+        if(node == this.minNode){
+            return deleteMin();
+        }
+
+        cut(node);
+        Node<K, V> subtree = combineSiblings(node.child);
+        node.child = null;
+        this.size--;
+        if(subtree != null){
+            reattach(subtree);
+        }
+        return node;
+    }
+
+    /**
+     * Increases the value of a node that is in the heap.
+     *
+     * Uses the same mechanism as delete: the children of the node are paired up into one subtree which is merged
+     * back into the heap, then the node itself (now on its own) is merged back in with its new value.
+     *
+     * @param node The handle (Node) of the entry, as returned by insert.
+     * @param newValue The new value, must not be smaller than the current value.
+     * @throws IllegalStateException If the node was replaced by a compaction (see compact()).
+     */
+    public void increaseKey(Node<K, V> node, K newValue){
+        checkNotRetired(node);
+        if(compare(newValue, node.getValue()) < 0){
+            System.out.println("Sorry, increaseKey can not make a value smaller!");
+            return;
+        }
+        if(node == auxiliaryMin){
+            consolidateAuxiliary();
+        }
+        node.setValue(newValue);
+
+        Node<K, V> subtree = combineSiblings(node.child);
+        node.child = null;
+        if(node == this.minNode){
+            //Nothing else in the main tree, the node stays the root.
+            if(subtree == null){
+                return;
+            }
+            this.minNode = subtree;
+        }
+        else{
+            cut(node);
+            if(subtree != null){
+                reattach(subtree);
+            }
+        }
+        reattach(node);
+    }
+
+    /**
+     * Puts a subtree that was cut out of the heap back in, by merging it with the root (or onto the auxiliary list
+     * with lazy insert).
+     * @param subtree Root of the subtree, must not be in the tree any more.
+     */
+    private void reattach(Node<K, V> subtree){
+        if(lazyInsert){
+            addAuxiliary(subtree);
+        }
+        else{
+            this.minNode = merge(this.minNode, subtree);
+        }
+    }
+
+    /**
+     * Cuts a node (with its subtree) out of the sibling list it is in, whether that is the children of a node or the
+     * auxiliary list.
+     * @param node The node to be cut out, must not be the root of the main tree.
+     */
+    private void cut(Node<K, V> node){
+        Node<K, V> prev = node.prev;
+        if(prev == null){
+            auxiliaryHead = node.sibling;
+        }
+        else if(prev.child == node){
+            prev.child = node.sibling;
+        }
+        else{
+            prev.sibling = node.sibling;
+        }
+        if(node.sibling != null){
+            node.sibling.prev = prev;
+            //The pass may only have had the node, as the first of the rest of its sibling list.
+            if(compactionLists != null && !isCopied(node.sibling)){
+                compactionLists.push(node.sibling);
+            }
+        }
+        node.sibling = null;
+        node.prev = null;
+    }
+
+    /**
+     * Lazy insert only: puts a root onto the front of the auxiliary list, keeping track of the smallest one.
+     * @param node The root to be added.
+     */
+    private void addAuxiliary(Node<K, V> node){
+        node.prev = null;
+        node.sibling = auxiliaryHead;
+        if(auxiliaryHead != null){
+            auxiliaryHead.prev = node;
+        }
+        auxiliaryHead = node;
+        if(auxiliaryMin == null || compare(node.getValue(), auxiliaryMin.getValue()) < 0){
+            auxiliaryMin = node;
+        }
+    }
+
+    /**
+     * Following the pairing heap guidelines, this function will remove the minimum node from the pairing heap.
+     * However this will also RETURN the node that was removed! So it is not a traditional "delete-min" function,
+     * for that function please refer to "deleteMinAlone" in the implementation!
+     * Steps:
+     * 1- Remove the minimum node (and return it), putting it into a temporary holder to return.
+     * 2- Pair up the subtrees of the removed node into ONE single heap-- representing this "pairing heap object"
+     *     after the removal. How they are paired depends on the PairingStrategy, the original (MULTIPASS) follows
+     *     the deletion method on page 5 involving a queue that is iterated over until all subheaps are merged.
+     * 3- Set the minimum Node to the head of this pairing heap created.
+     *
+     * (Source: http://www.uqac.ca/azinflou/Fichiers840/pairing.pdf)
+     * @return The Node representing the root of the Pairing Heap after the deletion of the minimum element, null if
+     *         the heap is empty.
+     */
+    public Node<K, V> deleteMin(){
+        Node<K, V> removed = (metrics != null && this.size > 0) ? measuredDeleteMin() : removeMin();
+        if(autoCompactAt > 0){
+            autoCompact();
+        }
+        return removed;
+    }
+
+    /**
+     * deleteMin with metrics on: counts the subtrees the deleteMin pairs up and the links it makes. The JFR event is
+     * begun here in case it turns out to be a slow one (begin and end do nothing unless a recording wants the event).
+     * @return The node that was removed.
+     */
+    private Node<K, V> measuredDeleteMin(){
+        HeapMetrics counters = metrics;
+        SlowDeleteMinEvent event = new SlowDeleteMinEvent();
+        event.begin();
+        long linksBefore = counters.links;
+        consolidateAuxiliary();
+        int rootDegree = 0;
+        for(Node<K, V> node = this.minNode.child; node != null; node = node.sibling){
+            rootDegree++;
+        }
+        Node<K, V> removed = removeMin();
+        counters.recordDeleteMin(rootDegree, counters.links - linksBefore, event, this);
+        return removed;
+    }
+
+    /**
+     * The work of deleteMin, see there.
+     * @return The node that was removed, null if the heap is empty.
+     */
+    private Node<K, V> removeMin(){
+        //Handle the size of 0 case, there is nothing to return-- but informs the user of the error.
+        if(this.size==0){
+            System.out.println("Sorry, no more nodes!");
+            return null;
+        }
+
+        //Any nodes still waiting on the auxiliary list need to be in the main tree first.
+        consolidateAuxiliary();
+
+        //Holds the minimum node that will be removed, it must be returned at the end.
+        Node<K, V> tempHolder = this.minNode;
+
+        //If the size is just 1 node, then just return the minimum node and don't do anything more.
+        if(this.size==1){
+            this.size--;
+            minNode = null; //remove the minimum node.
+            return tempHolder;
+        }
+
+        //Pair up the subtrees of the old root, then set the minimum node of the Pairing Heap to the new root.
+        this.minNode = combineSiblings(tempHolder.child);
+        tempHolder.child = null;
+        this.size--;
+        return tempHolder; //return the old root.
+    }
+
+
+    /**
+     * In the Pairing Heap specification there is the "delete-min" function, however for this implementation
+     * I made it so that the function named "deleteMin" returned the value as well. However, I will have this function
+     * here which will merely delete the minimum node without returning any value.
+     *
+     * With recycling on (see setRecycling) the removed node is nobody's business any more, so it goes straight onto
+     * the free list.
+     */
+    public void deleteMinAlone(){
+        Node<K, V> removed = deleteMin();
+        if(poolCapacity > 0){
+            release(removed);
+        }
+    }
+
+    /**
+     * Removes the k smallest nodes (or all of them, if there are fewer) and hands them to the consumer, smallest
+     * first. Ties come out in no particular order.
+     *
+     * A big batch (an eighth of the heap or more) is not a loop of deleteMin. A deleteMin pairs up all the children
+     * of the root, and much of that pairing is undone by the next deleteMins of the batch. Here the k smallest are
+     * found in one walk down from the root, best first: the candidates are the children of the nodes taken so far,
+     * kept in a small binary heap (the frontier), and the smallest candidate is always the next smallest node of the
+     * whole heap. When the batch is done, the subtrees left in the frontier are paired up once, with the heap's
+     * PairingStrategy, into the new tree. That last pairing costs about as much as the frontier is big, whatever k
+     * is, so a small batch is cheaper as a loop of deleteMin (done in here, see IntPairingHeap.drainMin).
+     *
+     * The consumer is called after the heap is whole again, so it may use the heap (e.g. insert more work).
+     * With metrics on, the nodes are taken out with one deleteMin each, so every deleteMin still gets counted.
+     *
+     * @param k The most nodes to remove.
+     * @param consumer Gets each removed node, in order.
+     * @return The number of nodes removed, 0 if the heap is empty.
+     */
+    public int drainMin(int k, Consumer<? super Node<K, V>> consumer){
+        return hand(drain(k, null, false), consumer);
+    }
+
+    /**
+     * Removes every node with a key up to the threshold (inclusive) and hands them to the consumer, smallest first.
+     * How many that is can't be known up front, so the first eighth of the heap is taken out one at a time, and the
+     * rest (if it comes to that) best first like a big drainMin.
+     * @param threshold The largest key to remove.
+     * @param consumer Gets each removed node, in order.
+     * @return The number of nodes removed.
+     */
+    public int drainWhile(K threshold, Consumer<? super Node<K, V>> consumer){
+        return hand(drain(Integer.MAX_VALUE, threshold, true), consumer);
+    }
+
+    /**
+     * drainWhile, but takes out at most max nodes (the smallest ones), e.g. as many as the consumer has asked for.
+     * max is only a limit, it says nothing about how many are under the threshold, so this too goes one at a time up
+     * to the first eighth of the heap (or max), then best first.
+     * @param threshold The largest key to remove.
+     * @param max The most nodes to remove.
+     * @param consumer Gets each removed node, in order.
+     * @return The number of nodes removed.
+     */
+    public int drainWhile(K threshold, int max, Consumer<? super Node<K, V>> consumer){
+        return hand(drain(max, threshold, true), consumer);
+    }
+
+    /**
+     * Hands what a drain took out to the consumer. The buffer is taken away while the consumer runs, in case it
+     * drains the heap too (that drain gets a buffer of its own).
+     * @param count The number of nodes taken out.
+     * @param consumer Gets the nodes.
+     * @return count.
+     */
+    private int hand(int count, Consumer<? super Node<K, V>> consumer){
+        Node<K, V>[] batch = drainedNodes;
+        drainedNodes = null;
+        for(int i = 0; i < count; i++){
+            Node<K, V> node = batch[i];
+            batch[i] = null;
+            consumer.accept(node);
+        }
+        drainedNodes = batch;
+        return count;
+    }
+
+    /**
+     * The work of drainMin and drainWhile: takes out the smallest nodes until k are out or the next one is above the
+     * threshold, one deleteMin at a time for a small batch, best first for a big one (then pairs up what is left).
+     * The nodes end up in drainedNodes.
+     * @param k The most nodes to remove, Integer.MAX_VALUE for no limit.
+     * @param threshold The largest key to remove, if bounded.
+     * @param bounded Whether there is a threshold.
+     * @return The number of nodes removed.
+     */
+    @SuppressWarnings("unchecked")
+    private int drain(int k, K threshold, boolean bounded){
+        if(drainedNodes == null){
+            drainedNodes = (Node<K, V>[]) new Node[16];
+        }
+        consolidateAuxiliary();
+        //How many to take out one at a time before going best first: all of a small batch, none of a big one, and up
+        //to the first eighth with a threshold (drainWhile doesn't know how many are under it, k is only a limit).
+        //All of them with metrics on.
+        int bigBatch = this.size / BIG_BATCH_FRACTION;
+        int oneAtATime = bounded ? Math.min(k, bigBatch) : (k >= bigBatch ? 0 : k);
+        if(metrics != null){
+            oneAtATime = k;
+        }
+        int count = 0;
+        while(count < oneAtATime && this.size > 0 && (!bounded || compare(minNode.getValue(), threshold) <= 0)){
+            addDrained(count++, (metrics != null) ? measuredDeleteMin() : removeMin());
+        }
+        if(count < k && this.size > 0 && (!bounded || compare(minNode.getValue(), threshold) <= 0)){
+            if(frontierNodes == null){
+                frontierNodes = (Node<K, V>[]) new Node[16];
+            }
+            int frontierSize = 1;
+            frontierNodes[0] = minNode;
+            while(frontierSize > 0 && count < k){
+                Node<K, V> node = frontierNodes[0];
+                if(bounded && compare(node.getValue(), threshold) > 0){
+                    break;
+                }
+                //Take the smallest candidate out of the frontier.
+                frontierSize--;
+                if(frontierSize > 0){
+                    siftDown(frontierNodes[frontierSize], frontierSize);
+                }
+                frontierNodes[frontierSize] = null;
+                addDrained(count++, node);
+                this.size--;
+
+                //Its children are candidates now.
+                for(Node<K, V> child = node.child; child != null; child = child.sibling){
+                    if(frontierSize == frontierNodes.length){
+                        frontierNodes = Arrays.copyOf(frontierNodes, frontierSize * 2);
+                    }
+                    siftUp(child, frontierSize++);
+                }
+                node.child = null;
+                node.sibling = null;
+                node.prev = null;
+            }
+
+            //What is left in the frontier are whole subtrees, chain them up (smallest first, the frontier is a heap)
+            //and pair them into one tree.
+            if(frontierSize == 0){
+                minNode = null;
+            }
+            else{
+                Node<K, V> first = frontierNodes[0];
+                for(int i = 0; i < frontierSize - 1; i++){
+                    frontierNodes[i].sibling = frontierNodes[i + 1];
+                    frontierNodes[i] = null;
+                }
+                frontierNodes[frontierSize - 1].sibling = null;
+                frontierNodes[frontierSize - 1] = null;
+                minNode = combineSiblings(first);
+            }
+        }
+        if(count > 0 && autoCompactAt > 0){
+            autoCompact();
+        }
+        return count;
+    }
+
+    /**
+     * Puts a node taken out by drain into drainedNodes, making room if need be.
+     */
+    private void addDrained(int position, Node<K, V> node){
+        if(position == drainedNodes.length){
+            drainedNodes = Arrays.copyOf(drainedNodes, position * 2);
+        }
+        drainedNodes[position] = node;
+    }
+
+    /**
+     * Frontier of drain: puts a node at the given position and moves it up to where it belongs.
+     */
+    private void siftUp(Node<K, V> node, int position){
+        K key = node.getValue();
+        while(position > 0){
+            int parent = (position - 1) >>> 1;
+            if(compare(frontierNodes[parent].getValue(), key) <= 0){
+                break;
+            }
+            frontierNodes[position] = frontierNodes[parent];
+            position = parent;
+        }
+        frontierNodes[position] = node;
+    }
+
+    /**
+     * Frontier of drain: puts a node at the top (replacing what was there) and moves it down to where it belongs.
+     * @param node The node, the last one of the frontier.
+     * @param frontierSize The size of the frontier, without the node.
+     */
+    private void siftDown(Node<K, V> node, int frontierSize){
+        K key = node.getValue();
+        int position = 0;
+        int half = frontierSize >>> 1;
+        while(position < half){
+            int smallest = 2 * position + 1;
+            if(smallest + 1 < frontierSize
+                    && compare(frontierNodes[smallest + 1].getValue(), frontierNodes[smallest].getValue()) < 0){
+                smallest++;
+            }
+            if(compare(key, frontierNodes[smallest].getValue()) <= 0){
+                break;
+            }
+            frontierNodes[position] = frontierNodes[smallest];
+            position = smallest;
+        }
+        frontierNodes[position] = node;
+    }
+
+    /**
+     * Pairing Heaps are traditionally about merging separate Pairing Heaps, but I took the route where I could
+     * have objects already linked together and merely merge the root nodes.
+     *
+     * This function is an addition made for fun, where I take the more traditional approach to merge two separate
+     * PairingHeap objects into one!
+     * When this method is called upon a PairingHeap object, it will assimilate the heap passed in as a parameter into
+     * the heap that provided the method! The other heap is left empty (its nodes are in this heap now), either heap
+     * may be empty to start with, and equal minimums are fine (this heap's root stays the root). Both heaps must order
+     * their keys the same way.
+     *
+     * To merge many heaps at once, see meldAll.
+     *
+     * @param pairingHeap A separate PairingHeap object to be assimilated into the other!
+     */
+    public void mergeHeaps(PairingHeap<K, V> pairingHeap){
+        if(pairingHeap == this){
+            System.out.println("Sorry, a heap can not be merged with itself!");
+            return;
+        }
+        absorb(pairingHeap);
+    }
+
+    /**
+     * Moves everything in the other heap into this one with a single link, leaving the other heap empty. Both heaps
+     * must order their keys the same way.
+     *
+     * Used by ConcurrentPairingHeap, which gathers a batch of inserts into a small heap of its own so the big heap
+     * only sees one link per batch.
+     * @param other The heap to be emptied into this one.
+     */
+    void absorb(PairingHeap<K, V> other){
+        other.consolidateAuxiliary();
+        if(other.size == 0){
+            return;
+        }
+        Node<K, V> otherRoot = other.minNode;
+        int otherSize = other.size;
+        other.minNode = null;
+        other.size = 0;
+        other.compactionLists = null;
+        other.watchLinks = other.metrics != null;
+        arrivedSinceCompaction += otherSize;
+
+        if(this.size == 0){
+            this.minNode = otherRoot;
+        }
+        else{
+            reattach(otherRoot);
+        }
+        this.size += otherSize;
+    }
+
+    /**
+     * Forgets everything in the heap, without touching the nodes that were in it.
+     *
+     * Used by ConcurrentPairingHeap to throw away a batch of inserts that a throwing comparator left half linked.
+     */
+    void clear(){
+        minNode = null;
+        size = 0;
+        auxiliaryHead = null;
+        auxiliaryMin = null;
+        compactionLists = null;
+        watchLinks = metrics != null;
+    }
+
+    /**
+     * Melds many heaps into one, on the common ForkJoinPool. See meldAll(heaps, pool).
+     * @param heaps The heaps to be melded, all ordering their keys the same way.
+     * @param <K> Type of the keys.
+     * @param <V> Type of the payloads.
+     * @return The first heap of the list, now holding everything.
+     */
+    public static <K, V> PairingHeap<K, V> meldAll(List<PairingHeap<K, V>> heaps){
+        return meldAll(heaps, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Melds many heaps into one with a balanced tree reduction on a ForkJoinPool: the list is split in halves, each
+     * half is melded (in parallel), and the two results are melded with one link. Everything ends up in the first heap
+     * of the list, all the others are left empty.
+     *
+     * A link is O(1), so the links themselves are not why this is worth doing in parallel. Two things are:
+     *   Calling mergeHeaps over and over links every heap to the same root, so the root of the result has one child
+     *   per heap and the first deleteMin has to pair all of them. The reduction gives a balanced tree instead, with
+     *   about log(number of heaps) melded roots under the root.
+     *   Before it is melded, each heap has the children of its root paired up (and its auxiliary list linked in),
+     *   which is the work its deleteMins would have to do later anyway, and that is done by the tasks in parallel.
+     *
+     * The heaps must not be used by anything else while this runs.
+     *
+     * @param heaps The heaps to be melded, all ordering their keys the same way.
+     * @param pool The pool to run the reduction on.
+     * @param <K> Type of the keys.
+     * @param <V> Type of the payloads.
+     * @return The first heap of the list, now holding everything (a new empty heap if the list is empty).
+     */
+    public static <K, V> PairingHeap<K, V> meldAll(List<PairingHeap<K, V>> heaps, ForkJoinPool pool){
+        if(heaps.isEmpty()){
+            return new PairingHeap<>();
+        }
+        return pool.invoke(new MeldTask<>(heaps, 0, heaps.size()));
+    }
+
+    /**
+     * Builds a heap out of int keys with several threads, on the common ForkJoinPool. See
+     * parallelBuild(keys, payloads, pool).
+     * @param keys The keys of the entries.
+     * @param payloads The payload of each key (same index), or null if there are no payloads.
+     * @param <V> Type of the payloads.
+     * @return The new heap, using the multipass pairing strategy.
+     */
+    public static <V> PairingHeap<Integer, V> parallelBuild(int[] keys, V[] payloads){
+        return parallelBuild(keys, payloads, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds a heap out of int keys with several threads: the keys are split into chunks, each chunk is built into a
+     * heap of its own in linear time (the same as PairingHeap.of), and the chunks are melded back together with the
+     * same balanced reduction as meldAll. The nodes are made by the threads too.
+     *
+     * @param keys The keys of the entries.
+     * @param payloads The payload of each key (same index), or null if there are no payloads.
+     * @param pool The pool to build on.
+     * @param <V> Type of the payloads.
+     * @return The new heap, using the multipass pairing strategy.
+     */
+    public static <V> PairingHeap<Integer, V> parallelBuild(int[] keys, V[] payloads, ForkJoinPool pool){
+        //A few chunks per thread so an idle thread can steal, but not so small that forking costs more than building.
+        int chunk = Math.max(PARALLEL_BUILD_MIN_CHUNK, keys.length / (pool.getParallelism() * 4) + 1);
+        return pool.invoke(new BuildTask<>(keys, payloads, 0, keys.length, chunk));
+    }
+
+    /**
+     * Gets the heap ready to be melded by meldAll: links in the auxiliary list, then pairs up the children of the root
+     * into a single child, so the root of the heap has nothing left to pair.
+     */
+    private void pairUpRoot(){
+        consolidateAuxiliary();
+        if(minNode == null || minNode.child == null || minNode.child.sibling == null){
+            return;
+        }
+        Node<K, V> paired = combineSiblings(minNode.child);
+        paired.prev = minNode;
+        minNode.child = paired;
+    }
+
+    /**
+     * The reduction of meldAll: melds heaps[from, to) into heaps[from].
+     */
+    @SuppressWarnings("serial")
+    private static final class MeldTask<K, V> extends RecursiveTask<PairingHeap<K, V>> {
+        private final List<PairingHeap<K, V>> heaps;
+        private final int from;
+        private final int to;
+
+        MeldTask(List<PairingHeap<K, V>> heaps, int from, int to){
+            this.heaps = heaps;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PairingHeap<K, V> compute(){
+            if(to - from == 1){
+                PairingHeap<K, V> heap = heaps.get(from);
+                heap.pairUpRoot();
+                return heap;
+            }
+            int middle = (from + to) >>> 1;
+            MeldTask<K, V> left = new MeldTask<>(heaps, from, middle);
+            left.fork();
+            PairingHeap<K, V> right = new MeldTask<>(heaps, middle, to).compute();
+            PairingHeap<K, V> result = left.join();
+            result.absorb(right);
+            return result;
+        }
+    }
+
+    /**
+     * The work of parallelBuild: builds keys[from, to) into a heap.
+     */
+    @SuppressWarnings("serial")
+    private static final class BuildTask<V> extends RecursiveTask<PairingHeap<Integer, V>> {
+        private final int[] keys;
+        private final V[] payloads;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        BuildTask(int[] keys, V[] payloads, int from, int to, int chunk){
+            this.keys = keys;
+            this.payloads = payloads;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected PairingHeap<Integer, V> compute(){
+            if(to - from <= chunk){
+                PairingHeap<Integer, V> heap = new PairingHeap<>();
+                PairingHeap<Integer, V>.Builder builder = heap.new Builder();
+                for(int i = from; i < to; i++){
+                    builder.add(new Node<>(keys[i], payloads == null ? null : payloads[i]));
+                }
+                builder.finish();
+                return heap;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask<V> left = new BuildTask<>(keys, payloads, from, middle, chunk);
+            left.fork();
+            PairingHeap<Integer, V> right = new BuildTask<>(keys, payloads, middle, to, chunk).compute();
+            PairingHeap<Integer, V> result = left.join();
+            result.absorb(right);
+            return result;
+        }
+    }
+
+    /**
+     * Walks the heap in key order (smallest first) without changing it, so the first few entries can be looked at
+     * while the heap stays in use.
+     *
+     * The tree is not copied. A small frontier heap (a java.util.PriorityQueue of node references) holds the nodes
+     * that could come next: it starts with the root (and the auxiliary list, with lazy insert), and every node that is
+     * handed out adds its children to it. Every node is smaller than its children, so the smallest node of the
+     * frontier is always the next one. Getting the first m entries costs O(m log m) plus the children of those m nodes:
+     * after a deleteMin the root has about log n children, but a heap that has only ever had inserts (no deleteMin
+     * yet) has nearly every node as a child of the root, and then the first step looks at all of them.
+     *
+     * NOTE: The heap must not be changed while the iterator is in use, it does not notice and will give wrong
+     * results.
+     *
+     * @return An iterator over the nodes in key order. Ties come out in no particular order.
+     */
+    public Iterator<Node<K, V>> orderedIterator(){
+        return new OrderedIterator();
+    }
+
+    /**
+     * Same as orderedIterator, as a Stream. The stream is lazy, only the entries that are asked for are looked at, so
+     * orderedStream().limit(m) is the cheap way to get the first m entries.
+     * @return A sequential stream of the nodes in key order.
+     */
+    public Stream<Node<K, V>> orderedStream(){
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(orderedIterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Gets a Spliterator over every node of the heap in no particular order (the order of the tree), for scans where
+     * the order does not matter, e.g. StreamSupport.stream(heap.spliterator(), true) to add up the payloads with
+     * several threads. It splits by handing whole subtrees (and sibling lists) to the new Spliterator, nothing is
+     * copied. Like orderedIterator, the heap must not be changed while it is in use.
+     * @return A Spliterator over all the nodes.
+     */
+    public Spliterator<Node<K, V>> spliterator(){
+        NodeSpliterator spliterator = new NodeSpliterator(size);
+        if(minNode != null){
+            spliterator.lists.push(minNode);
+        }
+        if(auxiliaryHead != null){
+            spliterator.lists.push(auxiliaryHead);
+        }
+        return spliterator;
+    }
+
+    /**
+     * The iterator of orderedIterator, see there.
+     */
+    private final class OrderedIterator implements Iterator<Node<K, V>> {
+        private final PriorityQueue<Node<K, V>> frontier =
+                new PriorityQueue<>((n1, n2) -> compare(n1.getValue(), n2.getValue()));
+
+        OrderedIterator(){
+            if(minNode != null){
+                frontier.add(minNode);
+            }
+            for(Node<K, V> node = auxiliaryHead; node != null; node = node.sibling){
+                frontier.add(node);
+            }
+        }
+
+        @Override
+        public boolean hasNext(){
+            return !frontier.isEmpty();
+        }
+
+        @Override
+        public Node<K, V> next(){
+            Node<K, V> node = frontier.poll();
+            if(node == null){
+                throw new NoSuchElementException();
+            }
+            for(Node<K, V> child = node.child; child != null; child = child.sibling){
+                frontier.add(child);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * The Spliterator of spliterator, see there.
+     *
+     * Holds the sibling lists still to be walked: each entry of lists stands for that node, its subtree, and all of the
+     * siblings to its right (with their subtrees). singles are nodes to be handed out on their own, whose children
+     * and siblings are already accounted for elsewhere, they come from splitting.
+     */
+    private final class NodeSpliterator implements Spliterator<Node<K, V>> {
+        private final ArrayDeque<Node<K, V>> lists = new ArrayDeque<>();
+        private final ArrayDeque<Node<K, V>> singles = new ArrayDeque<>();
+        private long estimate;
+
+        NodeSpliterator(long estimate){
+            this.estimate = estimate;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Node<K, V>> action){
+            Node<K, V> node = singles.poll();
+            if(node == null){
+                node = lists.poll();
+                if(node == null){
+                    return false;
+                }
+                if(node.sibling != null){
+                    lists.push(node.sibling);
+                }
+                if(node.child != null){
+                    lists.push(node.child);
+                }
+            }
+            action.accept(node);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Node<K, V>> trySplit(){
+            //With only one list, take its first node on its own, keep its children and give away its siblings.
+            //Down a path of only children there is nothing to give away, so keep going.
+            while(lists.size() == 1){
+                Node<K, V> node = lists.poll();
+                singles.push(node);
+                if(node.child != null){
+                    lists.push(node.child);
+                }
+                if(node.sibling != null){
+                    NodeSpliterator other = split();
+                    other.lists.push(node.sibling);
+                    return other;
+                }
+            }
+            if(lists.size() < 2){
+                return null;
+            }
+            //Give away the bottom half of the lists, those are the ones that were found first (the biggest).
+            NodeSpliterator other = split();
+            for(int i = lists.size()/2; i > 0; i--){
+                other.lists.push(lists.pollLast());
+            }
+            return other;
+        }
+
+        /**
+         * Makes the (still empty) new Spliterator of a split, giving it half of the estimate.
+         */
+        private NodeSpliterator split(){
+            NodeSpliterator other = new NodeSpliterator(estimate/2);
+            estimate -= other.estimate;
+            return other;
+        }
+
+        @Override
+        public long estimateSize(){
+            return estimate;
+        }
+
+        @Override
+        public int characteristics(){
+            return Spliterator.NONNULL;
+        }
+    }
+
+    /**
+     * Writes the heap to a file, exactly as it is (the shape of the tree and the auxiliary list included), so restore
+     * can build it back without comparing a single key.
+     *
+     * The format (all big endian, as DataOutput writes it):
+     *   header  - "PHSN" (int), format version (int), strategy (byte, the ordinal), lazy insert (boolean),
+     *             size (int), main tree there (boolean), auxiliary list there (boolean).
+     *   trees   - the main tree and then the auxiliary list, each as the nodes in preorder over the child and
+     *             sibling links: a flags byte (has a child, has a sibling, is the smallest auxiliary root), the key
+     *             and the payload (written by the codecs), then the child's subtree, then the sibling's.
+     *   trailer - CRC32 of everything before it (long).
+     *
+     * The file is written through a FileChannel with a large buffer. The heap is not changed.
+     *
+     * @param path The file to write, replaced if it is there.
+     * @param keyCodec Writes the keys.
+     * @param payloadCodec Writes the payloads.
+     * @throws IOException If writing the file fails.
+     */
+    public void snapshot(Path path, SnapshotCodec<? super K> keyCodec, SnapshotCodec<? super V> payloadCodec)
+            throws IOException{
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)){
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeByte(strategy.ordinal());
+            out.writeBoolean(lazyInsert);
+            out.writeInt(size);
+            out.writeBoolean(minNode != null);
+            out.writeBoolean(auxiliaryHead != null);
+            writeTree(minNode, out, keyCodec, payloadCodec);
+            writeTree(auxiliaryHead, out, keyCodec, payloadCodec);
+            out.flush();
+
+            ByteBuffer trailer = ByteBuffer.allocate(8);
+            trailer.putLong(crc.getValue());
+            trailer.flip();
+            while(trailer.hasRemaining()){
+                channel.write(trailer);
+            }
+        }
+    }
+
+    /**
+     * Writes a tree (or a list of trees, following the sibling links of the first) in preorder, see snapshot.
+     * Walks with a stack instead of recursion, a sibling list can be as long as the heap.
+     */
+    private void writeTree(Node<K, V> first, DataOutputStream out, SnapshotCodec<? super K> keyCodec,
+                           SnapshotCodec<? super V> payloadCodec) throws IOException{
+        if(first == null){
+            return;
+        }
+        ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+        stack.push(first);
+        while(!stack.isEmpty()){
+            Node<K, V> node = stack.pop();
+            int flags = (node.child != null ? HAS_CHILD : 0) | (node.sibling != null ? HAS_SIBLING : 0)
+                    | (node == auxiliaryMin ? IS_AUXILIARY_MIN : 0);
+            out.writeByte(flags);
+            keyCodec.write(node.getValue(), out);
+            payloadCodec.write(node.getPayload(), out);
+            //The child's subtree comes first, so it goes on the stack last.
+            if(node.sibling != null){
+                stack.push(node.sibling);
+            }
+            if(node.child != null){
+                stack.push(node.child);
+            }
+        }
+    }
+
+    /**
+     * Builds a heap back from a file written by snapshot, with keys in their natural ordering.
+     * See restore(Path, SnapshotCodec, SnapshotCodec, Comparator).
+     * @param path The snapshot file.
+     * @param keyCodec Reads the keys.
+     * @param payloadCodec Reads the payloads.
+     * @param <K> Type of the keys.
+     * @param <V> Type of the payloads.
+     * @return The heap, just as it was when it was written.
+     * @throws IOException If reading fails, or the file is not a snapshot, is truncated or is corrupt.
+     */
+    public static <K, V> PairingHeap<K, V> restore(Path path, SnapshotCodec<? extends K> keyCodec,
+                                                   SnapshotCodec<? extends V> payloadCodec) throws IOException{
+        return restore(path, keyCodec, payloadCodec, null);
+    }
+
+    /**
+     * Builds a heap back from a file written by snapshot.
+     *
+     * The file is memory mapped. The CRC32 of the whole file is checked first (straight from the mapping), so a
+     * truncated or damaged file is caught before anything is built. Then the nodes are read in order and linked
+     * back into the same shape they had, so no keys are compared at all: the time taken is in proportion to the size
+     * of the file, not n log n. The strategy and lazy insert setting come from the file, the comparator can not be
+     * written so it must be given again (the same one the heap had, or the heap order will be wrong).
+     *
+     * @param path The snapshot file.
+     * @param keyCodec Reads the keys.
+     * @param payloadCodec Reads the payloads.
+     * @param comparator Orders the keys, null for the natural ordering of the keys.
+     * @param <K> Type of the keys.
+     * @param <V> Type of the payloads.
+     * @return The heap, just as it was when it was written.
+     * @throws IOException If reading fails, or the file is not a snapshot, is truncated or is corrupt.
+     */
+    public static <K, V> PairingHeap<K, V> restore(Path path, SnapshotCodec<? extends K> keyCodec,
+                                                   SnapshotCodec<? extends V> payloadCodec,
+                                                   Comparator<? super K> comparator) throws IOException{
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            long fileSize = channel.size();
+            //The header is 16 bytes, the trailer 8.
+            if(fileSize < 24){
+                throw new IOException("Snapshot " + path + " is too short, it is truncated or not a snapshot");
+            }
+            long end = fileSize - 8;
+            ByteBuffer trailer = ByteBuffer.allocate(8);
+            while(trailer.hasRemaining()){
+                if(channel.read(trailer, end + trailer.position()) < 0){
+                    throw new IOException("Snapshot " + path + " ended while reading the checksum");
+                }
+            }
+            trailer.flip();
+            if(trailer.getLong() != MappedDataInput.checksum(channel, end)){
+                throw new IOException("Snapshot " + path + " does not match its checksum, it is truncated or corrupt");
+            }
+
+            MappedDataInput in = new MappedDataInput(channel, end);
+            if(in.readInt() != SNAPSHOT_MAGIC){
+                throw new IOException(path + " is not a pairing heap snapshot");
+            }
+            int version = in.readInt();
+            if(version != SNAPSHOT_VERSION){
+                throw new IOException("Snapshot " + path + " has format version " + version + ", only version "
+                        + SNAPSHOT_VERSION + " can be read");
+            }
+            int strategyOrdinal = in.readByte();
+            if(strategyOrdinal < 0 || strategyOrdinal >= PairingStrategy.values().length){
+                throw new IOException("Snapshot " + path + " has an unknown pairing strategy " + strategyOrdinal);
+            }
+            boolean lazyInsert = in.readBoolean();
+            int size = in.readInt();
+            boolean hasMain = in.readBoolean();
+            boolean hasAuxiliary = in.readBoolean();
+
+            PairingHeap<K, V> heap = new PairingHeap<>(PairingStrategy.values()[strategyOrdinal], comparator,
+                    lazyInsert);
+            int[] count = new int[1];
+            heap.minNode = hasMain ? heap.readTree(in, keyCodec, payloadCodec, count) : null;
+            heap.auxiliaryHead = hasAuxiliary ? heap.readTree(in, keyCodec, payloadCodec, count) : null;
+            heap.size = size;
+
+            if(count[0] != size || in.position() != end){
+                throw new IOException("Snapshot " + path + " does not hold the number of nodes it says it does");
+            }
+            return heap;
+        }
+    }
+
+    /**
+     * Reads a tree (or a list of trees) written by writeTree, linking the nodes back as they were.
+     * The stack holds the nodes that have a sibling still to come, the next node after a node without a child is
+     * the sibling of the node on top of the stack.
+     * @param count Adds the number of nodes read to count[0].
+     * @return The first node read.
+     */
+    private Node<K, V> readTree(DataInput in, SnapshotCodec<? extends K> keyCodec,
+                                SnapshotCodec<? extends V> payloadCodec, int[] count) throws IOException{
+        ArrayDeque<Node<K, V>> waitingForSibling = new ArrayDeque<>();
+        int flags = in.readUnsignedByte();
+        Node<K, V> first = new Node<K, V>(keyCodec.read(in), payloadCodec.read(in));
+        Node<K, V> node = first;
+        count[0]++;
+        while(true){
+            if((flags & IS_AUXILIARY_MIN) != 0){
+                auxiliaryMin = node;
+            }
+            if((flags & HAS_SIBLING) != 0){
+                waitingForSibling.push(node);
+            }
+
+            Node<K, V> parentOrLeft;
+            boolean isChild = (flags & HAS_CHILD) != 0;
+            if(isChild){
+                parentOrLeft = node;
+            }
+            else if(!waitingForSibling.isEmpty()){
+                parentOrLeft = waitingForSibling.pop();
+            }
+            else{
+                return first;
+            }
+
+            flags = in.readUnsignedByte();
+            node = new Node<K, V>(keyCodec.read(in), payloadCodec.read(in));
+            count[0]++;
+            node.prev = parentOrLeft;
+            if(isChild){
+                parentOrLeft.child = node;
+            }
+            else{
+                parentOrLeft.sibling = node;
+            }
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package pairingheap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A ScheduledExecutorService on a PairingHeap of timers keyed by deadline, for timeouts: lots of timers pending at
+ * once, most of them cancelled before they are due.
+ *
+ * One timer thread sleeps until the deadline at the root of the heap, takes off every timer that is due and hands
+ * them to the workers, so the timer thread itself never runs a task and one slow task does not make the others late.
+ * The workers are virtual threads (one per task) when the JVM has them (Java 21+, looked up when the scheduler is
+ * made, the project itself builds for Java 17), otherwise a fixed pool of one platform thread per processor. Handing
+ * a platform thread one task at a time costs a thread switch per task, so the pool gets each batch of due timers in
+ * one piece per thread instead, and a slow task can hold up the ones after it in its piece.
+ *
+ * Every timer keeps its heap node as a handle, so cancelling a timer deletes it from the heap right away (see
+ * PairingHeap.delete) rather than leaving a cancelled entry in the queue until its deadline comes around, which is
+ * what ScheduledThreadPoolExecutor does unless setRemoveOnCancelPolicy(true). With 90% of timers cancelled the heap
+ * only ever holds the ones still live.
+ *
+ * Like ScheduledThreadPoolExecutor: shutdown() cancels the periodic tasks but lets the delayed ones still run, and a
+ * periodic task that throws is not run again. Timers with the same deadline run in the order they were scheduled.
+ * The timer thread is not a daemon thread, shut the scheduler down when done with it.
+ */
+public class PairingHeapScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+    //The states of the scheduler.
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+
+    //Most timers the timer thread takes off the heap before letting go of the lock and handing them out.
+    private static final int MAX_BATCH = 256;
+
+    //Deadlines further away than this are cut down to it, so that deadline - now can not overflow.
+    private static final long MAX_DELAY = Long.MAX_VALUE >> 1;
+
+    //Orders the timers by deadline, then by the order they were scheduled in.
+    private static final Comparator<Timer<?>> BY_DEADLINE = (timer1, timer2) -> {
+        long difference = timer1.deadline - timer2.deadline;
+        if(difference != 0){
+            return difference < 0 ? -1 : 1;
+        }
+        return Long.compare(timer1.sequence, timer2.sequence);
+    };
+
+    //Guards the heap, the state and the sequence.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //Signalled when the timer thread has something new to look at: an earlier deadline, or a shutdown.
+    private final Condition changed = lock.newCondition();
+
+    private final PairingHeap<Timer<?>, Void> heap;
+    private final ExecutorService workers;
+    private final boolean virtualThreads;
+
+    //How many pieces a batch of due timers is handed out in, 0 for one task at a time.
+    private final int pieces;
+    private final Thread timerThread;
+    private int state = RUNNING;
+    private long sequence;
+
+    /**
+     * Constructor, uses the two-pass pairing strategy (the cheapest for this mix of inserts, deletes and deleteMins)
+     * and virtual threads if there are any.
+     */
+    PairingHeapScheduler(){
+        this(PairingStrategy.TWO_PASS);
+    }
+
+    /**
+     * Constructor, with virtual threads for the workers if there are any, else one platform thread per processor.
+     * @param strategy The PairingStrategy of the heap of timers.
+     */
+    PairingHeapScheduler(PairingStrategy strategy){
+        this(strategy, null);
+    }
+
+    /**
+     * Constructor, with the given workers, which are handed the due tasks one at a time. The scheduler owns them and
+     * shuts them down with itself.
+     * @param strategy The PairingStrategy of the heap of timers.
+     * @param workers Runs the tasks that are due, null for virtual threads if there are any, else one platform thread
+     *                per processor.
+     */
+    PairingHeapScheduler(PairingStrategy strategy, ExecutorService workers){
+        heap = new PairingHeap<>(strategy, BY_DEADLINE);
+        boolean virtual = false;
+        int threads = 0;
+        if(workers == null){
+            workers = virtualThreadExecutor();
+            virtual = workers != null;
+            if(!virtual){
+                threads = Runtime.getRuntime().availableProcessors();
+                workers = Executors.newFixedThreadPool(threads);
+            }
+        }
+        virtualThreads = virtual;
+        pieces = threads;
+        this.workers = workers;
+        timerThread = new Thread(this::runTimers, "pairing-heap-scheduler");
+        timerThread.start();
+    }
+
+    /**
+     * Makes an executor with a new virtual thread per task, through reflection since they only came in Java 21.
+     * @return The executor, or null if this JVM has no virtual threads.
+     */
+    private static ExecutorService virtualThreadExecutor(){
+        try{
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch(ReflectiveOperationException | RuntimeException e){
+            //No such method before Java 21 (and a preview feature in 19 and 20).
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether the tasks run on virtual threads.
+     * @return True for virtual threads, false for a pool of platform threads.
+     */
+    public boolean isVirtualThreads(){
+        return virtualThreads;
+    }
+
+    /**
+     * Gets the number of timers waiting in the heap, cancelled ones are not counted since they are not in it.
+     * @return Number of pending timers.
+     */
+    public int getPendingCount(){
+        lock.lock();
+        try{
+            return heap.getSize();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The timer thread: waits for the earliest deadline, takes off whatever is due (up to MAX_BATCH at a time) and
+     * hands it to the workers outside the lock.
+     */
+    private void runTimers(){
+        ArrayList<Timer<?>> due = new ArrayList<>();
+        try{
+            while(true){
+                lock.lock();
+                try{
+                    while(due.isEmpty()){
+                        if(state == STOP || (state == SHUTDOWN && heap.getSize() == 0)){
+                            return;
+                        }
+                        Node<Timer<?>, Void> min = heap.findMin();
+                        if(min == null){
+                            changed.await();
+                            continue;
+                        }
+                        long now = System.nanoTime();
+                        long delay = min.getValue().deadline - now;
+                        if(delay > 0){
+                            changed.awaitNanos(delay);
+                            continue;
+                        }
+                        //Take everything that is due, so a burst of timers costs one trip through the lock.
+                        while(min != null && min.getValue().deadline - now <= 0 && due.size() < MAX_BATCH){
+                            Timer<?> timer = heap.deleteMin().getValue();
+                            timer.node = null;
+                            due.add(timer);
+                            min = heap.findMin();
+                        }
+                    }
+                }
+                finally{
+                    lock.unlock();
+                }
+                if(pieces == 0 || due.size() == 1){
+                    for(int i = 0; i < due.size(); i++){
+                        dispatch(due.get(i), null);
+                    }
+                }
+                else{
+                    int count = Math.min(pieces, due.size());
+                    for(int p = 0; p < count; p++){
+                        List<Timer<?>> piece = new ArrayList<>(due.subList(p * due.size() / count,
+                                (p + 1) * due.size() / count));
+                        dispatch(() -> piece.forEach(Timer::run), piece);
+                    }
+                }
+                due.clear();
+            }
+        }
+        catch(InterruptedException e){
+            //Only the scheduler interrupts its timer thread, in shutdownNow.
+        }
+        finally{
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Hands a timer, or a piece of a batch of timers, to the workers. If they turn it away (only after shutdownNow)
+     * the timers are cancelled, they are not going to run.
+     * @param task The timer, or the task running the piece.
+     * @param piece The timers of the piece, null for a single timer.
+     */
+    private void dispatch(Runnable task, List<Timer<?>> piece){
+        try{
+            workers.execute(task);
+        }
+        catch(RejectedExecutionException e){
+            if(piece == null){
+                ((Timer<?>) task).cancel(false);
+            }
+            else{
+                piece.forEach(timer -> timer.cancel(false));
+            }
+        }
+    }
+
+    /**
+     * Puts a timer into the heap, waking the timer thread if it is now the earliest.
+     * @param timer The timer, not in the heap.
+     * @return False if the scheduler is shut down.
+     */
+    private boolean enqueue(Timer<?> timer){
+        lock.lock();
+        try{
+            if(state != RUNNING){
+                return false;
+            }
+            //A periodic task cancelled between its run and getting back in here. cancel marks the task before it
+            //takes the lock to remove it, so a task not cancelled yet will be found in the heap by remove.
+            if(timer.isCancelled()){
+                return true;
+            }
+            timer.sequence = sequence++;
+            timer.node = heap.insert(timer, null);
+            if(heap.findMin() == timer.node){
+                changed.signal();
+            }
+            return true;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes a cancelled timer from the heap, if it is still in there.
+     * @param timer The timer.
+     */
+    private void remove(Timer<?> timer){
+        lock.lock();
+        try{
+            //The node is null once the timer thread has taken it off (it is running or about to).
+            if(timer.node != null){
+                heap.delete(timer.node);
+                timer.node = null;
+            }
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Schedules a new timer, or throws if the scheduler is shut down.
+     */
+    private <T> Timer<T> schedule(Timer<T> timer){
+        if(!enqueue(timer)){
+            throw new RejectedExecutionException("The scheduler is shut down");
+        }
+        return timer;
+    }
+
+    /**
+     * Works out the deadline of a delay from now.
+     */
+    private static long deadline(long delay, TimeUnit unit){
+        long nanos = Math.max(0, unit.toNanos(delay));
+        return System.nanoTime() + Math.min(nanos, MAX_DELAY);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit){
+        return schedule(new Timer<Void>(command, null, deadline(delay, unit), 0));
+    }
+
+    @Override
+    public <T> ScheduledFuture<T> schedule(Callable<T> callable, long delay, TimeUnit unit){
+        return schedule(new Timer<T>(callable, deadline(delay, unit)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit){
+        if(period <= 0){
+            throw new IllegalArgumentException("The period has to be more than 0");
+        }
+        return schedule(new Timer<Void>(command, null, deadline(initialDelay, unit), unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit){
+        if(delay <= 0){
+            throw new IllegalArgumentException("The delay has to be more than 0");
+        }
+        return schedule(new Timer<Void>(command, null, deadline(initialDelay, unit), -unit.toNanos(delay)));
+    }
+
+    @Override
+    public void execute(Runnable command){
+        schedule(command, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task){
+        return schedule(task, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result){
+        return schedule(new Timer<T>(task, result, deadline(0, TimeUnit.NANOSECONDS), 0));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task){
+        return schedule(task, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops taking new tasks and cancels the periodic ones. Delayed tasks already scheduled still run when they are
+     * due, then the timer thread and the workers finish.
+     */
+    @Override
+    public void shutdown(){
+        ArrayList<Timer<?>> periodic = new ArrayList<>();
+        lock.lock();
+        try{
+            if(state != RUNNING){
+                return;
+            }
+            state = SHUTDOWN;
+            heap.spliterator().forEachRemaining(node -> {
+                if(node.getValue().isPeriodic()){
+                    periodic.add(node.getValue());
+                }
+            });
+            changed.signal();
+        }
+        finally{
+            lock.unlock();
+        }
+        for(Timer<?> timer: periodic){
+            timer.cancel(false);
+        }
+    }
+
+    /**
+     * Stops taking new tasks, takes every pending timer out of the heap and interrupts the running tasks.
+     * @return The tasks that never ran, earliest deadline first.
+     */
+    @Override
+    public List<Runnable> shutdownNow(){
+        ArrayList<Runnable> neverRan = new ArrayList<>();
+        lock.lock();
+        try{
+            state = STOP;
+            while(heap.getSize() > 0){
+                Timer<?> timer = heap.deleteMin().getValue();
+                timer.node = null;
+                neverRan.add(timer);
+            }
+            changed.signal();
+        }
+        finally{
+            lock.unlock();
+        }
+        timerThread.interrupt();
+        workers.shutdownNow();
+        return neverRan;
+    }
+
+    @Override
+    public boolean isShutdown(){
+        lock.lock();
+        try{
+            return state != RUNNING;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated(){
+        return !timerThread.isAlive() && workers.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException{
+        long endTime = System.nanoTime() + unit.toNanos(timeout);
+        TimeUnit.NANOSECONDS.timedJoin(timerThread, Math.max(0, endTime - System.nanoTime()));
+        if(timerThread.isAlive()){
+            return false;
+        }
+        return workers.awaitTermination(Math.max(0, endTime - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A scheduled task, which is its own key in the heap.
+     */
+    private final class Timer<T> extends FutureTask<T> implements RunnableScheduledFuture<T> {
+        //System.nanoTime() it is due at.
+        long deadline;
+
+        //0 for a one shot task, more than 0 for a fixed rate, less than 0 for a fixed delay (in nanoseconds).
+        private final long period;
+
+        //Breaks ties between equal deadlines, set when it goes into the heap (under the lock).
+        long sequence;
+
+        //Its node in the heap while it is in there, else null (guarded by the lock).
+        Node<Timer<?>, Void> node;
+
+        Timer(Runnable command, T result, long deadline, long period){
+            super(command, result);
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        Timer(Callable<T> callable, long deadline){
+            super(callable);
+            this.deadline = deadline;
+            this.period = 0;
+        }
+
+        @Override
+        public boolean isPeriodic(){
+            return period != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit){
+            return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other){
+            if(other instanceof PairingHeapScheduler.Timer){
+                return BY_DEADLINE.compare(this, (Timer<?>) other);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        /**
+         * Cancels the task, deleting it from the heap if it is still waiting.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning){
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if(cancelled){
+                remove(this);
+            }
+            return cancelled;
+        }
+
+        /**
+         * Runs the task. A periodic task then works out its next deadline and goes back into the heap, unless it
+         * threw, was cancelled or the scheduler is shut down.
+         */
+        @Override
+        public void run(){
+            if(!isPeriodic()){
+                super.run();
+            }
+            else if(runAndReset()){
+                deadline = period > 0 ? deadline + period : System.nanoTime() - period;
+                if(!enqueue(this)){
+                    super.cancel(false);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package pairingheap;
+
+/**
+ * The ways the PairingHeap can pair up the subtrees left behind when the root is deleted.
+ *
+ * (Source: https://www.cs.cmu.edu/~sleator/papers/pairing-heaps.pdf for the two-pass and multipass variants,
+ *  Stasko and Vitter, "Pairing Heaps: Experiments and Analysis" (1987) for the auxiliary variant.)
+ */
+public enum PairingStrategy {
+    /**
+     * Classic two-pass pairing: link the subtrees in pairs from left to right, then link the results from right to
+     * left into one tree.
+     */
+    TWO_PASS,
+
+    /**
+     * Multipass (FIFO) pairing: keep a queue of subtrees, link the first two and put the result at the back, until
+     * one tree is left. This is the original behaviour of the PairingHeap.
+     */
+    MULTIPASS,
+
+    /**
+     * Auxiliary two-pass: inserted nodes go onto an auxiliary list of roots instead of being linked to the root right
+     * away. At delete-min the auxiliary list is combined with multipass and linked to the main tree, then the
+     * children of the root are combined with two-pass. The same as TWO_PASS with lazy insert turned on (see the
+     * PairingHeap constructor), which can be used with MULTIPASS as well.
+     */
+    AUXILIARY
+}
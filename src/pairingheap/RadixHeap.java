@@ -0,0 +1,259 @@
+package pairingheap;
+
+/**
+ * RadixHeap, a MinPriorityQueue for integer keys (Integer, Long, anything that is a Number with a whole longValue)
+ * that only ever go up: a key put in (by insert or decreaseKey) must never be smaller than the last minimum taken out
+ * by deleteMin. Dijkstra's with non negative weights is the classic case, and event simulations where nothing is
+ * scheduled in the past.
+ *
+ * With that promise the heap does not need to compare keys against each other on the way in. It keeps the key "last"
+ * of the last minimum taken out, and puts every entry in the bucket for the highest bit its key differs from last in:
+ * bucket 0 holds the keys equal to last, bucket b the keys that share the bits above bit b-1 with last. insert,
+ * decreaseKey and delete are O(1) (a bucket is a doubly linked list). When bucket 0 runs out, deleteMin finds the
+ * lowest bucket that is not empty, takes its smallest key as the new last and moves its entries down into the lower
+ * buckets, where they are closer to last. An entry can only ever move down, at most 64 times, so that is O(log C)
+ * amortized per entry, with C the largest gap between keys, no matter how many entries there are.
+ *
+ * The nodes are linked through the same Node fields the PairingHeap uses, sibling and prev (prev is null for the head
+ * of a bucket), so a node is only ever in one queue. There are no trees here, so child is free: it is set to a marker
+ * while the node is in a RadixHeap (see isInRadixHeap), which lets the AdaptivePriorityQueue tell which of its
+ * engines a node is in while it moves them from one to the other.
+ *
+ * The promise is checked with asserts, so run with -ea to have it checked. Without, a key below last is NOT caught,
+ * and the heap will hand out entries in the wrong order.
+ *
+ * @param <K> Type of the keys, a whole number.
+ * @param <V> Type of the payloads.
+ */
+public class RadixHeap<K extends Number, V> implements MinPriorityQueue<K, V> {
+    //One bucket per bit of a long, and one for the keys equal to last.
+    private static final int BUCKETS = 65;
+
+    //The child of every node that is in a RadixHeap.
+    private static final Node<Object, Object> IN_RADIX_HEAP = new Node<>(null, null);
+
+    //Head of the list of each bucket.
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[] buckets = (Node<K, V>[]) new Node[BUCKETS];
+
+    //Key of the last minimum taken out, no key may go below it. Starts at the smallest key there is.
+    private long last = Long.MIN_VALUE;
+
+    //Maintain the size of the heap.
+    private int size;
+
+    /**
+     * Constructor, creates an empty heap.
+     */
+    RadixHeap(){
+    }
+
+    /**
+     * Gets the size of the heap.
+     * @return Integer stating the number of nodes in the heap.
+     */
+    public int getSize(){
+        return size;
+    }
+
+    /**
+     * Gets the key of the last minimum taken out, the smallest key the heap will take from now on.
+     * @return Key (Long)
+     */
+    public long getLast(){
+        return last;
+    }
+
+    /**
+     * Insert a new node. O(1).
+     * @param key Value (key) of the new node, must not be smaller than getLast().
+     * @param payload Payload of the new node.
+     * @return The new node, as its handle.
+     */
+    public Node<K, V> insert(K key, V payload){
+        return insert(new Node<>(key, payload));
+    }
+
+    /**
+     * Insert a node, same as PairingHeap.insert(node). O(1). The node must not be in any heap.
+     * @param node The node, its value must not be smaller than getLast().
+     * @return The node, as its handle.
+     */
+    @SuppressWarnings("unchecked")
+    public Node<K, V> insert(Node<K, V> node){
+        long value = node.getValue().longValue();
+        assert value >= last : "RadixHeap key " + value + " is below the last minimum " + last;
+        node.child = (Node<K, V>) (Node<?, ?>) IN_RADIX_HEAP;
+        addToBucket(node, bucketOf(value));
+        size++;
+        return node;
+    }
+
+    /**
+     * Tells whether a node is in a RadixHeap (any of them) rather than a PairingHeap or no heap at all. O(1).
+     * @param node The node.
+     * @return True if the node is in a RadixHeap.
+     */
+    static boolean isInRadixHeap(Node<?, ?> node){
+        return node.child == IN_RADIX_HEAP;
+    }
+
+    /**
+     * Returns the minimum node. Does NOT delete it!
+     *
+     * Unless there are keys equal to the last minimum still in, this looks through the lowest bucket that is not
+     * empty for its smallest key, so it is not O(1). It does not move last, that is left to deleteMin, so keys between
+     * last and the minimum can still be put in after it.
+     * @return The minimum node, or null if the heap is empty.
+     */
+    public Node<K, V> findMin(){
+        if(buckets[0] != null){
+            return buckets[0];
+        }
+        int bucket = lowestBucket();
+        return bucket < 0 ? null : minimumOf(buckets[bucket]);
+    }
+
+    /**
+     * Removes the minimum node and returns it.
+     * @return The removed node, or null if the heap was empty.
+     */
+    public Node<K, V> deleteMin(){
+        if(size == 0){
+            System.out.println("Sorry, no more nodes!");
+            return null;
+        }
+        if(buckets[0] == null){
+            //Take the smallest key of the lowest bucket as the new last, and move that whole bucket down. The other
+            //buckets stay as they are, their keys still differ from the new last at the same bit.
+            int bucket = lowestBucket();
+            Node<K, V> node = buckets[bucket];
+            last = minimumOf(node).getValue().longValue();
+            buckets[bucket] = null;
+            while(node != null){
+                Node<K, V> next = node.sibling;
+                addToBucket(node, bucketOf(node.getValue().longValue()));
+                node = next;
+            }
+        }
+        Node<K, V> min = buckets[0];
+        unlink(min, 0);
+        min.child = null;
+        size--;
+        return min;
+    }
+
+    /**
+     * Returns some node of the heap, without looking at any keys: the head of the highest bucket that is not empty.
+     * O(1), for emptying the heap (with delete) when the order does not matter.
+     * @return A node of the heap, or null if the heap is empty.
+     */
+    Node<K, V> any(){
+        for(int b = BUCKETS - 1; b >= 0; b--){
+            if(buckets[b] != null){
+                return buckets[b];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decreases the value (key) of a node in the heap, it is moved to the bucket of its new key. O(1).
+     * @param node The node, as returned by insert.
+     * @param newValue The new value, must not be larger than the current value, nor smaller than getLast().
+     */
+    public void decreaseKey(Node<K, V> node, K newValue){
+        long value = newValue.longValue();
+        long oldValue = node.getValue().longValue();
+        if(value > oldValue){
+            System.out.println("Sorry, decreaseKey can not make a value larger!");
+            return;
+        }
+        assert value >= last : "RadixHeap key " + value + " is below the last minimum " + last;
+        int oldBucket = bucketOf(oldValue);
+        int newBucket = bucketOf(value);
+        node.setValue(newValue);
+        if(oldBucket != newBucket){
+            unlink(node, oldBucket);
+            addToBucket(node, newBucket);
+        }
+    }
+
+    /**
+     * Removes any node from the heap, not just the minimum. O(1).
+     * @param node The node, as returned by insert.
+     * @return The removed node.
+     */
+    public Node<K, V> delete(Node<K, V> node){
+        unlink(node, bucketOf(node.getValue().longValue()));
+        node.child = null;
+        size--;
+        return node;
+    }
+
+    /**
+     * The bucket a key belongs in: 0 if it is equal to last, otherwise one more than the highest bit it differs from
+     * last in.
+     */
+    private int bucketOf(long value){
+        return 64 - Long.numberOfLeadingZeros(value ^ last);
+    }
+
+    /**
+     * The lowest bucket that is not empty, or -1 if they all are.
+     */
+    private int lowestBucket(){
+        for(int b = 0; b < BUCKETS; b++){
+            if(buckets[b] != null){
+                return b;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The node with the smallest key in the list starting at the given node.
+     */
+    private Node<K, V> minimumOf(Node<K, V> node){
+        Node<K, V> min = node;
+        long minValue = node.getValue().longValue();
+        for(node = node.sibling; node != null; node = node.sibling){
+            long value = node.getValue().longValue();
+            if(value < minValue){
+                min = node;
+                minValue = value;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Puts a node at the front of a bucket.
+     */
+    private void addToBucket(Node<K, V> node, int bucket){
+        Node<K, V> head = buckets[bucket];
+        node.sibling = head;
+        node.prev = null;
+        if(head != null){
+            head.prev = node;
+        }
+        buckets[bucket] = node;
+    }
+
+    /**
+     * Takes a node out of the bucket it is in.
+     */
+    private void unlink(Node<K, V> node, int bucket){
+        if(node.prev == null){
+            buckets[bucket] = node.sibling;
+        }
+        else{
+            node.prev.sibling = node.sibling;
+        }
+        if(node.sibling != null){
+            node.sibling.prev = node.prev;
+        }
+        node.sibling = null;
+        node.prev = null;
+    }
+}
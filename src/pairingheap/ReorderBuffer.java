@@ -0,0 +1,426 @@
+package pairingheap;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * A Flow.Processor that puts a stream of events back in event time order: events come in out of order, wait in a
+ * PairingHeap keyed by their event time, and are handed on once the watermark has passed them.
+ *
+ * The watermark says that no more events at or before it are coming. It follows the events themselves, maxDisorder
+ * behind the latest event time seen (an event may be up to maxDisorder older than the newest one and still be on
+ * time), and can be moved on from the outside with advanceWatermark (e.g. from a clock, or from watermarks sent
+ * along by the source). Every time it moves, everything up to it goes downstream in one drainWhile on the heap (see
+ * PairingHeap.drainWhile), as much of it as downstream has asked for. The rest waits for more demand. An event that
+ * comes in at or before the watermark is late: it is dropped and counted (getLateEvents). Events with the same event
+ * time come out in no particular order. onComplete releases everything that is left, then completes downstream.
+ *
+ * Backpressure both ways: downstream gets no more than it has asked for (request), and upstream is only asked for as
+ * many events as there is room for in the buffer (capacity, asked for a quarter of the capacity at a time), so a
+ * SubmissionPublisher upstream blocks in submit (or drops, as it is set up to) when the buffer is full. When the
+ * buffer is full and nothing in it is due, the Overflow says what happens:
+ *   BLOCK          nothing, until the watermark moves (advanceWatermark) or downstream asks for more. With a watermark
+ *                  that only follows the events this waits forever, so the capacity has to be more than the events
+ *                  that come in over maxDisorder (rate times disorder).
+ *   RELEASE_EARLY  the oldest events go downstream ahead of the watermark, which moves up to them (so events older
+ *                  than those come in late). Counted by getEarlyEvents.
+ *
+ * The downstream subscriber is called with a lock held, one call at a time, and may call request and cancel from
+ * inside onNext. onError from upstream goes straight downstream, the events still buffered are dropped.
+ * There is room for one downstream subscriber, a second one gets onError.
+ *
+ * @param <T> Type of the events.
+ */
+public class ReorderBuffer<T> implements Flow.Processor<T, T> {
+    /**
+     * What to do when the buffer is full and nothing in it is due, see the class comment.
+     */
+    public enum Overflow {
+        BLOCK,
+        RELEASE_EARLY
+    }
+
+    //Most released nodes kept for the next inserts (see PairingHeap.setRecycling).
+    private static final int MAX_POOLED = 4096;
+
+    //Guards everything below, and makes the calls to the downstream subscriber one at a time.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //The events waiting for the watermark, keyed by event time.
+    private final PairingHeap<Long, T> heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+    private final ToLongFunction<? super T> eventTime;
+    private final long maxDisorder;
+    private final int capacity;
+    private final Overflow overflow;
+
+    //Hands a released event downstream, given to drainWhile.
+    private final Consumer<Node<Long, T>> emit = this::emit;
+
+    //Every event at or before the watermark has been released (or came in late).
+    private long watermark = Long.MIN_VALUE;
+
+    private Flow.Subscription upstream;
+    //Events asked of upstream that have not come in yet.
+    private long upstreamPending;
+    private boolean upstreamDone;
+    private Throwable failure;
+
+    private Flow.Subscriber<? super T> downstream;
+    //Events downstream has asked for and not been given yet.
+    private long demand;
+    //Set once downstream has been completed or failed, or has cancelled: nothing more goes to it.
+    private boolean finished;
+
+    //Set while release is going, so that a release called from inside it (e.g. a request from onNext) only has it
+    //go round once more.
+    private boolean releasing;
+    private boolean missed;
+
+    private long lateEvents;
+    private long earlyEvents;
+    private long releasedEvents;
+
+    /**
+     * Constructor.
+     * @param eventTime Gets the event time of an event.
+     * @param maxDisorder How much older than the newest event an event may be and still be on time, at least 0.
+     *                    Long.MAX_VALUE to only have the watermark moved by advanceWatermark.
+     * @param capacity The most events buffered, at least 1.
+     * @param overflow What to do when the buffer is full and nothing in it is due.
+     */
+    ReorderBuffer(ToLongFunction<? super T> eventTime, long maxDisorder, int capacity, Overflow overflow){
+        this.eventTime = eventTime;
+        this.maxDisorder = Math.max(0, maxDisorder);
+        this.capacity = Math.max(1, capacity);
+        this.overflow = overflow;
+        heap.setRecycling(Math.min(this.capacity, MAX_POOLED));
+    }
+
+    /**
+     * Gets the watermark, every event at or before it has been released (once downstream asked for it) or was late.
+     * @return The watermark (event time), Long.MIN_VALUE before the first one.
+     */
+    public long getWatermark(){
+        lock.lock();
+        try{
+            return watermark;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of events waiting in the buffer.
+     * @return Integer number of events buffered.
+     */
+    public int getSize(){
+        lock.lock();
+        try{
+            return heap.getSize();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the most events buffered, as given to the constructor.
+     * @return Integer capacity.
+     */
+    public int getCapacity(){
+        return capacity;
+    }
+
+    /**
+     * Gets the number of events that came in at or before the watermark, and were dropped.
+     * @return Long number of late events.
+     */
+    public long getLateEvents(){
+        lock.lock();
+        try{
+            return lateEvents;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of events released ahead of the watermark because the buffer was full (RELEASE_EARLY).
+     * @return Long number of early events.
+     */
+    public long getEarlyEvents(){
+        lock.lock();
+        try{
+            return earlyEvents;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of events handed downstream so far.
+     * @return Long number of released events.
+     */
+    public long getReleasedEvents(){
+        lock.lock();
+        try{
+            return releasedEvents;
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the watermark on, releasing everything up to it (as far as downstream has asked). A watermark that is
+     * not past the current one changes nothing.
+     * @param newWatermark No more events at or before this event time are coming.
+     */
+    public void advanceWatermark(long newWatermark){
+        lock.lock();
+        try{
+            if(newWatermark > watermark){
+                watermark = newWatermark;
+                release();
+            }
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public void subscribe(Flow.Subscriber<? super T> subscriber){
+        lock.lock();
+        try{
+            if(downstream != null){
+                subscriber.onSubscribe(new Flow.Subscription(){
+                    public void request(long n){
+                    }
+
+                    public void cancel(){
+                    }
+                });
+                subscriber.onError(
+                        new IllegalStateException("Sorry, a ReorderBuffer only has room for one subscriber!"));
+                return;
+            }
+            downstream = subscriber;
+            subscriber.onSubscribe(new Downstream());
+            if(failure != null && !finished){
+                finished = true;
+                subscriber.onError(failure);
+                return;
+            }
+            release();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public void onSubscribe(Flow.Subscription subscription){
+        lock.lock();
+        try{
+            //Only one upstream at a time.
+            if(upstream != null){
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            if(finished){
+                subscription.cancel();
+                return;
+            }
+            release();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public void onNext(T item){
+        long time = eventTime.applyAsLong(item);
+        lock.lock();
+        try{
+            if(upstreamPending > 0){
+                upstreamPending--;
+            }
+            if(time <= watermark){
+                lateEvents++;
+            }
+            else{
+                heap.insert(time, item);
+                //The watermark follows the events, maxDisorder (and one) behind the newest (without going below
+                //Long.MIN_VALUE).
+                if(maxDisorder != Long.MAX_VALUE && time > Long.MIN_VALUE + maxDisorder
+                        && time - maxDisorder - 1 > watermark){
+                    watermark = time - maxDisorder - 1;
+                }
+            }
+            release();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public void onError(Throwable throwable){
+        lock.lock();
+        try{
+            upstreamDone = true;
+            failure = throwable;
+            heap.drainMin(heap.getSize(), node -> {});
+            if(downstream != null && !finished){
+                finished = true;
+                downstream.onError(throwable);
+            }
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    public void onComplete(){
+        lock.lock();
+        try{
+            upstreamDone = true;
+            release();
+        }
+        finally{
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands on what is due (as much as downstream has asked for), completes downstream once upstream is done and the
+     * buffer is empty, and asks upstream for as much as there is room for. Called with the lock held, after anything
+     * that could change one of those.
+     */
+    private void release(){
+        if(releasing){
+            missed = true;
+            return;
+        }
+        releasing = true;
+        try{
+            do{
+                missed = false;
+                if(downstream != null && !finished){
+                    releaseDue();
+                }
+                requestMore();
+            } while(missed);
+        }
+        finally{
+            releasing = false;
+        }
+    }
+
+    /**
+     * The downstream part of release.
+     */
+    private void releaseDue(){
+        //Once upstream is done, everything is due.
+        long limit = upstreamDone ? Long.MAX_VALUE : watermark;
+        while(demand > 0 && heap.getSize() > 0 && !finished){
+            int max = (int) Math.min(demand, Integer.MAX_VALUE);
+            if(heap.drainWhile(limit, max, emit) > 0){
+                continue;
+            }
+            if(overflow != Overflow.RELEASE_EARLY || heap.getSize() < capacity){
+                break;
+            }
+            //Full, and nothing is due: the oldest go now, and the watermark moves up to them.
+            watermark = heap.findMin().getValue();
+            limit = watermark;
+            earlyEvents += heap.drainWhile(limit, max, emit);
+        }
+        if(upstreamDone && heap.getSize() == 0 && !finished){
+            finished = true;
+            downstream.onComplete();
+        }
+    }
+
+    /**
+     * Asks upstream for as many events as there is room for, a quarter of the capacity at a time (or whatever there is
+     * room for, if nothing is on the way).
+     */
+    private void requestMore(){
+        if(upstream == null || upstreamDone || finished){
+            return;
+        }
+        long room = capacity - heap.getSize() - upstreamPending;
+        if(room > 0 && (room >= (capacity + 3) / 4 || upstreamPending == 0)){
+            upstreamPending += room;
+            upstream.request(room);
+        }
+    }
+
+    /**
+     * Hands one released event downstream, and the node back to the heap for the next insert.
+     * @param node The node of the event, out of the heap.
+     */
+    private void emit(Node<Long, T> node){
+        T event = node.getPayload();
+        heap.release(node);
+        //Downstream may have cancelled earlier in the same batch.
+        if(finished){
+            return;
+        }
+        if(demand != Long.MAX_VALUE){
+            demand--;
+        }
+        releasedEvents++;
+        downstream.onNext(event);
+    }
+
+    /**
+     * The subscription downstream gets.
+     */
+    private final class Downstream implements Flow.Subscription {
+        public void request(long n){
+            lock.lock();
+            try{
+                if(finished){
+                    return;
+                }
+                if(n <= 0){
+                    finished = true;
+                    if(upstream != null){
+                        upstream.cancel();
+                    }
+                    downstream.onError(new IllegalArgumentException("Sorry, request needs a number above 0!"));
+                    return;
+                }
+                //Adds up to Long.MAX_VALUE at most, which means no limit.
+                demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n;
+                release();
+            }
+            finally{
+                lock.unlock();
+            }
+        }
+
+        public void cancel(){
+            lock.lock();
+            try{
+                if(finished){
+                    return;
+                }
+                finished = true;
+                if(upstream != null){
+                    upstream.cancel();
+                }
+                heap.drainMin(heap.getSize(), node -> {});
+            }
+            finally{
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package pairingheap;
+
 import java.util.Comparator;
 
 /**
@@ -0,0 +1,33 @@
+package pairingheap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event for a deleteMin that made more links than its HeapMetrics threshold, its duration is the time the
+ * deleteMin took. Only made by heaps with metrics on, and only committed when a flight recording with the event
+ * enabled is running, e.g.
+ *   java -XX:StartFlightRecording:filename=heap.jfr ...
+ *   jfr print --events pairingheap.SlowDeleteMin heap.jfr
+ */
+@Name("pairingheap.SlowDeleteMin")
+@Label("Slow deleteMin")
+@Category("Pairing Heap")
+@Description("A deleteMin that made more links than the threshold set in its HeapMetrics")
+class SlowDeleteMinEvent extends jdk.jfr.Event {
+    @Label("Links")
+    long links;
+
+    @Label("Root Degree")
+    @Description("Subtrees paired up by the deleteMin")
+    int rootDegree;
+
+    @Label("Size")
+    @Description("Size of the heap after the deleteMin")
+    int size;
+
+    @Label("Strategy")
+    String strategy;
+}
@@ -0,0 +1,65 @@
+package pairingheap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads keys or payloads for PairingHeap.snapshot and PairingHeap.restore. The heap does not know how to
+ * turn a K or a V into bytes, so a codec for each is given to it. Codecs for the common types are below.
+ *
+ * @param <T> Type of the values written and read.
+ */
+public interface SnapshotCodec<T> {
+    /**
+     * Writes one value.
+     * @param value The value, may be null if the codec allows it.
+     * @param out Where to write it.
+     * @throws IOException If writing fails.
+     */
+    void write(T value, DataOutput out) throws IOException;
+
+    /**
+     * Reads one value, written by write.
+     * @param in Where to read it from.
+     * @return The value.
+     * @throws IOException If reading fails (or the input ends).
+     */
+    T read(DataInput in) throws IOException;
+
+    //Integer keys or payloads, 4 bytes each, must not be null.
+    SnapshotCodec<Integer> INTEGER = new SnapshotCodec<Integer>(){
+        public void write(Integer value, DataOutput out) throws IOException{
+            out.writeInt(value);
+        }
+
+        public Integer read(DataInput in) throws IOException{
+            return in.readInt();
+        }
+    };
+
+    //Long keys or payloads, 8 bytes each, must not be null.
+    SnapshotCodec<Long> LONG = new SnapshotCodec<Long>(){
+        public void write(Long value, DataOutput out) throws IOException{
+            out.writeLong(value);
+        }
+
+        public Long read(DataInput in) throws IOException{
+            return in.readLong();
+        }
+    };
+
+    //String keys or payloads, may be null (a flag byte, then modified UTF-8 as DataOutput.writeUTF).
+    SnapshotCodec<String> STRING = new SnapshotCodec<String>(){
+        public void write(String value, DataOutput out) throws IOException{
+            out.writeBoolean(value != null);
+            if(value != null){
+                out.writeUTF(value);
+            }
+        }
+
+        public String read(DataInput in) throws IOException{
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+    };
+}
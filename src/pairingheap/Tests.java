@@ -0,0 +1,3814 @@
+package pairingheap;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Array;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Main testing bed for the development of this Pairing Heap.
+ *
+ * Please note: This will fill out the terminal with a lot of data as it just runs the tests all at once.
+ * To see earlier tests please just scroll up to see them.
+ *
+ * Tests: (BRIEF, please refer to java docs or the function headers for more detailed information!)
+ *    1: Basic Test that checks corner cases out.
+ *    2: Test that checks the values of merging two heaps.
+ *    3: Run the PairingHeap against the Built in Java "PriorityQueue" class. Compares values.
+ *    4: Large data input into PairingHeap and Java built in "PriorityQueue". Displays first 5 minimum values from each.
+ *    5: Compare run times between built in Priority Queue and the Pairing Heap.
+ *    6: Dijkstra's Algorithm
+ *    7: The primitive IntPairingHeap against the PairingHeap and the Java built in "PriorityQueue".
+ *    8: Each PairingStrategy against the Java built in "PriorityQueue", with timings.
+ *    9: Dijkstra's Algorithm on a large random graph, re-inserting vs. decreaseKey.
+ *   10: A timeout queue where 90% of the entries are cancelled, tombstones vs. delete.
+ *   11: The same random script of operations against every variant of the heap (generic, int, long, double).
+ *   12: The ConcurrentPairingHeap hammered by several threads at once, checking nothing is lost and the order holds,
+ *       that a throwing comparator neither loses nor duplicates anything, and that the slots of ended threads go.
+ *   13: The MultiQueue with several threads (nothing lost), and its rank error for different numbers of shards.
+ *   14: Building a heap with PairingHeap.of and insertAll vs. the insert loop, checking values, root size and timing.
+ *   15: Bursts of 100 inserts per deleteMin, eager vs. lazy insert for each strategy, checking values and timing.
+ *   16: The OffHeapPairingHeap against the Java built in "PriorityQueue", including meld and close.
+ *   17: Snapshot a heap to a file and restore it, checking values, timings and that damaged files are caught.
+ *   18: Top-K of a stream with the BoundedPairingHeap vs. sorting everything, with timings and allocation.
+ *   19: The hold model with and without node recycling, checking values against the built in PQ and allocation.
+ *   20: Walking a heap in order without changing it, and a parallel scan with its Spliterator.
+ *   21: Merging heaps (ties, empty heaps), melding thousands of heaps with meldAll and building with parallelBuild.
+ *   22: The metrics of a heap (links, comparisons, root degrees, depth), the slow deleteMin JFR event, and their cost.
+ *   23: The PairingHeapScheduler vs. the Java built in "ScheduledThreadPoolExecutor" with 90% of timers cancelled.
+ *   24: kWayMerge of sorted lists, and the ExternalMergeSort of a file against sorting it in memory, with MB/s.
+ *   25: The RadixHeap and LongRadixHeap against the pairing heaps with keys that only go up (Dijkstra's too), timed.
+ *   26: The AdaptivePriorityQueue switching engines as the workload changes, against a plain PairingHeap.
+ *   27: Compacting a churned PairingHeap, all at once, in steps and automatically, with deleteMin timed before/after.
+ *   28: Batch drains (drainMin, drainWhile) of the int and generic heaps against the built in PQ, and their cost.
+ *   29: The ReorderBuffer putting out of order events back in order, with demand, late events and a full buffer.
+ */
+public class Tests {
+    public static void main(String args[]){
+        //Basic test of staple input values being inserted into the PairingHeap and then the iterative
+        //removal of the values. Here I try and probe corner cases!
+        basicTest();
+
+        //Let's try merging two separate pairing heaps together!
+        mergeTwoHeapsTest();
+
+        //Now run it against Java's built in heap and compare values!
+        runAgainstJavaBuiltInHeap();
+
+        //Add 100,000 nodes to the Pairing Heap and 100,000 values to the Java built in PQ. Expect same results fromeach
+        runStressTest();
+
+        //Add 10,000 nodes to the Pairing Heap and 10,000 values to the Java built in PQ.
+        //This time I am going to be taking the literal time it takes to
+        // 1: Insert the nodes
+        // 2: Obtain the first 10 results through delete min.
+        compareRunTimes();
+
+        //Run Dijkstra's Algorithm on sample test data using the built in PQ and this Pairing Heap.
+        //Expect similar results.
+        dijkstraTest();
+
+        //Run the array backed IntPairingHeap against the PairingHeap and the built in PQ. Expect same results.
+        intPairingHeapTest();
+
+        //Run each of the pairing strategies against the built in PQ, checking values and timing them.
+        pairingStrategyTest();
+
+        //Run Dijkstra's Algorithm on a big random graph, with and without decrease key. Expect the same distances.
+        decreaseKeyDijkstraTest();
+
+        //Run a timeout queue where most timers get cancelled, leaving tombstones vs. deleting them.
+        cancellationTest();
+
+        //Run the same script of operations against every variant of the heap. Expect no mismatches.
+        allVariantsTest();
+
+        //Run several threads against the ConcurrentPairingHeap at once. Expect no lost entries and no order mistakes.
+        concurrentPairingHeapTest();
+
+        //Run several threads against the MultiQueue, then measure how far from the minimum its deleteMins are.
+        multiQueueTest();
+
+        //Build big heaps in one go vs. one insert at a time. Expect the same values, and a much smaller root.
+        bulkBuildTest();
+
+        //Run bursts of inserts with a deleteMin in between, with and without lazy insert. Expect the same values.
+        insertBurstTest();
+
+        //Run the off-heap version of the heap against the built in PQ. Expect same results.
+        offHeapTest();
+
+        //Write heaps to a file and read them back. Expect the same values, and errors for damaged files.
+        snapshotTest();
+
+        //Keep the top 1000 of a stream of 10,000,000 keys. Expect the same keys as sorting the whole stream.
+        boundedTopKTest();
+
+        //Run the hold model with node recycling off and on. Expect the same values, and no allocation with it on.
+        recyclingTest();
+
+        //Look at the heap in order without emptying it, and scan it with several threads. Expect the same values.
+        orderedIteratorTest();
+
+        //Merge heaps with equal minimums and empty heaps, then meld and build with several threads. Expect same values.
+        parallelMeldTest();
+
+        //Count the links and root degrees of heaps with a known shape, and record slow deleteMins. Expect exact counts.
+        metricsTest();
+
+        //Schedule timers and cancel most of them, against the built in scheduler. Expect every live timer run once.
+        schedulerTest();
+
+        //Merge sorted lists, and sort a file in runs with little memory. Expect the same values as sorting in memory.
+        externalSortTest();
+
+        //Run the radix heaps against the pairing heaps with keys that only go up. Expect the same entries out.
+        radixHeapTest();
+
+        //Change the workload under the adaptive queue. Expect it to switch engines, and the same entries out.
+        adaptiveQueueTest();
+
+        //Compact heaps that have been churned for a while. Expect the same values out, and faster deleteMins.
+        compactionTest();
+
+        //Take entries out in batches instead of one at a time. Expect the same entries out, in order.
+        drainTest();
+
+        //Put a stream of out of order events back in order. Expect them in order, and no more than asked for.
+        reorderBufferTest();
+
+        //Now display closing message! :) Thanks!
+        System.out.println("Thanks for running the tests :)!  (Sorry about the terminal flood...) ");
+        System.out.println("If any tests didn't make sense, please refer to javadocs, README or comment headers!");
+    }
+
+    /**
+     * Evokes a basic test on the PairingHeap where I attempt to probe corner cases.
+     * Displays results in order of the node's value.
+     *
+     * Demonstrates:
+     *   handles unordered input
+     *   handles MAX_VALUE for Integers
+     *   handles MIN_VALUE for Integers
+     *   handles negative numbers
+     *   handles 0
+     *   handles input in random order.
+     *   handles multiple instances of the same "value" of a node with different payloads.
+     */
+    public static void basicTest(){
+        //State the test.
+        System.out.println("******TEST 1: Basics and Corner Cases ");
+        System.out.println("Expect to see values printed to the screen in ASCENDING order.");
+        System.out.println("These values represent the deleteMin function of the Pairing Heap\n");
+
+        //First, create the nodes for clarity's sake.
+        //The first value in the constructor is the value of the node, which is what the pairingheap operates upon
+        //The second value is the payload, in this instance I made it a String value of the number in english.
+        Node<Integer, String> nodeNegative191 = new Node<>(-191, "-191");
+        Node<Integer, String> node0 = new Node<>(0, "0");
+        Node<Integer, String> node1 = new Node<>(1, "1");
+        Node<Integer, String> node2 = new Node<>(2, "2");
+        Node<Integer, String> node3 = new Node<>(3, "3");
+        Node<Integer, String> node4 = new Node<>(4, "4");
+        Node<Integer, String> node5 = new Node<>(5, "5");
+        Node<Integer, String> node6 = new Node<>(6, "6");
+        Node<Integer, String> node7 = new Node<>(7, "7");
+        Node<Integer, String> node9 = new Node<>(9, "9");
+        Node<Integer, String> node8 = new Node<>(8, "8");
+        Node<Integer, String> node10 = new Node<>(10, "10");
+        Node<Integer, String> strange2 = new Node<>(2, "2 (A different payload!)");
+        Node<Integer, String> hugeNode = new Node<>(Integer.MAX_VALUE, "max value int!!!!");
+        Node<Integer, String> maxNodeAgain = new Node<>(Integer.MAX_VALUE, "max value int AGAIN!");
+        Node<Integer, String> smallestNode = new Node<>(Integer.MIN_VALUE, "min value int!!!!");
+
+        //Create the pairing heap.
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>();
+
+        //Insert values into the pairing heap.
+        //Please note the extremely strange order of input. This is testing the heap will maintain it's properties
+        //in spite of rather... disordered and hectic input ordering.
+        pairingHeap.insert(hugeNode);       //MAXIMUM integer value.
+        pairingHeap.insert(node10);         //10
+        pairingHeap.insert(node7);          //7
+        pairingHeap.insert(node5);          //5
+        pairingHeap.insert(node4);          //4
+        pairingHeap.insert(node9);          //9
+        pairingHeap.insert(node2);          //2
+        pairingHeap.insert(node3);          //3
+        pairingHeap.insert(strange2);       //2 (the SAME value as the other 2, different payload!)
+        pairingHeap.insert(node1);          //1
+        pairingHeap.insert(node0);          //0
+        pairingHeap.insert(nodeNegative191);//-191
+        pairingHeap.insert(smallestNode);   //MINIMUM integer value.
+        pairingHeap.insert(node6);          //6
+        pairingHeap.insert(maxNodeAgain);   //MAXIMUM integer value.
+
+        //Now display the results from the heap.
+        while (pairingHeap.getSize() > 0){
+            Node<Integer, String> delMinNode = pairingHeap.deleteMin();
+            System.out.println(delMinNode.getPayload());
+        }
+    }
+
+    /**
+     * Create two individual pairing heaps, merge them and then show their contents.
+     * First off I will create two heaps, and then display their values individually.
+     *
+     * I will then populate the heaps again (displaying their values removes the values from the heap) with data
+     * and then will merge the heaps. Afterwards I will display the heap contents.
+     */
+    public static void mergeTwoHeapsTest(){
+        //State the test.
+        System.out.println();
+        System.out.println("******TEST 2: Merging Two Heaps ");
+
+        //Make the two heaps.
+        PairingHeap<Integer, String> heap1 = new PairingHeap<>();
+        PairingHeap<Integer, String> heap2 = new PairingHeap<>();
+
+        //Make the Nodes that will show the merge
+        Node<Integer, String> heap1Node1 = new Node<>(8, "heap1node1  (val = 8)");
+        Node<Integer, String> heap1Node2 = new Node<>(101, "heap1node2  (val = 101)");
+        Node<Integer, String> heap1Node3 = new Node<>(Integer.MAX_VALUE, "heap1node3  (val = MaxInt)");
+
+        Node<Integer, String> heap2Node1 = new Node<>(-7, "heap2node1  (val = -7)");
+        Node<Integer, String> heap2Node2 = new Node<>(15, "heap2node2  (val = 15)");
+        Node<Integer, String> heap2Node3 = new Node<>(9999, "heap2node3  (val = 9999)");
+
+        heap1.insert(heap1Node1);
+        heap1.insert(heap1Node2);
+        heap1.insert(heap1Node3);
+
+        System.out.println("-> Heap 1 data");
+        displayHeap(heap1);
+
+        heap2.insert(heap2Node1);
+        heap2.insert(heap2Node2);
+        heap2.insert(heap2Node3);
+
+        System.out.println("-> Heap 2 data");
+        displayHeap(heap2);
+
+        System.out.println("Now repopulating the 2 heaps and will merge...");
+        heap1.insert(heap1Node1);
+        heap1.insert(heap1Node3);
+        heap2.insert(heap2Node1);
+        heap2.insert(heap2Node3);
+
+        System.out.println("-> Merged data:");
+        //Evoke the merge with heap1 and heap 2.
+        heap1.mergeHeaps(heap2);
+
+        //Check the data within...
+        displayHeap(heap1);
+    }
+
+
+    /**
+     * Using the build in Java Priority Queue implementation, I will insert into both the PairingHeap and the
+     * Java Priority Queue a series of values, I will then at whim get the minimum value from each and compare
+     * the values. Sometimes I remove values early, this is to test the resilience of the heap in spite of changes.
+     *
+     * This test will demonstrate the equal output from the Pairing Heap to the rigorously proven Java Priority Queue.
+     */
+    public static void runAgainstJavaBuiltInHeap(){
+        //State the test.
+        System.out.println();
+        System.out.println("******TEST 3: Run against Java Built In Heap! ");
+        System.out.println("Check that the values output are paired and matching.");
+        System.out.println("Note in this test a lot of various values are put in and removed randomly.");
+        System.out.println("As in yes, the output will have -8 \"appear\" before -16 but that is because of how " +
+                "I put in the data not because of the heap!");
+
+        //Create my pairingHeap first.
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>();
+
+
+        //Secondly create a traditional java priority queue.
+        //How to use Java PQ:  Author: Jon Skeet
+        //Source: http://stackoverflow.com/questions/683041/java-how-do-i-use-a-priorityqueue
+        Comparator<Integer> comparator = new SimpleIntComparator(); //In another file, basic java comparator class.
+        PriorityQueue<Integer> builtInHeap = new PriorityQueue<Integer>(10, comparator);
+
+        //Add the value of -8 to each.
+        Node<Integer, String> nodeNeg8 = new Node<>(-8, "-8");
+        pairingHeap.insert(nodeNeg8);
+        builtInHeap.add(-8);
+
+        //Add the value of 0 to each.
+        Node<Integer, String> nodeZero = new Node<>(0, "0");
+        pairingHeap.insert(nodeZero);
+        builtInHeap.add(0);
+
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Add MAXINT value to each
+        //Add 1699 to each
+        //Maxint = 2^31 -1 = 2147483647
+        Node<Integer, String> nodeMaxInt = new Node<>(Integer.MAX_VALUE, "2147483647");
+        pairingHeap.insert(nodeMaxInt);
+        builtInHeap.add(Integer.MAX_VALUE);
+
+        //Add the value of -16 to each.
+        Node<Integer, String> nodeNeg16 = new Node<>(-16, "-16");
+        pairingHeap.insert(nodeNeg16);
+        builtInHeap.add(-16);
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Add -17 to each
+        Node<Integer, String> nodeNeg17 = new Node<>(-17, "-17");
+        pairingHeap.insert(nodeNeg17);
+        builtInHeap.add(-17);
+
+        //Add 16 to each
+        Node<Integer, String> node16 = new Node<>(16, "16");
+        pairingHeap.insert(node16);
+        builtInHeap.add(16);
+
+        //Add 1699 to each
+        Node<Integer, String> node1699 = new Node<>(1699, "1699");
+        pairingHeap.insert(node1699);
+        builtInHeap.add(1699);
+
+        //Add 89 to each
+        Node<Integer, String> node89 = new Node<>(89, "89");
+        pairingHeap.insert(node89);
+        builtInHeap.add(89);
+
+        //Add 178 to each
+        Node<Integer, String> node178 = new Node<>(178, "178");
+        pairingHeap.insert(node178);
+        builtInHeap.add(178);
+
+        //Compare
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Compare again
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Compare yet again
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Compare again..
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Compare again..
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+        //Compare again..
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Compare again..
+        System.out.println("Built in heap value: " + builtInHeap.remove());
+        System.out.println("Pairing heap value : " + pairingHeap.deleteMin().getPayload());
+
+        //Both empty. Test complete.
+    }
+
+    /**
+     * This is the stress test for the Pairing Heap and will be pitted against the typical Java Priority Queue.
+     * However I am intentionally making a fairly large loop and will be hurling values into these two data structures.
+     *
+     * Using the Java built in pseudorandom number generator to populate the data structures.
+     *
+     * Here I put in 100,000 values into the Pairing Heap and then 100,000 values into the java Priority Queue.
+     * The outputs that are paired should match.
+     *
+     */
+    public static void runStressTest(){
+        System.out.println();
+        System.out.println("******TEST 4: Stress test! ");
+
+        //Create the Pairing Heap
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>();
+        Comparator<Integer> comparator = new SimpleIntComparator(); //In another file, basic java comparator class.
+        PriorityQueue<Integer> builtInHeap = new PriorityQueue<Integer>(1000, comparator);
+
+        //Standard way of generating a random number in java.     Author: Scary Wombat
+        //Source: http://stackoverflow.com/questions/20389890/generating-a-random-number-between-1-and-10-java
+        Random rand = new Random();
+        for(int i =0; i < 100000; i++){
+            int randomInt = rand.nextInt();
+//            System.out.println(randomInt);
+
+            Node<Integer, String> node = new Node<>(randomInt, "notUsedHere");
+            pairingHeap.insert(node);
+            builtInHeap.add(randomInt);
+        }
+
+        System.out.println("Display the results of removing the minimum element from each 10 times");
+        System.out.println("  Check the values match following the 0 -> 10");
+        System.out.println("  [Sadly due to the nature of this, these will be large negative numbers]");
+        for(int i = 0; i < 10; i++){
+            System.out.println("Built in heap value " + i + " : " + builtInHeap.remove());
+            System.out.println("Pairing heap value  " + i + " : " + pairingHeap.deleteMin().getValue());
+        }
+    }
+
+    /**
+     * This function will be obtaining the time and comparing the time that my Pairing Heap takes vs.
+     * the built in Java Priority Queue to insert 10,000 nodes and then get delete 5,000 of them.
+     *
+     * NOTE: This is a single cold run, good for a rough idea only. The JMH benchmarks in the benchmarks module are
+     * the proper measurements (warmed up, forked, several heap sizes and key distributions).
+     *
+     * As an added bonus I will print the next value after that 5,000.
+     *
+     * Since my Pairing Heap is Object Orriented I am going to first create all of the Nodes first and keep them
+     * in an ArrayList of Node Objects. I will maintain an ArrayList of equivalent Integers and insert them into
+     * the Priority Queue from Java.
+     *
+     * So we instantly are incurring an O(n) cost, but this helps even out the playing field from creating Node
+     * Objects.
+     */
+    public static void compareRunTimes(){
+        System.out.println();
+        System.out.println("******TEST 5: Compare Running times! ");
+
+        //Create the Pairing Heap
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>();
+        Comparator<Integer> comparator = new SimpleIntComparator(); //In another file, basic java comparator class.
+        PriorityQueue<Integer> builtInHeap = new PriorityQueue<Integer>(1000, comparator);
+
+        //Now create the ArrayList of Node objects that will hold the node objects before the test.
+        ArrayList<Node<Integer, String>> nodeList = new ArrayList<>();
+
+        //Create an equivalent ArrayList of Integers for the built in Java Priority Queue.
+
+        ArrayList<Integer> intList = new ArrayList<>();
+
+        //Standard way of generating a random number in java.     Author: Scary Wombat
+        //Source: http://stackoverflow.com/questions/20389890/generating-a-random-number-between-1-and-10-java
+        Random rand = new Random();
+        for(int i =0; i < 10000; i++){
+            int randomInt = rand.nextInt();
+
+            Node<Integer, String> node = new Node<>(randomInt, "notUsedHere");
+            nodeList.add(node);
+            intList.add(randomInt);
+        }
+
+        System.out.println("The next two values below should also be equal.");
+
+        //Timing procedure in Java here.     Authors: Diastrophism, Eric Leschinski
+        //Source: http://stackoverflow.com/questions/180158/how-do-i-time-a-methods-execution-in-java
+        //Begin the timing for the PairingHeap implementation.
+        long startPairingHeapTime = System.nanoTime();
+        for(int i = 0; i< nodeList.size(); i++){
+            pairingHeap.insert(nodeList.get(i));
+        }
+
+        for(int i = 0; i < 5000; i++){
+            pairingHeap.deleteMin();
+        }
+
+        //Display pairing heap value 4999.
+        System.out.println(pairingHeap.deleteMin().getValue());
+        long endPairingHeapTime = System.nanoTime();
+
+        //Begin the timing for the built in implementation.
+        long startBuiltInTime = System.nanoTime();
+        for(int i = 0; i< nodeList.size(); i++){
+            builtInHeap.add(intList.get(i));
+        }
+        for(int i = 0; i < 5000; i++){
+            builtInHeap.remove();
+        }
+
+        //Display built in heap value 4999.
+        System.out.println(builtInHeap.remove());
+        long endBuiltInTime = System.nanoTime();
+
+        //Get time values for each. (The two timings do not overlap, each one stops before the other starts.)
+        long durationPairingHeap = (endPairingHeapTime - startPairingHeapTime);
+        long durationBuiltIn = (endBuiltInTime - startBuiltInTime);
+
+        //Output results to the terminal.
+        System.out.println("How long each took to run:");
+        System.out.println("Duration of built in    : " + durationBuiltIn/1000000 + " (Milliseconds)");
+        System.out.println("Duration of Pairing Heap: " + durationPairingHeap/1000000 + " (Milliseconds)");
+    }
+
+    /**
+     * This test runs Dijkstra's algorithm done by the Pairing Heap vs. Dijkstra's algorithm done by the
+     * built in Java Priority Queue.
+     *
+     * Results should be the same.
+     *
+     * I will also be timing each.
+     *
+     * Dijkstra's algorithm here is following the CMPUT 204 slides from Martin Mueller's Lecture, 2015.
+     * Note: I am using the version where instead of doing decrease key, I am instead putting the nodes back into the
+     * heaps.
+     *
+     * Sort of a game...
+     * "What is the shortest distance to each of these awesome locations from Main Street?"
+     *
+     * Node guide:
+     *
+     *  Node Key   ---- Location Name -----   Distances in Miles...? (units of distance arbitrary)
+     *     1            Main Street             1 <-> 2 = 7
+     *     2            Burberry Avenue         2 <-> 3 = 18
+     *     3            Falcon Reach            3 <-> 4 = 49
+     *     4            Mystical Forest         4 <-> 3 = 49
+     *     5            Fairy River             5 <-> 1 = 29
+     *     6            Dragon's Den            6 <-> 5 = 6
+     *     7            Magical Portal          7 <-> 6 = 0   (So it is basically directly attached to Dragon's Den).
+     *
+     *  Expecting to start from Main Street the following values:
+     *  MainStreet = 0
+     *  Burberry avenue = 7
+     *  Falcon Reach = 7+18 = 25
+     *  Mystical Forest = 25 + 49 = 74
+     *  Fairy River = 29
+     *  Dragon's Den = 35
+     *  Magical Portal = 35
+     *
+     */
+    public static void dijkstraTest(){
+        System.out.println();
+        System.out.println("******TEST 6: Dijkstra's! ");
+
+        //Here I will "create" the nodes, mostly to demonstrate my idea.
+        //The first value of a Node represents the weight of the node in the Pairing Heap.
+        //The second value is the payload, which identifies the location!
+        Node<Integer, String> nodeOne = new Node<>(1, "Main Street");
+        Node<Integer, String> nodeTwo = new Node<>(2, "Burberry Avenue");
+        Node<Integer, String> nodeThree = new Node<>(3, "Falcon Reach");
+        Node<Integer, String> nodeFour = new Node<>(4, "Mystical Forest");
+        Node<Integer, String> nodeFive = new Node<>(5, "Fairy River");
+        Node<Integer, String> nodeSix = new Node<>(6, "Dragon's Den");
+        Node<Integer, String> nodeSeven = new Node<>(7, "Magical Portal");
+
+        //AdjList representation, follows the guide above in the function header.
+        HashMap<String,ArrayList<String>> adjList = new HashMap<>();
+        adjList.put(nodeOne.getPayload(), new ArrayList<String>());
+        adjList.put(nodeTwo.getPayload(), new ArrayList<String>());
+        adjList.put(nodeThree.getPayload(), new ArrayList<String>());
+        adjList.put(nodeFour.getPayload(), new ArrayList<String>());
+        adjList.put(nodeFive.getPayload(), new ArrayList<String>());
+        adjList.put(nodeSix.getPayload(), new ArrayList<String>());
+        adjList.put(nodeSeven.getPayload(), new ArrayList<String>());
+
+
+        //Get my pairing heap.
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>();
+        //Keep track of visited Nodes.
+        HashMap<String, Boolean> visited = new HashMap<>();
+        //Distances for each node calculated from the source.
+        HashMap<String,Integer> distances = new HashMap<>();
+
+
+
+        //Lengths. I will input them manually. Refer to function header for details.
+        HashMap<String, Integer> lengths = new HashMap<>();
+        //1 <-> 2 = 7
+        String distance12 = nodeOne.getPayload() + nodeTwo.getPayload();
+        lengths.put(distance12, 7);
+        adjList.get(nodeOne.getPayload()).add(nodeTwo.getPayload());
+        //3 <-> 2 = 18
+        String distance23 = nodeTwo.getPayload() + nodeThree.getPayload();
+        lengths.put(distance23, 18);
+        adjList.get(nodeTwo.getPayload()).add(nodeThree.getPayload());
+        //3 <-> 4 = 49
+        String distance34 = nodeThree.getPayload() + nodeFour.getPayload();
+        lengths.put(distance34, 49);
+        adjList.get(nodeThree.getPayload()).add(nodeFour.getPayload());
+        //5 <-> 1 = 29
+        String distance15 = nodeOne.getPayload() + nodeFive.getPayload();
+        lengths.put(distance15, 29);
+        adjList.get(nodeOne.getPayload()).add(nodeFive.getPayload());
+        //6 <-> 5 = 6
+        String distance56 = nodeFive.getPayload() + nodeSix.getPayload();
+        lengths.put(distance56, 6);
+        adjList.get(nodeFive.getPayload()).add(nodeSix.getPayload());
+        //7 <-> 6 = 0   (So it is basically directly attached to Dragon's Den).
+        String distance67 = nodeSix.getPayload() + nodeSeven.getPayload();
+        lengths.put(distance67, 0);
+        adjList.get(nodeSix.getPayload()).add(nodeSeven.getPayload());
+
+
+        //Initialize distances for each location to be 0
+        for(Map.Entry<String,ArrayList<String>> entry: adjList.entrySet()){
+
+            //Source node is node one!
+            if(entry.getKey().equals("Main Street")){
+                visited.put(entry.getKey(),true);
+                distances.put(entry.getKey(),0);
+                pairingHeap.insert(new Node<Integer, String>(0,entry.getKey()));
+            }
+            //All other nodes aren't visited yet, and their distance (for now) is max int.
+            else{
+                visited.put(entry.getKey(), false);
+                distances.put(entry.getKey(), Integer.MAX_VALUE);
+            }
+        }
+
+        //While the pairing heap has a node, continue processing.
+        while(pairingHeap.getSize() > 0){
+            //Get the smallest node.
+            Node<Integer, String> chosenNode = pairingHeap.deleteMin();
+
+            //If it isn't already marked as visited, mark it now.
+            if(!visited.get(chosenNode.getPayload())){
+                visited.put(chosenNode.getPayload(), true);
+            }
+
+            //For each neighbour of the chosen node, process it!
+            for(String neighbour: adjList.get(chosenNode.getPayload())){
+                int lengthOfEdge = lengths.get(chosenNode.getPayload() + neighbour);
+
+                //Now compare distances, and if the distance is improved then replace the old distance.
+                if(distances.get(neighbour) > distances.get(chosenNode.getPayload()) + lengthOfEdge){
+                    distances.put(neighbour, distances.get(chosenNode.getPayload()) + lengthOfEdge);
+                    //Source of slower Dijkstra, here I put a NEW NODE into the Pairing Heap, rather than
+                    //decrease key.
+                    pairingHeap.insert(new Node<Integer, String>(distances.get(chosenNode.getPayload()) + lengthOfEdge,
+                            neighbour));
+                }
+            }
+        }
+
+        //Now display the results of Dijkstra's algorithm WITH the Pairing Heap!
+        System.out.println("Results of running Dijkstra's, please refer to function header or readme for details:");
+        System.out.println(distances);
+        System.out.println("Expected output (We start at \"MainStreet\"):");
+        System.out.println("     *  MainStreet = 0\n" +
+                "     *  Burberry avenue = 7\n" +
+                "     *  Falcon Reach = 7+18 = 25\n" +
+                "     *  Mystical Forest = 25 + 49 = 74\n" +
+                "     *  Fairy River = 29\n" +
+                "     *  Dragon's Den = 35\n" +
+                "     *  Magical Portal = 35");
+    }
+
+    /**
+     * Runs the primitive IntPairingHeap (no Node objects) against the PairingHeap and the Java Priority Queue.
+     *
+     * The same random values go into all three, with deletes mixed in along the way, and every minimum removed is
+     * compared. Two IntPairingHeaps are also melded together halfway through to exercise meld.
+     * At the end the number of mismatches is printed, expect it to be 0.
+     */
+    public static void intPairingHeapTest(){
+        System.out.println();
+        System.out.println("******TEST 7: IntPairingHeap vs. PairingHeap vs. Java Built In Heap! ");
+
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>();
+        IntPairingHeap intHeap = new IntPairingHeap();
+        IntPairingHeap otherIntHeap = new IntPairingHeap();
+        PriorityQueue<Integer> builtInHeap = new PriorityQueue<Integer>(1000, new SimpleIntComparator());
+
+        Random rand = new Random();
+        int mismatches = 0;
+        for(int i = 0; i < 100000; i++){
+            int randomInt = rand.nextInt(1000000);
+            pairingHeap.insert(new Node<Integer, String>(randomInt, "notUsedHere"));
+            builtInHeap.add(randomInt);
+
+            //Half of the values go into a second IntPairingHeap which is melded in later on.
+            if(i % 2 == 0){
+                intHeap.insert(randomInt, i);
+            }
+            else{
+                otherIntHeap.insert(randomInt, i);
+            }
+
+            if(i == 50000){
+                intHeap.meld(otherIntHeap);
+            }
+
+            //Every third insert, remove a minimum from each and compare.
+            if(i % 3 == 0){
+                int expected = builtInHeap.remove();
+                IntPairingHeap source = intHeap;
+                if(otherIntHeap.getSize() > 0
+                        && (intHeap.getSize() == 0 || otherIntHeap.findMinKey() < intHeap.findMinKey())){
+                    source = otherIntHeap;
+                }
+                int intValue = source.getKey(source.findMin());
+                source.deleteMin();
+                int pairingValue = pairingHeap.deleteMin().getValue();
+                if(expected != intValue || expected != pairingValue){
+                    mismatches++;
+                }
+            }
+        }
+
+        intHeap.meld(otherIntHeap);
+        while(builtInHeap.size() > 0){
+            int expected = builtInHeap.remove();
+            int intValue = intHeap.findMinKey();
+            intHeap.deleteMin();
+            int pairingValue = pairingHeap.deleteMin().getValue();
+            if(expected != intValue || expected != pairingValue){
+                mismatches++;
+            }
+        }
+
+        System.out.println("Sizes left over (expect 0 0): " + intHeap.getSize() + " " + pairingHeap.getSize());
+        System.out.println("Number of mismatched minimums (expect 0): " + mismatches);
+    }
+
+    /**
+     * Runs a PairingHeap with each PairingStrategy against the Java Priority Queue.
+     *
+     * 200,000 random values go in first (so the root starts out with a huge number of children, the worst case for
+     * the first delete-min), then the heaps are emptied with a mix of deletes and more inserts. Every minimum
+     * removed is compared against the Java Priority Queue, and each strategy is timed.
+     * Expect 0 mismatches for every strategy.
+     */
+    public static void pairingStrategyTest(){
+        System.out.println();
+        System.out.println("******TEST 8: Pairing Strategies! ");
+
+        for(PairingStrategy strategy: PairingStrategy.values()){
+            PairingHeap<Integer, String> pairingHeap = new PairingHeap<>(strategy);
+            PriorityQueue<Integer> builtInHeap = new PriorityQueue<Integer>(1000, new SimpleIntComparator());
+            Random rand = new Random(42);
+            int mismatches = 0;
+
+            long startTime = System.nanoTime();
+            for(int i = 0; i < 200000; i++){
+                int randomInt = rand.nextInt();
+                pairingHeap.insert(new Node<Integer, String>(randomInt, "notUsedHere"));
+                builtInHeap.add(randomInt);
+            }
+            for(int i = 0; builtInHeap.size() > 0; i++){
+                if(!builtInHeap.remove().equals(pairingHeap.deleteMin().getValue())){
+                    mismatches++;
+                }
+                //Keep inserting for a while so there is churn between the deletes.
+                if(i < 100000 && i % 2 == 0){
+                    int randomInt = rand.nextInt();
+                    pairingHeap.insert(new Node<Integer, String>(randomInt, "notUsedHere"));
+                    builtInHeap.add(randomInt);
+                }
+            }
+            long duration = System.nanoTime() - startTime;
+
+            System.out.println(strategy + ": mismatches (expect 0): " + mismatches + ", size left (expect 0): "
+                    + pairingHeap.getSize() + ", time (both heaps): " + duration/1000000 + " (Milliseconds)");
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm on a large random graph (200,000 locations, 2,000,000 roads) three ways:
+     *   1: PairingHeap, putting a brand new node in whenever a distance improves (the approach of TEST 6).
+     *   2: PairingHeap, using decreaseKey on the node already in the heap.
+     *   3: IntPairingHeap, using decreaseKey on the handle already in the heap.
+     *
+     * The distances found must be the same for all three. For each I print how long it took, how many nodes went into
+     * the heap and the largest the heap got, which shows how much the re-insert approach bloats the heap.
+     */
+    @SuppressWarnings("unchecked")
+    public static void decreaseKeyDijkstraTest(){
+        System.out.println();
+        System.out.println("******TEST 9: Dijkstra's, re-insert vs. decrease key! ");
+
+        int vertexCount = 200000;
+        int edgeCount = 2000000;
+        Random rand = new Random(7);
+
+        //The graph is kept as arrays, edgeStart[v] to edgeStart[v+1] are the roads leaving location v.
+        int[] edgeStart = new int[vertexCount + 1];
+        int[] edgeTarget = new int[edgeCount];
+        int[] edgeLength = new int[edgeCount];
+        for(int i = 0; i < edgeCount; i++){
+            edgeStart[rand.nextInt(vertexCount) + 1]++;
+        }
+        for(int v = 0; v < vertexCount; v++){
+            edgeStart[v + 1] += edgeStart[v];
+        }
+        for(int i = 0; i < edgeCount; i++){
+            edgeTarget[i] = rand.nextInt(vertexCount);
+            edgeLength[i] = rand.nextInt(1000);
+        }
+
+        //1: Re-insert a new node each time a distance improves, skipping stale nodes as they come out.
+        long startTime = System.nanoTime();
+        int[] reinsertDistances = new int[vertexCount];
+        Arrays.fill(reinsertDistances, Integer.MAX_VALUE);
+        boolean[] visited = new boolean[vertexCount];
+        PairingHeap<Integer, String> pairingHeap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        reinsertDistances[0] = 0;
+        pairingHeap.insert(0, "0");
+        int inserts = 1;
+        int largestSize = 1;
+        while(pairingHeap.getSize() > 0){
+            Node<Integer, String> chosenNode = pairingHeap.deleteMin();
+            int v = Integer.parseInt(chosenNode.getPayload());
+            if(visited[v]){
+                continue;
+            }
+            visited[v] = true;
+            for(int e = edgeStart[v]; e < edgeStart[v + 1]; e++){
+                int w = edgeTarget[e];
+                int newDistance = reinsertDistances[v] + edgeLength[e];
+                if(newDistance < reinsertDistances[w]){
+                    reinsertDistances[w] = newDistance;
+                    pairingHeap.insert(newDistance, Integer.toString(w));
+                    inserts++;
+                    largestSize = Math.max(largestSize, pairingHeap.getSize());
+                }
+            }
+        }
+        long reinsertTime = System.nanoTime() - startTime;
+        System.out.println("Re-insert,   PairingHeap   : " + reinsertTime/1000000 + " (Milliseconds), nodes inserted: "
+                + inserts + ", largest heap: " + largestSize);
+
+        //2: PairingHeap with decreaseKey, one node per location at most.
+        startTime = System.nanoTime();
+        int[] distances = new int[vertexCount];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        Node<Integer, String>[] handles = new Node[vertexCount];
+        pairingHeap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        distances[0] = 0;
+        handles[0] = pairingHeap.insert(0, "0");
+        inserts = 1;
+        largestSize = 1;
+        while(pairingHeap.getSize() > 0){
+            Node<Integer, String> chosenNode = pairingHeap.deleteMin();
+            int v = Integer.parseInt(chosenNode.getPayload());
+            handles[v] = null;
+            for(int e = edgeStart[v]; e < edgeStart[v + 1]; e++){
+                int w = edgeTarget[e];
+                int newDistance = distances[v] + edgeLength[e];
+                if(newDistance < distances[w]){
+                    //First time reaching w, put it in. Otherwise it is still in the heap, so decrease it.
+                    if(distances[w] == Integer.MAX_VALUE){
+                        handles[w] = pairingHeap.insert(newDistance, Integer.toString(w));
+                        inserts++;
+                        largestSize = Math.max(largestSize, pairingHeap.getSize());
+                    }
+                    else{
+                        pairingHeap.decreaseKey(handles[w], newDistance);
+                    }
+                    distances[w] = newDistance;
+                }
+            }
+        }
+        long decreaseKeyTime = System.nanoTime() - startTime;
+        System.out.println("DecreaseKey, PairingHeap   : " + decreaseKeyTime/1000000
+                + " (Milliseconds), nodes inserted: " + inserts + ", largest heap: " + largestSize);
+        System.out.println("  Same distances as re-insert (expect true): "
+                + Arrays.equals(distances, reinsertDistances));
+
+        //3: IntPairingHeap with decreaseKey, the payload reference is the location itself.
+        startTime = System.nanoTime();
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        int[] intHandles = new int[vertexCount];
+        IntPairingHeap intHeap = new IntPairingHeap(1024);
+        distances[0] = 0;
+        intHandles[0] = intHeap.insert(0, 0);
+        inserts = 1;
+        largestSize = 1;
+        while(intHeap.getSize() > 0){
+            int v = intHeap.deleteMin();
+            for(int e = edgeStart[v]; e < edgeStart[v + 1]; e++){
+                int w = edgeTarget[e];
+                int newDistance = distances[v] + edgeLength[e];
+                if(newDistance < distances[w]){
+                    if(distances[w] == Integer.MAX_VALUE){
+                        intHandles[w] = intHeap.insert(newDistance, w);
+                        inserts++;
+                        largestSize = Math.max(largestSize, intHeap.getSize());
+                    }
+                    else{
+                        intHeap.decreaseKey(intHandles[w], newDistance);
+                    }
+                    distances[w] = newDistance;
+                }
+            }
+        }
+        long intTime = System.nanoTime() - startTime;
+        System.out.println("DecreaseKey, IntPairingHeap: " + intTime/1000000 + " (Milliseconds), nodes inserted: "
+                + inserts + ", largest heap: " + largestSize);
+        System.out.println("  Same distances as re-insert (expect true): "
+                + Arrays.equals(distances, reinsertDistances));
+    }
+
+    /**
+     * Simulates a timeout queue where 90% of the timers are cancelled before they go off.
+     *
+     * Every tick a new timer is set (deadline = now + up to 100,000 ticks). 90% of the timers are picked to be
+     * cancelled at some tick before their deadline. Every tick the cancellations due are done, and then every timer
+     * whose deadline has passed goes off. This is done three ways:
+     *   1: PairingHeap, cancelled timers are only marked (a tombstone) and skipped when they reach the top.
+     *   2: PairingHeap, cancelled timers are removed with delete.
+     *   3: IntPairingHeap, cancelled timers are removed with delete.
+     *
+     * The number of timers that went off must be the same for all three. The time taken and the largest the heap
+     * got are printed for each, the tombstones make the heap far larger than the number of pending timers.
+     */
+    @SuppressWarnings("unchecked")
+    public static void cancellationTest(){
+        System.out.println();
+        System.out.println("******TEST 10: Timeout queue with 90% cancellations, tombstones vs. delete! ");
+
+        int timerCount = 1000000;
+        for(int approach = 1; approach <= 3; approach++){
+            Random rand = new Random(11);
+            PairingHeap<Integer, String> pairingHeap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+            IntPairingHeap intHeap = new IntPairingHeap(1024);
+            Node<Integer, String>[] handles = new Node[timerCount];
+            int[] intHandles = new int[timerCount];
+            boolean[] cancelled = new boolean[timerCount];
+
+            //The cancellations to do at each tick, as linked lists: cancelHead[tick] is the first timer,
+            //nextCancel[timer] the next one.
+            int[] cancelHead = new int[timerCount + 100000];
+            int[] nextCancel = new int[timerCount];
+            Arrays.fill(cancelHead, -1);
+
+            int fired = 0;
+            int largestSize = 0;
+            long startTime = System.nanoTime();
+            for(int now = 0; now < timerCount; now++){
+                int deadline = now + 1 + rand.nextInt(100000);
+                if(approach == 3){
+                    intHandles[now] = intHeap.insert(deadline, now);
+                }
+                else{
+                    handles[now] = pairingHeap.insert(deadline, Integer.toString(now));
+                }
+                if(rand.nextInt(10) < 9){
+                    int cancelAt = now + rand.nextInt(deadline - now);
+                    nextCancel[now] = cancelHead[cancelAt];
+                    cancelHead[cancelAt] = now;
+                }
+
+                //Cancel everything that is due to be cancelled.
+                for(int timer = cancelHead[now]; timer != -1; timer = nextCancel[timer]){
+                    if(approach == 1){
+                        cancelled[timer] = true;
+                    }
+                    else if(approach == 2){
+                        pairingHeap.delete(handles[timer]);
+                    }
+                    else{
+                        intHeap.delete(intHandles[timer]);
+                    }
+                }
+
+                //Fire everything that is due.
+                if(approach == 3){
+                    largestSize = Math.max(largestSize, intHeap.getSize());
+                    while(intHeap.getSize() > 0 && intHeap.findMinKey() <= now){
+                        intHeap.deleteMin();
+                        fired++;
+                    }
+                }
+                else{
+                    largestSize = Math.max(largestSize, pairingHeap.getSize());
+                    while(pairingHeap.getSize() > 0 && pairingHeap.findMin().getValue() <= now){
+                        int timer = Integer.parseInt(pairingHeap.deleteMin().getPayload());
+                        if(approach == 1 && cancelled[timer]){
+                            continue;
+                        }
+                        fired++;
+                    }
+                }
+            }
+            long duration = System.nanoTime() - startTime;
+
+            String name = approach == 1 ? "Tombstones, PairingHeap   " :
+                    approach == 2 ? "Delete,     PairingHeap   " : "Delete,     IntPairingHeap";
+            System.out.println(name + ": " + duration/1000000 + " (Milliseconds), timers fired: " + fired
+                    + ", largest heap: " + largestSize);
+        }
+    }
+
+    /**
+     * Runs the same random script of operations (insert, decreaseKey, increaseKey, delete, deleteMin) against every
+     * variant of the heap:
+     *   PairingHeap with Integer keys in natural order (each PairingStrategy)
+     *   PairingHeap with Long keys ordered by a Comparator
+     *   IntPairingHeap, LongPairingHeap and DoublePairingHeap
+     *
+     * Every minimum is checked against a TreeSet holding what should be in the heap. The keys in the script are
+     * all different (the low bits are the entry number), so every variant has to remove exactly the same entries.
+     * Expect 0 mismatches for every variant.
+     */
+    public static void allVariantsTest(){
+        System.out.println();
+        System.out.println("******TEST 11: Same script against every variant of the heap! ");
+
+        ArrayList<HeapUnderTest> variants = new ArrayList<>();
+        for(final PairingStrategy strategy: PairingStrategy.values()){
+            variants.add(new HeapUnderTest("PairingHeap<Integer> " + strategy){
+                PairingHeap<Integer, Integer> heap = new PairingHeap<>(strategy);
+                ArrayList<Node<Integer, Integer>> handles = new ArrayList<>();
+                void insert(int id, int key){ handles.add(heap.insert(key, id)); }
+                void decreaseKey(int id, int key){ heap.decreaseKey(handles.get(id), key); }
+                void increaseKey(int id, int key){ heap.increaseKey(handles.get(id), key); }
+                void delete(int id){ heap.delete(handles.get(id)); }
+                long findMinKey(){ return heap.findMin().getValue(); }
+                int deleteMin(){ return heap.deleteMin().getPayload(); }
+                int getSize(){ return heap.getSize(); }
+            });
+        }
+        variants.add(new HeapUnderTest("PairingHeap<Integer> MULTIPASS, lazy insert"){
+            PairingHeap<Integer, Integer> heap = new PairingHeap<>(PairingStrategy.MULTIPASS, null, true);
+            ArrayList<Node<Integer, Integer>> handles = new ArrayList<>();
+            void insert(int id, int key){ handles.add(heap.insert(key, id)); }
+            void decreaseKey(int id, int key){ heap.decreaseKey(handles.get(id), key); }
+            void increaseKey(int id, int key){ heap.increaseKey(handles.get(id), key); }
+            void delete(int id){ heap.delete(handles.get(id)); }
+            long findMinKey(){ return heap.findMin().getValue(); }
+            int deleteMin(){ return heap.deleteMin().getPayload(); }
+            int getSize(){ return heap.getSize(); }
+        });
+        variants.add(new HeapUnderTest("PairingHeap<Long> with Comparator"){
+            PairingHeap<Long, Integer> heap = new PairingHeap<>(PairingStrategy.TWO_PASS, new Comparator<Long>(){
+                public int compare(Long n1, Long n2){
+                    return n1.compareTo(n2);
+                }
+            });
+            ArrayList<Node<Long, Integer>> handles = new ArrayList<>();
+            void insert(int id, int key){ handles.add(heap.insert((long) key, id)); }
+            void decreaseKey(int id, int key){ heap.decreaseKey(handles.get(id), (long) key); }
+            void increaseKey(int id, int key){ heap.increaseKey(handles.get(id), (long) key); }
+            void delete(int id){ heap.delete(handles.get(id)); }
+            long findMinKey(){ return heap.findMin().getValue(); }
+            int deleteMin(){ return heap.deleteMin().getPayload(); }
+            int getSize(){ return heap.getSize(); }
+        });
+        variants.add(new HeapUnderTest("IntPairingHeap"){
+            IntPairingHeap heap = new IntPairingHeap();
+            int[] handles = new int[SCRIPT_LENGTH];
+            void insert(int id, int key){ handles[id] = heap.insert(key, id); }
+            void decreaseKey(int id, int key){ heap.decreaseKey(handles[id], key); }
+            void increaseKey(int id, int key){ heap.increaseKey(handles[id], key); }
+            void delete(int id){ heap.delete(handles[id]); }
+            long findMinKey(){ return heap.findMinKey(); }
+            int deleteMin(){ return heap.deleteMin(); }
+            int getSize(){ return heap.getSize(); }
+        });
+        variants.add(new HeapUnderTest("LongPairingHeap"){
+            LongPairingHeap heap = new LongPairingHeap();
+            int[] handles = new int[SCRIPT_LENGTH];
+            void insert(int id, int key){ handles[id] = heap.insert(key, id); }
+            void decreaseKey(int id, int key){ heap.decreaseKey(handles[id], key); }
+            void increaseKey(int id, int key){ heap.increaseKey(handles[id], key); }
+            void delete(int id){ heap.delete(handles[id]); }
+            long findMinKey(){ return heap.findMinKey(); }
+            int deleteMin(){ return heap.deleteMin(); }
+            int getSize(){ return heap.getSize(); }
+        });
+        variants.add(new HeapUnderTest("DoublePairingHeap"){
+            DoublePairingHeap heap = new DoublePairingHeap();
+            int[] handles = new int[SCRIPT_LENGTH];
+            void insert(int id, int key){ handles[id] = heap.insert(key, id); }
+            void decreaseKey(int id, int key){ heap.decreaseKey(handles[id], key); }
+            void increaseKey(int id, int key){ heap.increaseKey(handles[id], key); }
+            void delete(int id){ heap.delete(handles[id]); }
+            long findMinKey(){ return (long) heap.findMinKey(); }
+            int deleteMin(){ return heap.deleteMin(); }
+            int getSize(){ return heap.getSize(); }
+        });
+
+        for(HeapUnderTest variant: variants){
+            System.out.println(variant.name + ": mismatches (expect 0): " + runScript(variant, 2016));
+        }
+    }
+
+    //Threads and operations per thread used by TEST 12, the entry number fits in the low 20 bits of the key.
+    private static final int CONCURRENT_THREADS = 8;
+    private static final int CONCURRENT_OPERATIONS = 100000;
+    private static final int CONCURRENT_ID_BITS = 20;
+
+    /**
+     * Runs several threads against one ConcurrentPairingHeap at once, checking what can be checked from the outside
+     * of a linearizable priority queue:
+     *
+     *   Mixed phase: every thread inserts and deletes at random. Afterwards the heap is emptied, and every key that
+     *   went in must have come out exactly once.
+     *   Delete phase: the heap is filled by all the threads, then they all deleteMin until it is empty. Every
+     *   operation happens at one point in one global order, so the keys any single thread gets must be increasing,
+     *   and again every key must come out exactly once.
+     *
+     *   Failure phase: a comparator that throws on some keys. First the same few operations on one thread (insert 5,
+     *   insert 13 which throws, insert 7, insert 3), then every thread inserting with every 50th key a bad one. An
+     *   insert that throws may take the other inserts of its batch down with it, so what has to hold is that exactly
+     *   the inserts that returned normally come out of the heap, each once.
+     *   Slot phase: 2,000 short lived threads (8 at a time) insert 10 keys each, then the main thread empties the
+     *   heap. Every key must come out once, and the slots of the ended threads must have been unlinked along the way
+     *   (at most 2 * 16 slots left by a sweep, plus the 8 threads at a time).
+     *
+     * The keys are all different (the low bits are the entry number) so a duplicate or a missing key is easy to spot.
+     * The mixed phase is also timed against a PairingHeap behind one lock. Flat combining only pays off once there
+     * are more cores fighting over the lock than it can feed, on a machine with a few cores expect the lock to win
+     * (ConcurrentHeapBenchmark in the benchmarks module is the real measurement).
+     * Expect 0 mistakes in every phase.
+     */
+    public static void concurrentPairingHeapTest(){
+        System.out.println();
+        System.out.println("******TEST 12: Several threads against the ConcurrentPairingHeap! ");
+
+        //Mixed phase, against the flat combining heap and against a heap behind one lock.
+        for(int approach = 1; approach <= 2; approach++){
+            final ConcurrentPairingHeap<Long, Integer> concurrentHeap = new ConcurrentPairingHeap<>();
+            final PairingHeap<Long, Integer> lockedHeap = new PairingHeap<>();
+            final boolean combining = approach == 1;
+            final long[][] removed = new long[CONCURRENT_THREADS][CONCURRENT_OPERATIONS];
+            final int[] removedCount = new int[CONCURRENT_THREADS];
+
+            Thread[] threads = new Thread[CONCURRENT_THREADS];
+            for(int t = 0; t < CONCURRENT_THREADS; t++){
+                final int thread = t;
+                threads[t] = new Thread(() -> {
+                    Random rand = new Random(thread);
+                    for(int i = 0; i < CONCURRENT_OPERATIONS; i++){
+                        //Insert with the entry number thread * CONCURRENT_OPERATIONS + i, or delete the minimum.
+                        if(rand.nextInt(3) < 2){
+                            long key = ((long) rand.nextInt(1 << 20) << CONCURRENT_ID_BITS)
+                                    | (thread * CONCURRENT_OPERATIONS + i);
+                            if(combining){
+                                concurrentHeap.insert(key, thread);
+                            }
+                            else{
+                                synchronized(lockedHeap){
+                                    lockedHeap.insert(key, thread);
+                                }
+                            }
+                        }
+                        else{
+                            Node<Long, Integer> min;
+                            if(combining){
+                                min = concurrentHeap.deleteMin();
+                            }
+                            else{
+                                synchronized(lockedHeap){
+                                    min = lockedHeap.getSize() > 0 ? lockedHeap.deleteMin() : null;
+                                }
+                            }
+                            if(min != null){
+                                removed[thread][removedCount[thread]++] = min.getValue();
+                            }
+                        }
+                    }
+                });
+            }
+
+            long startTime = System.nanoTime();
+            runThreads(threads);
+            long duration = System.nanoTime() - startTime;
+
+            //Empty what is left and count every entry that came out.
+            int[] seen = new int[CONCURRENT_THREADS * CONCURRENT_OPERATIONS];
+            for(int t = 0; t < CONCURRENT_THREADS; t++){
+                for(int i = 0; i < removedCount[t]; i++){
+                    seen[(int) (removed[t][i] & ((1 << CONCURRENT_ID_BITS) - 1))]++;
+                }
+            }
+            while(combining ? concurrentHeap.getSize() > 0 : lockedHeap.getSize() > 0){
+                long key = combining ? concurrentHeap.deleteMin().getValue() : lockedHeap.deleteMin().getValue();
+                seen[(int) (key & ((1 << CONCURRENT_ID_BITS) - 1))]++;
+            }
+            int mistakes = countInsertMistakes(seen, true);
+
+            String name = combining ? "Flat combining   " : "PairingHeap, lock";
+            System.out.println(name + ": mixed phase " + duration/1000000 + " (Milliseconds), mistakes (expect 0): "
+                    + mistakes);
+        }
+
+        //Delete phase, fill from every thread at once then empty from every thread at once.
+        final ConcurrentPairingHeap<Long, Integer> heap = new ConcurrentPairingHeap<>(PairingStrategy.TWO_PASS, null);
+        final long[][] removed = new long[CONCURRENT_THREADS][CONCURRENT_THREADS * CONCURRENT_OPERATIONS];
+        final int[] removedCount = new int[CONCURRENT_THREADS];
+        final int[] outOfOrder = new int[CONCURRENT_THREADS];
+
+        Thread[] fillers = new Thread[CONCURRENT_THREADS];
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            final int thread = t;
+            fillers[t] = new Thread(() -> {
+                Random rand = new Random(100 + thread);
+                for(int i = 0; i < CONCURRENT_OPERATIONS; i++){
+                    heap.insert(((long) rand.nextInt(1 << 20) << CONCURRENT_ID_BITS)
+                            | (thread * CONCURRENT_OPERATIONS + i), thread);
+                }
+            });
+        }
+        runThreads(fillers);
+
+        Thread[] drainers = new Thread[CONCURRENT_THREADS];
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            final int thread = t;
+            drainers[t] = new Thread(() -> {
+                Node<Long, Integer> min;
+                while((min = heap.deleteMin()) != null){
+                    int count = removedCount[thread];
+                    if(count > 0 && removed[thread][count - 1] >= min.getValue()){
+                        outOfOrder[thread]++;
+                    }
+                    removed[thread][count] = min.getValue();
+                    removedCount[thread] = count + 1;
+                }
+            });
+        }
+        runThreads(drainers);
+
+        int[] seen = new int[CONCURRENT_THREADS * CONCURRENT_OPERATIONS];
+        int mistakes = heap.getSize();
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            mistakes += outOfOrder[t];
+            for(int i = 0; i < removedCount[t]; i++){
+                seen[(int) (removed[t][i] & ((1 << CONCURRENT_ID_BITS) - 1))]++;
+            }
+        }
+        mistakes += countInsertMistakes(seen, false);
+        System.out.println("Flat combining   : delete phase, mistakes (expect 0): " + mistakes);
+
+        //Failure phase, first on one thread.
+        final ConcurrentPairingHeap<Integer, String> small = new ConcurrentPairingHeap<>(PairingStrategy.TWO_PASS,
+                (a, b) -> {
+                    if(a == 13 || b == 13){
+                        throw new IllegalArgumentException("Sorry, no 13s!");
+                    }
+                    return Integer.compare(a, b);
+                });
+        int thrown = 0;
+        small.insert(5, "five");
+        try{
+            small.insert(13, "thirteen");
+        }
+        catch(IllegalArgumentException e){
+            thrown++;
+        }
+        small.insert(7, "seven");
+        small.insert(3, "three");
+        StringBuilder out = new StringBuilder();
+        Node<Integer, String> min;
+        while((min = small.deleteMin()) != null){
+            out.append(min.getValue()).append(' ');
+        }
+        System.out.println("Flat combining   : one thread, thrown (expect 1): " + thrown
+                + ", out (expect 3 5 7): " + out.toString().trim());
+
+        //Then on every thread, with every 50th entry a bad key.
+        final int mask = (1 << CONCURRENT_ID_BITS) - 1;
+        final ConcurrentPairingHeap<Long, Integer> failing = new ConcurrentPairingHeap<>(PairingStrategy.TWO_PASS,
+                (a, b) -> {
+                    if((a & mask) % 50 == 13 || (b & mask) % 50 == 13){
+                        throw new IllegalArgumentException("Sorry, a bad key!");
+                    }
+                    return Long.compare(a, b);
+                });
+        //A key that stays in for the whole phase, so that a bad key never goes into an empty heap (which needs no
+        //comparison, and would be let in).
+        failing.insert(-1L, -1);
+        final boolean[] inserted = new boolean[CONCURRENT_THREADS * CONCURRENT_OPERATIONS];
+        final int[] failed = new int[CONCURRENT_THREADS];
+        Thread[] inserters = new Thread[CONCURRENT_THREADS];
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            final int thread = t;
+            inserters[t] = new Thread(() -> {
+                Random rand = new Random(300 + thread);
+                for(int i = 0; i < CONCURRENT_OPERATIONS; i++){
+                    int id = thread * CONCURRENT_OPERATIONS + i;
+                    try{
+                        failing.insert(((long) rand.nextInt(1 << 20) << CONCURRENT_ID_BITS) | id, thread);
+                        inserted[id] = true;
+                    }
+                    catch(IllegalArgumentException e){
+                        failed[thread]++;
+                    }
+                }
+            });
+        }
+        runThreads(inserters);
+
+        //Every insert that returned must come out once, every one that threw not at all.
+        seen = new int[CONCURRENT_THREADS * CONCURRENT_OPERATIONS];
+        int expectedSize = 1;
+        for(boolean in: inserted){
+            expectedSize += in ? 1 : 0;
+        }
+        mistakes = Math.abs(failing.getSize() - expectedSize);
+        Node<Long, Integer> next;
+        while((next = failing.deleteMin()) != null){
+            if(next.getValue() != -1L){
+                seen[(int) (next.getValue() & mask)]++;
+            }
+        }
+        int failures = 0;
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            failures += failed[t];
+        }
+        for(int id = 0; id < seen.length; id++){
+            if(seen[id] != (inserted[id] ? 1 : 0)){
+                mistakes++;
+            }
+        }
+        System.out.println("Flat combining   : failure phase, " + failures + " inserts threw (at least "
+                + seen.length / 50 + "), mistakes (expect 0): " + mistakes);
+
+        //Slot phase, a new thread for every few operations.
+        final ConcurrentPairingHeap<Long, Integer> churned = new ConcurrentPairingHeap<>();
+        final int rounds = 250;
+        final int perThread = 10;
+        int mostSlots = 0;
+        for(int round = 0; round < rounds; round++){
+            final int first = round * CONCURRENT_THREADS;
+            Thread[] shortLived = new Thread[CONCURRENT_THREADS];
+            for(int t = 0; t < CONCURRENT_THREADS; t++){
+                final int thread = first + t;
+                shortLived[t] = new Thread(() -> {
+                    for(int i = 0; i < perThread; i++){
+                        churned.insert((long) thread * perThread + i, thread);
+                    }
+                });
+            }
+            runThreads(shortLived);
+            mostSlots = Math.max(mostSlots, churned.getSlotCount());
+        }
+        seen = new int[rounds * CONCURRENT_THREADS * perThread];
+        while((next = churned.deleteMin()) != null){
+            seen[(int) (long) next.getValue()]++;
+        }
+        mistakes = 0;
+        for(int count: seen){
+            mistakes += (count == 1) ? 0 : 1;
+        }
+        System.out.println("Flat combining   : slot phase, " + rounds * CONCURRENT_THREADS + " threads, most slots"
+                + " at once (expect at most " + (2 * 16 + CONCURRENT_THREADS) + "): " + mostSlots
+                + ", mistakes (expect 0): " + mistakes);
+    }
+
+    /**
+     * Tests the MultiQueue in two parts.
+     *
+     * First several threads insert into one MultiQueue while deleting every other time, then whatever is left is
+     * emptied. Every key that went in must have come out exactly once (keys are all different, like TEST 12).
+     *
+     * Then the rank error, on one thread: a random permutation of the keys 0..n-1 is inserted and the queue is
+     * emptied. For every deleteMin the real rank error (how many keys still in the queue are smaller than the one
+     * popped) is worked out with a Fenwick tree over the keys, next to the sampled one the MultiQueue reports itself
+     * (the number of shards with a smaller minimum, a lower bound). With 1 shard both must be 0, with more shards
+     * they grow with the number of shards.
+     */
+    public static void multiQueueTest(){
+        System.out.println();
+        System.out.println("******TEST 13: MultiQueue, several threads and the rank error! ");
+
+        final MultiQueue<Long, Integer> queue = new MultiQueue<>(2 * CONCURRENT_THREADS, PairingStrategy.MULTIPASS,
+                null);
+        final long[][] removed = new long[CONCURRENT_THREADS][CONCURRENT_OPERATIONS];
+        final int[] removedCount = new int[CONCURRENT_THREADS];
+        Thread[] threads = new Thread[CONCURRENT_THREADS];
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                Random rand = new Random(200 + thread);
+                for(int i = 0; i < CONCURRENT_OPERATIONS; i++){
+                    queue.insert(((long) rand.nextInt(1 << 20) << CONCURRENT_ID_BITS)
+                            | (thread * CONCURRENT_OPERATIONS + i), thread);
+                    if(i % 2 == 1){
+                        Node<Long, Integer> min = queue.deleteMin();
+                        if(min != null){
+                            removed[thread][removedCount[thread]++] = min.getValue();
+                        }
+                    }
+                }
+            });
+        }
+        long startTime = System.nanoTime();
+        runThreads(threads);
+        long duration = System.nanoTime() - startTime;
+
+        int[] seen = new int[CONCURRENT_THREADS * CONCURRENT_OPERATIONS];
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            for(int i = 0; i < removedCount[t]; i++){
+                seen[(int) (removed[t][i] & ((1 << CONCURRENT_ID_BITS) - 1))]++;
+            }
+        }
+        Node<Long, Integer> min;
+        while((min = queue.deleteMin()) != null){
+            seen[(int) (min.getValue() & ((1 << CONCURRENT_ID_BITS) - 1))]++;
+        }
+        System.out.println("MultiQueue, " + queue.getShardCount() + " shards: " + duration/1000000
+                + " (Milliseconds), mistakes (expect 0): " + countInsertMistakes(seen, false));
+
+        //Rank error for a few numbers of shards.
+        int n = 200000;
+        Random rand = new Random(2016);
+        int[] keys = new int[n];
+        for(int i = 0; i < n; i++){
+            keys[i] = i;
+        }
+        for(int i = n - 1; i > 0; i--){
+            int j = rand.nextInt(i + 1);
+            int swap = keys[i];
+            keys[i] = keys[j];
+            keys[j] = swap;
+        }
+        for(int shardCount = 1; shardCount <= 64; shardCount *= 4){
+            MultiQueue<Integer, Integer> rankQueue = new MultiQueue<>(shardCount, PairingStrategy.MULTIPASS, null);
+            rankQueue.setRankErrorSampling(1);
+
+            //fenwick[i] counts the keys still in the queue, as a Fenwick (binary indexed) tree over 1..n.
+            int[] fenwick = new int[n + 1];
+            for(int i = 0; i < n; i++){
+                rankQueue.insert(keys[i], i);
+                for(int f = keys[i] + 1; f <= n; f += f & -f){
+                    fenwick[f]++;
+                }
+            }
+            long rankTotal = 0;
+            long rankMax = 0;
+            for(int i = 0; i < n; i++){
+                int key = rankQueue.deleteMin().getValue();
+                long rank = 0;
+                for(int f = key; f > 0; f -= f & -f){
+                    rank += fenwick[f];
+                }
+                for(int f = key + 1; f <= n; f += f & -f){
+                    fenwick[f]--;
+                }
+                rankTotal += rank;
+                rankMax = Math.max(rankMax, rank);
+            }
+            System.out.println(shardCount + " shards: real rank error mean " + (double) rankTotal / n + " max "
+                    + rankMax + ", sampled mean " + rankQueue.getMeanRankError() + " max "
+                    + rankQueue.getMaxRankError());
+        }
+    }
+
+    /**
+     * Builds a heap of 1,000,000 random keys three ways, then empties each against the built in PQ:
+     *   the insert loop of TEST 4 (one insert per key)
+     *   PairingHeap.of(int[] keys, payloads)
+     *   insertAll on a list of Nodes
+     *
+     * The insert loop leaves a large share of the nodes as children of the root (every node that came in bigger than
+     * the root at the time), the bulk builds pair them up in rounds so the root only has about log2(1,000,000) = 20
+     * children. The time to build the heap and do the first deleteMin (which has to pair up all the children of the
+     * root) is printed for each, a single cold run (see BulkBuildBenchmark for the proper measurement).
+     * Expect 0 mismatches for each.
+     */
+    public static void bulkBuildTest(){
+        System.out.println();
+        System.out.println("******TEST 14: Bulk heap construction vs. the insert loop! ");
+
+        int n = 1000000;
+        Random rand = new Random(2016);
+        int[] keys = new int[n];
+        String[] payloads = new String[n];
+        for(int i = 0; i < n; i++){
+            keys[i] = rand.nextInt();
+            payloads[i] = "notUsedHere";
+        }
+
+        for(int approach = 1; approach <= 3; approach++){
+            long startTime = System.nanoTime();
+            PairingHeap<Integer, String> pairingHeap;
+            if(approach == 1){
+                pairingHeap = new PairingHeap<>();
+                for(int i = 0; i < n; i++){
+                    pairingHeap.insert(new Node<>(keys[i], payloads[i]));
+                }
+            }
+            else if(approach == 2){
+                pairingHeap = PairingHeap.of(keys, payloads);
+            }
+            else{
+                ArrayList<Node<Integer, String>> nodes = new ArrayList<>(n);
+                for(int i = 0; i < n; i++){
+                    nodes.add(new Node<>(keys[i], payloads[i]));
+                }
+                pairingHeap = new PairingHeap<>();
+                pairingHeap.insertAll(nodes);
+            }
+            int rootChildren = pairingHeap.findMin().getChildList().size();
+            Node<Integer, String> first = pairingHeap.deleteMin();
+            long duration = System.nanoTime() - startTime;
+
+            PriorityQueue<Integer> builtInHeap = new PriorityQueue<>(n);
+            for(int key: keys){
+                builtInHeap.add(key);
+            }
+            int mismatches = (first.getValue() == builtInHeap.remove().intValue()) ? 0 : 1;
+            while(builtInHeap.size() > 0){
+                if(pairingHeap.deleteMin().getValue() != builtInHeap.remove().intValue()){
+                    mismatches++;
+                }
+            }
+            if(pairingHeap.getSize() != 0){
+                mismatches++;
+            }
+
+            String name = approach == 1 ? "Insert loop        " : approach == 2 ? "PairingHeap.of     " : "insertAll          ";
+            System.out.println(name + ": build + first deleteMin " + duration/1000000 + " (Milliseconds), children of"
+                    + " the root: " + rootChildren + ", mismatches (expect 0): " + mismatches);
+        }
+    }
+
+    /**
+     * Ingest bursts: 100 inserts of random keys, then one deleteMin, 20,000 times over (2,000,000 inserts), for each
+     * strategy with eager insert (linked to the root right away) and lazy insert (buffered until the deleteMin).
+     * Every deleteMin is checked against the built in PQ, and the time is printed for each.
+     * Expect 0 mismatches for each.
+     */
+    public static void insertBurstTest(){
+        System.out.println();
+        System.out.println("******TEST 15: Insert bursts, eager vs. lazy insert! ");
+
+        for(PairingStrategy strategy: new PairingStrategy[]{PairingStrategy.TWO_PASS, PairingStrategy.MULTIPASS}){
+            for(int lazy = 0; lazy <= 1; lazy++){
+                PairingHeap<Integer, Integer> pairingHeap = new PairingHeap<>(strategy, null, lazy == 1);
+                PriorityQueue<Integer> builtInHeap = new PriorityQueue<>();
+                Random rand = new Random(2016);
+                int mismatches = 0;
+
+                long startTime = System.nanoTime();
+                for(int burst = 0; burst < 20000; burst++){
+                    for(int i = 0; i < 100; i++){
+                        int key = rand.nextInt();
+                        pairingHeap.insert(key, i);
+                        builtInHeap.add(key);
+                    }
+                    if(pairingHeap.deleteMin().getValue().intValue() != builtInHeap.remove()){
+                        mismatches++;
+                    }
+                }
+                long duration = System.nanoTime() - startTime;
+
+                System.out.println(strategy + (lazy == 1 ? ", lazy insert " : ", eager insert")
+                        + ": " + duration/1000000 + " (Milliseconds, PQ included), mismatches (expect 0): "
+                        + mismatches);
+            }
+        }
+    }
+
+    /**
+     * Runs the OffHeapPairingHeap against the built in PQ:
+     *   1,000,000 random inserts and deleteMins into one heap (the payload is the key plus one, to check payloads
+     *   come back with their keys).
+     *   Two heaps of 300,000 entries each (more than one chunk), melded and emptied.
+     *   close(), after which the heap is empty and refuses inserts, and melds (even of an empty heap).
+     * Expect 0 mismatches in each part.
+     */
+    public static void offHeapTest(){
+        System.out.println();
+        System.out.println("******TEST 16: OffHeapPairingHeap vs. the built in PQ! ");
+
+        Random rand = new Random(2016);
+        OffHeapPairingHeap offHeap = new OffHeapPairingHeap();
+        PriorityQueue<Long> builtInHeap = new PriorityQueue<>();
+        int mismatches = 0;
+        for(int i = 0; i < 1000000; i++){
+            if(rand.nextInt(3) < 2 || builtInHeap.size() == 0){
+                long key = rand.nextLong() >> 1;
+                offHeap.insert(key, key + 1);
+                builtInHeap.add(key);
+            }
+            else{
+                long key = builtInHeap.remove();
+                if(offHeap.findMinKey() != key || offHeap.deleteMin() != key + 1){
+                    mismatches++;
+                }
+            }
+        }
+        if(offHeap.getSize() != builtInHeap.size()){
+            mismatches++;
+        }
+        System.out.println("Random inserts and deleteMins, mismatches (expect 0): " + mismatches
+                + ", off-heap memory: " + offHeap.getAllocatedBytes()/(1024*1024) + " MB");
+
+        mismatches = 0;
+        OffHeapPairingHeap other = new OffHeapPairingHeap();
+        for(int i = 0; i < 300000; i++){
+            long key = rand.nextLong() >> 1;
+            other.insert(key, key + 1);
+            builtInHeap.add(key);
+        }
+        offHeap.meld(other);
+        if(other.getSize() != 0 || offHeap.getSize() != builtInHeap.size()){
+            mismatches++;
+        }
+        while(builtInHeap.size() > 0){
+            long key = builtInHeap.remove();
+            if(offHeap.deleteMin() != key + 1){
+                mismatches++;
+            }
+        }
+        System.out.println("Meld and empty, mismatches (expect 0): " + mismatches);
+
+        offHeap.close();
+        other.close();
+        System.out.print("After close (expect an error): ");
+        int handle = offHeap.insert(1, 2);
+        System.out.println("Closed heap, size " + offHeap.getSize() + " (expect 0), insert gave " + handle
+                + " (expect " + OffHeapPairingHeap.NIL + "), memory " + offHeap.getAllocatedBytes() + " (expect 0)");
+        System.out.print("Meld of an empty heap into a closed heap (expect an error): ");
+        OffHeapPairingHeap empty = new OffHeapPairingHeap();
+        System.out.println("Closed heap, meld gave " + offHeap.meld(empty) + " (expect " + OffHeapPairingHeap.NIL
+                + ")");
+        empty.close();
+    }
+
+    /**
+     * Snapshots and restores:
+     *   A heap of 1,000,000 random keys with payloads, after some deleteMins (so the tree has a real shape), is
+     *   written and read back. Both heaps are then emptied side by side, the keys and payloads must match. The time
+     *   to restore is printed next to the time to build the same heap with inserts.
+     *   An AUXILIARY heap with inserts still waiting on its auxiliary list, with String payloads (some null).
+     *   An empty heap.
+     *   A truncated file and a file with one byte changed, both must be refused with an IOException.
+     * Expect 0 mismatches, and both damaged files caught.
+     */
+    public static void snapshotTest(){
+        System.out.println();
+        System.out.println("******TEST 17: Snapshot and restore! ");
+
+        Path file = null;
+        try{
+            file = Files.createTempFile("pairingheap", ".snapshot");
+            Random rand = new Random(2016);
+
+            int n = 1000000;
+            int[] keys = new int[n];
+            long startTime = System.nanoTime();
+            PairingHeap<Integer, Integer> heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+            for(int i = 0; i < n; i++){
+                keys[i] = rand.nextInt();
+                heap.insert(keys[i], i);
+            }
+            long insertTime = System.nanoTime() - startTime;
+            for(int i = 0; i < 1000; i++){
+                heap.deleteMin();
+            }
+
+            startTime = System.nanoTime();
+            heap.snapshot(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+            long snapshotTime = System.nanoTime() - startTime;
+            startTime = System.nanoTime();
+            PairingHeap<Integer, Integer> restored = PairingHeap.restore(file, SnapshotCodec.INTEGER,
+                    SnapshotCodec.INTEGER);
+            long restoreTime = System.nanoTime() - startTime;
+            System.out.println("1,000,000 keys: inserts " + insertTime/1000000 + ", snapshot " + snapshotTime/1000000
+                    + ", restore " + restoreTime/1000000 + " (Milliseconds), file " + Files.size(file)/1024 + " KB");
+            System.out.println("Children of the root, original " + heap.findMin().getChildList().size()
+                    + ", restored " + restored.findMin().getChildList().size() + " (expect the same)");
+            System.out.println("Mismatches (expect 0): " + compareByEmptying(heap, restored));
+
+            PairingHeap<Integer, String> auxiliaryHeap = new PairingHeap<>(PairingStrategy.AUXILIARY);
+            for(int i = 0; i < 1000; i++){
+                auxiliaryHeap.insert(rand.nextInt(100000), i % 3 == 0 ? null : "payload " + i);
+                if(i % 100 == 99){
+                    auxiliaryHeap.deleteMin();
+                }
+            }
+            for(int i = 0; i < 50; i++){
+                auxiliaryHeap.insert(rand.nextInt(100000), "waiting " + i);
+            }
+            auxiliaryHeap.snapshot(file, SnapshotCodec.INTEGER, SnapshotCodec.STRING);
+            PairingHeap<Integer, String> restoredAuxiliary = PairingHeap.restore(file, SnapshotCodec.INTEGER,
+                    SnapshotCodec.STRING);
+            System.out.println("AUXILIARY heap, strategy restored as " + restoredAuxiliary.getStrategy()
+                    + ", mismatches (expect 0): " + compareByEmptying(auxiliaryHeap, restoredAuxiliary));
+
+            new PairingHeap<Integer, Integer>().snapshot(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+            System.out.println("Empty heap, restored size (expect 0): "
+                    + PairingHeap.restore(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER).getSize());
+
+            //The reader of restore is a whole DataInput, readLine included: it must read lines like RandomAccessFile.
+            Files.write(file, "one\ntwo\r\n\r\nthree\rfour".getBytes(java.nio.charset.StandardCharsets.ISO_8859_1));
+            List<String> lines = new ArrayList<>();
+            List<String> expectedLines = new ArrayList<>();
+            try(RandomAccessFile raw = new RandomAccessFile(file.toFile(), "r")){
+                MappedDataInput in = new MappedDataInput(raw.getChannel(), raw.length());
+                for(String line = in.readLine(); line != null; line = in.readLine()){
+                    lines.add(line);
+                }
+                for(String line = raw.readLine(); line != null; line = raw.readLine()){
+                    expectedLines.add(line);
+                }
+            }
+            System.out.println("readLine of the reader " + lines + ", of RandomAccessFile " + expectedLines
+                    + " (expect the same)");
+
+            //Damage the file two ways, both must be caught.
+            heap = new PairingHeap<>();
+            for(int i = 0; i < 1000; i++){
+                heap.insert(rand.nextInt(), i);
+            }
+            for(int damage = 1; damage <= 2; damage++){
+                heap.snapshot(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+                try(RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")){
+                    if(damage == 1){
+                        raw.setLength(raw.length() - 100);
+                    }
+                    else{
+                        raw.seek(raw.length() / 2);
+                        int b = raw.read();
+                        raw.seek(raw.length() / 2);
+                        raw.write(b ^ 0x10);
+                    }
+                }
+                try{
+                    PairingHeap.restore(file, SnapshotCodec.INTEGER, SnapshotCodec.INTEGER);
+                    System.out.println((damage == 1 ? "Truncated" : "Changed byte") + " file: NOT caught!");
+                }
+                catch(IOException e){
+                    System.out.println((damage == 1 ? "Truncated" : "Changed byte") + " file caught (expected): "
+                            + e.getMessage().replace(file.toString(), "<file>"));
+                }
+            }
+        }
+        catch(IOException e){
+            System.out.println("Sorry, the snapshot test could not use a temporary file: " + e);
+        }
+        finally{
+            if(file != null){
+                file.toFile().delete();
+            }
+        }
+    }
+
+    /**
+     * Empties two heaps side by side, counting the deleteMins that do not give the same key and payload.
+     * @return The number of mismatches, plus one if the sizes were different to start with.
+     */
+    private static <V> int compareByEmptying(PairingHeap<Integer, V> expected, PairingHeap<Integer, V> actual){
+        int mismatches = (expected.getSize() == actual.getSize()) ? 0 : 1;
+        while(expected.getSize() > 0 && actual.getSize() > 0){
+            Node<Integer, V> e = expected.deleteMin();
+            Node<Integer, V> a = actual.deleteMin();
+            if(!e.getValue().equals(a.getValue()) || !Objects.equals(e.getPayload(), a.getPayload())){
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Top-K of a stream: 10,000,000 random keys are offered to a BoundedPairingHeap keeping the top 1000, the payload
+     * being the position of the key in the stream. Emptying the heap must give the same keys as the last 1000 of the
+     * whole stream sorted, and every payload must point at its key.
+     *
+     * The offers are timed against a PriorityQueue doing the same (add, and poll when it gets past 1000), and the
+     * bytes allocated by the thread during the offers are printed. The payloads are made up front, so any
+     * allocation would be the heap's.
+     * Expect 0 mismatches and 0 bytes allocated.
+     */
+    public static void boundedTopKTest(){
+        System.out.println();
+        System.out.println("******TEST 18: Top-K of a stream with the BoundedPairingHeap! ");
+
+        int n = 10000000;
+        int k = 1000;
+        Random rand = new Random(2016);
+        int[] stream = new int[n];
+        Integer[] positions = new Integer[n];
+        for(int i = 0; i < n; i++){
+            stream[i] = rand.nextInt();
+            positions[i] = i;
+        }
+
+        //A warm up round first, so the allocation count is not about the JIT.
+        BoundedPairingHeap<Integer> topK = null;
+        long allocated = 0;
+        long duration = 0;
+        int kept = 0;
+        for(int round = 0; round < 2; round++){
+            topK = new BoundedPairingHeap<>(k);
+            kept = 0;
+            long allocatedBefore = allocatedBytes();
+            long startTime = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                if(topK.offer(stream[i], positions[i])){
+                    kept++;
+                }
+            }
+            duration = System.nanoTime() - startTime;
+            allocated = allocatedBytes() - allocatedBefore;
+
+            //Take off what asking for the allocated bytes allocates by itself.
+            long measuringBefore = allocatedBytes();
+            allocated -= allocatedBytes() - measuringBefore;
+        }
+
+        long startTime = System.nanoTime();
+        PriorityQueue<Integer> builtInHeap = new PriorityQueue<>(k + 1);
+        for(int i = 0; i < n; i++){
+            builtInHeap.add(stream[i]);
+            if(builtInHeap.size() > k){
+                builtInHeap.poll();
+            }
+        }
+        long builtInDuration = System.nanoTime() - startTime;
+
+        int[] sorted = stream.clone();
+        Arrays.sort(sorted);
+        int mismatches = (topK.getSize() == k) ? 0 : 1;
+        for(int i = n - k; i < n && topK.getSize() > 0; i++){
+            int key = topK.findMinKey();
+            int position = topK.deleteMin();
+            if(key != sorted[i] || stream[position] != key){
+                mismatches++;
+            }
+        }
+        System.out.println("BoundedPairingHeap: " + duration/1000000 + " (Milliseconds), kept " + kept
+                + " times, allocated " + (allocated < 0 ? "(not available)" : allocated + " bytes (expect 0)"));
+        System.out.println("Built in PQ       : " + builtInDuration/1000000 + " (Milliseconds)");
+        System.out.println("Top " + k + " mismatches (expect 0): " + mismatches);
+    }
+
+    /**
+     * Node recycling in the hold model: a heap of 100,000 simulation events, then 1,000,000 times a deleteMin followed
+     * by putting the same event back in at a later time (its time plus a random increment), with recycling off and on.
+     * The PriorityQueue runs the same times, the removed times must match.
+     *
+     * The keys are the events themselves (ordered by a Comparator on their time), and the time is changed in place, so
+     * nothing is boxed and the only allocation left is the heap's own: a Node per insert with recycling off, nothing
+     * with it on. With recycling on, the removed node is given back with release, and a second run uses
+     * deleteMinAlone (which recycles by itself) with the event read off findMin.
+     * Also checks that release refuses a node that is still in the heap, and that the free list stays within its
+     * capacity.
+     * Expect 0 mismatches, and 0 bytes allocated with recycling on.
+     */
+    public static void recyclingTest(){
+        System.out.println();
+        System.out.println("******TEST 19: The hold model with node recycling! ");
+
+        int n = 100000;
+        int operations = 1000000;
+        Random rand = new Random(2016);
+        int[] increments = new int[1 << 16];
+        for(int i = 0; i < increments.length; i++){
+            increments[i] = rand.nextInt(n);
+        }
+        long[] startTimes = new long[n];
+        for(int i = 0; i < n; i++){
+            startTimes[i] = rand.nextInt(n);
+        }
+
+        String[] names = {"recycling off", "release", "deleteMinAlone"};
+        for(int mode = 0; mode < names.length; mode++){
+            PairingHeap<SimulationEvent, Integer> pairingHeap = new PairingHeap<>(PairingStrategy.MULTIPASS,
+                    Comparator.comparingLong((SimulationEvent event) -> event.time));
+            if(mode > 0){
+                pairingHeap.setRecycling(1000);
+            }
+            for(int i = 0; i < n; i++){
+                pairingHeap.insert(new SimulationEvent(startTimes[i]), i);
+            }
+
+            //A warm up round first, so the allocation count is not about the JIT. The removed times are folded into a
+            //hash, to be checked against the built in PQ afterwards.
+            long removedHash = 0;
+            long allocated = 0;
+            long duration = 0;
+            int cursor = 0;
+            for(int round = 0; round < 2; round++){
+                long allocatedBefore = allocatedBytes();
+                long startTime = System.nanoTime();
+                for(int i = 0; i < operations; i++){
+                    SimulationEvent event;
+                    Integer payload;
+                    if(mode == 2){
+                        Node<SimulationEvent, Integer> min = pairingHeap.findMin();
+                        event = min.getValue();
+                        payload = min.getPayload();
+                        pairingHeap.deleteMinAlone();
+                    }
+                    else{
+                        Node<SimulationEvent, Integer> min = pairingHeap.deleteMin();
+                        event = min.getValue();
+                        payload = min.getPayload();
+                        pairingHeap.release(min);
+                    }
+                    removedHash = removedHash * 31 + event.time;
+                    event.time += increments[cursor & (increments.length - 1)];
+                    cursor++;
+                    pairingHeap.insert(event, payload);
+                }
+                duration = System.nanoTime() - startTime;
+                allocated = allocatedBytes() - allocatedBefore;
+
+                //Take off what asking for the allocated bytes allocates by itself.
+                long measuringBefore = allocatedBytes();
+                allocated -= allocatedBytes() - measuringBefore;
+            }
+
+            //Same times through the built in PQ, then empty both.
+            PriorityQueue<Long> builtInHeap = new PriorityQueue<>(n);
+            for(int i = 0; i < n; i++){
+                builtInHeap.add(startTimes[i]);
+            }
+            long builtInHash = 0;
+            for(int i = 0; i < 2 * operations; i++){
+                long time = builtInHeap.poll();
+                builtInHash = builtInHash * 31 + time;
+                builtInHeap.add(time + increments[i & (increments.length - 1)]);
+            }
+            int mismatches = (removedHash == builtInHash) ? 0 : 1;
+            while(!builtInHeap.isEmpty()){
+                if(builtInHeap.poll() != pairingHeap.deleteMin().getValue().time){
+                    mismatches++;
+                }
+            }
+            System.out.println("PairingHeap, " + names[mode] + ": " + duration/1000000 + " (Milliseconds), allocated "
+                    + (allocated < 0 ? "(not available)" : allocated/operations + " bytes per operation")
+                    + ", mismatches (expect 0): " + mismatches);
+        }
+
+        //A node still in the heap must not be taken, and at most the capacity is kept.
+        PairingHeap<Integer, Integer> pairingHeap = new PairingHeap<>();
+        pairingHeap.setRecycling(10);
+        Node<Integer, Integer> root = pairingHeap.insert(1, 1);
+        Node<Integer, Integer> child = pairingHeap.insert(2, 2);
+        boolean refused = !pairingHeap.release(root) && !pairingHeap.release(child);
+        for(int i = 0; i < 100; i++){
+            pairingHeap.insert(i, i);
+        }
+        while(pairingHeap.getSize() > 0){
+            pairingHeap.deleteMinAlone();
+        }
+        System.out.println("In-heap nodes refused (expect true): " + refused + ", nodes kept (expect 10): "
+                + pairingHeap.getPooledCount());
+    }
+
+    /**
+     * Walks heaps of 1,000,000 random keys in order with orderedIterator, for each PairingStrategy and with lazy
+     * insert, and checks the keys against the sorted keys and that the heap did not change (same size, and emptying
+     * it afterwards gives the same keys again).
+     *
+     * Then the first 10 entries are taken with orderedStream().limit(10) from heaps of 1,000 and 1,000,000 entries
+     * (after a deleteMin, so the root is paired up), which should take about the same time whatever the size. Last,
+     * the keys are added up with a parallel stream over spliterator(), and the number of pieces it splits into is
+     * counted.
+     * Expect 0 mismatches, and the same sums.
+     */
+    public static void orderedIteratorTest(){
+        System.out.println();
+        System.out.println("******TEST 20: Walking the heap in order, and scanning it in parallel! ");
+
+        int n = 1000000;
+        Random rand = new Random(2016);
+        int[] keys = new int[n];
+        for(int i = 0; i < n; i++){
+            keys[i] = rand.nextInt(n);
+        }
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+
+        for(int variant = 0; variant <= PairingStrategy.values().length; variant++){
+            boolean lazy = variant == PairingStrategy.values().length;
+            PairingStrategy strategy = lazy ? PairingStrategy.MULTIPASS : PairingStrategy.values()[variant];
+            PairingHeap<Integer, Integer> pairingHeap = new PairingHeap<>(strategy, null, lazy);
+            //Half in, a deleteMin (so there is a tree and, with lazy insert, a full auxiliary list), then the rest.
+            pairingHeap.insert(-1, -1);
+            for(int i = 0; i < n/2; i++){
+                pairingHeap.insert(keys[i], i);
+            }
+            pairingHeap.deleteMinAlone();
+            for(int i = n/2; i < n; i++){
+                pairingHeap.insert(keys[i], i);
+            }
+
+            int mismatches = 0;
+            int index = 0;
+            long startTime = System.nanoTime();
+            Iterator<Node<Integer, Integer>> iterator = pairingHeap.orderedIterator();
+            while(iterator.hasNext()){
+                Node<Integer, Integer> node = iterator.next();
+                if(index >= n || node.getValue() != sorted[index] || keys[node.getPayload()] != node.getValue()){
+                    mismatches++;
+                }
+                index++;
+            }
+            long duration = System.nanoTime() - startTime;
+            if(index != n || pairingHeap.getSize() != n){
+                mismatches++;
+            }
+            for(int i = 0; i < n; i++){
+                if(pairingHeap.deleteMin().getValue() != sorted[i]){
+                    mismatches++;
+                }
+            }
+            System.out.println("Ordered walk, " + strategy + (lazy ? " lazy insert" : "") + ": "
+                    + duration/1000000 + " (Milliseconds), mismatches (expect 0): " + mismatches);
+        }
+
+        //The first 10 of a small and a big heap, a few rounds each so the timing is not about the JIT.
+        for(int size: new int[]{1000, n}){
+            PairingHeap<Integer, Integer> pairingHeap = new PairingHeap<>();
+            pairingHeap.insert(-1, -1);
+            for(int i = 0; i < size; i++){
+                pairingHeap.insert(keys[i], i);
+            }
+            pairingHeap.deleteMinAlone();
+            int[] smallest = Arrays.copyOf(keys, size);
+            Arrays.sort(smallest);
+
+            int mismatches = 0;
+            long duration = 0;
+            for(int round = 0; round < 1000; round++){
+                long startTime = System.nanoTime();
+                Object[] first = pairingHeap.orderedStream().limit(10).toArray();
+                duration = System.nanoTime() - startTime;
+                for(int i = 0; i < 10; i++){
+                    @SuppressWarnings("unchecked")
+                    Node<Integer, Integer> node = (Node<Integer, Integer>) first[i];
+                    if(node.getValue() != smallest[i]){
+                        mismatches++;
+                    }
+                }
+            }
+            System.out.println("First 10 of " + size + " entries: " + duration/1000 + " (Microseconds), mismatches"
+                    + " (expect 0): " + mismatches);
+        }
+
+        //Add up the keys with several threads, against a plain loop over the keys.
+        PairingHeap<Integer, Integer> pairingHeap = PairingHeap.of(keys, null);
+        long expectedSum = 0;
+        for(int key: keys){
+            expectedSum += key;
+        }
+        long parallelSum = java.util.stream.StreamSupport.stream(pairingHeap.spliterator(), true)
+                .mapToLong(Node::getValue).sum();
+        long count = java.util.stream.StreamSupport.stream(pairingHeap.spliterator(), true).count();
+        System.out.println("Parallel sum: " + parallelSum + " (expect " + expectedSum + "), count: " + count
+                + " (expect " + n + "), pieces after 6 rounds of splitting: " + countPieces(pairingHeap.spliterator(), 6));
+    }
+
+    /**
+     * Merging and melding heaps.
+     *
+     * First the corner cases of mergeHeaps: two heaps with the same minimum, merging into an empty heap and merging an
+     * empty heap in. The sizes must add up, the other heap must be left empty, and emptying the result must give every
+     * key in order.
+     *
+     * Then 2,000 heaps of up to 1,000 random keys each (a mix of the pairing strategies and lazy insert, as separate
+     * jobs would make them) are melded into one, by calling mergeHeaps over and over vs. meldAll, timing the meld
+     * plus the first deleteMin, and emptying the rest (meldAll pairs up the root of every heap as it goes, so some of
+     * the work of later deleteMins is done up front, by several threads). Last, 2,000,000 keys are built into a heap with parallelBuild vs. PairingHeap.of.
+     * Emptying each result must give the sorted keys.
+     * Expect 0 mismatches.
+     */
+    public static void parallelMeldTest(){
+        System.out.println();
+        System.out.println("******TEST 21: Merging heaps, meldAll and parallelBuild! ");
+
+        int mismatches = 0;
+        PairingHeap<Integer, String> heap1 = new PairingHeap<>();
+        PairingHeap<Integer, String> heap2 = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        for(int key: new int[]{5, 9, 7}){
+            heap1.insert(key, "heap 1");
+            heap2.insert(key, "heap 2");
+        }
+        heap1.mergeHeaps(heap2);
+        PairingHeap<Integer, String> empty = new PairingHeap<>();
+        heap1.mergeHeaps(empty);
+        empty.mergeHeaps(heap1);
+        if(heap2.getSize() != 0 || heap1.getSize() != 0 || empty.getSize() != 6){
+            mismatches++;
+        }
+        int[] expected = {5, 5, 7, 7, 9, 9};
+        for(int key: expected){
+            if(empty.deleteMin().getValue() != key){
+                mismatches++;
+            }
+        }
+        System.out.println("mergeHeaps with equal minimums and empty heaps, mismatches (expect 0): " + mismatches);
+
+        int heapCount = 2000;
+        Random rand = new Random(2016);
+        List<Integer> allKeys = new ArrayList<>();
+        List<List<PairingHeap<Integer, Integer>>> rounds = new ArrayList<>();
+        for(int round = 0; round < 2; round++){
+            rounds.add(new ArrayList<>());
+        }
+        for(int h = 0; h < heapCount; h++){
+            int count = rand.nextInt(1000);
+            PairingStrategy strategy = PairingStrategy.values()[h % PairingStrategy.values().length];
+            boolean lazy = h % 7 == 0;
+            PairingHeap<Integer, Integer> first = new PairingHeap<>(strategy, null, lazy);
+            PairingHeap<Integer, Integer> second = new PairingHeap<>(strategy, null, lazy);
+            for(int i = 0; i < count; i++){
+                int key = rand.nextInt();
+                first.insert(key, h);
+                second.insert(key, h);
+                allKeys.add(key);
+            }
+            rounds.get(0).add(first);
+            rounds.get(1).add(second);
+        }
+        Collections.sort(allKeys);
+
+        for(int round = 0; round < 2; round++){
+            List<PairingHeap<Integer, Integer>> heaps = rounds.get(round);
+            long startTime = System.nanoTime();
+            PairingHeap<Integer, Integer> melded;
+            if(round == 0){
+                melded = heaps.get(0);
+                for(int h = 1; h < heapCount; h++){
+                    melded.mergeHeaps(heaps.get(h));
+                }
+            }
+            else{
+                melded = PairingHeap.meldAll(heaps);
+            }
+            Node<Integer, Integer> min = melded.deleteMin();
+            long duration = System.nanoTime() - startTime;
+
+            mismatches = (melded.getSize() == allKeys.size() - 1) ? 0 : 1;
+            for(int h = 1; h < heapCount; h++){
+                if(heaps.get(h).getSize() != 0){
+                    mismatches++;
+                }
+            }
+            if(!min.getValue().equals(allKeys.get(0))){
+                mismatches++;
+            }
+            startTime = System.nanoTime();
+            for(int i = 1; i < allKeys.size(); i++){
+                if(!melded.deleteMin().getValue().equals(allKeys.get(i))){
+                    mismatches++;
+                }
+            }
+            long drainDuration = System.nanoTime() - startTime;
+            System.out.println((round == 0 ? "mergeHeaps loop" : "meldAll        ") + ": " + duration/1000000
+                    + " (Milliseconds) for the meld and the first deleteMin, " + drainDuration/1000000
+                    + " (Milliseconds) for the rest, mismatches (expect 0): " + mismatches);
+        }
+
+        int n = 2000000;
+        int[] keys = new int[n];
+        for(int i = 0; i < n; i++){
+            keys[i] = rand.nextInt();
+        }
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for(int round = 0; round < 2; round++){
+            long startTime = System.nanoTime();
+            PairingHeap<Integer, Integer> built = (round == 0) ? PairingHeap.of(keys, null)
+                    : PairingHeap.parallelBuild(keys, null);
+            long duration = System.nanoTime() - startTime;
+            mismatches = (built.getSize() == n) ? 0 : 1;
+            for(int i = 0; i < n; i++){
+                if(built.deleteMin().getValue() != sorted[i]){
+                    mismatches++;
+                }
+            }
+            System.out.println((round == 0 ? "PairingHeap.of" : "parallelBuild ") + ": " + duration/1000000
+                    + " (Milliseconds) with " + java.util.concurrent.ForkJoinPool.commonPool().getParallelism()
+                    + " threads, mismatches (expect 0): " + mismatches);
+        }
+    }
+
+    /**
+     * Metrics on heaps whose counts are known exactly:
+     *   1025 inserts into an empty MULTIPASS heap (the smallest first) make 1024 links (and comparisons), and every
+     *   node but the first is a child of the root, so the depth is 2. The first deleteMin has a root degree of 1024
+     *   and makes 1023 links, which leaves a binomial tree of 1024 nodes (root degree 10, depth 11). The second
+     *   deleteMin pairs up those 10 children with 9 links.
+     *   With the slow deleteMin threshold at 1000 links, a flight recording must see exactly one SlowDeleteMin event.
+     * Then the hold model (the removed key plus a random increment goes back in) on a heap of 100,000 entries is timed
+     * with metrics off and on, to see what they cost.
+     * Expect every count to match.
+     */
+    public static void metricsTest(){
+        System.out.println();
+        System.out.println("******TEST 22: Metrics and the slow deleteMin JFR event! ");
+
+        int mismatches = 0;
+        long events = -1;
+        try(jdk.jfr.Recording recording = new jdk.jfr.Recording()){
+            recording.enable("pairingheap.SlowDeleteMin");
+            recording.start();
+
+            PairingHeap<Integer, Integer> pairingHeap = new PairingHeap<>(PairingStrategy.MULTIPASS);
+            HeapMetrics metrics = pairingHeap.enableMetrics();
+            metrics.setSlowDeleteMinLinks(1000);
+            pairingHeap.insert(-1, -1);
+            for(int i = 0; i < 1024; i++){
+                pairingHeap.insert(i, i);
+            }
+            if(metrics.getLinks() != 1024 || metrics.getComparisons() != 1024 || pairingHeap.getMaxDepth() != 2){
+                mismatches++;
+            }
+            pairingHeap.deleteMinAlone();
+            if(metrics.getLinks() != 1024 + 1023 || metrics.getMaxRootDegree() != 1024
+                    || metrics.getRootDegreeHistogram()[11] != 1 || pairingHeap.getMaxDepth() != 11){
+                mismatches++;
+            }
+            //The next deleteMin pairs the 10 children of the binomial tree, far below the threshold.
+            pairingHeap.deleteMinAlone();
+            if(metrics.getDeleteMins() != 2 || metrics.getLinks() != 1024 + 1023 + 9
+                    || metrics.getMaxDeleteMinLinks() != 1023 || metrics.getSlowDeleteMins() != 1
+                    || metrics.getRootDegreeHistogram()[4] != 1){
+                mismatches++;
+            }
+            System.out.println("Metrics: " + metrics);
+
+            recording.stop();
+            Path file = Files.createTempFile("pairingheap", ".jfr");
+            recording.dump(file);
+            events = jdk.jfr.consumer.RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("pairingheap.SlowDeleteMin")).count();
+            Files.delete(file);
+        }
+        catch(IOException e){
+            System.out.println("Sorry, the flight recording failed: " + e.getMessage());
+        }
+        System.out.println("Counts mismatches (expect 0): " + mismatches + ", SlowDeleteMin events (expect 1): "
+                + events);
+
+        //The hold model with metrics off, on, and off again (a few rounds so the timings are not about the JIT).
+        int n = 100000;
+        int operations = 1000000;
+        Random rand = new Random(2016);
+        int[] increments = new int[1 << 16];
+        for(int i = 0; i < increments.length; i++){
+            increments[i] = rand.nextInt(n);
+        }
+        String[] names = {"metrics off", "metrics on ", "metrics off"};
+        PairingHeap<Long, Integer> pairingHeap = new PairingHeap<>();
+        for(int i = 0; i < n; i++){
+            pairingHeap.insert((long) increments[i & (increments.length - 1)], i);
+        }
+        for(int round = 0; round < 6; round++){
+            int mode = round % 3;
+            if(mode == 1){
+                pairingHeap.enableMetrics();
+            }
+            else{
+                pairingHeap.disableMetrics();
+            }
+            long startTime = System.nanoTime();
+            for(int i = 0; i < operations; i++){
+                Node<Long, Integer> min = pairingHeap.deleteMin();
+                pairingHeap.insert(min.getValue() + increments[i & (increments.length - 1)], min.getPayload());
+            }
+            long duration = System.nanoTime() - startTime;
+            if(round >= 3){
+                System.out.println("Hold model, " + names[mode] + ": " + duration/1000000 + " (Milliseconds)");
+            }
+        }
+    }
+
+    /**
+     * The PairingHeapScheduler against the Java built in "ScheduledThreadPoolExecutor" (one thread per processor):
+     *   1: 100,000 timers with random delays of 1 to 1.5 seconds, 90% of them cancelled straight away. Shows how many
+     *      timers each has pending after the cancellations (the built in one keeps its cancelled timers as tombstones
+     *      until they are due), then shuts down, which lets the timers still pending run. Every timer that was not
+     *      cancelled should have run exactly once and none of the cancelled ones, and none early. How late they ran
+     *      is shown too.
+     *   2: A task at a fixed rate of 10 ms for about 200 ms, then cancelled: about 21 runs, and none after.
+     *   3: shutdown lets a delayed task run but cancels a periodic one and turns new tasks away, shutdownNow hands
+     *      back the tasks that never ran.
+     */
+    public static void schedulerTest(){
+        System.out.println();
+        System.out.println("******TEST 23: The PairingHeapScheduler vs. the built in ScheduledThreadPoolExecutor! ");
+
+        int n = 100000;
+        Random rand = new Random(23);
+        long[] delays = new long[n];
+        boolean[] toCancel = new boolean[n];
+        for(int i = 0; i < n; i++){
+            delays[i] = 1000000000L + rand.nextInt(500000000);
+            toCancel[i] = rand.nextInt(10) != 0;
+        }
+
+        PairingHeapScheduler pairingHeapScheduler = new PairingHeapScheduler();
+        System.out.println("Virtual threads (false before Java 21): " + pairingHeapScheduler.isVirtualThreads());
+        ScheduledThreadPoolExecutor builtIn = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
+        ScheduledExecutorService[] schedulers = {pairingHeapScheduler, builtIn};
+        String[] names = {"PairingHeapScheduler       ", "ScheduledThreadPoolExecutor"};
+        for(int s = 0; s < schedulers.length; s++){
+            ScheduledExecutorService scheduler = schedulers[s];
+            //Written by the task of each timer, read after awaitTermination.
+            long[] lateness = new long[n];
+            int[] runs = new int[n];
+            ScheduledFuture<?>[] futures = new ScheduledFuture<?>[n];
+            boolean[] cancelled = new boolean[n];
+
+            long startTime = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                int id = i;
+                long deadline = System.nanoTime() + delays[i];
+                futures[i] = scheduler.schedule(() -> {
+                    lateness[id] = System.nanoTime() - deadline;
+                    runs[id]++;
+                }, delays[i], TimeUnit.NANOSECONDS);
+            }
+            for(int i = 0; i < n; i++){
+                //(A timer that already ran can not be cancelled, not that any should have run by now.)
+                cancelled[i] = toCancel[i] && futures[i].cancel(false);
+            }
+            long scheduleTime = System.nanoTime() - startTime;
+            int pending = s == 0 ? pairingHeapScheduler.getPendingCount() : builtIn.getQueue().size();
+
+            scheduler.shutdown();
+            boolean terminated = false;
+            try{
+                terminated = scheduler.awaitTermination(10, TimeUnit.SECONDS);
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+            int wrong = 0;
+            int ran = 0;
+            long totalLateness = 0;
+            long maxLateness = 0;
+            for(int i = 0; i < n; i++){
+                if(runs[i] != (cancelled[i] ? 0 : 1) || lateness[i] < 0){
+                    wrong++;
+                }
+                if(runs[i] > 0){
+                    ran++;
+                    totalLateness += lateness[i];
+                    maxLateness = Math.max(maxLateness, lateness[i]);
+                }
+            }
+            System.out.println(names[s] + ": schedule + cancel " + scheduleTime/1000000 + " (Milliseconds), pending after"
+                    + " cancelling " + pending + ", ran " + ran + ", late by " + totalLateness/Math.max(1, ran)/1000
+                    + " on average, " + maxLateness/1000 + " at most (Microseconds)");
+            System.out.println("    Terminated (expect true): " + terminated + ", wrong or early runs (expect 0): "
+                    + wrong);
+        }
+
+        PairingHeapScheduler scheduler = new PairingHeapScheduler();
+        AtomicInteger ticks = new AtomicInteger();
+        boolean[] delayedRan = new boolean[1];
+        boolean rejected = false;
+        int neverRan = 0;
+        boolean terminated = false;
+        int ticksAfterCancel = -1;
+        try{
+            ScheduledFuture<?> periodic = scheduler.scheduleAtFixedRate(ticks::incrementAndGet, 0, 10,
+                    TimeUnit.MILLISECONDS);
+            Thread.sleep(205);
+            periodic.cancel(false);
+            int ticksAtCancel = ticks.get();
+            Thread.sleep(50);
+            ticksAfterCancel = ticks.get() - ticksAtCancel;
+            System.out.println("Fixed rate of 10 ms for 205 ms: " + ticksAtCancel + " runs (expect about 21), "
+                    + ticksAfterCancel + " after cancelling (expect 0)");
+
+            periodic = scheduler.scheduleWithFixedDelay(ticks::incrementAndGet, 0, 5, TimeUnit.MILLISECONDS);
+            scheduler.schedule(() -> delayedRan[0] = true, 50, TimeUnit.MILLISECONDS);
+            scheduler.shutdown();
+            try{
+                scheduler.schedule(() -> {}, 0, TimeUnit.MILLISECONDS);
+            }
+            catch(RejectedExecutionException e){
+                rejected = true;
+            }
+            terminated = scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            System.out.println("After shutdown, delayed task ran: " + delayedRan[0] + ", periodic task cancelled: "
+                    + periodic.isCancelled() + ", new task turned away: " + rejected + ", terminated: " + terminated
+                    + " (expect all true)");
+
+            scheduler = new PairingHeapScheduler();
+            for(int i = 0; i < 10; i++){
+                scheduler.schedule(() -> {}, 1, TimeUnit.HOURS);
+            }
+            neverRan = scheduler.shutdownNow().size();
+            terminated = scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            System.out.println("shutdownNow handed back " + neverRan + " tasks (expect 10), terminated (expect true): "
+                    + terminated);
+        }
+        catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * kWayMerge and the ExternalMergeSort:
+     *   1: 100 sorted lists of random ints (every tenth one empty) merged with kWayMerge, against sorting all of them
+     *      together.
+     *   2: A 40 MB file of random lines of 16 to 1024 bytes, half of them starting with the same 9 bytes like the
+     *      timestamps of a log, sorted with 1 MB of memory (about 40 runs, more than fit in one merge so it takes two
+     *      passes) and with 64 MB (one run), against sorting the lines in memory. Shows the MB/s of each (the second of
+     *      two sorts, so the JIT is warmed up).
+     *   3: An empty file, and a file whose last line has no line end.
+     * Expect the same values.
+     */
+    public static void externalSortTest(){
+        System.out.println();
+        System.out.println("******TEST 24: kWayMerge and the ExternalMergeSort! ");
+
+        Random rand = new Random(24);
+        List<Iterator<Integer>> lists = new ArrayList<>();
+        ArrayList<Integer> everything = new ArrayList<>();
+        for(int i = 0; i < 100; i++){
+            ArrayList<Integer> list = new ArrayList<>();
+            int length = i % 10 == 0 ? 0 : rand.nextInt(2000);
+            for(int j = 0; j < length; j++){
+                list.add(rand.nextInt(10000));
+            }
+            Collections.sort(list);
+            everything.addAll(list);
+            lists.add(list.iterator());
+        }
+        Collections.sort(everything);
+        ArrayList<Integer> merged = new ArrayList<>();
+        ExternalMergeSort.kWayMerge(lists, Comparator.<Integer>naturalOrder()).forEachRemaining(merged::add);
+        System.out.println("kWayMerge of 100 lists, " + merged.size() + " values, same as sorting (expect true): "
+                + merged.equals(everything));
+
+        try{
+            Path input = Files.createTempFile("pairingheap", ".log");
+            Path output = Files.createTempFile("pairingheap", ".sorted");
+            byte[] line = new byte[1025];
+            try(java.io.BufferedOutputStream out = new java.io.BufferedOutputStream(Files.newOutputStream(input))){
+                long written = 0;
+                while(written < 40L * 1024 * 1024){
+                    int length = 16 + rand.nextInt(1009);
+                    for(int i = 0; i < length; i++){
+                        line[i] = (byte) (' ' + 1 + rand.nextInt(94));
+                    }
+                    if(rand.nextBoolean()){
+                        System.arraycopy("2016-03-1".getBytes(), 0, line, 0, 9);
+                    }
+                    line[length] = '\n';
+                    out.write(line, 0, length + 1);
+                    written += length + 1;
+                }
+            }
+            List<String> expected = new ArrayList<>(Files.readAllLines(input, java.nio.charset.StandardCharsets.ISO_8859_1));
+            Collections.sort(expected);
+            double megabytes = Files.size(input) / (1024.0 * 1024.0);
+
+            long[] memories = {1L << 20, 64L << 20};
+            for(long memory: memories){
+                ExternalMergeSort sorter = new ExternalMergeSort(memory);
+                long duration = 0;
+                for(int round = 0; round < 2; round++){
+                    long startTime = System.nanoTime();
+                    sorter.sort(input, output);
+                    duration = System.nanoTime() - startTime;
+                }
+                boolean same = Files.readAllLines(output, java.nio.charset.StandardCharsets.ISO_8859_1).equals(expected);
+                System.out.println(String.format("%d MB of memory: %d runs, %d merge pass(es), %.0f MB/s (runs %.0f MB/s,"
+                        + " merge %.0f MB/s), same as sorting in memory (expect true): %b", memory >> 20,
+                        sorter.getRunCount(), sorter.getMergePasses(), megabytes * 1e9 / duration,
+                        megabytes * 1e9 / sorter.getRunNanos(), megabytes * 1e9 / sorter.getMergeNanos(), same));
+            }
+
+            ExternalMergeSort sorter = new ExternalMergeSort(1L << 20);
+            Files.write(input, new byte[0]);
+            sorter.sort(input, output);
+            boolean emptyFine = Files.size(output) == 0;
+            Files.writeString(input, "pear\napple\nfig");
+            sorter.sort(input, output);
+            boolean noLineEndFine = Files.readString(output).equals("apple\nfig\npear\n");
+            System.out.println("Empty file (expect true): " + emptyFine + ", last line with no line end (expect true): "
+                    + noLineEndFine);
+            Files.delete(input);
+            Files.delete(output);
+        }
+        catch(IOException e){
+            System.out.println("Sorry, the external sort test failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The RadixHeap and LongRadixHeap against the PairingHeap and LongPairingHeap, which are checked against the built
+     * in PQ by the tests above:
+     *   1: A hold model with keys that only go up (each new key is above the last minimum), with decreaseKey and delete
+     *      of random entries mixed in. Every key is made unique (the entry's id in the low bits), so the same entry
+     *      has to come out of all four heaps every time. Expect 0 mismatches.
+     *   2: The plain hold model (deleteMin, insert) on each of the four, timed, the second of two rounds.
+     *   3: The same Dijkstra's (with decreaseKey) through MinPriorityQueue on the PairingHeap and the RadixHeap, on a
+     *      random graph of 100,000 vertices and 1,000,000 arcs, timed. The distances taken out only go up, so the
+     *      RadixHeap can do it too. Expect the same distances.
+     *   4: An empty heap, and with -ea a key below the last minimum being caught.
+     */
+    public static void radixHeapTest(){
+        System.out.println();
+        System.out.println("******TEST 25: RadixHeap and LongRadixHeap vs. the pairing heaps! ");
+
+        //Low bits of every key, the id of its entry.
+        final int idBits = 20;
+        final int size = 100000;
+        Random rand = new Random(25);
+        RadixHeap<Long, Integer> radixHeap = new RadixHeap<>();
+        PairingHeap<Long, Integer> pairingHeap = new PairingHeap<>();
+        LongRadixHeap longRadixHeap = new LongRadixHeap();
+        LongPairingHeap longPairingHeap = new LongPairingHeap();
+        ArrayList<Node<Long, Integer>> radixNodes = new ArrayList<>();
+        ArrayList<Node<Long, Integer>> pairingNodes = new ArrayList<>();
+        int[] longRadixHandles = new int[size];
+        int[] longPairingHandles = new int[size];
+        for(int id = 0; id < size; id++){
+            radixNodes.add(null);
+            pairingNodes.add(null);
+        }
+
+        long last = 0;
+        int mismatches = 0;
+        for(int id = 0; id < size; id++){
+            long key = ((long) rand.nextInt(1000000) << idBits) | id;
+            radixNodes.set(id, radixHeap.insert(key, id));
+            pairingNodes.set(id, pairingHeap.insert(key, id));
+            longRadixHandles[id] = longRadixHeap.insert(key, id);
+            longPairingHandles[id] = longPairingHeap.insert(key, id);
+        }
+        //Every entry that is taken out is put back in, so all the ids are always in the heaps.
+        for(int op = 0; op < 1000000; op++){
+            int choice = rand.nextInt(10);
+            if(choice < 6){
+                //deleteMin, and put the entry back in with a larger key.
+                if(radixHeap.findMin().getPayload().intValue() != pairingHeap.findMin().getPayload()
+                        || longRadixHeap.getPayload(longRadixHeap.findMin()) != pairingHeap.findMin().getPayload()){
+                    mismatches++;
+                }
+                int id = radixHeap.deleteMin().getPayload();
+                if(pairingHeap.deleteMin().getPayload() != id || longRadixHeap.deleteMin() != id
+                        || longPairingHeap.deleteMin() != id){
+                    mismatches++;
+                }
+                last = radixNodes.get(id).getValue();
+                long key = (((last >> idBits) + 1 + rand.nextInt(1000000)) << idBits) | id;
+                radixNodes.set(id, radixHeap.insert(key, id));
+                pairingNodes.set(id, pairingHeap.insert(key, id));
+                longRadixHandles[id] = longRadixHeap.insert(key, id);
+                longPairingHandles[id] = longPairingHeap.insert(key, id);
+            }
+            else if(choice < 9){
+                //decreaseKey of a random entry, to somewhere between the last minimum and its key.
+                int id = rand.nextInt(size);
+                long high = radixNodes.get(id).getValue() >> idBits;
+                long low = (last >> idBits) + 1;
+                if(high > low){
+                    long key = ((low + (long) (rand.nextDouble() * (high - low))) << idBits) | id;
+                    radixHeap.decreaseKey(radixNodes.get(id), key);
+                    pairingHeap.decreaseKey(pairingNodes.get(id), key);
+                    longRadixHeap.decreaseKey(longRadixHandles[id], key);
+                    longPairingHeap.decreaseKey(longPairingHandles[id], key);
+                }
+            }
+            else{
+                //delete a random entry, and put it back in with a larger key.
+                int id = rand.nextInt(size);
+                if(radixHeap.delete(radixNodes.get(id)) != radixNodes.get(id)
+                        || pairingHeap.delete(pairingNodes.get(id)) != pairingNodes.get(id)
+                        || longRadixHeap.delete(longRadixHandles[id]) != id
+                        || longPairingHeap.delete(longPairingHandles[id]) != id){
+                    mismatches++;
+                }
+                long key = (((last >> idBits) + 1 + rand.nextInt(1000000)) << idBits) | id;
+                radixNodes.set(id, radixHeap.insert(key, id));
+                pairingNodes.set(id, pairingHeap.insert(key, id));
+                longRadixHandles[id] = longRadixHeap.insert(key, id);
+                longPairingHandles[id] = longPairingHeap.insert(key, id);
+            }
+        }
+        //Empty them all out, the order has to match to the end.
+        while(radixHeap.getSize() > 0){
+            int id = radixHeap.deleteMin().getPayload();
+            if(pairingHeap.deleteMin().getPayload() != id || longRadixHeap.deleteMin() != id
+                    || longPairingHeap.deleteMin() != id){
+                mismatches++;
+            }
+        }
+        System.out.println("1,000,000 operations (60% deleteMin, 30% decreaseKey, 10% delete) on 100,000 entries,"
+                + " mismatches (expect 0): " + mismatches + ", sizes at the end (expect 0 0 0 0): "
+                + radixHeap.getSize() + " " + pairingHeap.getSize() + " " + longRadixHeap.getSize() + " "
+                + longPairingHeap.getSize());
+
+        //The plain hold model, through the MinPriorityQueue interface for the first two.
+        String[] names = {"RadixHeap", "PairingHeap", "LongRadixHeap", "LongPairingHeap"};
+        for(int engine = 0; engine < names.length; engine++){
+            long time = 0;
+            long checksum = 0;
+            for(int round = 0; round < 2; round++){
+                rand = new Random(2016);
+                long startTime = System.nanoTime();
+                if(engine < 2){
+                    MinPriorityQueue<Long, Integer> queue = engine == 0 ? new RadixHeap<>() : new PairingHeap<>();
+                    for(int i = 0; i < size; i++){
+                        queue.insert((long) rand.nextInt(1000000), i);
+                    }
+                    checksum = 0;
+                    for(int i = 0; i < 2000000; i++){
+                        Node<Long, Integer> min = queue.deleteMin();
+                        checksum += min.getValue();
+                        queue.insert(min.getValue() + rand.nextInt(1000000), min.getPayload());
+                    }
+                }
+                else{
+                    LongRadixHeap longRadix = engine == 2 ? new LongRadixHeap(size) : null;
+                    LongPairingHeap longPairing = engine == 3 ? new LongPairingHeap(size) : null;
+                    for(int i = 0; i < size; i++){
+                        if(longRadix != null){
+                            longRadix.insert(rand.nextInt(1000000), i);
+                        }
+                        else{
+                            longPairing.insert(rand.nextInt(1000000), i);
+                        }
+                    }
+                    checksum = 0;
+                    for(int i = 0; i < 2000000; i++){
+                        long min;
+                        if(longRadix != null){
+                            //The key of the minimum just taken out is the new last.
+                            int payload = longRadix.deleteMin();
+                            min = longRadix.getLast();
+                            longRadix.insert(min + rand.nextInt(1000000), payload);
+                        }
+                        else{
+                            min = longPairing.findMinKey();
+                            longPairing.insert(min + rand.nextInt(1000000), longPairing.deleteMin());
+                        }
+                        checksum += min;
+                    }
+                }
+                time = System.nanoTime() - startTime;
+            }
+            System.out.println(String.format("%-16s hold model, 2,000,000 deleteMin + insert on 100,000: %5d"
+                    + " (Milliseconds), sum of the minimums %d (expect the same for all four)", names[engine],
+                    time/1000000, checksum));
+        }
+
+        //Dijkstra's on both engines, the same code.
+        int vertexCount = 100000;
+        int[] arcStart = new int[vertexCount + 1];
+        int[] arcTarget = new int[10 * vertexCount];
+        int[] arcLength = new int[10 * vertexCount];
+        rand = new Random(2025);
+        for(int v = 0; v < vertexCount; v++){
+            arcStart[v + 1] = arcStart[v] + 10;
+            for(int e = arcStart[v]; e < arcStart[v + 1]; e++){
+                arcTarget[e] = rand.nextInt(vertexCount);
+                arcLength[e] = 1 + rand.nextInt(1000);
+            }
+        }
+        long[][] distances = new long[2][];
+        for(int engine = 0; engine < 2; engine++){
+            long time = 0;
+            for(int round = 0; round < 2; round++){
+                long startTime = System.nanoTime();
+                distances[engine] = dijkstra(engine == 0 ? new RadixHeap<>() : new PairingHeap<>(), arcStart,
+                        arcTarget, arcLength);
+                time = System.nanoTime() - startTime;
+            }
+            System.out.println(String.format("%-16s Dijkstra's, 100,000 vertices and 1,000,000 arcs: %5d"
+                    + " (Milliseconds)", names[engine], time/1000000));
+        }
+        System.out.println("Same distances on both (expect true): " + Arrays.equals(distances[0], distances[1]));
+
+        //Corner cases.
+        RadixHeap<Integer, String> empty = new RadixHeap<>();
+        System.out.println("findMin of an empty RadixHeap (expect null): " + empty.findMin());
+        System.out.println("deleteMin of an empty RadixHeap (expect a Sorry and null): " + empty.deleteMin());
+        MinPriorityQueue<Integer, String> emptyPairing = new PairingHeap<>();
+        System.out.println("deleteMin of an empty PairingHeap (expect a Sorry and null): " + emptyPairing.deleteMin());
+        System.out.println("deleteMin of an empty LongRadixHeap (expect a Sorry and " + LongRadixHeap.NIL + "): "
+                + new LongRadixHeap().deleteMin());
+        RadixHeap<Integer, String> negative = new RadixHeap<>();
+        negative.insert(-5, "minus five");
+        negative.insert(Integer.MIN_VALUE, "smallest");
+        negative.insert(7, "seven");
+        System.out.print("Negative keys come out in order (expect smallest, minus five, seven): ");
+        while(negative.getSize() > 0){
+            System.out.print(negative.deleteMin().getPayload() + (negative.getSize() > 0 ? ", " : "\n"));
+        }
+
+        boolean assertions = false;
+        assert assertions = true;
+        if(assertions){
+            RadixHeap<Integer, String> radix = new RadixHeap<>();
+            radix.insert(10, "ten");
+            radix.deleteMin();
+            boolean caught = false;
+            try{
+                radix.insert(9, "nine");
+            }
+            catch(AssertionError e){
+                caught = true;
+            }
+            LongRadixHeap longRadix = new LongRadixHeap();
+            longRadix.insert(10, 10);
+            longRadix.deleteMin();
+            boolean longCaught = false;
+            try{
+                longRadix.insert(9, 9);
+            }
+            catch(AssertionError e){
+                longCaught = true;
+            }
+            System.out.println("A key below the last minimum caught (expect true true): " + caught + " " + longCaught);
+        }
+        else{
+            System.out.println("Run with -ea to check that a key below the last minimum is caught.");
+        }
+    }
+
+    /**
+     * Dijkstra's from vertex 0 on any MinPriorityQueue, with decreaseKey, for TEST 25. The arcs of vertex v are
+     * arcStart[v] up to (not including) arcStart[v + 1], going to arcTarget, arcLength long.
+     * @param queue The (empty) queue to run it on.
+     * @return The distance of every vertex from vertex 0, Long.MAX_VALUE if it can not be reached.
+     */
+    private static long[] dijkstra(MinPriorityQueue<Long, Integer> queue, int[] arcStart, int[] arcTarget,
+                                   int[] arcLength){
+        int vertexCount = arcStart.length - 1;
+        long[] distances = new long[vertexCount];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        //The node of each vertex while it is in the queue.
+        List<Node<Long, Integer>> handles = new ArrayList<>(Collections.nCopies(vertexCount, null));
+        distances[0] = 0;
+        handles.set(0, queue.insert(0L, 0));
+        while(queue.getSize() > 0){
+            int v = queue.deleteMin().getPayload();
+            handles.set(v, null);
+            for(int e = arcStart[v]; e < arcStart[v + 1]; e++){
+                int w = arcTarget[e];
+                long distance = distances[v] + arcLength[e];
+                if(distance < distances[w]){
+                    if(distances[w] == Long.MAX_VALUE){
+                        handles.set(w, queue.insert(distance, w));
+                    }
+                    else{
+                        queue.decreaseKey(handles.get(w), distance);
+                    }
+                    distances[w] = distance;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * The AdaptivePriorityQueue against a plain PairingHeap doing the same things (every key is different, so the same
+     * entry has to come out of both every time), through phases that each call for a different engine:
+     *   1: A hold model with keys that only go up, with decreaseKey and delete mixed in. Expect RADIX.
+     *   2: The same with random keys, many below the last minimum. Expect TWO_PASS, right away.
+     *   3: Bursts of 100 inserts per deleteMin, the queue grows to about 450,000. Expect AUXILIARY.
+     *   4: The hold model again, with a small queue melded in every 1,000 operations. Expect TWO_PASS.
+     * Then the hold model with keys that only go up, timed on the AdaptivePriorityQueue and on a PairingHeap.
+     * Expect 0 mismatches, and the switches listed with the longest pause their migrations took.
+     */
+    public static void adaptiveQueueTest(){
+        System.out.println();
+        System.out.println("******TEST 26: The AdaptivePriorityQueue picking its engine! ");
+
+        Random rand = new Random(26);
+        AdaptiveScript script = new AdaptiveScript();
+        for(int i = 0; i < 50000; i++){
+            script.insert(rand.nextInt(100000));
+        }
+
+        String[] phases = {"keys that only go up", "random keys", "bursts of inserts", "melds"};
+        String[] expected = {"RADIX", "TWO_PASS", "AUXILIARY", "TWO_PASS"};
+        for(int phase = 0; phase < phases.length; phase++){
+            for(int op = 0; op < 400000; op++){
+                int choice = rand.nextInt(10);
+                if(phase == 2){
+                    //100 inserts and a deleteMin, keys around the last minimum.
+                    for(int i = 0; i < 100; i++){
+                        script.insert(Math.max(0, script.lastMin - 50000) + rand.nextInt(150000));
+                    }
+                    script.deleteMin();
+                    op += 100;
+                }
+                else if(choice < 6){
+                    script.deleteMin();
+                    script.insert(phase == 1 ? rand.nextInt((int) script.lastMin + 100000)
+                            : script.lastMin + 1 + rand.nextInt(100000));
+                }
+                else if(choice < 9){
+                    int id = script.randomLive(rand);
+                    long high = script.getHigh(id);
+                    long low = phase == 1 ? 0 : script.lastMin + 1;
+                    if(high > low){
+                        script.decreaseKey(id, low + (long) (rand.nextDouble() * (high - low)));
+                    }
+                }
+                else{
+                    script.delete(script.randomLive(rand));
+                    script.insert(script.lastMin + 1 + rand.nextInt(100000));
+                }
+                if(phase == 3 && op % 1000 == 0){
+                    script.meldNew(rand, 10);
+                }
+            }
+            System.out.println("Phase " + (phase + 1) + ", " + phases[phase] + ": engine " + script.adaptive.getEngine()
+                    + " (expect " + expected[phase] + "), last window: " + script.adaptive.getLastSample());
+        }
+        int size = script.adaptive.getSize();
+        int referenceSize = script.reference.getSize();
+        while(script.reference.getSize() > 0){
+            script.deleteMin();
+        }
+        System.out.println("Mismatches (expect 0): " + script.mismatches + ", sizes (expect the same): " + size + " "
+                + referenceSize + ", moved by migrations: " + script.adaptive.getMigratedCount()
+                + ", longest migration pause: " + script.adaptive.getMaxMigrationPauseNanos()/1000 + " (Microseconds)");
+        System.out.println("Switches:");
+        for(AdaptivePriorityQueue.Switch change: script.adaptive.getSwitches()){
+            System.out.println("    " + change);
+        }
+
+        //The hold model with keys that only go up, through the MinPriorityQueue interface.
+        for(int engine = 0; engine < 2; engine++){
+            long time = 0;
+            long checksum = 0;
+            for(int round = 0; round < 2; round++){
+                rand = new Random(2016);
+                MinPriorityQueue<Long, Integer> queue = engine == 0 ? new AdaptivePriorityQueue<>()
+                        : new PairingHeap<>(PairingStrategy.TWO_PASS);
+                long startTime = System.nanoTime();
+                for(int i = 0; i < 100000; i++){
+                    queue.insert((long) rand.nextInt(1000000), i);
+                }
+                checksum = 0;
+                for(int i = 0; i < 2000000; i++){
+                    Node<Long, Integer> min = queue.deleteMin();
+                    checksum += min.getValue();
+                    queue.insert(min.getValue() + rand.nextInt(1000000), min.getPayload());
+                }
+                time = System.nanoTime() - startTime;
+            }
+            System.out.println(String.format("%-21s hold model, 2,000,000 deleteMin + insert on 100,000: %5d"
+                    + " (Milliseconds), sum of the minimums %d (expect the same for both)",
+                    engine == 0 ? "AdaptivePriorityQueue" : "PairingHeap", time/1000000, checksum));
+        }
+    }
+
+    /**
+     * Compaction of a PairingHeap that has been churned by the hold model for a while, checked against the built in
+     * "PriorityQueue" doing the same things:
+     *   1: compact() all in one go. Expect the same size and depth (the same tree, every node a new copy),
+     *      fragmentation 0, and the same values out. Handles kept from before it must be turned away (an
+     *      IllegalStateException) by decreaseKey, increaseKey, delete and insert, leaving the heap as it was.
+     *   2: A pass in steps of 1,000 nodes with the hold model going on in between, on a lazy insert (AUXILIARY) heap
+     *      so the auxiliary list gets copied too. Expect the pass to finish with every node copied (including the
+     *      ones that came in during the pass), and the same values out.
+     *   3: Auto compaction at a fragmentation of 0.5 under the hold model. Expect passes done, the same values out.
+     * Then two heaps churned the same way (so they hold the same tree), one of them compacted, half emptied with
+     * deleteMin and timed. Expect the same values out of both. (At this size the difference is small either way, the
+     * copies are no longer next to their keys. CompactionHarness does this with 10M entries.)
+     */
+    public static void compactionTest(){
+        System.out.println();
+        System.out.println("******TEST 27: Compacting a churned PairingHeap! ");
+
+        //1: All in one go.
+        Random rand = new Random(27);
+        PairingHeap<Integer, Integer> heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        PriorityQueue<Integer> reference = new PriorityQueue<>();
+        for(int i = 0; i < 200000; i++){
+            int key = rand.nextInt(1000000);
+            heap.insert(key, i);
+            reference.add(key);
+        }
+        int mismatches = holdModel(heap, reference, rand, 1000000);
+        int depth = heap.getMaxDepth();
+        double fragmentation = heap.getFragmentation();
+        Node<Integer, Integer> oldRoot = heap.findMin();
+        long startTime = System.nanoTime();
+        heap.compact();
+        long time = System.nanoTime() - startTime;
+        System.out.println("compact() of 200,000 nodes: " + time/1000000 + " (Milliseconds), size " + heap.getSize()
+                + " depth " + depth + " -> " + heap.getMaxDepth() + " (expect the same), fragmentation "
+                + fragmentation + " -> " + heap.getFragmentation() + " (expect 1.0 -> 0.0), root replaced (expect true): "
+                + (heap.findMin() != oldRoot && heap.findMin().getValue().equals(oldRoot.getValue()))
+                + ", nodes not copied (expect 0): " + countOriginals(heap));
+        mismatches += holdModel(heap, reference, rand, 100000);
+        mismatches += drain(heap, reference);
+        System.out.println("Mismatches after compact() (expect 0): " + mismatches);
+
+        //A handle kept from before a compaction is turned away, and the heap is left as it was.
+        PairingHeap<Integer, String> small = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        List<Node<Integer, String>> handles = new ArrayList<>();
+        for(int i = 0; i < 100; i++){
+            handles.add(small.insert(1000 + i, "v" + i));
+        }
+        small.deleteMin();
+        small.compact();
+        int turnedAway = 0;
+        for(Runnable use: new Runnable[]{() -> small.decreaseKey(handles.get(50), 1),
+                () -> small.increaseKey(handles.get(50), 5000), () -> small.delete(handles.get(50)),
+                () -> small.insert(handles.get(50))}){
+            try{
+                use.run();
+            }
+            catch(IllegalStateException e){
+                turnedAway++;
+            }
+        }
+        int previous = Integer.MIN_VALUE;
+        int outOfOrder = 0;
+        int count = 0;
+        while(small.getSize() > 0){
+            int key = small.deleteMin().getValue();
+            outOfOrder += (key <= previous) ? 1 : 0;
+            previous = key;
+            count++;
+        }
+        System.out.println("Old handles used after compact(), turned away (expect 4): " + turnedAway
+                + ", then entries out (expect 99): " + count + ", out of order or twice (expect 0): " + outOfOrder);
+
+        //2: In steps, with the heap in use in between.
+        heap = new PairingHeap<>(PairingStrategy.AUXILIARY);
+        reference.clear();
+        for(int i = 0; i < 200000; i++){
+            int key = rand.nextInt(1000000);
+            heap.insert(key, i);
+            reference.add(key);
+        }
+        mismatches = holdModel(heap, reference, rand, 1000000);
+        int steps = 1;
+        while(!heap.compact(1000)){
+            steps++;
+            //Some inserts that stay on the auxiliary list, and the hold model.
+            for(int i = 0; i < 10; i++){
+                int key = rand.nextInt(1000000);
+                heap.insert(key, i);
+                reference.add(key);
+            }
+            mismatches += holdModel(heap, reference, rand, 100);
+        }
+        System.out.println("Compaction in steps of 1,000: finished after " + steps + " steps (expect a bit over "
+                + heap.getSize()/1000 + "), passes " + heap.getCompactionCount() + " (expect 1), nodes not copied"
+                + " (expect 0): " + countOriginals(heap));
+        mismatches += drain(heap, reference);
+        System.out.println("Mismatches with steps (expect 0): " + mismatches);
+
+        //3: Auto compaction.
+        heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        heap.setAutoCompact(0.5);
+        reference.clear();
+        for(int i = 0; i < 200000; i++){
+            int key = rand.nextInt(1000000);
+            heap.insert(key, i);
+            reference.add(key);
+        }
+        mismatches = holdModel(heap, reference, rand, 2000000);
+        System.out.println("Auto compaction at 0.5, 2,000,000 hold operations on 200,000: " + heap.getCompactionCount()
+                + " passes (expect 19 or 20, one started every 100,000), fragmentation now "
+                + String.format("%.2f", heap.getFragmentation()));
+        mismatches += drain(heap, reference);
+        System.out.println("Mismatches with auto compaction (expect 0): " + mismatches);
+
+        //Twin heaps, churned the same way in turns (so the nodes of each are spread out among the other's), then
+        //one of them is compacted and both are emptied.
+        int entries = 1000000;
+        PairingHeap<Integer, Integer> churned = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        PairingHeap<Integer, Integer> compacted = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        rand = new Random(2027);
+        for(int i = 0; i < entries; i++){
+            int key = rand.nextInt(entries * 10);
+            churned.insert(key, i);
+            compacted.insert(key, i);
+        }
+        for(int i = 0; i < entries * 3; i++){
+            int increment = rand.nextInt(entries * 10);
+            Node<Integer, Integer> min = churned.deleteMin();
+            churned.insert(min.getValue() + increment, min.getPayload());
+            min = compacted.deleteMin();
+            compacted.insert(min.getValue() + increment, min.getPayload());
+        }
+        startTime = System.nanoTime();
+        compacted.compact();
+        time = System.nanoTime() - startTime;
+        long[] times = new long[2];
+        long[] checksums = new long[2];
+        for(int round = 0; round < 2; round++){
+            //Half of each heap per round, the first round warms up.
+            for(int which = 0; which < 2; which++){
+                PairingHeap<Integer, Integer> twin = which == 0 ? churned : compacted;
+                long checksum = 0;
+                startTime = System.nanoTime();
+                for(int i = 0; i < entries / 2; i++){
+                    checksum += twin.deleteMin().getValue();
+                }
+                times[which] = System.nanoTime() - startTime;
+                checksums[which] = checksum;
+            }
+        }
+        System.out.println("compact() of 1,000,000 nodes: " + time/1000000 + " (Milliseconds)");
+        System.out.println("deleteMin of the last 500,000 of 1,000,000 after 3,000,000 hold operations, churned: "
+                + times[0]/1000000 + " compacted: " + times[1]/1000000 + " (Milliseconds), sums "
+                + (checksums[0] == checksums[1] ? "the same" : "DIFFERENT") + " (expect the same)");
+    }
+
+    /**
+     * Counts the nodes of a heap that were not made by a compaction pass (those are instances of Node itself).
+     * @param heap The heap.
+     * @return The number of nodes that are plain Nodes.
+     */
+    private static int countOriginals(PairingHeap<Integer, Integer> heap){
+        int[] count = new int[1];
+        heap.spliterator().forEachRemaining(node -> {
+            if(node.getClass() == Node.class){
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Runs the hold model (deleteMin, then insert the minimum plus a random increment) on a heap and on the built in
+     * "PriorityQueue" side by side.
+     * @param heap The heap.
+     * @param reference The PQ holding the same keys.
+     * @param rand The random numbers.
+     * @param operations Number of deleteMin and insert pairs.
+     * @return The number of times the minimums were not the same.
+     */
+    private static int holdModel(PairingHeap<Integer, Integer> heap, PriorityQueue<Integer> reference, Random rand,
+                                 int operations){
+        int mismatches = 0;
+        for(int i = 0; i < operations; i++){
+            Node<Integer, Integer> min = heap.deleteMin();
+            int expected = reference.poll();
+            if(min.getValue() != expected){
+                mismatches++;
+            }
+            int key = min.getValue() + rand.nextInt(1000000);
+            heap.insert(key, min.getPayload());
+            reference.add(key);
+        }
+        return mismatches;
+    }
+
+    /**
+     * Empties a heap and the built in "PriorityQueue" holding the same keys side by side.
+     * @param heap The heap.
+     * @param reference The PQ holding the same keys.
+     * @return The number of times the minimums were not the same, or the sizes did not match.
+     */
+    private static int drain(PairingHeap<Integer, Integer> heap, PriorityQueue<Integer> reference){
+        int mismatches = heap.getSize() == reference.size() ? 0 : 1;
+        while(!reference.isEmpty()){
+            if(heap.getSize() == 0 || heap.deleteMin().getValue().intValue() != reference.poll()){
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * The batch drains (drainMin into an array or a consumer, and drainWhile) against the built in "PriorityQueue",
+     * with inserts in between so the drains see all kinds of trees:
+     *   1: IntPairingHeap, batches of 1 to 2,000 and thresholds a little above the minimum. Expect the same keys out,
+     *      in order.
+     *   2: PairingHeap with each PairingStrategy, and with metrics on (one deleteMin at a time then). Same.
+     *   3: A consumer that inserts into the heap and drains it again while it is being handed a batch. Expect
+     *      nothing lost.
+     *   4: Corner cases, expect 0 from each: k of 0, an empty heap, a threshold below the minimum, an array too small
+     *      (with a Sorry message).
+     * Then a heap of 1,000,000 (after the hold model for a while) emptied in batches, one deleteMin at a time vs.
+     * drainMin, per entry, for a few batch sizes. Expect about the same for small batches (drainMin does them one at a
+     * time too) and drainMin faster once a batch is a good part of the heap.
+     */
+    public static void drainTest(){
+        System.out.println();
+        System.out.println("******TEST 28: Batch drains! ");
+
+        //1: IntPairingHeap, the payload reference of every entry is its key.
+        Random rand = new Random(28);
+        IntPairingHeap intHeap = new IntPairingHeap();
+        PriorityQueue<Integer> reference = new PriorityQueue<>();
+        int[] out = new int[2000];
+        int[] mismatches = new int[1];
+        int drained = 0;
+        for(int round = 0; round < 2000; round++){
+            for(int i = rand.nextInt(2000); i > 0; i--){
+                int key = rand.nextInt(1000000);
+                intHeap.insert(key, key);
+                reference.add(key);
+            }
+            int kind = rand.nextInt(3);
+            if(kind == 0){
+                int count = intHeap.drainMin(1 + rand.nextInt(2000), out);
+                for(int i = 0; i < count; i++){
+                    if(out[i] != reference.poll()){
+                        mismatches[0]++;
+                    }
+                }
+                drained += count;
+            }
+            else if(kind == 1){
+                drained += intHeap.drainMin(1 + rand.nextInt(2000), key -> {
+                    if(key != reference.poll()){
+                        mismatches[0]++;
+                    }
+                });
+            }
+            else if(!reference.isEmpty()){
+                int threshold = reference.peek() + rand.nextInt(2000);
+                //Half of them with a limit too.
+                int max = rand.nextBoolean() ? Integer.MAX_VALUE : 1 + rand.nextInt(2000);
+                IntConsumer check = key -> {
+                    if(key != reference.poll() || key > threshold){
+                        mismatches[0]++;
+                    }
+                };
+                int count = (max == Integer.MAX_VALUE) ? intHeap.drainWhile(threshold, check)
+                        : intHeap.drainWhile(threshold, max, check);
+                if(count > max || (count < max && !reference.isEmpty() && reference.peek() <= threshold)){
+                    mismatches[0]++;
+                }
+                drained += count;
+            }
+            if(intHeap.getSize() != reference.size()){
+                mismatches[0]++;
+            }
+        }
+        System.out.println("IntPairingHeap: " + drained + " entries drained, mismatches (expect 0): " + mismatches[0]);
+
+        //2: PairingHeap, each strategy and metrics.
+        for(int variant = 0; variant < 4; variant++){
+            PairingHeap<Integer, Integer> heap = new PairingHeap<>(
+                    PairingStrategy.values()[variant % PairingStrategy.values().length]);
+            if(variant == 3){
+                heap.enableMetrics();
+            }
+            reference.clear();
+            mismatches[0] = 0;
+            drained = 0;
+            for(int round = 0; round < 2000; round++){
+                for(int i = rand.nextInt(2000); i > 0; i--){
+                    int key = rand.nextInt(1000000);
+                    heap.insert(key, key);
+                    reference.add(key);
+                }
+                Consumer<Node<Integer, Integer>> check = node -> {
+                    if(node.getValue().intValue() != reference.poll() || node.child != null
+                            || node.sibling != null || node.prev != null){
+                        mismatches[0]++;
+                    }
+                };
+                if(rand.nextBoolean()){
+                    drained += heap.drainMin(1 + rand.nextInt(2000), check);
+                }
+                else if(!reference.isEmpty()){
+                    int threshold = reference.peek() + rand.nextInt(2000);
+                    if(rand.nextBoolean()){
+                        drained += heap.drainWhile(threshold, check);
+                    }
+                    else{
+                        int max = 1 + rand.nextInt(2000);
+                        int count = heap.drainWhile(threshold, max, check);
+                        if(count > max || (count < max && !reference.isEmpty() && reference.peek() <= threshold)){
+                            mismatches[0]++;
+                        }
+                        drained += count;
+                    }
+                }
+                if(heap.getSize() != reference.size()){
+                    mismatches[0]++;
+                }
+            }
+            mismatches[0] += drain(heap, reference);
+            System.out.println(String.format("PairingHeap %-9s: %d nodes drained, mismatches (expect 0): %d",
+                    variant == 3 ? "+metrics" : heap.getStrategy(), drained, mismatches[0]));
+        }
+
+        //3: A consumer that uses the heap.
+        PairingHeap<Integer, Integer> heap = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        reference.clear();
+        for(int i = 0; i < 10000; i++){
+            int key = rand.nextInt(1000000);
+            heap.insert(key, i);
+            reference.add(key);
+        }
+        List<Integer> handed = new ArrayList<>();
+        int count = heap.drainMin(100, node -> {
+            handed.add(node.getValue());
+            //Put it back in a bit bigger, and take the smallest out again straight away.
+            heap.insert(node.getValue() + 1000000, 0);
+            heap.drainMin(1, inner -> handed.add(inner.getValue()));
+        });
+        for(int key: handed){
+            reference.remove(key);
+        }
+        mismatches[0] = (count == 100 && handed.size() == 200) ? 0 : 1;
+        for(int i = 0; i < 100; i++){
+            reference.add(handed.get(2 * i) + 1000000);
+        }
+        mismatches[0] += drain(heap, reference);
+        System.out.println("Consumer inserting and draining during a drain, mismatches (expect 0): " + mismatches[0]);
+
+        //4: Corner cases.
+        IntPairingHeap small = new IntPairingHeap();
+        int corner = small.drainMin(10, out) + small.drainWhile(Integer.MAX_VALUE, key -> {});
+        small.insert(5, 5);
+        corner += small.drainMin(0, out) + small.drainWhile(4, key -> {}) + small.drainMin(10, new int[5]);
+        System.out.println("Corner cases, total drained (expect 0, after one Sorry message): " + corner
+                + ", still there (expect 1): " + small.getSize());
+
+        //Emptying a heap in batches, per entry.
+        int entries = 1000000;
+        for(int batch: new int[]{16, 4096, 125000, 1000000}){
+            long[] times = new long[2];
+            long[] checksums = new long[2];
+            for(int round = 0; round < 2; round++){
+                //The first round warms up.
+                for(int way = 0; way < 2; way++){
+                    IntPairingHeap emptied = new IntPairingHeap(entries);
+                    rand = new Random(2028);
+                    for(int i = 0; i < entries; i++){
+                        int key = rand.nextInt(entries);
+                        emptied.insert(key, key);
+                    }
+                    //The hold model for a while, so the tree is not the one the inserts made.
+                    for(int i = 0; i < entries; i++){
+                        int key = emptied.deleteMin() + rand.nextInt(entries);
+                        emptied.insert(key, key);
+                    }
+                    int[] batchOut = new int[batch];
+                    long checksum = 0;
+                    long startTime = System.nanoTime();
+                    while(emptied.getSize() > 0){
+                        int taken;
+                        if(way == 0){
+                            for(taken = 0; taken < batch && emptied.getSize() > 0; taken++){
+                                batchOut[taken] = emptied.deleteMin();
+                            }
+                        }
+                        else{
+                            taken = emptied.drainMin(batch, batchOut);
+                        }
+                        //Order matters too.
+                        for(int i = 0; i < taken; i++){
+                            checksum = checksum * 31 + batchOut[i];
+                        }
+                    }
+                    times[way] = System.nanoTime() - startTime;
+                    checksums[way] = checksum;
+                }
+            }
+            System.out.println(String.format("Emptying 1,000,000 in batches of %7d, per entry: deleteMin %4d,"
+                    + " drainMin %4d (Nanoseconds), same order out (expect true): %b", batch, times[0] / entries,
+                    times[1] / entries, checksums[0] == checksums[1]));
+        }
+    }
+
+    /**
+     * The ReorderBuffer, driven by hand (no threads): an upstream that sends no more than it was asked for and a
+     * downstream that asks for 100 events at a time from inside onNext, checking:
+     *   1: 200,000 events up to 1,000 behind the newest, plus 100 that are late on purpose. Expect them out in event
+     *      time order, the 100 late ones dropped, never more out than asked for, never more asked of upstream than
+     *      the capacity, and everything out after onComplete.
+     *   2: The watermark only moved from the outside. Expect nothing out before advanceWatermark, then every event up
+     *      to it at once.
+     *   3: A full buffer with nothing due: BLOCK asks upstream for nothing more, RELEASE_EARLY lets the oldest go.
+     *   4: Misuse: request(0), a second subscriber, and cancel (which cancels upstream).
+     * Then 1,000,000 events through with no limit on demand, timed (ReorderHarness does it with threads at a set
+     * rate, with latencies).
+     */
+    public static void reorderBufferTest(){
+        System.out.println();
+        System.out.println("******TEST 29: ReorderBuffer! ");
+
+        //1: Bounded disorder, the watermark following the events.
+        Random rand = new Random(29);
+        ReorderBuffer<long[]> buffer = new ReorderBuffer<>(event -> event[0], 1000, 1 << 14,
+                ReorderBuffer.Overflow.BLOCK);
+        long[] upstream = new long[2];
+        List<long[]> out = new ArrayList<>();
+        int[] problems = new int[1];
+        boolean[] completed = new boolean[1];
+        buffer.subscribe(collector(out, 100, problems, completed));
+        buffer.onSubscribe(upstreamOf(upstream));
+        int sent = 0;
+        int mostBuffered = 0;
+        for(int i = 0; i < 200000; i++){
+            if(upstream[0] <= sent){
+                problems[0]++;
+            }
+            buffer.onNext(new long[]{i - rand.nextInt(1001), i});
+            sent++;
+            if(i % 2000 == 1999){
+                //One late on purpose.
+                buffer.onNext(new long[]{buffer.getWatermark() - rand.nextInt(100), -1});
+                sent++;
+            }
+            mostBuffered = Math.max(mostBuffered, buffer.getSize());
+        }
+        int beforeComplete = out.size();
+        buffer.onComplete();
+        System.out.println("Bounded disorder: " + out.size() + " out (expect 200000, " + beforeComplete + " before"
+                + " onComplete), late " + buffer.getLateEvents() + " (expect 100), completed (expect true): "
+                + completed[0] + ", out of order or over demand (expect 0): " + (problems[0] + countUnordered(out))
+                + ", most buffered " + mostBuffered + " (capacity 16384), asked of upstream " + upstream[0]);
+
+        //2: The watermark moved from the outside only.
+        buffer = new ReorderBuffer<>(event -> event[0], Long.MAX_VALUE, 1 << 14, ReorderBuffer.Overflow.BLOCK);
+        out.clear();
+        problems[0] = 0;
+        buffer.subscribe(collector(out, 100, problems, completed));
+        buffer.onSubscribe(upstreamOf(upstream));
+        int dueCount = 0;
+        for(int i = 0; i < 10000; i++){
+            long time = rand.nextInt(10000);
+            if(time <= 5000){
+                dueCount++;
+            }
+            buffer.onNext(new long[]{time, i});
+        }
+        int beforeWatermark = out.size();
+        buffer.advanceWatermark(5000);
+        System.out.println("Watermark from the outside: " + beforeWatermark + " out before it (expect 0), " + out.size()
+                + " after (expect " + dueCount + "), out of order or over demand (expect 0): "
+                + (problems[0] + countUnordered(out)));
+
+        //3: A full buffer with nothing due.
+        for(ReorderBuffer.Overflow overflow: ReorderBuffer.Overflow.values()){
+            buffer = new ReorderBuffer<>(event -> event[0], Long.MAX_VALUE, 1000, overflow);
+            out.clear();
+            problems[0] = 0;
+            upstream[0] = 0;
+            buffer.subscribe(collector(out, 100, problems, completed));
+            buffer.onSubscribe(upstreamOf(upstream));
+            sent = 0;
+            //Sends whatever upstream was asked for, until that stops.
+            while(sent < upstream[0] && sent < 10000){
+                buffer.onNext(new long[]{rand.nextInt(1000000), sent});
+                sent++;
+            }
+            System.out.println(String.format("Full buffer, %-13s: sent %5d (expect 1000 for BLOCK, 10000 for"
+                    + " RELEASE_EARLY), out %4d, early %4d, late %4d, buffered %4d (adds up to sent: %b), out of"
+                    + " order or over demand (expect 0): %d", overflow, sent, out.size(), buffer.getEarlyEvents(),
+                    buffer.getLateEvents(), buffer.getSize(),
+                    out.size() + buffer.getLateEvents() + buffer.getSize() == sent, problems[0] + countUnordered(out)));
+        }
+
+        //4: Misuse.
+        buffer = new ReorderBuffer<>(event -> event[0], 10, 100, ReorderBuffer.Overflow.BLOCK);
+        Throwable[] errors = new Throwable[2];
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        buffer.subscribe(new Flow.Subscriber<long[]>(){
+            public void onSubscribe(Flow.Subscription given){
+                subscription[0] = given;
+            }
+
+            public void onNext(long[] event){
+            }
+
+            public void onError(Throwable throwable){
+                errors[0] = throwable;
+            }
+
+            public void onComplete(){
+            }
+        });
+        buffer.subscribe(new Flow.Subscriber<long[]>(){
+            public void onSubscribe(Flow.Subscription given){
+            }
+
+            public void onNext(long[] event){
+            }
+
+            public void onError(Throwable throwable){
+                errors[1] = throwable;
+            }
+
+            public void onComplete(){
+            }
+        });
+        upstream[1] = 0;
+        buffer.onSubscribe(upstreamOf(upstream));
+        subscription[0].request(0);
+        System.out.println("request(0) gets " + errors[0] + ", upstream cancelled (expect 1): " + upstream[1]);
+        System.out.println("A second subscriber gets " + errors[1]);
+        buffer = new ReorderBuffer<>(event -> event[0], 10, 100, ReorderBuffer.Overflow.BLOCK);
+        buffer.subscribe(new Flow.Subscriber<long[]>(){
+            public void onSubscribe(Flow.Subscription given){
+                subscription[0] = given;
+            }
+
+            public void onNext(long[] event){
+            }
+
+            public void onError(Throwable throwable){
+            }
+
+            public void onComplete(){
+            }
+        });
+        upstream[1] = 0;
+        buffer.onSubscribe(upstreamOf(upstream));
+        buffer.onNext(new long[]{1, 0});
+        subscription[0].cancel();
+        System.out.println("cancel, upstream cancelled (expect 1): " + upstream[1] + ", buffered (expect 0): "
+                + buffer.getSize());
+
+        //Timed, 1,000,000 events up to 1,000 behind the newest.
+        for(int round = 0; round < 2; round++){
+            buffer = new ReorderBuffer<>(event -> event[0], 1000, 1 << 16, ReorderBuffer.Overflow.BLOCK);
+            long[] count = new long[1];
+            buffer.subscribe(new Flow.Subscriber<long[]>(){
+                public void onSubscribe(Flow.Subscription given){
+                    given.request(Long.MAX_VALUE);
+                }
+
+                public void onNext(long[] event){
+                    count[0]++;
+                }
+
+                public void onError(Throwable throwable){
+                }
+
+                public void onComplete(){
+                }
+            });
+            buffer.onSubscribe(upstreamOf(upstream));
+            long[][] events = new long[1000000][];
+            for(int i = 0; i < events.length; i++){
+                events[i] = new long[]{i - rand.nextInt(1001), i};
+            }
+            long startTime = System.nanoTime();
+            for(long[] event: events){
+                buffer.onNext(event);
+            }
+            buffer.onComplete();
+            long time = System.nanoTime() - startTime;
+            if(round == 1){
+                System.out.println("1,000,000 events through (one thread): " + time/1000000 + " (Milliseconds), "
+                        + (long) (events.length * 1e9 / time) + " events/s, all out (expect true): "
+                        + (count[0] == events.length));
+            }
+        }
+    }
+
+    /**
+     * A subscriber for TEST 29 that keeps what it gets and asks for more, chunk events at a time, from inside onNext
+     * once it has had the last chunk.
+     * @param out Gets the events.
+     * @param chunk How many to ask for at a time.
+     * @param problems Counts the events that came in without having been asked for.
+     * @param completed Set to true by onComplete.
+     * @return The subscriber.
+     */
+    private static Flow.Subscriber<long[]> collector(List<long[]> out, int chunk, int[] problems, boolean[] completed){
+        completed[0] = false;
+        return new Flow.Subscriber<long[]>(){
+            private Flow.Subscription subscription;
+            private long asked;
+
+            public void onSubscribe(Flow.Subscription given){
+                subscription = given;
+                asked = chunk;
+                subscription.request(chunk);
+            }
+
+            public void onNext(long[] event){
+                out.add(event);
+                if(--asked < 0){
+                    problems[0]++;
+                }
+                if(asked == 0){
+                    asked = chunk;
+                    subscription.request(chunk);
+                }
+            }
+
+            public void onError(Throwable throwable){
+                problems[0]++;
+            }
+
+            public void onComplete(){
+                completed[0] = true;
+            }
+        };
+    }
+
+    /**
+     * An upstream subscription for TEST 29 that only counts: state[0] gets the number of events asked for in all,
+     * state[1] the number of times it was cancelled.
+     */
+    private static Flow.Subscription upstreamOf(long[] state){
+        state[0] = 0;
+        return new Flow.Subscription(){
+            public void request(long n){
+                state[0] += n;
+            }
+
+            public void cancel(){
+                state[1]++;
+            }
+        };
+    }
+
+    /**
+     * Counts the events of TEST 29 that came out before one with a later event time.
+     * @param out The events, in the order they came out.
+     * @return The number of times the event time went down.
+     */
+    private static int countUnordered(List<long[]> out){
+        int unordered = 0;
+        for(int i = 1; i < out.size(); i++){
+            if(out.get(i)[0] < out.get(i - 1)[0]){
+                unordered++;
+            }
+        }
+        return unordered;
+    }
+
+    /**
+     * Splits a Spliterator (and the pieces it splits into) up to the given number of times, counting the pieces
+     * that end up with something in them.
+     * @param spliterator The Spliterator to split.
+     * @param depth How many more times to split.
+     * @return The number of pieces that are not empty.
+     */
+    private static int countPieces(Spliterator<?> spliterator, int depth){
+        Spliterator<?> other = depth > 0 ? spliterator.trySplit() : null;
+        if(other == null){
+            return spliterator.tryAdvance(node -> {}) ? 1 : 0;
+        }
+        return countPieces(spliterator, depth - 1) + countPieces(other, depth - 1);
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far, if the JVM can tell.
+     * @return Bytes allocated, or -1 if it is not supported.
+     */
+    private static long allocatedBytes(){
+        java.lang.management.ThreadMXBean threads = java.lang.management.ManagementFactory.getThreadMXBean();
+        if(threads instanceof com.sun.management.ThreadMXBean){
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the entries of TEST 12 that were inserted but did not come out exactly once, or came out without being
+     * inserted. In the mixed phase some entry numbers are never inserted (that turn was a delete instead), these are
+     * told apart by making the same random choices as the threads did.
+     * @param seen How many times each entry number came out.
+     * @param mixed True for the mixed phase, false if every entry number was inserted.
+     * @return The number of entries that came out the wrong number of times.
+     */
+    private static int countInsertMistakes(int[] seen, boolean mixed){
+        int mistakes = 0;
+        for(int t = 0; t < CONCURRENT_THREADS; t++){
+            Random rand = new Random(t);
+            for(int i = 0; i < CONCURRENT_OPERATIONS; i++){
+                boolean inserted = !mixed || rand.nextInt(3) < 2;
+                if(mixed && inserted){
+                    rand.nextInt(1 << 20);
+                }
+                if(seen[t * CONCURRENT_OPERATIONS + i] != (inserted ? 1 : 0)){
+                    mistakes++;
+                }
+            }
+        }
+        return mistakes;
+    }
+
+    /**
+     * Starts the threads and waits for all of them to finish.
+     * @param threads The threads to be run.
+     */
+    private static void runThreads(Thread[] threads){
+        for(Thread thread: threads){
+            thread.start();
+        }
+        for(Thread thread: threads){
+            try{
+                thread.join();
+            }
+            catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    //Number of entries the script of TEST 11 makes, the entry number fits in the low 18 bits of the key.
+    private static final int SCRIPT_LENGTH = 200000;
+    private static final int ID_BITS = 18;
+
+    /**
+     * Runs the random script of TEST 11 against one variant of the heap.
+     * @param heap The variant of the heap, wrapped up as a HeapUnderTest.
+     * @param seed Seed for the script, the same seed gives the same script.
+     * @return The number of times the variant disagreed with the TreeSet.
+     */
+    private static int runScript(HeapUnderTest heap, long seed){
+        Random rand = new Random(seed);
+        TreeSet<Integer> expected = new TreeSet<>();
+        int[] keys = new int[SCRIPT_LENGTH];
+
+        //The entries in the heap, kept in an array so one can be picked at random. position[id] is where it is.
+        int[] live = new int[SCRIPT_LENGTH];
+        int[] position = new int[SCRIPT_LENGTH];
+        int liveCount = 0;
+
+        int mismatches = 0;
+        int nextId = 0;
+        while(nextId < SCRIPT_LENGTH || liveCount > 0){
+            int operation = rand.nextInt(10);
+
+            if(operation < 4 && nextId < SCRIPT_LENGTH){
+                int id = nextId++;
+                keys[id] = (rand.nextInt(4096) << ID_BITS) | id;
+                heap.insert(id, keys[id]);
+                expected.add(keys[id]);
+                live[liveCount] = id;
+                position[id] = liveCount++;
+            }
+            else if(operation < 7 && liveCount > 0){
+                int id = live[rand.nextInt(liveCount)];
+                int high = keys[id] >>> ID_BITS;
+                expected.remove(keys[id]);
+                if(operation == 4){
+                    keys[id] = (Math.max(0, high - rand.nextInt(64)) << ID_BITS) | id;
+                    heap.decreaseKey(id, keys[id]);
+                    expected.add(keys[id]);
+                }
+                else if(operation == 5){
+                    keys[id] = (Math.min(4095, high + rand.nextInt(64)) << ID_BITS) | id;
+                    heap.increaseKey(id, keys[id]);
+                    expected.add(keys[id]);
+                }
+                else{
+                    heap.delete(id);
+                    live[position[id]] = live[--liveCount];
+                    position[live[position[id]]] = position[id];
+                }
+            }
+            else if(liveCount > 0){
+                if(heap.findMinKey() != expected.first()){
+                    mismatches++;
+                }
+                int id = heap.deleteMin();
+                if(keys[id] != expected.pollFirst()){
+                    mismatches++;
+                }
+                live[position[id]] = live[--liveCount];
+                position[live[position[id]]] = position[id];
+            }
+
+            if(heap.getSize() != liveCount){
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * The operations of TEST 26, on an AdaptivePriorityQueue and a PairingHeap side by side. Entries are numbered by
+     * the script (the id), the id is the low bits of the key so no two keys are the same, and each side keeps its own
+     * node for every entry.
+     */
+    private static final class AdaptiveScript {
+        static final int ID_BITS = 22;
+
+        AdaptivePriorityQueue<Long, Integer> adaptive = new AdaptivePriorityQueue<>();
+        PairingHeap<Long, Integer> reference = new PairingHeap<>(PairingStrategy.TWO_PASS);
+        @SuppressWarnings("unchecked")
+        Node<Long, Integer>[] adaptiveNodes = (Node<Long, Integer>[]) new Node[1 << ID_BITS];
+        @SuppressWarnings("unchecked")
+        Node<Long, Integer>[] referenceNodes = (Node<Long, Integer>[]) new Node[1 << ID_BITS];
+
+        //The ids in the queues, and where each one is in that list.
+        int[] live = new int[1 << ID_BITS];
+        int[] position = new int[1 << ID_BITS];
+        int liveCount;
+        int nextId;
+
+        //The high bits of the key of the last minimum taken out.
+        long lastMin;
+        int mismatches;
+
+        void insert(long high){
+            int id = nextId++;
+            long key = (high << ID_BITS) | id;
+            adaptiveNodes[id] = adaptive.insert(key, id);
+            referenceNodes[id] = reference.insert(key, id);
+            addLive(id);
+        }
+
+        void deleteMin(){
+            Node<Long, Integer> min = reference.deleteMin();
+            if(!adaptive.deleteMin().getPayload().equals(min.getPayload())){
+                mismatches++;
+            }
+            lastMin = min.getValue() >> ID_BITS;
+            removeLive(min.getPayload());
+        }
+
+        void decreaseKey(int id, long high){
+            long key = (high << ID_BITS) | id;
+            adaptive.decreaseKey(adaptiveNodes[id], key);
+            reference.decreaseKey(referenceNodes[id], key);
+        }
+
+        void delete(int id){
+            if(adaptive.delete(adaptiveNodes[id]) != adaptiveNodes[id]){
+                mismatches++;
+            }
+            reference.delete(referenceNodes[id]);
+            removeLive(id);
+        }
+
+        /**
+         * Melds a new queue of count entries (keys above the last minimum) into both sides.
+         */
+        void meldNew(Random rand, int count){
+            AdaptivePriorityQueue<Long, Integer> otherAdaptive = new AdaptivePriorityQueue<>();
+            PairingHeap<Long, Integer> otherReference = new PairingHeap<>(PairingStrategy.TWO_PASS);
+            for(int i = 0; i < count; i++){
+                int id = nextId++;
+                long key = ((lastMin + 1 + rand.nextInt(100000)) << ID_BITS) | id;
+                adaptiveNodes[id] = otherAdaptive.insert(key, id);
+                referenceNodes[id] = otherReference.insert(key, id);
+                addLive(id);
+            }
+            adaptive.meld(otherAdaptive);
+            reference.mergeHeaps(otherReference);
+        }
+
+        long getHigh(int id){
+            return referenceNodes[id].getValue() >> ID_BITS;
+        }
+
+        int randomLive(Random rand){
+            return live[rand.nextInt(liveCount)];
+        }
+
+        private void addLive(int id){
+            live[liveCount] = id;
+            position[id] = liveCount++;
+        }
+
+        private void removeLive(int id){
+            int last = live[--liveCount];
+            live[position[id]] = last;
+            position[last] = position[id];
+        }
+    }
+
+    /**
+     * An event of a simulation for TEST 19, used as the key of its heap entry. Its time is moved forward in place when
+     * it is put back in the heap, so the hold model does not box a new key every time.
+     */
+    private static final class SimulationEvent {
+        long time;
+
+        SimulationEvent(long time){
+            this.time = time;
+        }
+    }
+
+    /**
+     * The operations used by TEST 11, so the same script can be run against every variant of the heap.
+     * Entries are numbered by the script (the id), each variant keeps its own handles for them.
+     */
+    private static abstract class HeapUnderTest {
+        String name;
+
+        HeapUnderTest(String name){
+            this.name = name;
+        }
+
+        abstract void insert(int id, int key);
+        abstract void decreaseKey(int id, int key);
+        abstract void increaseKey(int id, int key);
+        abstract void delete(int id);
+        abstract long findMinKey();
+        abstract int deleteMin();
+        abstract int getSize();
+    }
+
+    /**
+     * Evokes the method to delete the minimum value from the heap until the size of the heap is 0.
+     * This will also display the results of each minimum value that was in the heap as it proceeds.
+     * In essence, this shows the contents of the heap from top to bottom.
+     *
+     * NOTE: The data within the heap will be removed! Intentional! This is meant to demonstrate the correctness
+     *    of the heap!
+     *
+     * @param pairingHeap Takes in a PairingHeap that it will display the contents of.
+     **/
+    public static void displayHeap(PairingHeap<Integer, String> pairingHeap){
+        //Until the pairing heap is empty, continue printing!
+        while (pairingHeap.getSize() > 0){
+            Node<Integer, String> delMinNode = pairingHeap.deleteMin();
+            System.out.println(delMinNode.getPayload());
+        }
+    }
+}
+